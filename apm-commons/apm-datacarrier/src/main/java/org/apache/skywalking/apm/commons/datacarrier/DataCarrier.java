@@ -19,9 +19,15 @@
 package org.apache.skywalking.apm.commons.datacarrier;
 
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferType;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.WaitStrategy;
+import org.apache.skywalking.apm.commons.datacarrier.callback.QueueMonitor;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.BulkConsumePool;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.ConsumerPool;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.IBatchConsumer;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.IDriver;
 import org.apache.skywalking.apm.commons.datacarrier.partition.IDataPartitioner;
 import org.apache.skywalking.apm.commons.datacarrier.partition.SimpleRollingPartitioner;
 
@@ -32,7 +38,7 @@ public class DataCarrier<T> {
     private final int bufferSize;
     private final int channelSize;
     private Channels<T> channels;
-    private ConsumerPool<T> consumerPool;
+    private IDriver consumerPool;
     private String name;
 
     public DataCarrier(int channelSize, int bufferSize) {
@@ -40,10 +46,18 @@ public class DataCarrier<T> {
     }
 
     public DataCarrier(String name, int channelSize, int bufferSize) {
+        this(name, channelSize, bufferSize, BufferType.ARRAY);
+    }
+
+    /**
+     * @param bufferType the implementation of channels. {@link BufferType#RING} channel is consumed by one consumer
+     * thread only, so the consumer threads more than channelSize keep idle.
+     */
+    public DataCarrier(String name, int channelSize, int bufferSize, BufferType bufferType) {
         this.name = name;
         this.bufferSize = bufferSize;
         this.channelSize = channelSize;
-        channels = new Channels<T>(channelSize, bufferSize, new SimpleRollingPartitioner<T>(), BufferStrategy.BLOCKING);
+        channels = new Channels<T>(channelSize, bufferSize, new SimpleRollingPartitioner<T>(), BufferStrategy.BLOCKING, bufferType);
     }
 
     /**
@@ -67,6 +81,33 @@ public class DataCarrier<T> {
         return this;
     }
 
+    /**
+     * override the wait strategy of the producers and consumers. Only works for {@link BufferType#RING}.
+     *
+     * @param waitStrategy
+     */
+    public DataCarrier setWaitStrategy(WaitStrategy waitStrategy) {
+        this.channels.setWaitStrategy(waitStrategy);
+        return this;
+    }
+
+    /**
+     * set the monitor of the producers, which is notified when producers wait for the consumers, or data is rejected.
+     *
+     * @param monitor
+     */
+    public DataCarrier setMonitor(QueueMonitor monitor) {
+        this.channels.setMonitor(monitor);
+        return this;
+    }
+
+    /**
+     * @return the number of data produced and not consumed yet, a sample for monitoring.
+     */
+    public long getDepth() {
+        return this.channels.getDepth();
+    }
+
     public BlockingDataCarrier<T> toBlockingDataCarrier() {
         this.channels.setStrategy(BufferStrategy.BLOCKING);
         return new BlockingDataCarrier<T>(this.channels);
@@ -80,7 +121,7 @@ public class DataCarrier<T> {
      */
     public boolean produce(T data) {
         if (consumerPool != null) {
-            if (!consumerPool.isRunning()) {
+            if (!consumerPool.isRunning(channels)) {
                 return false;
             }
         }
@@ -96,10 +137,10 @@ public class DataCarrier<T> {
      */
     public DataCarrier consume(Class<? extends IConsumer<T>> consumerClass, int num, long consumeCycle) {
         if (consumerPool != null) {
-            consumerPool.close();
+            consumerPool.close(channels);
         }
         consumerPool = new ConsumerPool<T>(this.name, this.channels, consumerClass, num, consumeCycle);
-        consumerPool.begin();
+        consumerPool.begin(channels);
         return this;
     }
 
@@ -123,10 +164,10 @@ public class DataCarrier<T> {
      */
     public DataCarrier consume(IConsumer<T> consumer, int num, long consumeCycle) {
         if (consumerPool != null) {
-            consumerPool.close();
+            consumerPool.close(channels);
         }
         consumerPool = new ConsumerPool<T>(this.name, this.channels, consumer, num, consumeCycle);
-        consumerPool.begin();
+        consumerPool.begin(channels);
         return this;
     }
 
@@ -142,14 +183,81 @@ public class DataCarrier<T> {
         return this.consume(consumer, num, 20);
     }
 
+    /**
+     * set consumers to this Carrier. consumer begin to run when {@link DataCarrier#produce} begin to work. The data are
+     * drained into a reusable {@link org.apache.skywalking.apm.commons.datacarrier.consumer.DataBatch}, no list is
+     * created for each consume.
+     *
+     * @param consumer single instance of consumer, all consumer threads will all use this instance.
+     * @param num number of consumer threads
+     * @return
+     */
+    public DataCarrier consume(IBatchConsumer<T> consumer, int num, long consumeCycle) {
+        if (consumerPool != null) {
+            consumerPool.close(channels);
+        }
+        consumerPool = new ConsumerPool<T>(this.name, this.channels, consumer, num, consumeCycle);
+        consumerPool.begin(channels);
+        return this;
+    }
+
+    /**
+     * set consumers to this Carrier. consumer begin to run when {@link DataCarrier#produce} begin to work with 20
+     * millis consume cycle.
+     *
+     * @param consumer single instance of consumer, all consumer threads will all use this instance.
+     * @param num number of consumer threads
+     * @return
+     */
+    public DataCarrier consume(IBatchConsumer<T> consumer, int num) {
+        return this.consume(consumer, num, 20);
+    }
+
+    /**
+     * set the consumer of this Carrier, driven by the shared threads of the given pool. consumer begins to run when
+     * {@link DataCarrier#produce} begins to work.
+     *
+     * @param consumePool shared by many carriers
+     * @param consumer single instance of consumer
+     * @return
+     */
+    public DataCarrier consume(BulkConsumePool consumePool, IBatchConsumer<T> consumer) {
+        if (consumerPool != null) {
+            consumerPool.close(channels);
+        }
+        consumePool.add(this.name, this.channels, consumer);
+        consumerPool = consumePool;
+        consumePool.begin(channels);
+        return this;
+    }
+
+    /**
+     * set the consumer of this Carrier, driven by the shared threads of the given pool. consumer begins to run when
+     * {@link DataCarrier#produce} begins to work.
+     *
+     * @param consumePool shared by many carriers
+     * @param consumer single instance of consumer
+     * @return
+     */
+    public DataCarrier consume(BulkConsumePool consumePool, IConsumer<T> consumer) {
+        if (consumerPool != null) {
+            consumerPool.close(channels);
+        }
+        consumePool.add(this.name, this.channels, consumer);
+        consumerPool = consumePool;
+        consumePool.begin(channels);
+        return this;
+    }
+
     /**
      * shutdown all consumer threads, if consumer threads are running. Notice {@link BufferStrategy}: if {@link
      * BufferStrategy} == {@link BufferStrategy#BLOCKING}, shutdown consumers maybe cause blocking when producing.
-     * Better way to change consumers are use {@link DataCarrier#consume}
+     * Better way to change consumers are use {@link DataCarrier#consume}. For {@link BulkConsumePool}, only the
+     * consuming of this carrier stops, the shared threads keep running.
      */
     public void shutdownConsumers() {
         if (consumerPool != null) {
-            consumerPool.close();
+            consumerPool.close(channels);
         }
     }
 }
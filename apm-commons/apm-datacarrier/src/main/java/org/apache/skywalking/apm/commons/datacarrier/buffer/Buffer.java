@@ -21,16 +21,19 @@ package org.apache.skywalking.apm.commons.datacarrier.buffer;
 import java.util.LinkedList;
 import java.util.List;
 import org.apache.skywalking.apm.commons.datacarrier.callback.QueueBlockingCallback;
+import org.apache.skywalking.apm.commons.datacarrier.callback.QueueMonitor;
 import org.apache.skywalking.apm.commons.datacarrier.common.AtomicRangeInteger;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.DataBatch;
 
 /**
  * Created by wusheng on 2016/10/25.
  */
-public class Buffer<T> {
+public class Buffer<T> implements QueueBuffer<T> {
     private final Object[] buffer;
     private BufferStrategy strategy;
     private AtomicRangeInteger index;
     private List<QueueBlockingCallback<T>> callbacks;
+    private QueueMonitor monitor;
 
     Buffer(int bufferSize, BufferStrategy strategy) {
         buffer = new Object[bufferSize];
@@ -39,19 +42,37 @@ public class Buffer<T> {
         callbacks = new LinkedList<QueueBlockingCallback<T>>();
     }
 
-    void setStrategy(BufferStrategy strategy) {
+    @Override
+    public void setStrategy(BufferStrategy strategy) {
         this.strategy = strategy;
     }
 
-    void addCallback(QueueBlockingCallback<T> callback) {
+    /**
+     * Always sleep 1 millisecond when blocking, keep the behavior as it was.
+     *
+     * @param waitStrategy
+     */
+    @Override
+    public void setWaitStrategy(WaitStrategy waitStrategy) {
+    }
+
+    @Override
+    public void addCallback(QueueBlockingCallback<T> callback) {
         callbacks.add(callback);
     }
 
-    boolean save(T data) {
+    @Override
+    public void setMonitor(QueueMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    @Override
+    public boolean save(T data) {
         int i = index.getAndIncrement();
         if (buffer[i] != null) {
             switch (strategy) {
                 case BLOCKING:
+                    long startNanos = System.nanoTime();
                     boolean isFirstTimeBlocking = true;
                     while (buffer[i] != null) {
                         if (isFirstTimeBlocking) {
@@ -65,21 +86,51 @@ public class Buffer<T> {
                         } catch (InterruptedException e) {
                         }
                     }
+                    notifyWait(startNanos);
                     break;
                 case IF_POSSIBLE:
                     return false;
                 case OVERRIDE:
                 default:
+                    if (monitor != null) {
+                        monitor.onReject();
+                    }
             }
         }
         buffer[i] = data;
         return true;
     }
 
+    private void notifyWait(long startNanos) {
+        if (monitor != null) {
+            monitor.onWait(System.nanoTime() - startNanos);
+        }
+    }
+
+    @Override
     public int getBufferSize() {
         return buffer.length;
     }
 
+    /**
+     * @return the occupied slots.
+     */
+    @Override
+    public int getDepth() {
+        int depth = 0;
+        for (Object data : buffer) {
+            if (data != null) {
+                depth++;
+            }
+        }
+        return depth;
+    }
+
+    @Override
+    public LinkedList<T> obtain() {
+        return obtain(0, buffer.length);
+    }
+
     public LinkedList<T> obtain(int start, int end) {
         LinkedList<T> result = new LinkedList<T>();
         for (int i = start; i < end; i++) {
@@ -91,4 +142,17 @@ public class Buffer<T> {
         return result;
     }
 
+    @Override
+    public void drainTo(DataBatch<T> batch) {
+        drainTo(batch, 0, buffer.length);
+    }
+
+    public void drainTo(DataBatch<T> batch, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (buffer[i] != null) {
+                batch.add((T)buffer[i]);
+                buffer[i] = null;
+            }
+        }
+    }
 }
@@ -19,6 +19,7 @@
 package org.apache.skywalking.apm.commons.datacarrier.buffer;
 
 import org.apache.skywalking.apm.commons.datacarrier.callback.QueueBlockingCallback;
+import org.apache.skywalking.apm.commons.datacarrier.callback.QueueMonitor;
 import org.apache.skywalking.apm.commons.datacarrier.partition.IDataPartitioner;
 
 /**
@@ -26,16 +27,26 @@ import org.apache.skywalking.apm.commons.datacarrier.partition.IDataPartitioner;
  * is full. The Default is BLOCKING <p> Created by wusheng on 2016/10/25.
  */
 public class Channels<T> {
-    private final Buffer<T>[] bufferChannels;
+    private final QueueBuffer<T>[] bufferChannels;
     private IDataPartitioner<T> dataPartitioner;
     private BufferStrategy strategy;
+    private volatile QueueMonitor monitor;
 
     public Channels(int channelSize, int bufferSize, IDataPartitioner<T> partitioner, BufferStrategy strategy) {
+        this(channelSize, bufferSize, partitioner, strategy, BufferType.ARRAY);
+    }
+
+    public Channels(int channelSize, int bufferSize, IDataPartitioner<T> partitioner, BufferStrategy strategy,
+        BufferType bufferType) {
         this.dataPartitioner = partitioner;
         this.strategy = strategy;
-        bufferChannels = new Buffer[channelSize];
+        bufferChannels = new QueueBuffer[channelSize];
         for (int i = 0; i < channelSize; i++) {
-            bufferChannels[i] = new Buffer<T>(bufferSize, strategy);
+            if (BufferType.RING.equals(bufferType)) {
+                bufferChannels[i] = new RingBuffer<T>(bufferSize, strategy);
+            } else {
+                bufferChannels[i] = new Buffer<T>(bufferSize, strategy);
+            }
         }
     }
 
@@ -53,6 +64,10 @@ public class Channels<T> {
                 return true;
             }
         }
+        QueueMonitor monitor = this.monitor;
+        if (monitor != null) {
+            monitor.onReject();
+        }
         return false;
     }
 
@@ -67,11 +82,34 @@ public class Channels<T> {
      * @param strategy
      */
     public void setStrategy(BufferStrategy strategy) {
-        for (Buffer<T> buffer : bufferChannels) {
+        for (QueueBuffer<T> buffer : bufferChannels) {
             buffer.setStrategy(strategy);
         }
     }
 
+    /**
+     * override the wait strategy of all channels. Only works for {@link BufferType#RING}.
+     *
+     * @param waitStrategy
+     */
+    public void setWaitStrategy(WaitStrategy waitStrategy) {
+        for (QueueBuffer<T> buffer : bufferChannels) {
+            buffer.setWaitStrategy(waitStrategy);
+        }
+    }
+
+    /**
+     * set the monitor of all channels.
+     *
+     * @param monitor
+     */
+    public void setMonitor(QueueMonitor monitor) {
+        this.monitor = monitor;
+        for (QueueBuffer<T> buffer : bufferChannels) {
+            buffer.setMonitor(monitor);
+        }
+    }
+
     /**
      * get channelSize
      *
@@ -81,12 +119,23 @@ public class Channels<T> {
         return this.bufferChannels.length;
     }
 
-    public Buffer<T> getBuffer(int index) {
+    /**
+     * @return the number of data not consumed yet in all channels.
+     */
+    public long getDepth() {
+        long depth = 0;
+        for (QueueBuffer<T> buffer : bufferChannels) {
+            depth += buffer.getDepth();
+        }
+        return depth;
+    }
+
+    public QueueBuffer<T> getBuffer(int index) {
         return this.bufferChannels[index];
     }
 
     public void addCallback(QueueBlockingCallback<T> callback) {
-        for (Buffer<T> channel : bufferChannels) {
+        for (QueueBuffer<T> channel : bufferChannels) {
             channel.addCallback(callback);
         }
     }
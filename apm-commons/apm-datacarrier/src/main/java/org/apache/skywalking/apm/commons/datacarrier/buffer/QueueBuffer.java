@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.LinkedList;
+import org.apache.skywalking.apm.commons.datacarrier.callback.QueueBlockingCallback;
+import org.apache.skywalking.apm.commons.datacarrier.callback.QueueMonitor;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.DataBatch;
+
+/**
+ * Queue buffer is one channel of {@link Channels}. {@link Buffer} is the default implementation, and {@link RingBuffer}
+ * is the sequence based multiple producers/single consumer implementation.
+ */
+public interface QueueBuffer<T> {
+    /**
+     * Save data into the buffer, following the {@link BufferStrategy}.
+     *
+     * @param data to save
+     * @return false means the data has been rejected, and it will not be consumed.
+     */
+    boolean save(T data);
+
+    void setStrategy(BufferStrategy strategy);
+
+    /**
+     * Set the strategy of the thread which can't make progress. Only the {@link RingBuffer} uses it.
+     *
+     * @param waitStrategy
+     */
+    void setWaitStrategy(WaitStrategy waitStrategy);
+
+    void addCallback(QueueBlockingCallback<T> callback);
+
+    /**
+     * @param monitor notified when the producer waits, or the data is abandoned. Rejected data is notified by {@link
+     * Channels}.
+     */
+    void setMonitor(QueueMonitor monitor);
+
+    int getBufferSize();
+
+    /**
+     * @return the number of data saved and not consumed yet, read without locking, so it is a sample for monitoring.
+     */
+    int getDepth();
+
+    /**
+     * Obtain all data in the buffer, and clear them.
+     *
+     * @return data in the buffer
+     */
+    LinkedList<T> obtain();
+
+    /**
+     * Move all data in the buffer into the given batch, without creating any new list.
+     *
+     * @param batch to fill
+     */
+    void drainTo(DataBatch<T> batch);
+}
@@ -0,0 +1,259 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.apache.skywalking.apm.commons.datacarrier.callback.QueueBlockingCallback;
+import org.apache.skywalking.apm.commons.datacarrier.callback.QueueMonitor;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.DataBatch;
+
+/**
+ * Multiple producers/single consumer ring buffer.
+ *
+ * Producers claim sequences from a shared counter, write the slot, then publish it by setting the lap number of the
+ * sequence into the available flags. The consumer reads the continuous published slots from its own sequence, and
+ * releases them by moving its sequence forward. A slot is never written before the consumer released it, so nothing
+ * is overridden and nobody sleeps on an occupied slot.
+ *
+ * The size is rounded up to the power of 2.
+ */
+public class RingBuffer<T> implements QueueBuffer<T> {
+    private static final long PRODUCER_WAIT_NANOS = 1000L * 1000L;
+
+    private final Object[] entries;
+    private final int mask;
+    private final int indexShift;
+    /**
+     * The lap number of the last published sequence in each slot.
+     */
+    private final AtomicIntegerArray available;
+    /**
+     * Next sequence to claim by the producers.
+     */
+    private final AtomicLong producerSequence;
+    /**
+     * Next sequence to read by the consumer. Only the consumer writes it.
+     */
+    private final AtomicLong consumerSequence;
+    private volatile BufferStrategy strategy;
+    private volatile WaitStrategy waitStrategy;
+    private List<QueueBlockingCallback<T>> callbacks;
+    private volatile QueueMonitor monitor;
+    private volatile Thread consumerThread;
+    private volatile boolean consumerWaiting;
+
+    RingBuffer(int bufferSize, BufferStrategy strategy) {
+        int size = 1;
+        while (size < bufferSize) {
+            size <<= 1;
+        }
+        entries = new Object[size];
+        mask = size - 1;
+        indexShift = Integer.numberOfTrailingZeros(size);
+        available = new AtomicIntegerArray(size);
+        for (int i = 0; i < size; i++) {
+            available.set(i, -1);
+        }
+        producerSequence = new AtomicLong(0);
+        consumerSequence = new AtomicLong(0);
+        this.strategy = strategy;
+        this.waitStrategy = new ParkingWaitStrategy();
+        callbacks = new LinkedList<QueueBlockingCallback<T>>();
+    }
+
+    @Override
+    public void setStrategy(BufferStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    @Override
+    public void setWaitStrategy(WaitStrategy waitStrategy) {
+        this.waitStrategy = waitStrategy;
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    @Override
+    public void addCallback(QueueBlockingCallback<T> callback) {
+        callbacks.add(callback);
+    }
+
+    @Override
+    public void setMonitor(QueueMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    @Override
+    public boolean save(T data) {
+        long sequence;
+        switch (strategy) {
+            case IF_POSSIBLE:
+                sequence = tryClaim();
+                if (sequence < 0) {
+                    return false;
+                }
+                break;
+            case OVERRIDE:
+                sequence = tryClaim();
+                if (sequence < 0) {
+                    // A slot could not be overridden before the consumer released it, the latest data is abandoned.
+                    QueueMonitor monitor = this.monitor;
+                    if (monitor != null) {
+                        monitor.onReject();
+                    }
+                    return true;
+                }
+                break;
+            case BLOCKING:
+            default:
+                sequence = producerSequence.getAndIncrement();
+                waitForSlot(sequence, data);
+        }
+
+        entries[(int)sequence & mask] = data;
+        publish(sequence);
+        return true;
+    }
+
+    private long tryClaim() {
+        long current;
+        do {
+            current = producerSequence.get();
+            if (current - entries.length >= consumerSequence.get()) {
+                return -1;
+            }
+        }
+        while (!producerSequence.compareAndSet(current, current + 1));
+        return current;
+    }
+
+    private void notifyWait(long startNanos) {
+        QueueMonitor monitor = this.monitor;
+        if (monitor != null) {
+            monitor.onWait(System.nanoTime() - startNanos);
+        }
+    }
+
+    private void waitForSlot(long sequence, T data) {
+        long wrapPoint = sequence - entries.length;
+        if (wrapPoint < consumerSequence.get()) {
+            return;
+        }
+        for (QueueBlockingCallback<T> callback : callbacks) {
+            callback.notify(data);
+        }
+        long startNanos = System.nanoTime();
+        int counter = 0;
+        while (wrapPoint >= consumerSequence.get()) {
+            waitStrategy.waitFor(counter++, PRODUCER_WAIT_NANOS);
+        }
+        notifyWait(startNanos);
+    }
+
+    private void publish(long sequence) {
+        // Volatile write, so the consumerWaiting read below can't be reordered before it.
+        available.set((int)sequence & mask, (int)(sequence >>> indexShift));
+        if (consumerWaiting) {
+            consumerWaiting = false;
+            Thread consumer = consumerThread;
+            if (consumer != null) {
+                LockSupport.unpark(consumer);
+            }
+        }
+    }
+
+    private boolean isPublished(long sequence) {
+        return available.get((int)sequence & mask) == (int)(sequence >>> indexShift);
+    }
+
+    @Override
+    public int getBufferSize() {
+        return entries.length;
+    }
+
+    /**
+     * @return the claimed sequences not released by the consumer, including the ones of the blocking producers waiting
+     * for a slot.
+     */
+    @Override
+    public int getDepth() {
+        return (int)Math.max(0, producerSequence.get() - consumerSequence.get());
+    }
+
+    @Override
+    public LinkedList<T> obtain() {
+        LinkedList<T> result = new LinkedList<T>();
+        long start = consumerSequence.get();
+        long end = start + entries.length;
+        long next = start;
+        while (next < end && isPublished(next)) {
+            int index = (int)next & mask;
+            result.add((T)entries[index]);
+            entries[index] = null;
+            next++;
+        }
+        if (next != start) {
+            consumerSequence.lazySet(next);
+        }
+        return result;
+    }
+
+    @Override
+    public void drainTo(DataBatch<T> batch) {
+        long start = consumerSequence.get();
+        long end = start + entries.length;
+        long next = start;
+        while (next < end && isPublished(next)) {
+            int index = (int)next & mask;
+            batch.add((T)entries[index]);
+            entries[index] = null;
+            next++;
+        }
+        if (next != start) {
+            consumerSequence.lazySet(next);
+        }
+    }
+
+    /**
+     * @return true if there is published data, not consumed yet.
+     */
+    public boolean hasData() {
+        return isPublished(consumerSequence.get());
+    }
+
+    /**
+     * The consumer is going to wait, it should check {@link #hasData()} again after this, then wait.
+     *
+     * @param consumer thread, which will be unparked when new data published.
+     */
+    public void startWaiting(Thread consumer) {
+        this.consumerThread = consumer;
+        this.consumerWaiting = true;
+    }
+
+    public void stopWaiting() {
+        this.consumerWaiting = false;
+    }
+}
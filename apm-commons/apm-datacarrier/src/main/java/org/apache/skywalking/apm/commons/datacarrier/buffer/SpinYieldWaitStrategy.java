@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Spin first, then yield, at last park the thread. Lower latency than {@link ParkingWaitStrategy}, but burns CPU when
+ * the buffer is idle or full for a short time.
+ */
+public class SpinYieldWaitStrategy implements WaitStrategy {
+    private final int spinTries;
+    private final int yieldTries;
+
+    public SpinYieldWaitStrategy() {
+        this(100, 100);
+    }
+
+    public SpinYieldWaitStrategy(int spinTries, int yieldTries) {
+        this.spinTries = spinTries;
+        this.yieldTries = yieldTries;
+    }
+
+    @Override
+    public void waitFor(int counter, long maxWaitNanos) {
+        if (counter < spinTries) {
+            return;
+        }
+        if (counter < spinTries + yieldTries) {
+            Thread.yield();
+            return;
+        }
+        LockSupport.parkNanos(maxWaitNanos);
+    }
+}
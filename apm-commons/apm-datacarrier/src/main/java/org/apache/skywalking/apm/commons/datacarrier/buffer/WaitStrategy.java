@@ -0,0 +1,34 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+/**
+ * The way of waiting, used by the producer when the {@link RingBuffer} is full in {@link BufferStrategy#BLOCKING}, and
+ * by the consumer when there is no data.
+ */
+public interface WaitStrategy {
+    /**
+     * Wait once. A parked consumer could be woken up earlier, by {@link java.util.concurrent.locks.LockSupport#unpark},
+     * when new data has been published.
+     *
+     * @param counter how many times the caller has waited in a row, start from 0.
+     * @param maxWaitNanos the max time of this wait.
+     */
+    void waitFor(int counter, long maxWaitNanos);
+}
@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.callback;
+
+/**
+ * Monitor of the producers. It is notified only when the data can't be saved at once, so the producers pay nothing for
+ * it in the normal case. All methods are called in the producer threads.
+ */
+public interface QueueMonitor {
+    /**
+     * The data has been saved, after the producer waited for the consumer.
+     *
+     * @param waitNanos how long the producer waited.
+     */
+    void onWait(long waitNanos);
+
+    /**
+     * The data has been rejected or abandoned, it will not be consumed.
+     */
+    void onReject();
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.consumer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
+
+/**
+ * BulkConsumePool works for the consuming of many carriers, by a fixed number of threads. Each carrier is assigned to
+ * the thread with the lowest payload, so the number of threads doesn't grow with the number of carriers.
+ */
+public class BulkConsumePool implements IDriver {
+    private final List<MultipleChannelsConsumer> allConsumers;
+    private volatile boolean isStarted = false;
+
+    public BulkConsumePool(String name, int size, long consumeCycle) {
+        allConsumers = new ArrayList<MultipleChannelsConsumer>(size);
+        for (int i = 0; i < size; i++) {
+            MultipleChannelsConsumer multipleChannelsConsumer = new MultipleChannelsConsumer("DataCarrier." + name + ".BulkConsumePool." + i + ".Thread", consumeCycle);
+            multipleChannelsConsumer.setDaemon(true);
+            allConsumers.add(multipleChannelsConsumer);
+        }
+    }
+
+    public synchronized void add(String name, Channels channels, IBatchConsumer consumer) {
+        consumer.init();
+        getLowestPayload().addNewTarget(channels, consumer);
+    }
+
+    public synchronized void add(String name, Channels channels, IConsumer consumer) {
+        add(name, channels, new ListConsumerAdapter(consumer));
+    }
+
+    /**
+     * Get the lowest payload consumer thread based on current allocate status.
+     *
+     * @return the lowest consumer.
+     */
+    private MultipleChannelsConsumer getLowestPayload() {
+        MultipleChannelsConsumer winner = allConsumers.get(0);
+        for (int i = 1; i < allConsumers.size(); i++) {
+            MultipleChannelsConsumer option = allConsumers.get(i);
+            if (option.size() < winner.size()) {
+                winner = option;
+            }
+        }
+        return winner;
+    }
+
+    @Override
+    public boolean isRunning(Channels channels) {
+        if (!isStarted) {
+            return false;
+        }
+        for (MultipleChannelsConsumer consumer : allConsumers) {
+            if (consumer.isConsuming(channels)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Stop consuming the given channels only, the pool keeps running for the other carriers.
+     *
+     * @param channels of the carrier
+     */
+    @Override
+    public synchronized void close(Channels channels) {
+        for (MultipleChannelsConsumer consumer : allConsumers) {
+            if (consumer.removeTarget(channels)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void begin(Channels channels) {
+        if (isStarted) {
+            return;
+        }
+        for (MultipleChannelsConsumer consumer : allConsumers) {
+            consumer.start();
+        }
+        isStarted = true;
+    }
+
+    /**
+     * Shutdown all threads of this pool.
+     */
+    public synchronized void shutdown() {
+        for (MultipleChannelsConsumer consumer : allConsumers) {
+            consumer.shutdown();
+        }
+        isStarted = false;
+    }
+
+    /**
+     * The creator for {@link ConsumerPoolFactory}.
+     */
+    public static class Creator implements Callable<BulkConsumePool> {
+        private String name;
+        private int size;
+        private long consumeCycle;
+
+        public Creator(String name, int poolSize, long consumeCycle) {
+            this.name = name;
+            this.size = poolSize;
+            this.consumeCycle = consumeCycle;
+        }
+
+        @Override
+        public BulkConsumePool call() {
+            return new BulkConsumePool(name, size, consumeCycle);
+        }
+
+        /**
+         * @return the number of available processors.
+         */
+        public static int recommendMaxSize() {
+            return Runtime.getRuntime().availableProcessors();
+        }
+    }
+
+    /**
+     * Adapt the {@link IConsumer} to the consumer of the reusable batch.
+     */
+    private static class ListConsumerAdapter<T> implements IBatchConsumer<T> {
+        private final IConsumer<T> consumer;
+
+        private ListConsumerAdapter(IConsumer<T> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void init() {
+            consumer.init();
+        }
+
+        @Override
+        public void consume(DataBatch<T> batch) {
+            consumer.consume(batch.toList());
+        }
+
+        @Override
+        public void onError(DataBatch<T> batch, Throwable t) {
+            consumer.onError(batch.toList(), t);
+        }
+
+        @Override
+        public void onExit() {
+            consumer.onExit();
+        }
+    }
+}
@@ -22,11 +22,12 @@ import java.util.ArrayList;
 import java.util.concurrent.locks.ReentrantLock;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Buffer;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.QueueBuffer;
 
 /**
  * Pool of consumers <p> Created by wusheng on 2016/10/25.
  */
-public class ConsumerPool<T> {
+public class ConsumerPool<T> implements IDriver {
     private boolean running;
     private ConsumerThread[] consumerThreads;
     private Channels<T> channels;
@@ -51,6 +52,15 @@ public class ConsumerPool<T> {
 
     }
 
+    public ConsumerPool(String name, Channels<T> channels, IBatchConsumer<T> prototype, int num, long consumeCycle) {
+        this(channels, num);
+        prototype.init();
+        for (int i = 0; i < num; i++) {
+            consumerThreads[i] = new ConsumerThread("DataCarrier." + name + ".Consumser." + i + ".Thread", prototype, consumeCycle);
+            consumerThreads[i].setDaemon(true);
+        }
+    }
+
     private ConsumerPool(Channels<T> channels, int num) {
         running = false;
         this.channels = channels;
@@ -90,6 +100,21 @@ public class ConsumerPool<T> {
         return running;
     }
 
+    @Override
+    public boolean isRunning(Channels channels) {
+        return isRunning();
+    }
+
+    @Override
+    public void close(Channels channels) {
+        close();
+    }
+
+    @Override
+    public void begin(Channels channels) {
+        begin();
+    }
+
     private void allocateBuffer2Thread() {
         int channelSize = this.channels.getChannelSize();
         if (channelSize < consumerThreads.length) {
@@ -108,7 +133,15 @@ public class ConsumerPool<T> {
 
             for (int channelIndex = 0; channelIndex < channelSize; channelIndex++) {
                 ArrayList<Integer> threadAllocationPerChannel = threadAllocation[channelIndex];
-                Buffer<T> channel = this.channels.getBuffer(channelIndex);
+                QueueBuffer<T> queueBuffer = this.channels.getBuffer(channelIndex);
+                if (!(queueBuffer instanceof Buffer)) {
+                    /**
+                     * RingBuffer supports single consumer only, the other allocated threads keep idle.
+                     */
+                    consumerThreads[threadAllocationPerChannel.get(0)].addDataSource(queueBuffer);
+                    continue;
+                }
+                Buffer<T> channel = (Buffer<T>)queueBuffer;
                 int bufferSize = channel.getBufferSize();
                 int step = bufferSize / threadAllocationPerChannel.size();
                 for (int i = 0; i < threadAllocationPerChannel.size(); i++) {
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.consumer;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the shared {@link BulkConsumePool}s by name, so the carriers created in different places could use the same
+ * pool.
+ */
+public enum ConsumerPoolFactory {
+    INSTANCE;
+
+    private final ConcurrentHashMap<String, BulkConsumePool> pools;
+
+    ConsumerPoolFactory() {
+        pools = new ConcurrentHashMap<String, BulkConsumePool>();
+    }
+
+    public BulkConsumePool get(String name) {
+        return pools.get(name);
+    }
+
+    /**
+     * Create the pool by the creator, if no pool of this name exists.
+     *
+     * @return true if the pool is created by this call.
+     */
+    public synchronized boolean createIfAbsent(String name, Callable<BulkConsumePool> creator) throws Exception {
+        if (pools.containsKey(name)) {
+            return false;
+        }
+        pools.put(name, creator.call());
+        return true;
+    }
+}
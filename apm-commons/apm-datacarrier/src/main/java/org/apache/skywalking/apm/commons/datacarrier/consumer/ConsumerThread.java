@@ -21,7 +21,11 @@ package org.apache.skywalking.apm.commons.datacarrier.consumer;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Buffer;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.QueueBuffer;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.RingBuffer;
 
 /**
  * Created by wusheng on 2016/10/25.
@@ -29,14 +33,28 @@ import org.apache.skywalking.apm.commons.datacarrier.buffer.Buffer;
 public class ConsumerThread<T> extends Thread {
     private volatile boolean running;
     private IConsumer<T> consumer;
+    private IBatchConsumer<T> batchConsumer;
     private List<DataSource> dataSources;
+    private List<RingBuffer<T>> ringBuffers;
+    private DataBatch<T> consumeBatch;
     private long consumeCycle;
 
     ConsumerThread(String threadName, IConsumer<T> consumer, long consumeCycle) {
-        super(threadName);
+        this(threadName, consumeCycle);
         this.consumer = consumer;
+    }
+
+    ConsumerThread(String threadName, IBatchConsumer<T> batchConsumer, long consumeCycle) {
+        this(threadName, consumeCycle);
+        this.batchConsumer = batchConsumer;
+    }
+
+    private ConsumerThread(String threadName, long consumeCycle) {
+        super(threadName);
         running = false;
         dataSources = new LinkedList<DataSource>();
+        ringBuffers = new LinkedList<RingBuffer<T>>();
+        consumeBatch = new DataBatch<T>(64);
         this.consumeCycle = consumeCycle;
     }
 
@@ -56,22 +74,25 @@ public class ConsumerThread<T> extends Thread {
      *
      * @param sourceBuffer
      */
-    void addDataSource(Buffer<T> sourceBuffer) {
-        this.dataSources.add(new DataSource(sourceBuffer, 0, sourceBuffer.getBufferSize()));
+    void addDataSource(QueueBuffer<T> sourceBuffer) {
+        this.dataSources.add(new DataSource(sourceBuffer));
+        if (sourceBuffer instanceof RingBuffer) {
+            ringBuffers.add((RingBuffer<T>)sourceBuffer);
+        }
     }
 
     @Override
     public void run() {
         running = true;
 
+        int idleCounter = 0;
         while (running) {
             boolean hasData = consume();
 
-            if (!hasData) {
-                try {
-                    Thread.sleep(consumeCycle);
-                } catch (InterruptedException e) {
-                }
+            if (hasData) {
+                idleCounter = 0;
+            } else {
+                waitForData(idleCounter++);
             }
         }
 
@@ -79,53 +100,107 @@ public class ConsumerThread<T> extends Thread {
         // consume the last time
         consume();
 
-        consumer.onExit();
+        if (batchConsumer != null) {
+            batchConsumer.onExit();
+        } else {
+            consumer.onExit();
+        }
     }
 
     private boolean consume() {
-        boolean hasData = false;
-        LinkedList<T> consumeList = new LinkedList<T>();
         for (DataSource dataSource : dataSources) {
-            LinkedList<T> data = dataSource.obtain();
-            if (data.size() == 0) {
-                continue;
-            }
-            for (T element : data) {
-                consumeList.add(element);
+            dataSource.drainTo(consumeBatch);
+        }
+
+        if (consumeBatch.isEmpty()) {
+            return false;
+        }
+        try {
+            if (batchConsumer != null) {
+                try {
+                    batchConsumer.consume(consumeBatch);
+                } catch (Throwable t) {
+                    batchConsumer.onError(consumeBatch, t);
+                }
+            } else {
+                List<T> consumeList = consumeBatch.toList();
+                try {
+                    consumer.consume(consumeList);
+                } catch (Throwable t) {
+                    consumer.onError(consumeList, t);
+                }
             }
-            hasData = true;
+        } finally {
+            consumeBatch.clear();
         }
+        return true;
+    }
 
-        if (consumeList.size() > 0) {
+    /**
+     * Wait at most one consume cycle. If there is any {@link RingBuffer} in the sources, the wait could be shorten by
+     * the producer, when it publishes new data.
+     *
+     * @param idleCounter how many times has waited in a row.
+     */
+    private void waitForData(int idleCounter) {
+        if (ringBuffers.isEmpty()) {
             try {
-                consumer.consume(consumeList);
-            } catch (Throwable t) {
-                consumer.onError(consumeList, t);
+                Thread.sleep(consumeCycle);
+            } catch (InterruptedException e) {
+            }
+            return;
+        }
+
+        for (RingBuffer<T> ringBuffer : ringBuffers) {
+            ringBuffer.startWaiting(this);
+        }
+        try {
+            for (RingBuffer<T> ringBuffer : ringBuffers) {
+                if (ringBuffer.hasData()) {
+                    return;
+                }
+            }
+            ringBuffers.get(0).getWaitStrategy().waitFor(idleCounter, TimeUnit.MILLISECONDS.toNanos(consumeCycle));
+        } finally {
+            for (RingBuffer<T> ringBuffer : ringBuffers) {
+                ringBuffer.stopWaiting();
             }
         }
-        return hasData;
     }
 
     void shutdown() {
         running = false;
+        for (RingBuffer<T> ringBuffer : ringBuffers) {
+            ringBuffer.stopWaiting();
+        }
+        LockSupport.unpark(this);
     }
 
     /**
-     * DataSource is a refer to {@link Buffer}.
+     * DataSource is a refer to {@link QueueBuffer}, or a partition of {@link Buffer}.
      */
     class DataSource {
-        private Buffer<T> sourceBuffer;
+        private QueueBuffer<T> sourceBuffer;
+        private Buffer<T> partitionBuffer;
         private int start;
         private int end;
 
         DataSource(Buffer<T> sourceBuffer, int start, int end) {
-            this.sourceBuffer = sourceBuffer;
+            this.partitionBuffer = sourceBuffer;
             this.start = start;
             this.end = end;
         }
 
-        LinkedList<T> obtain() {
-            return sourceBuffer.obtain(start, end);
+        DataSource(QueueBuffer<T> sourceBuffer) {
+            this.sourceBuffer = sourceBuffer;
+        }
+
+        void drainTo(DataBatch<T> batch) {
+            if (partitionBuffer != null) {
+                partitionBuffer.drainTo(batch, start, end);
+            } else {
+                sourceBuffer.drainTo(batch);
+            }
         }
     }
 }
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.consumer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A reusable batch of the data drained from the buffers. The consumer thread fills it in place and clears it after
+ * each consume, so the consumer must not keep the reference of it.
+ */
+public class DataBatch<T> {
+    private Object[] elements;
+    private int size;
+
+    public DataBatch(int initialCapacity) {
+        elements = new Object[Math.max(initialCapacity, 16)];
+        size = 0;
+    }
+
+    public void add(T element) {
+        if (size == elements.length) {
+            Object[] newElements = new Object[elements.length << 1];
+            System.arraycopy(elements, 0, newElements, 0, size);
+            elements = newElements;
+        }
+        elements[size++] = element;
+    }
+
+    public T get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return (T)elements[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Release the references of the data, and keep the array.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            elements[i] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * @return a copy of the data, for the consumer which needs a {@link List}.
+     */
+    public List<T> toList() {
+        List<T> list = new ArrayList<T>(size);
+        for (int i = 0; i < size; i++) {
+            list.add((T)elements[i]);
+        }
+        return list;
+    }
+}
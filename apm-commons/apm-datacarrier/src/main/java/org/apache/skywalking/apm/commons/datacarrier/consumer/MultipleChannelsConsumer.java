@@ -0,0 +1,258 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.consumer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.QueueBuffer;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.RingBuffer;
+
+/**
+ * MultipleChannelsConsumer is one thread of {@link BulkConsumePool}. It consumes the channels of several carriers, and
+ * starts from the next carrier in each round, so no carrier always goes first.
+ */
+public class MultipleChannelsConsumer extends Thread {
+    private volatile boolean running;
+    private volatile Group[] consumeTargets;
+    private volatile RingBuffer[] ringBuffers;
+    private final DataBatch consumeBatch;
+    private final ConcurrentLinkedQueue<IBatchConsumer> removedConsumers;
+    private boolean exited;
+    private final long consumeCycle;
+    private int nextStart;
+
+    public MultipleChannelsConsumer(String threadName, long consumeCycle) {
+        super(threadName);
+        this.consumeTargets = new Group[0];
+        this.ringBuffers = new RingBuffer[0];
+        this.consumeBatch = new DataBatch(64);
+        this.removedConsumers = new ConcurrentLinkedQueue<IBatchConsumer>();
+        this.consumeCycle = consumeCycle;
+    }
+
+    @Override
+    public void run() {
+        running = true;
+
+        int idleCounter = 0;
+        while (running) {
+            boolean hasData = consume();
+            exitRemoved();
+
+            if (hasData) {
+                idleCounter = 0;
+            } else {
+                waitForData(idleCounter++);
+            }
+        }
+
+        // consumer thread is going to stop
+        // consume the last time
+        consume();
+
+        for (Group target : consumeTargets) {
+            target.consumer.onExit();
+        }
+        synchronized (this) {
+            exited = true;
+        }
+        exitRemoved();
+    }
+
+    /**
+     * Call {@link IBatchConsumer#onExit()} of the removed consumers, after the consume round which could still see
+     * them.
+     */
+    private void exitRemoved() {
+        IBatchConsumer consumer;
+        while ((consumer = removedConsumers.poll()) != null) {
+            consumer.onExit();
+        }
+    }
+
+    private boolean consume() {
+        Group[] targets = consumeTargets;
+        if (targets.length == 0) {
+            return false;
+        }
+
+        boolean hasData = false;
+        if (nextStart < 0) {
+            // Overflowed, start over.
+            nextStart = 0;
+        }
+        int start = nextStart++ % targets.length;
+        for (int i = 0; i < targets.length; i++) {
+            Group target = targets[(start + i) % targets.length];
+            hasData = consume(target) || hasData;
+        }
+        return hasData;
+    }
+
+    private boolean consume(Group target) {
+        Channels channels = target.channels;
+        for (int i = 0; i < channels.getChannelSize(); i++) {
+            channels.getBuffer(i).drainTo(consumeBatch);
+        }
+
+        if (consumeBatch.isEmpty()) {
+            return false;
+        }
+        try {
+            target.consumer.consume(consumeBatch);
+        } catch (Throwable t) {
+            target.consumer.onError(consumeBatch, t);
+        } finally {
+            consumeBatch.clear();
+        }
+        return true;
+    }
+
+    /**
+     * Wait at most one consume cycle. The wait of {@link RingBuffer}s could be shorten by the producers.
+     */
+    private void waitForData(int idleCounter) {
+        RingBuffer[] ringBuffers = this.ringBuffers;
+        if (ringBuffers.length == 0) {
+            try {
+                Thread.sleep(consumeCycle);
+            } catch (InterruptedException e) {
+            }
+            return;
+        }
+
+        for (RingBuffer ringBuffer : ringBuffers) {
+            ringBuffer.startWaiting(this);
+        }
+        try {
+            for (RingBuffer ringBuffer : ringBuffers) {
+                if (ringBuffer.hasData()) {
+                    return;
+                }
+            }
+            ringBuffers[0].getWaitStrategy().waitFor(idleCounter, TimeUnit.MILLISECONDS.toNanos(consumeCycle));
+        } finally {
+            for (RingBuffer ringBuffer : ringBuffers) {
+                ringBuffer.stopWaiting();
+            }
+        }
+    }
+
+    /**
+     * Add the channels of a carrier to consume.
+     *
+     * @param channels of the carrier
+     * @param consumer of the carrier
+     */
+    synchronized void addNewTarget(Channels channels, IBatchConsumer consumer) {
+        Group[] targets = consumeTargets;
+        Group[] newTargets = new Group[targets.length + 1];
+        System.arraycopy(targets, 0, newTargets, 0, targets.length);
+        newTargets[targets.length] = new Group(channels, consumer);
+        setTargets(newTargets);
+    }
+
+    /**
+     * Remove the channels of a carrier. The consumer thread calls {@link IBatchConsumer#onExit()} of its consumer after
+     * the current consume round, and the consumer will not be called after that.
+     *
+     * @return true if the channels were consumed by this thread.
+     */
+    synchronized boolean removeTarget(Channels channels) {
+        Group[] targets = consumeTargets;
+        for (int i = 0; i < targets.length; i++) {
+            if (targets[i].channels == channels) {
+                Group[] newTargets = new Group[targets.length - 1];
+                System.arraycopy(targets, 0, newTargets, 0, i);
+                System.arraycopy(targets, i + 1, newTargets, i, targets.length - i - 1);
+                setTargets(newTargets);
+                removedConsumers.add(targets[i].consumer);
+                if (exited) {
+                    // No consume round anymore.
+                    exitRemoved();
+                } else {
+                    LockSupport.unpark(this);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void setTargets(Group[] targets) {
+        List<RingBuffer> allRingBuffers = new ArrayList<RingBuffer>();
+        for (Group target : targets) {
+            allRingBuffers.addAll(target.ringBuffers);
+        }
+        ringBuffers = allRingBuffers.toArray(new RingBuffer[allRingBuffers.size()]);
+        consumeTargets = targets;
+    }
+
+    /**
+     * @return true if the channels are consumed by this thread.
+     */
+    boolean isConsuming(Channels channels) {
+        for (Group target : consumeTargets) {
+            if (target.channels == channels) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the total size of the buffers consumed by this thread.
+     */
+    long size() {
+        long size = 0;
+        for (Group target : consumeTargets) {
+            for (int i = 0; i < target.channels.getChannelSize(); i++) {
+                size += target.channels.getBuffer(i).getBufferSize();
+            }
+        }
+        return size;
+    }
+
+    void shutdown() {
+        running = false;
+        LockSupport.unpark(this);
+    }
+
+    private static class Group {
+        private final Channels channels;
+        private final IBatchConsumer consumer;
+        private final List<RingBuffer> ringBuffers;
+
+        private Group(Channels channels, IBatchConsumer consumer) {
+            this.channels = channels;
+            this.consumer = consumer;
+            this.ringBuffers = new ArrayList<RingBuffer>();
+            for (int i = 0; i < channels.getChannelSize(); i++) {
+                QueueBuffer buffer = channels.getBuffer(i);
+                if (buffer instanceof RingBuffer) {
+                    ringBuffers.add((RingBuffer)buffer);
+                }
+            }
+        }
+    }
+}
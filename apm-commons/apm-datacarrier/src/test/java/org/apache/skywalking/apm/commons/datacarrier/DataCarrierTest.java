@@ -20,9 +20,11 @@
 package org.apache.skywalking.apm.commons.datacarrier;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Buffer;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
+import org.apache.skywalking.apm.commons.datacarrier.callback.QueueMonitor;
 import org.apache.skywalking.apm.commons.datacarrier.partition.ProducerThreadPartitioner;
 import org.apache.skywalking.apm.commons.datacarrier.partition.SimpleRollingPartitioner;
 import org.junit.Assert;
@@ -43,7 +45,7 @@ public class DataCarrierTest {
         Channels<SampleData> channels = (Channels<SampleData>)(MemberModifier.field(DataCarrier.class, "channels").get(carrier));
         Assert.assertEquals(channels.getChannelSize(), 5);
 
-        Buffer<SampleData> buffer = channels.getBuffer(0);
+        Buffer<SampleData> buffer = (Buffer<SampleData>)channels.getBuffer(0);
         Assert.assertEquals(buffer.getBufferSize(), 100);
 
         Assert.assertEquals(MemberModifier.field(Buffer.class, "strategy").get(buffer), BufferStrategy.BLOCKING);
@@ -64,10 +66,10 @@ public class DataCarrierTest {
         Assert.assertTrue(carrier.produce(new SampleData().setName("d")));
 
         Channels<SampleData> channels = (Channels<SampleData>)(MemberModifier.field(DataCarrier.class, "channels").get(carrier));
-        Buffer<SampleData> buffer1 = channels.getBuffer(0);
+        Buffer<SampleData> buffer1 = (Buffer<SampleData>)channels.getBuffer(0);
         List result1 = buffer1.obtain(0, 100);
 
-        Buffer<SampleData> buffer2 = channels.getBuffer(1);
+        Buffer<SampleData> buffer2 = (Buffer<SampleData>)channels.getBuffer(1);
         List result2 = buffer2.obtain(0, 100);
 
         Assert.assertEquals(2, result1.size());
@@ -85,10 +87,10 @@ public class DataCarrierTest {
         }
 
         Channels<SampleData> channels = (Channels<SampleData>)(MemberModifier.field(DataCarrier.class, "channels").get(carrier));
-        Buffer<SampleData> buffer1 = channels.getBuffer(0);
+        Buffer<SampleData> buffer1 = (Buffer<SampleData>)channels.getBuffer(0);
         List result1 = buffer1.obtain(0, 100);
 
-        Buffer<SampleData> buffer2 = channels.getBuffer(1);
+        Buffer<SampleData> buffer2 = (Buffer<SampleData>)channels.getBuffer(1);
         List result2 = buffer2.obtain(0, 100);
         Assert.assertEquals(200, result1.size() + result2.size());
     }
@@ -107,10 +109,10 @@ public class DataCarrierTest {
         }
 
         Channels<SampleData> channels = (Channels<SampleData>)(MemberModifier.field(DataCarrier.class, "channels").get(carrier));
-        Buffer<SampleData> buffer1 = channels.getBuffer(0);
+        Buffer<SampleData> buffer1 = (Buffer<SampleData>)channels.getBuffer(0);
         List result1 = buffer1.obtain(0, 100);
 
-        Buffer<SampleData> buffer2 = channels.getBuffer(1);
+        Buffer<SampleData> buffer2 = (Buffer<SampleData>)channels.getBuffer(1);
         List result2 = buffer2.obtain(0, 100);
         Assert.assertEquals(200, result1.size() + result2.size());
     }
@@ -164,4 +166,53 @@ public class DataCarrierTest {
 
         Assert.assertTrue(time2 - time1 > 2000);
     }
+
+    @Test
+    public void testMonitorAndDepth() throws IllegalAccessException {
+        final DataCarrier<SampleData> carrier = new DataCarrier<SampleData>(1, 10);
+        final AtomicInteger waitCount = new AtomicInteger();
+        final AtomicInteger rejectCount = new AtomicInteger();
+        carrier.setMonitor(new QueueMonitor() {
+            @Override
+            public void onWait(long waitNanos) {
+                waitCount.incrementAndGet();
+            }
+
+            @Override
+            public void onReject() {
+                rejectCount.incrementAndGet();
+            }
+        });
+
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(carrier.produce(new SampleData().setName("d" + i)));
+        }
+        Assert.assertEquals(0, waitCount.get());
+        Assert.assertEquals(10, carrier.getDepth());
+
+        final Channels<SampleData> channels = (Channels<SampleData>)(MemberModifier.field(DataCarrier.class, "channels").get(carrier));
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+                channels.getBuffer(0).obtain();
+            }
+        }).start();
+
+        Assert.assertTrue(carrier.produce(new SampleData().setName("waited")));
+        Assert.assertEquals(1, waitCount.get());
+        Assert.assertEquals(1, carrier.getDepth());
+
+        carrier.setBufferStrategy(BufferStrategy.IF_POSSIBLE);
+        for (int i = 0; i < 9; i++) {
+            Assert.assertTrue(carrier.produce(new SampleData().setName("d" + i)));
+        }
+        Assert.assertFalse(carrier.produce(new SampleData().setName("rejected")));
+        Assert.assertEquals(1, rejectCount.get());
+        Assert.assertEquals(10, carrier.getDepth());
+    }
 }
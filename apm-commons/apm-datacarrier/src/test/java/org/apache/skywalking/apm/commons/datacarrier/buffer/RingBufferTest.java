@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.apache.skywalking.apm.commons.datacarrier.SampleData;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RingBufferTest {
+    @Test
+    public void testSizeRoundUp() {
+        RingBuffer<SampleData> ringBuffer = new RingBuffer<SampleData>(100, BufferStrategy.BLOCKING);
+        Assert.assertEquals(128, ringBuffer.getBufferSize());
+    }
+
+    @Test
+    public void testSaveAndObtain() {
+        RingBuffer<SampleData> ringBuffer = new RingBuffer<SampleData>(8, BufferStrategy.BLOCKING);
+        Assert.assertFalse(ringBuffer.hasData());
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 5; i++) {
+                Assert.assertTrue(ringBuffer.save(new SampleData().setName("d" + round + i)));
+            }
+            Assert.assertTrue(ringBuffer.hasData());
+            List<SampleData> result = ringBuffer.obtain();
+            Assert.assertEquals(5, result.size());
+            Assert.assertEquals("d" + round + "0", result.get(0).getName());
+            Assert.assertEquals("d" + round + "4", result.get(4).getName());
+            Assert.assertFalse(ringBuffer.hasData());
+        }
+    }
+
+    @Test
+    public void testIfPossibleSave() {
+        RingBuffer<SampleData> ringBuffer = new RingBuffer<SampleData>(8, BufferStrategy.IF_POSSIBLE);
+        for (int i = 0; i < 8; i++) {
+            Assert.assertTrue(ringBuffer.save(new SampleData().setName("d" + i)));
+        }
+        Assert.assertFalse(ringBuffer.save(new SampleData().setName("d8")));
+        Assert.assertEquals(8, ringBuffer.obtain().size());
+        Assert.assertTrue(ringBuffer.save(new SampleData().setName("d9")));
+    }
+
+    @Test
+    public void testOverrideSave() {
+        RingBuffer<SampleData> ringBuffer = new RingBuffer<SampleData>(8, BufferStrategy.OVERRIDE);
+        for (int i = 0; i < 20; i++) {
+            Assert.assertTrue(ringBuffer.save(new SampleData().setName("d" + i)));
+        }
+        Assert.assertEquals(8, ringBuffer.obtain().size());
+    }
+
+    @Test
+    public void testDepth() {
+        RingBuffer<SampleData> ringBuffer = new RingBuffer<SampleData>(8, BufferStrategy.IF_POSSIBLE);
+        Assert.assertEquals(0, ringBuffer.getDepth());
+        for (int i = 0; i < 10; i++) {
+            ringBuffer.save(new SampleData().setName("d" + i));
+        }
+        Assert.assertEquals(8, ringBuffer.getDepth());
+        Assert.assertEquals(8, ringBuffer.obtain().size());
+        Assert.assertEquals(0, ringBuffer.getDepth());
+        Assert.assertTrue(ringBuffer.save(new SampleData().setName("d10")));
+        Assert.assertEquals(1, ringBuffer.getDepth());
+    }
+
+    @Test
+    public void testMultipleProducers() throws InterruptedException {
+        final DataCarrier<SampleData> carrier = new DataCarrier<SampleData>("ring", 1, 64, BufferType.RING);
+        carrier.setWaitStrategy(new SpinYieldWaitStrategy());
+        final int producerNum = 4;
+        final int perProducer = 10000;
+        final List<SampleData> consumed = new ArrayList<SampleData>();
+        final CountDownLatch latch = new CountDownLatch(producerNum * perProducer);
+        carrier.consume(new IConsumer<SampleData>() {
+            @Override
+            public void init() {
+            }
+
+            @Override
+            public void consume(List<SampleData> data) {
+                for (SampleData one : data) {
+                    consumed.add(one);
+                    latch.countDown();
+                }
+            }
+
+            @Override
+            public void onError(List<SampleData> data, Throwable t) {
+            }
+
+            @Override
+            public void onExit() {
+            }
+        }, 1);
+
+        for (int p = 0; p < producerNum; p++) {
+            final int producer = p;
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < perProducer; i++) {
+                        carrier.produce(new SampleData().setIntValue(producer * perProducer + i));
+                    }
+                }
+            }).start();
+        }
+
+        latch.await();
+        carrier.shutdownConsumers();
+
+        HashSet<Integer> values = new HashSet<Integer>();
+        for (SampleData data : consumed) {
+            values.add(data.getIntValue());
+        }
+        Assert.assertEquals(producerNum * perProducer, values.size());
+    }
+}
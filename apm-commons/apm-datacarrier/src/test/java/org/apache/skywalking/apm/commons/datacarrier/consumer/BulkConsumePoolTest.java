@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.consumer;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.apache.skywalking.apm.commons.datacarrier.SampleData;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferType;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
+import org.junit.Assert;
+import org.junit.Test;
+import org.powermock.api.support.membermodification.MemberModifier;
+
+public class BulkConsumePoolTest {
+    @Test
+    public void testOneThreadManyCarriers() throws Exception {
+        ConsumerPoolFactory.INSTANCE.createIfAbsent("BulkConsumePoolTest", new BulkConsumePool.Creator("BulkConsumePoolTest", 2, 20));
+        BulkConsumePool pool = ConsumerPoolFactory.INSTANCE.get("BulkConsumePoolTest");
+        Assert.assertFalse(ConsumerPoolFactory.INSTANCE.createIfAbsent("BulkConsumePoolTest", new BulkConsumePool.Creator("BulkConsumePoolTest", 2, 20)));
+
+        final ConcurrentLinkedQueue<SampleData> result = new ConcurrentLinkedQueue<SampleData>();
+        DataCarrier<SampleData>[] carriers = new DataCarrier[10];
+        for (int i = 0; i < carriers.length; i++) {
+            carriers[i] = new DataCarrier<SampleData>("carrier" + i, 1, 100, i % 2 == 0 ? BufferType.ARRAY : BufferType.RING);
+            carriers[i].consume(pool, new IBatchConsumer<SampleData>() {
+                @Override public void init() {
+                }
+
+                @Override public void consume(DataBatch<SampleData> batch) {
+                    for (int j = 0; j < batch.size(); j++) {
+                        result.add(batch.get(j));
+                    }
+                }
+
+                @Override public void onError(DataBatch<SampleData> batch, Throwable t) {
+                }
+
+                @Override public void onExit() {
+                }
+            });
+        }
+
+        List<MultipleChannelsConsumer> threads = (List<MultipleChannelsConsumer>)MemberModifier.field(BulkConsumePool.class, "allConsumers").get(pool);
+        Assert.assertEquals(2, threads.size());
+        Assert.assertTrue(Math.abs(threads.get(0).size() - threads.get(1).size()) <= 128);
+
+        for (int i = 0; i < 50; i++) {
+            for (DataCarrier<SampleData> carrier : carriers) {
+                Assert.assertTrue(carrier.produce(new SampleData().setName("data" + i)));
+            }
+        }
+        Thread.sleep(1000);
+        Assert.assertEquals(500, result.size());
+
+        Channels channels = (Channels)MemberModifier.field(DataCarrier.class, "channels").get(carriers[0]);
+        Assert.assertTrue(pool.isRunning(channels));
+
+        long payload = threads.get(0).size() + threads.get(1).size();
+        carriers[0].shutdownConsumers();
+        Assert.assertFalse(pool.isRunning(channels));
+        Assert.assertFalse(carriers[0].produce(new SampleData()));
+        Assert.assertEquals(payload - 100, threads.get(0).size() + threads.get(1).size());
+        pool.shutdown();
+    }
+}
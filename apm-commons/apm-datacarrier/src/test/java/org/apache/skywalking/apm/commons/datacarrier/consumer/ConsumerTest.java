@@ -100,6 +100,48 @@ public class ConsumerTest {
         Assert.assertTrue(IS_OCCUR_ERROR);
     }
 
+    @Test
+    public void testBatchConsumer() throws InterruptedException {
+        final DataCarrier<SampleData> carrier = new DataCarrier<SampleData>(2, 100);
+
+        for (int i = 0; i < 200; i++) {
+            Assert.assertTrue(carrier.produce(new SampleData().setName("data" + i)));
+        }
+        final List<SampleData> result = new ArrayList<SampleData>();
+        final List<DataBatch<SampleData>> batches = new ArrayList<DataBatch<SampleData>>();
+        carrier.consume(new IBatchConsumer<SampleData>() {
+            @Override public void init() {
+            }
+
+            @Override public void consume(DataBatch<SampleData> batch) {
+                batches.add(batch);
+                for (int i = 0; i < batch.size(); i++) {
+                    result.add(batch.get(i));
+                }
+            }
+
+            @Override public void onError(DataBatch<SampleData> batch, Throwable t) {
+            }
+
+            @Override public void onExit() {
+            }
+        }, 1);
+
+        Thread.sleep(2000);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertTrue(carrier.produce(new SampleData().setName("more" + i)));
+        }
+        Thread.sleep(2000);
+        carrier.shutdownConsumers();
+
+        Assert.assertEquals(300, result.size());
+        Assert.assertTrue(batches.size() >= 2);
+        for (DataBatch<SampleData> batch : batches) {
+            Assert.assertSame(batches.get(0), batch);
+            Assert.assertTrue(batch.isEmpty());
+        }
+    }
+
     class SampleConsumer2 implements IConsumer<SampleData> {
         public int i = 1;
 
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.consumer;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.skywalking.apm.commons.datacarrier.SampleData;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
+import org.apache.skywalking.apm.commons.datacarrier.partition.SimpleRollingPartitioner;
+import org.junit.Assert;
+import org.junit.Test;
+import org.powermock.api.support.membermodification.MemberModifier;
+
+public class MultipleChannelsConsumerTest {
+    @Test
+    public void testStartOverflow() throws Exception {
+        final ConcurrentLinkedQueue<SampleData> result = new ConcurrentLinkedQueue<SampleData>();
+        Channels<SampleData> channels1 = new Channels<SampleData>(1, 10, new SimpleRollingPartitioner<SampleData>(), BufferStrategy.BLOCKING);
+        Channels<SampleData> channels2 = new Channels<SampleData>(1, 10, new SimpleRollingPartitioner<SampleData>(), BufferStrategy.BLOCKING);
+        Channels<SampleData> channels3 = new Channels<SampleData>(1, 10, new SimpleRollingPartitioner<SampleData>(), BufferStrategy.BLOCKING);
+
+        MultipleChannelsConsumer consumer = new MultipleChannelsConsumer("MultipleChannelsConsumerTest", 1);
+        consumer.addNewTarget(channels1, new CollectConsumer(result));
+        consumer.addNewTarget(channels2, new CollectConsumer(result));
+        MemberModifier.field(MultipleChannelsConsumer.class, "nextStart").set(consumer, Integer.MAX_VALUE - 1);
+        consumer.setDaemon(true);
+        consumer.start();
+
+        for (int i = 0; i < 50; i++) {
+            Assert.assertTrue(channels1.save(new SampleData().setName("data" + i)));
+            Assert.assertTrue(channels2.save(new SampleData().setName("data" + i)));
+            Thread.sleep(2);
+        }
+        Thread.sleep(200);
+        Assert.assertEquals(100, result.size());
+        Assert.assertTrue(consumer.isAlive());
+
+        Assert.assertTrue(consumer.isConsuming(channels1));
+        Assert.assertFalse(consumer.isConsuming(channels3));
+        consumer.removeTarget(channels1);
+        Assert.assertFalse(consumer.isConsuming(channels1));
+        consumer.shutdown();
+    }
+
+    @Test
+    public void testExitInConsumerThread() throws Exception {
+        Channels<SampleData> channels = new Channels<SampleData>(1, 10, new SimpleRollingPartitioner<SampleData>(), BufferStrategy.BLOCKING);
+        final MultipleChannelsConsumer consumer = new MultipleChannelsConsumer("MultipleChannelsConsumerTest", 1);
+        final AtomicBoolean exited = new AtomicBoolean();
+        final AtomicBoolean consumedAfterExit = new AtomicBoolean();
+        final CountDownLatch exitLatch = new CountDownLatch(1);
+        final AtomicReference<Thread> exitThread = new AtomicReference<Thread>();
+        consumer.addNewTarget(channels, new CollectConsumer(new ConcurrentLinkedQueue<SampleData>()) {
+            @Override public void consume(DataBatch<SampleData> batch) {
+                if (exited.get()) {
+                    consumedAfterExit.set(true);
+                }
+            }
+
+            @Override public void onExit() {
+                exitThread.set(Thread.currentThread());
+                exited.set(true);
+                exitLatch.countDown();
+            }
+        });
+        consumer.setDaemon(true);
+        consumer.start();
+
+        for (int i = 0; i < 50; i++) {
+            channels.save(new SampleData().setName("data" + i));
+        }
+        consumer.removeTarget(channels);
+        Assert.assertTrue(exitLatch.await(1, TimeUnit.SECONDS));
+        Assert.assertSame(consumer, exitThread.get());
+        Assert.assertFalse(consumedAfterExit.get());
+        consumer.shutdown();
+    }
+
+    private static class CollectConsumer implements IBatchConsumer<SampleData> {
+        private final ConcurrentLinkedQueue<SampleData> result;
+
+        private CollectConsumer(ConcurrentLinkedQueue<SampleData> result) {
+            this.result = result;
+        }
+
+        @Override public void init() {
+        }
+
+        @Override public void consume(DataBatch<SampleData> batch) {
+            for (int i = 0; i < batch.size(); i++) {
+                result.add(batch.get(i));
+            }
+        }
+
+        @Override public void onError(DataBatch<SampleData> batch, Throwable t) {
+        }
+
+        @Override public void onExit() {
+        }
+    }
+}
@@ -40,6 +40,11 @@ public class AnalysisResult {
 
     private String indicatorClassName;
 
+    /**
+     * Not null only for the multiple values indicator.
+     */
+    private String valueNamePrefix;
+
     private EntryMethod entryMethod;
 
     private List<FilterExpression> filterExpressions;
@@ -137,6 +142,10 @@ public class AnalysisResult {
                 case "IntKeyLongValueArray":
                     serializeFields.addIntLongValuePairelistField(column.getFieldName());
                     break;
+                case "PercentileSketch":
+                case "DenseHistogram":
+                    serializeFields.addBinaryField(column.getFieldName(), type);
+                    break;
                 default:
                     throw new IllegalStateException("Unexpected field type [" + type + "] of persistence column [" + column.getFieldName() + "]");
             }
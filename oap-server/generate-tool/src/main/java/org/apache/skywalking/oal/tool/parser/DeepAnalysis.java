@@ -22,7 +22,7 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.*;
 import java.util.List;
 import org.apache.skywalking.oal.tool.util.ClassMethodUtil;
-import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
+import org.apache.skywalking.oap.server.core.analysis.indicator.*;
 import org.apache.skywalking.oap.server.core.analysis.indicator.annotation.*;
 import org.apache.skywalking.oap.server.core.storage.annotation.Column;
 
@@ -36,6 +36,16 @@ public class DeepAnalysis {
 
         result.setIndicatorClassName(indicatorClassSimpleName);
 
+        // 2. The value columns of multiple values indicator are named by the metric name without the function name,
+        // e.g. service_percentile = from(Service.latency).percentile(); makes service_p50 to service_p99.
+        if (MultiIntValuesHolder.class.isAssignableFrom(indicatorClass)) {
+            String functionName = result.getAggregationFunctionName();
+            if (!result.getTableName().endsWith(functionName)) {
+                throw new IllegalArgumentException("Metric name [" + result.getVarName() + "] of multiple values function [" + functionName + "] should end with the function name.");
+            }
+            result.setValueNamePrefix(result.getTableName().substring(0, result.getTableName().length() - functionName.length()));
+        }
+
         // Optional for filter
         List<ConditionExpression> expressions = result.getFilterExpressionsParserResult();
         if (expressions != null && expressions.size() > 0) {
@@ -26,6 +26,7 @@ public class PersistenceColumns {
     private List<PersistenceField> doubleFields = new LinkedList<>();
     private List<PersistenceField> intFields = new LinkedList<>();
     private List<PersistenceField> intLongValuePairListFields = new LinkedList<>();
+    private List<PersistenceField> binaryFields = new LinkedList<>();
 
     public void addStringField(String fieldName) {
         stringFields.add(new PersistenceField(fieldName));
@@ -47,6 +48,10 @@ public class PersistenceColumns {
         intLongValuePairListFields.add(new PersistenceField(fieldName));
     }
 
+    public void addBinaryField(String fieldName, String typeName) {
+        binaryFields.add(new PersistenceField(fieldName, typeName));
+    }
+
     public List<PersistenceField> getStringFields() {
         return stringFields;
     }
@@ -66,4 +71,8 @@ public class PersistenceColumns {
     public List<PersistenceField> getIntLongValuePairListFields() {
         return intLongValuePairListFields;
     }
+
+    public List<PersistenceField> getBinaryFields() {
+        return binaryFields;
+    }
 }
@@ -27,10 +27,16 @@ public class PersistenceField {
     private String fieldName;
     private String setter;
     private String getter;
+    private String typeName;
 
     public PersistenceField(String fieldName) {
         this.fieldName = fieldName;
         this.setter = ClassMethodUtil.toSetMethod(fieldName);
         this.getter = ClassMethodUtil.toGetMethod(fieldName);
     }
+
+    public PersistenceField(String fieldName, String typeName) {
+        this(fieldName);
+        this.typeName = typeName;
+    }
 }
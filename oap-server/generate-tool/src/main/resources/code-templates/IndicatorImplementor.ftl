@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.oap.server.core.analysis.generated.${packageName};
 
+import java.io.IOException;
 import java.util.*;
 <#if (fieldsFromSource?size>0) >
 import lombok.*;
@@ -33,6 +34,8 @@ import org.apache.skywalking.oap.server.core.alarm.AlarmSupported;
 import org.apache.skywalking.oap.server.core.analysis.indicator.*;
 import org.apache.skywalking.oap.server.core.analysis.indicator.annotation.IndicatorType;
 import org.apache.skywalking.oap.server.core.remote.annotation.StreamData;
+import org.apache.skywalking.oap.server.core.remote.data.StreamDataInput;
+import org.apache.skywalking.oap.server.core.remote.data.StreamDataOutput;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
 import org.apache.skywalking.oap.server.core.storage.annotation.*;
 import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
@@ -46,6 +49,9 @@ import org.apache.skywalking.oap.server.core.source.Scope;
 @IndicatorType
 @StreamData
 @StorageEntity(name = "${tableName}", builder = ${metricName}Indicator.Builder.class, source = Scope.${sourceName})
+<#if valueNamePrefix??>
+@MultipleValueColumns(prefix = "${valueNamePrefix}")
+</#if>
 public class ${metricName}Indicator extends ${indicatorClassName} implements AlarmSupported {
 
 <#list fieldsFromSource as sourceField>
@@ -81,6 +87,21 @@ public class ${metricName}Indicator extends ${indicatorClassName} implements Ala
         return result;
     }
 
+    @Override public long longHashCode() {
+        long result = 17;
+<#list fieldsFromSource as sourceField>
+    <#if sourceField.isID()>
+        <#if sourceField.getTypeName() == "java.lang.String">
+        result = combineHash(result, ${sourceField.fieldName}.hashCode());
+        <#else>
+        result = combineHash(result, ${sourceField.fieldName});
+        </#if>
+    </#if>
+</#list>
+        result = combineHash(result, getTimeBucket());
+        return result;
+    }
+
     @Override public int remoteHashCode() {
         int result = 17;
 <#list fieldsFromSource as sourceField>
@@ -141,6 +162,9 @@ public class ${metricName}Indicator extends ${indicatorClassName} implements Ala
 <#list serializeFields.intLongValuePairListFields as field>
         ${field.getter}().forEach(element -> remoteBuilder.addDataIntLongPairList(element.serialize()));
 </#list>
+<#list serializeFields.binaryFields as field>
+        remoteBuilder.addDataBytes(${field.getter}().toByteString());
+</#list>
 
         return remoteBuilder;
     }
@@ -168,7 +192,55 @@ public class ${metricName}Indicator extends ${indicatorClassName} implements Ala
             getDetailGroup().add(new IntKeyLongValue(element.getKey(), element.getValue()));
         });
 </#list>
+<#list serializeFields.binaryFields as field>
+        ${field.setter}(new ${field.typeName}());
+        ${field.getter}().deserialize(remoteData.getDataBytes(${field?index}));
+</#list>
+
+    }
 
+    @Override public void serialize(StreamDataOutput output) {
+<#list serializeFields.stringFields as field>
+        output.writeString(${field.getter}());
+</#list>
+<#list serializeFields.longFields as field>
+        output.writeLong(${field.getter}());
+</#list>
+<#list serializeFields.doubleFields as field>
+        output.writeDouble(${field.getter}());
+</#list>
+<#list serializeFields.intFields as field>
+        output.writeInt(${field.getter}());
+</#list>
+<#list serializeFields.intLongValuePairListFields as field>
+        ${field.getter}().serialize(output);
+</#list>
+<#list serializeFields.binaryFields as field>
+        ${field.getter}().serialize(output);
+</#list>
+    }
+
+    @Override public void deserialize(StreamDataInput input) throws IOException {
+<#list serializeFields.stringFields as field>
+        ${field.setter}(input.readString());
+</#list>
+<#list serializeFields.longFields as field>
+        ${field.setter}(input.readLong());
+</#list>
+<#list serializeFields.doubleFields as field>
+        ${field.setter}(input.readDouble());
+</#list>
+<#list serializeFields.intFields as field>
+        ${field.setter}(input.readInt());
+</#list>
+<#list serializeFields.intLongValuePairListFields as field>
+        ${field.setter}(new IntKeyLongValueArray());
+        ${field.getter}().deserialize(input);
+</#list>
+<#list serializeFields.binaryFields as field>
+        ${field.setter}(new ${field.typeName}());
+        ${field.getter}().deserialize(input);
+</#list>
     }
 
     @Override public AlarmMeta getAlarmMeta() {
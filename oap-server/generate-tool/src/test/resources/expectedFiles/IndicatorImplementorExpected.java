@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.oap.server.core.analysis.generated.service.serviceavg;
 
+import java.io.IOException;
 import java.util.*;
 import lombok.*;
 import org.apache.skywalking.oap.server.core.Const;
@@ -26,6 +27,8 @@ import org.apache.skywalking.oap.server.core.alarm.AlarmSupported;
 import org.apache.skywalking.oap.server.core.analysis.indicator.*;
 import org.apache.skywalking.oap.server.core.analysis.indicator.annotation.IndicatorType;
 import org.apache.skywalking.oap.server.core.remote.annotation.StreamData;
+import org.apache.skywalking.oap.server.core.remote.data.StreamDataInput;
+import org.apache.skywalking.oap.server.core.remote.data.StreamDataOutput;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
 import org.apache.skywalking.oap.server.core.storage.annotation.*;
 import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
@@ -56,6 +59,13 @@ public class ServiceAvgIndicator extends LongAvgIndicator implements AlarmSuppor
         return result;
     }
 
+    @Override public long longHashCode() {
+        long result = 17;
+        result = combineHash(result, entityId.hashCode());
+        result = combineHash(result, getTimeBucket());
+        return result;
+    }
+
     @Override public int remoteHashCode() {
         int result = 17;
         result = 31 * result + entityId.hashCode();
@@ -109,6 +119,24 @@ public class ServiceAvgIndicator extends LongAvgIndicator implements AlarmSuppor
 
     }
 
+    @Override public void serialize(StreamDataOutput output) {
+        output.writeString(getEntityId());
+        output.writeString(getStringField());
+        output.writeLong(getSummation());
+        output.writeLong(getValue());
+        output.writeLong(getTimeBucket());
+        output.writeInt(getCount());
+    }
+
+    @Override public void deserialize(StreamDataInput input) throws IOException {
+        setEntityId(input.readString());
+        setStringField(input.readString());
+        setSummation(input.readLong());
+        setValue(input.readLong());
+        setTimeBucket(input.readLong());
+        setCount(input.readInt());
+    }
+
     @Override public AlarmMeta getAlarmMeta() {
         return new AlarmMeta("generate_indicator", Scope.Service, entityId);
     }
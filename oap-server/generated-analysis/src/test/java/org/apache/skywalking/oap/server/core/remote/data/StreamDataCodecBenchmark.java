@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.remote.data;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.oap.server.core.analysis.generated.databaseaccess.DatabaseAccessPercentileIndicator;
+import org.apache.skywalking.oap.server.core.analysis.generated.service.ServiceRespTimeIndicator;
+import org.apache.skywalking.oap.server.core.analysis.indicator.*;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+
+/**
+ * Compare the generated binary codec of the indicators with the {@link RemoteData} message, on the round trip from the
+ * indicator to the bytes and back.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class StreamDataCodecBenchmark {
+
+    private final StreamDataOutput output = new StreamDataOutput();
+    private ServiceRespTimeIndicator avgIndicator;
+    private DatabaseAccessPercentileIndicator percentileIndicator;
+
+    @Setup
+    public void setup() {
+        avgIndicator = new ServiceRespTimeIndicator();
+        avgIndicator.setEntityId("1234");
+        avgIndicator.setTimeBucket(201812011230L);
+        avgIndicator.setSummation(123456);
+        avgIndicator.setCount(321);
+        avgIndicator.setValue(384);
+
+        percentileIndicator = new DatabaseAccessPercentileIndicator();
+        percentileIndicator.setEntityId("5678");
+        percentileIndicator.setTimeBucket(201812011230L);
+        for (int i = 0; i < 30; i++) {
+            percentileIndicator.getSketch().add(i * 10, i * 7);
+        }
+        percentileIndicator.calculate();
+    }
+
+    @Benchmark
+    public Indicator avgProtobuf() throws IOException {
+        ServiceRespTimeIndicator indicator = new ServiceRespTimeIndicator();
+        indicator.deserialize(RemoteData.parseFrom(avgIndicator.serialize().build().toByteArray()));
+        return indicator;
+    }
+
+    @Benchmark
+    public Indicator avgBinary() throws IOException {
+        output.clear();
+        avgIndicator.serialize(output);
+        ServiceRespTimeIndicator indicator = new ServiceRespTimeIndicator();
+        indicator.deserialize(new StreamDataInput(output.toByteString().toByteArray()));
+        return indicator;
+    }
+
+    @Benchmark
+    public Indicator percentileProtobuf() throws IOException {
+        DatabaseAccessPercentileIndicator indicator = new DatabaseAccessPercentileIndicator();
+        indicator.deserialize(RemoteData.parseFrom(percentileIndicator.serialize().build().toByteArray()));
+        return indicator;
+    }
+
+    @Benchmark
+    public Indicator percentileBinary() throws IOException {
+        output.clear();
+        percentileIndicator.serialize(output);
+        DatabaseAccessPercentileIndicator indicator = new DatabaseAccessPercentileIndicator();
+        indicator.deserialize(new StreamDataInput(output.toByteString().toByteArray()));
+        return indicator;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(StreamDataCodecBenchmark.class.getName())
+            .forks(1)
+            .warmupIterations(5)
+            .measurementIterations(5)
+            .build();
+        new Runner(options).run();
+    }
+}
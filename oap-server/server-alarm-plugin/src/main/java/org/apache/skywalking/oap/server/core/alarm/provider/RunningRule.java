@@ -30,7 +30,9 @@ import org.apache.skywalking.oap.server.core.analysis.indicator.DoubleValueHolde
 import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
 import org.apache.skywalking.oap.server.core.analysis.indicator.IntValueHolder;
 import org.apache.skywalking.oap.server.core.analysis.indicator.LongValueHolder;
+import org.apache.skywalking.oap.server.core.analysis.indicator.MultiIntValuesHolder;
 import org.apache.skywalking.oap.server.core.source.Scope;
+import org.apache.skywalking.oap.server.core.storage.annotation.ValueColumnIds;
 import org.apache.skywalking.oap.server.library.util.CollectionUtils;
 import org.joda.time.LocalDateTime;
 import org.joda.time.Minutes;
@@ -102,7 +104,7 @@ public class RunningRule {
             if (indicator instanceof LongValueHolder) {
                 valueType = IndicatorValueType.LONG;
                 threshold.setType(IndicatorValueType.LONG);
-            } else if (indicator instanceof IntValueHolder) {
+            } else if (indicator instanceof IntValueHolder || indicator instanceof MultiIntValuesHolder) {
                 valueType = IndicatorValueType.INT;
                 threshold.setType(IndicatorValueType.INT);
             } else if (indicator instanceof DoubleValueHolder) {
@@ -294,7 +296,7 @@ public class RunningRule {
                         }
                         break;
                     case INT:
-                        int ivalue = ((IntValueHolder)indicator).getValue();
+                        int ivalue = intValue(indicator);
                         int iexpected = RunningRule.this.threshold.getIntThreshold();
                         switch (op) {
                             case LESS:
@@ -338,6 +340,13 @@ public class RunningRule {
             return matchCount >= countThreshold;
         }
 
+        private int intValue(Indicator indicator) {
+            if (indicator instanceof MultiIntValuesHolder) {
+                return ((MultiIntValuesHolder)indicator).getValue(ValueColumnIds.INSTANCE.getValueCName(indicatorName));
+            }
+            return ((IntValueHolder)indicator).getValue();
+        }
+
         private void init() {
             values = new LinkedList();
             for (int i = 0; i < period; i++) {
@@ -35,12 +35,29 @@ public class CoreModuleConfig extends ModuleConfig {
     @Setter private int gRPCPort;
     @Setter private int maxConcurrentCallsPerConnection;
     @Setter private int maxMessageSize;
+    /**
+     * Compress the stream data sent to the other OAP servers by gzip.
+     */
+    @Setter private boolean remoteCompression = false;
     private final List<String> downsampling;
     @Setter private int recordDataTTL;
     @Setter private int minuteMetricsDataTTL;
     @Setter private int hourMetricsDataTTL;
     @Setter private int dayMetricsDataTTL;
     @Setter private int monthMetricsDataTTL;
+    /**
+     * The period of flushing the persistence workers, in seconds.
+     */
+    @Setter private int persistentPeriod = 3;
+    /**
+     * The threads preparing the persistence of the workers in parallel, the number of cores when not positive.
+     */
+    @Setter private int persistentPrepareThreads = 0;
+    /**
+     * Load the whole inventories into the memory at startup, and sync the new registered ones periodically, then the
+     * ingestion never queries the storage for the inventory ids.
+     */
+    @Setter private boolean residentInventoryCache = false;
 
     CoreModuleConfig() {
         this.downsampling = new ArrayList<>();
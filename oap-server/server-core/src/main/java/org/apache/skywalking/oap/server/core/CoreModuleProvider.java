@@ -31,6 +31,7 @@ import org.apache.skywalking.oap.server.core.register.service.*;
 import org.apache.skywalking.oap.server.core.remote.*;
 import org.apache.skywalking.oap.server.core.remote.annotation.*;
 import org.apache.skywalking.oap.server.core.remote.client.*;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.Compression;
 import org.apache.skywalking.oap.server.core.remote.health.HealthCheckServiceHandler;
 import org.apache.skywalking.oap.server.core.server.*;
 import org.apache.skywalking.oap.server.core.source.*;
@@ -112,16 +113,16 @@ public class CoreModuleProvider extends ModuleProvider {
         this.registerServiceImplementation(IModelGetter.class, storageAnnotationListener);
         this.registerServiceImplementation(IModelOverride.class, storageAnnotationListener);
 
-        this.registerServiceImplementation(ServiceInventoryCache.class, new ServiceInventoryCache(getManager()));
+        this.registerServiceImplementation(ServiceInventoryCache.class, new ServiceInventoryCache(getManager(), moduleConfig.isResidentInventoryCache()));
         this.registerServiceImplementation(IServiceInventoryRegister.class, new ServiceInventoryRegister(getManager()));
 
-        this.registerServiceImplementation(ServiceInstanceInventoryCache.class, new ServiceInstanceInventoryCache(getManager()));
+        this.registerServiceImplementation(ServiceInstanceInventoryCache.class, new ServiceInstanceInventoryCache(getManager(), moduleConfig.isResidentInventoryCache()));
         this.registerServiceImplementation(IServiceInstanceInventoryRegister.class, new ServiceInstanceInventoryRegister(getManager()));
 
-        this.registerServiceImplementation(EndpointInventoryCache.class, new EndpointInventoryCache(getManager()));
+        this.registerServiceImplementation(EndpointInventoryCache.class, new EndpointInventoryCache(getManager(), moduleConfig.isResidentInventoryCache()));
         this.registerServiceImplementation(IEndpointInventoryRegister.class, new EndpointInventoryRegister(getManager()));
 
-        this.registerServiceImplementation(NetworkAddressInventoryCache.class, new NetworkAddressInventoryCache(getManager()));
+        this.registerServiceImplementation(NetworkAddressInventoryCache.class, new NetworkAddressInventoryCache(getManager(), moduleConfig.isResidentInventoryCache()));
         this.registerServiceImplementation(INetworkAddressInventoryRegister.class, new NetworkAddressInventoryRegister(getManager()));
 
         this.registerServiceImplementation(TopologyQueryService.class, new TopologyQueryService(getManager()));
@@ -137,7 +138,7 @@ public class CoreModuleProvider extends ModuleProvider {
         annotationScan.registerListener(new InventoryTypeListener(getManager()));
         annotationScan.registerListener(new RecordTypeListener(getManager()));
 
-        this.remoteClientManager = new RemoteClientManager(getManager());
+        this.remoteClientManager = new RemoteClientManager(getManager(), moduleConfig.isRemoteCompression() ? Compression.GZIP : Compression.NONE);
         this.registerServiceImplementation(RemoteClientManager.class, remoteClientManager);
     }
 
@@ -158,6 +159,14 @@ public class CoreModuleProvider extends ModuleProvider {
     }
 
     @Override public void notifyAfterCompleted() throws ModuleStartException {
+        try {
+            if (moduleConfig.isResidentInventoryCache()) {
+                CacheUpdateTimer.INSTANCE.preload(getManager());
+            }
+        } catch (IOException e) {
+            throw new ModuleStartException(e.getMessage(), e);
+        }
+
         try {
             grpcServer.start();
             jettyServer.start();
@@ -168,7 +177,7 @@ public class CoreModuleProvider extends ModuleProvider {
         RemoteInstance gRPCServerInstance = new RemoteInstance(new Address(moduleConfig.getGRPCHost(), moduleConfig.getGRPCPort(), true));
         this.getManager().find(ClusterModule.NAME).provider().getService(ClusterRegister.class).registerRemote(gRPCServerInstance);
 
-        PersistenceTimer.INSTANCE.start(getManager());
+        PersistenceTimer.INSTANCE.start(getManager(), moduleConfig);
 
         DataTTLKeeperTimer.INSTANCE.setDataTTL(moduleConfig.getDataTTL());
         DataTTLKeeperTimer.INSTANCE.start(getManager());
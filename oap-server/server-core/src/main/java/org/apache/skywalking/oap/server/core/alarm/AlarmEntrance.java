@@ -21,12 +21,14 @@ package org.apache.skywalking.oap.server.core.alarm;
 import java.util.concurrent.locks.ReentrantLock;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
+import org.apache.skywalking.oap.server.core.analysis.indicator.MultiIntValuesHolder;
 import org.apache.skywalking.oap.server.core.cache.EndpointInventoryCache;
 import org.apache.skywalking.oap.server.core.cache.ServiceInstanceInventoryCache;
 import org.apache.skywalking.oap.server.core.cache.ServiceInventoryCache;
 import org.apache.skywalking.oap.server.core.register.EndpointInventory;
 import org.apache.skywalking.oap.server.core.register.ServiceInstanceInventory;
 import org.apache.skywalking.oap.server.core.register.ServiceInventory;
+import org.apache.skywalking.oap.server.core.storage.annotation.ValueColumnIds;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 
 /**
@@ -54,13 +56,24 @@ public class AlarmEntrance {
 
         AlarmMeta alarmMeta = ((AlarmSupported)indicator).getAlarmMeta();
 
+        if (indicator instanceof MultiIntValuesHolder) {
+            // Each value column is alarmed by its own name.
+            for (String indicatorName : ValueColumnIds.INSTANCE.getIndNames(alarmMeta.getIndicatorName())) {
+                forward(alarmMeta, indicatorName, indicator);
+            }
+        } else {
+            forward(alarmMeta, alarmMeta.getIndicatorName(), indicator);
+        }
+    }
+
+    private void forward(AlarmMeta alarmMeta, String indicatorName, Indicator indicator) {
         MetaInAlarm metaInAlarm;
         switch (alarmMeta.getScope()) {
             case Service:
                 int serviceId = Integer.parseInt(alarmMeta.getId());
                 ServiceInventory serviceInventory = serviceInventoryCache.get(serviceId);
                 ServiceMetaInAlarm serviceMetaInAlarm = new ServiceMetaInAlarm();
-                serviceMetaInAlarm.setIndicatorName(alarmMeta.getIndicatorName());
+                serviceMetaInAlarm.setIndicatorName(indicatorName);
                 serviceMetaInAlarm.setId(serviceId);
                 serviceMetaInAlarm.setName(serviceInventory.getName());
                 metaInAlarm = serviceMetaInAlarm;
@@ -69,7 +82,7 @@ public class AlarmEntrance {
                 int serviceInstanceId = Integer.parseInt(alarmMeta.getId());
                 ServiceInstanceInventory serviceInstanceInventory = serviceInstanceInventoryCache.get(serviceInstanceId);
                 ServiceInstanceMetaInAlarm instanceMetaInAlarm = new ServiceInstanceMetaInAlarm();
-                instanceMetaInAlarm.setIndicatorName(alarmMeta.getIndicatorName());
+                instanceMetaInAlarm.setIndicatorName(indicatorName);
                 instanceMetaInAlarm.setId(serviceInstanceId);
                 instanceMetaInAlarm.setName(serviceInstanceInventory.getName());
                 metaInAlarm = instanceMetaInAlarm;
@@ -78,7 +91,7 @@ public class AlarmEntrance {
                 int endpointId = Integer.parseInt(alarmMeta.getId());
                 EndpointInventory endpointInventory = endpointInventoryCache.get(endpointId);
                 EndpointMetaInAlarm endpointMetaInAlarm = new EndpointMetaInAlarm();
-                endpointMetaInAlarm.setIndicatorName(alarmMeta.getIndicatorName());
+                endpointMetaInAlarm.setIndicatorName(indicatorName);
                 endpointMetaInAlarm.setId(endpointId);
 
                 serviceId = endpointInventory.getServiceId();
@@ -48,7 +48,7 @@ public class MergeDataCache<INDICATOR extends Indicator> extends Window<INDICATO
     }
 
     @Override public void finishWriting() {
-        lockedMergeDataCollection.finishWriting();
+        finishWriting(lockedMergeDataCollection);
         lockedMergeDataCollection = null;
     }
 }
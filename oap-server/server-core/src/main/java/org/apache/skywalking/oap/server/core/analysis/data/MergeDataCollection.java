@@ -19,33 +19,48 @@
 package org.apache.skywalking.oap.server.core.analysis.data;
 
 import java.util.*;
-import org.apache.skywalking.oap.server.core.remote.data.StreamData;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
 
 /**
+ * Open addressing hash table of the indicators, keyed by {@link Indicator#longHashCode()}. The hashes and indicators
+ * are kept in two flat arrays, probed linearly. {@link Indicator#equals(Object)} is only called when the 64 bits
+ * hashes are the same, and no entry object is created for each put.
+ *
+ * The arrays are kept after {@link #clear()}, and reused by the next window.
+ *
  * @author peng-yongsheng
  */
-public class MergeDataCollection<STREAM_DATA extends StreamData> implements SWCollection<STREAM_DATA> {
+public class MergeDataCollection<INDICATOR extends Indicator> implements SWCollection<INDICATOR> {
+
+    private static final int INITIAL_CAPACITY = 64;
 
-    private Map<STREAM_DATA, STREAM_DATA> collection;
-    private volatile boolean writing;
+    private long[] hashes;
+    private Object[] indicators;
+    private int mask;
+    private int size;
+    private final AtomicInteger writers;
     private volatile boolean reading;
 
     MergeDataCollection() {
-        this.collection = new HashMap<>();
-        this.writing = false;
+        this.hashes = new long[INITIAL_CAPACITY];
+        this.indicators = new Object[INITIAL_CAPACITY];
+        this.mask = INITIAL_CAPACITY - 1;
+        this.size = 0;
+        this.writers = new AtomicInteger(0);
         this.reading = false;
     }
 
-    public void finishWriting() {
-        writing = false;
+    @Override public void finishWriting() {
+        writers.decrementAndGet();
     }
 
     @Override public void writing() {
-        writing = true;
+        writers.incrementAndGet();
     }
 
     @Override public boolean isWriting() {
-        return writing;
+        return writers.get() > 0;
     }
 
     @Override public void finishReading() {
@@ -60,27 +75,107 @@ public class MergeDataCollection<STREAM_DATA extends StreamData> implements SWCo
         return reading;
     }
 
-    @Override public boolean containsKey(STREAM_DATA key) {
-        return collection.containsKey(key);
+    @Override public boolean containsKey(INDICATOR key) {
+        return get(key) != null;
     }
 
-    @Override public void put(STREAM_DATA value) {
-        collection.put(value, value);
+    @Override public void put(INDICATOR value) {
+        long hash = value.longHashCode();
+        int index = indexOf(hash, value);
+        if (indicators[index] == null) {
+            hashes[index] = hash;
+            indicators[index] = value;
+            if (++size * 2 > indicators.length) {
+                resize();
+            }
+        } else {
+            indicators[index] = value;
+        }
     }
 
-    @Override public STREAM_DATA get(STREAM_DATA key) {
-        return collection.get(key);
+    @Override public INDICATOR get(INDICATOR key) {
+        return (INDICATOR)indicators[indexOf(key.longHashCode(), key)];
+    }
+
+    /**
+     * @return the index of the indicator equal to the key, or the empty slot where it should be put.
+     */
+    private int indexOf(long hash, INDICATOR key) {
+        int index = spread(hash) & mask;
+        while (true) {
+            Object indicator = indicators[index];
+            if (indicator == null || (hashes[index] == hash && key.equals(indicator))) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private void resize() {
+        long[] oldHashes = hashes;
+        Object[] oldIndicators = indicators;
+        hashes = new long[oldHashes.length * 2];
+        indicators = new Object[oldIndicators.length * 2];
+        mask = indicators.length - 1;
+        for (int i = 0; i < oldIndicators.length; i++) {
+            if (oldIndicators[i] != null) {
+                int index = spread(oldHashes[i]) & mask;
+                while (indicators[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                hashes[index] = oldHashes[i];
+                indicators[index] = oldIndicators[i];
+            }
+        }
+    }
+
+    private static int spread(long hash) {
+        return (int)(hash ^ (hash >>> 32));
     }
 
     @Override public int size() {
-        return collection.size();
+        return size;
     }
 
     @Override public void clear() {
-        collection.clear();
+        if (size > 0) {
+            Arrays.fill(indicators, null);
+            size = 0;
+        }
+    }
+
+    @Override public Collection<INDICATOR> collection() {
+        return new AbstractCollection<INDICATOR>() {
+            @Override public Iterator<INDICATOR> iterator() {
+                return new Iterator<INDICATOR>() {
+                    private int index = nextIndex(0);
+
+                    @Override public boolean hasNext() {
+                        return index < indicators.length;
+                    }
+
+                    @Override public INDICATOR next() {
+                        if (index >= indicators.length) {
+                            throw new NoSuchElementException();
+                        }
+                        INDICATOR indicator = (INDICATOR)indicators[index];
+                        index = nextIndex(index + 1);
+                        return indicator;
+                    }
+                };
+            }
+
+            @Override public int size() {
+                return size;
+            }
+        };
     }
 
-    @Override public Collection<STREAM_DATA> collection() {
-        return collection.values();
+    private int nextIndex(int from) {
+        int index = from;
+        while (index < indicators.length && indicators[index] == null) {
+            index++;
+        }
+        return index;
     }
 }
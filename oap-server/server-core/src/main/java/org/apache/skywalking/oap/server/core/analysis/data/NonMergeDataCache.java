@@ -40,7 +40,7 @@ public class NonMergeDataCache<STORAGE_DATA extends StorageData> extends Window<
     }
 
     @Override public void finishWriting() {
-        lockedMergeDataCollection.finishWriting();
+        finishWriting(lockedMergeDataCollection);
         lockedMergeDataCollection = null;
     }
 }
@@ -19,6 +19,7 @@
 package org.apache.skywalking.oap.server.core.analysis.data;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.skywalking.oap.server.core.storage.StorageData;
 
 /**
@@ -27,25 +28,25 @@ import org.apache.skywalking.oap.server.core.storage.StorageData;
 public class NonMergeDataCollection<STORAGE_DATA extends StorageData> implements SWCollection<STORAGE_DATA> {
 
     private final List<STORAGE_DATA> data;
-    private volatile boolean writing;
+    private final AtomicInteger writers;
     private volatile boolean reading;
 
     NonMergeDataCollection() {
         this.data = new ArrayList<>();
-        this.writing = false;
+        this.writers = new AtomicInteger(0);
         this.reading = false;
     }
 
-    public void finishWriting() {
-        writing = false;
+    @Override public void finishWriting() {
+        writers.decrementAndGet();
     }
 
     @Override public void writing() {
-        writing = true;
+        writers.incrementAndGet();
     }
 
     @Override public boolean isWriting() {
-        return writing;
+        return writers.get() > 0;
     }
 
     @Override public void finishReading() {
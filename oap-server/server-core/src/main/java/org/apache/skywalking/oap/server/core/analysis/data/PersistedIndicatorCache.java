@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.data;
+
+import java.util.*;
+import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
+
+/**
+ * The last persisted value of the indicators in one persistence worker, grouped by time bucket. A worker handles one
+ * downsampling only, so the buckets are in the same unit, and the buckets older than the latest few ones are closed,
+ * no data would be combined into them anymore. They are evicted as soon as a newer bucket comes.
+ *
+ * The cached value is only right while this node is the only writer of the indicator. The value written by a failed
+ * persistence is {@link #invalidate(Set) invalidated}, and the value not refreshed within the expire time is ignored,
+ * because the indicator may have been handled by another OAP node meanwhile, after the cluster changed. The
+ * indicators moving to another node and back within the expire time are still stale, it is the price of not reading
+ * the storage.
+ *
+ * Not thread safe. It is used by the thread reading the last window of the worker only.
+ */
+public class PersistedIndicatorCache {
+
+    private final int maxSize;
+    private final int bucketsToKeep;
+    private final long expireMillis;
+    private final TreeMap<Long, Map<Indicator, CachedIndicator>> buckets;
+    private int size;
+
+    /**
+     * @param maxSize of the cached indicators, the latest bucket stops caching new indicators when full.
+     * @param bucketsToKeep the number of the latest time buckets, which still accept late data.
+     * @param expireMillis the max time an indicator could be used without being cached again.
+     */
+    public PersistedIndicatorCache(int maxSize, int bucketsToKeep, long expireMillis) {
+        this.maxSize = maxSize;
+        this.bucketsToKeep = bucketsToKeep;
+        this.expireMillis = expireMillis;
+        this.buckets = new TreeMap<>();
+        this.size = 0;
+    }
+
+    /**
+     * @return the last persisted indicator equal to the given one, or null if not cached or expired.
+     */
+    public Indicator get(Indicator indicator) {
+        return get(indicator, System.currentTimeMillis());
+    }
+
+    Indicator get(Indicator indicator, long now) {
+        Map<Indicator, CachedIndicator> bucket = buckets.get(indicator.getTimeBucket());
+        if (bucket == null) {
+            return null;
+        }
+        CachedIndicator cached = bucket.get(indicator);
+        if (cached == null || now - cached.cacheTime >= expireMillis) {
+            return null;
+        }
+        return cached.indicator;
+    }
+
+    /**
+     * Cache the indicator as the last persisted value.
+     */
+    public void put(Indicator indicator) {
+        put(indicator, System.currentTimeMillis());
+    }
+
+    void put(Indicator indicator, long now) {
+        long timeBucket = indicator.getTimeBucket();
+        Map<Indicator, CachedIndicator> bucket = buckets.get(timeBucket);
+        if (bucket == null) {
+            if (buckets.size() >= bucketsToKeep && timeBucket < buckets.firstKey()) {
+                return;
+            }
+            bucket = new HashMap<>();
+            buckets.put(timeBucket, bucket);
+            while (buckets.size() > bucketsToKeep) {
+                size -= buckets.pollFirstEntry().getValue().size();
+            }
+        }
+
+        while (size >= maxSize && buckets.size() > 1 && buckets.firstKey() != timeBucket) {
+            size -= buckets.pollFirstEntry().getValue().size();
+        }
+        if (size >= maxSize && !bucket.containsKey(indicator)) {
+            return;
+        }
+        if (bucket.put(indicator, new CachedIndicator(indicator, now)) == null) {
+            size++;
+        }
+    }
+
+    /**
+     * Remove the indicators of the given ids, whose persistence failed.
+     */
+    public void invalidate(Set<String> ids) {
+        for (Map<Indicator, CachedIndicator> bucket : buckets.values()) {
+            Iterator<Indicator> iterator = bucket.keySet().iterator();
+            while (iterator.hasNext()) {
+                if (ids.contains(iterator.next().id())) {
+                    iterator.remove();
+                    size--;
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static class CachedIndicator {
+        private final Indicator indicator;
+        private final long cacheTime;
+
+        private CachedIndicator(Indicator indicator, long cacheTime) {
+            this.indicator = indicator;
+            this.cacheTime = cacheTime;
+        }
+    }
+}
@@ -29,8 +29,14 @@ public interface SWCollection<DATA> {
 
     boolean isReading();
 
+    /**
+     * Register a writer, there could be more than one writers at the same time.
+     */
     void writing();
 
+    /**
+     * @return true until all registered writers finish writing.
+     */
     boolean isWriting();
 
     void clear();
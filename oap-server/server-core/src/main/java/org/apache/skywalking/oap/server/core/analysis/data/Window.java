@@ -18,16 +18,28 @@
 
 package org.apache.skywalking.oap.server.core.analysis.data;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 
 /**
+ * Double buffer of the workers. Writers register themselves in the current collection before writing, and the switcher
+ * swaps the pointer, then waits for the writers still in the last collection. A writer which finds the pointer changed
+ * after registering leaves and retries in the new current one, so no data is written after the last collection is
+ * read.
+ *
+ * The switcher yields and then parks while waiting, the last writer leaving unparks it.
+ *
  * @author peng-yongsheng
  */
 public abstract class Window<DATA> {
 
-    private AtomicInteger windowSwitch = new AtomicInteger(0);
+    private static final int YIELD_TRIES = 16;
+    private static final long MAX_PARK_NANOS = 1000L * 1000L;
+
+    private final AtomicBoolean switching = new AtomicBoolean(false);
+    private volatile Thread switcher;
 
-    private SWCollection<DATA> pointer;
+    private volatile SWCollection<DATA> pointer;
 
     private SWCollection<DATA> windowDataA;
     private SWCollection<DATA> windowDataB;
@@ -40,30 +52,78 @@ public abstract class Window<DATA> {
 
     public abstract SWCollection<DATA> collectionInstance();
 
+    /**
+     * Switch the pointer, unless another thread is switching or the last collection hasn't been read.
+     *
+     * @return true if switched, the last collection is ready to read then, and must be released by {@link
+     * #finishReadingLast()}.
+     */
     public boolean trySwitchPointer() {
-        return windowSwitch.incrementAndGet() == 1 && !getLast().isReading();
-    }
-
-    public void trySwitchPointerFinally() {
-        windowSwitch.addAndGet(-1);
+        if (!switching.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            if (getLast().isReading()) {
+                return false;
+            }
+            switchPointer();
+            return true;
+        } finally {
+            switching.set(false);
+        }
     }
 
+    /**
+     * Switch the pointer directly, only for the worker which is the only one writing and reading this window.
+     */
     public void switchPointer() {
-        if (pointer == windowDataA) {
+        SWCollection<DATA> last = pointer;
+        if (last == windowDataA) {
             pointer = windowDataB;
         } else {
             pointer = windowDataA;
         }
-        getLast().reading();
+        last.reading();
+        waitForWriters(last);
+    }
+
+    private void waitForWriters(SWCollection<DATA> last) {
+        if (!last.isWriting()) {
+            return;
+        }
+        switcher = Thread.currentThread();
+        try {
+            int counter = 0;
+            while (last.isWriting()) {
+                if (counter++ < YIELD_TRIES) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(this, MAX_PARK_NANOS);
+                }
+            }
+        } finally {
+            switcher = null;
+        }
     }
 
     SWCollection<DATA> getCurrentAndWriting() {
-        if (pointer == windowDataA) {
-            windowDataA.writing();
-            return windowDataA;
-        } else {
-            windowDataB.writing();
-            return windowDataB;
+        while (true) {
+            SWCollection<DATA> current = pointer;
+            current.writing();
+            if (current == pointer) {
+                return current;
+            }
+            finishWriting(current);
+        }
+    }
+
+    void finishWriting(SWCollection<DATA> collection) {
+        collection.finishWriting();
+        if (!collection.isWriting()) {
+            Thread waiting = switcher;
+            if (waiting != null) {
+                LockSupport.unpark(waiting);
+            }
         }
     }
 
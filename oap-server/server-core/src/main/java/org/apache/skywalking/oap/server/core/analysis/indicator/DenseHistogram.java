@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.indicator;
+
+import com.google.protobuf.ByteString;
+import java.io.IOException;
+import java.util.*;
+import org.apache.skywalking.oap.server.core.*;
+import org.apache.skywalking.oap.server.core.remote.data.*;
+import org.apache.skywalking.oap.server.core.storage.type.StorageDataType;
+
+/**
+ * The histogram of the bounded buckets, [0, size), the count of bucket i is kept in a long array at i. It is used
+ * instead of the {@link IntKeyLongValueArray} when the buckets are known, such as in the {@link ThermodynamicIndicator},
+ * so the merge is a loop over two arrays, without boxing and index.
+ *
+ * The binary format is the {@link StreamDataOutput} of the number of buckets and the counts. It is stored as base64,
+ * and the legacy key,value|key,value form of the {@link IntKeyLongValueArray} is still readable.
+ */
+public class DenseHistogram implements StorageDataType {
+    private static final long[] EMPTY_COUNTS = new long[0];
+
+    private long[] counts = EMPTY_COUNTS;
+
+    public DenseHistogram() {
+    }
+
+    public DenseHistogram(String data) {
+        toObject(data);
+    }
+
+    /**
+     * Add the count to the bucket, the negative bucket is counted in the bucket 0.
+     */
+    public void add(int bucket, long count) {
+        if (bucket < 0) {
+            bucket = 0;
+        }
+        ensureSize(bucket + 1);
+        counts[bucket] += count;
+    }
+
+    public void merge(DenseHistogram histogram) {
+        long[] other = histogram.counts;
+        ensureSize(other.length);
+        long[] counts = this.counts;
+        for (int i = 0; i < other.length; i++) {
+            counts[i] += other[i];
+        }
+    }
+
+    /**
+     * @return the count of the bucket, 0 if it is out of the buckets.
+     */
+    public long get(int bucket) {
+        return bucket >= 0 && bucket < counts.length ? counts[bucket] : 0;
+    }
+
+    /**
+     * @return the number of buckets, the highest bucket with count + 1 at least.
+     */
+    public int size() {
+        return counts.length;
+    }
+
+    private void ensureSize(int size) {
+        if (counts.length < size) {
+            counts = Arrays.copyOf(counts, size);
+        }
+    }
+
+    public void serialize(StreamDataOutput output) {
+        output.writeInt(counts.length);
+        for (long count : counts) {
+            output.writeLong(count);
+        }
+    }
+
+    public void deserialize(StreamDataInput input) throws IOException {
+        int size = input.readInt();
+        counts = size == 0 ? EMPTY_COUNTS : new long[size];
+        for (int i = 0; i < size; i++) {
+            counts[i] = input.readLong();
+        }
+    }
+
+    public ByteString toByteString() {
+        StreamDataOutput output = new StreamDataOutput(4 + counts.length * 2);
+        serialize(output);
+        return output.toByteString();
+    }
+
+    public void deserialize(ByteString bytes) {
+        try {
+            deserialize(new StreamDataInput(bytes.toByteArray()));
+        } catch (IOException e) {
+            throw new UnexpectedException("Malformed histogram, " + e.getMessage());
+        }
+    }
+
+    @Override public String toStorageData() {
+        return Base64.getEncoder().encodeToString(toByteString().toByteArray());
+    }
+
+    @Override public void toObject(String data) {
+        if (data == null || data.isEmpty()) {
+            return;
+        }
+        if (data.contains(Const.KEY_VALUE_SPLIT)) {
+            // The base64 has no comma, this is written by IntKeyLongValueArray before.
+            for (IntKeyLongValue element : new IntKeyLongValueArray(data)) {
+                add(element.getKey(), element.getValue());
+            }
+            return;
+        }
+        deserialize(ByteString.copyFrom(Base64.getDecoder().decode(data)));
+    }
+
+    @Override public void copyFrom(Object source) {
+        DenseHistogram histogram = (DenseHistogram)source;
+        this.counts = histogram.counts.length == 0 ? EMPTY_COUNTS : histogram.counts.clone();
+    }
+}
@@ -48,6 +48,20 @@ public abstract class Indicator extends StreamData implements StorageData {
 
     public abstract Indicator toMonth();
 
+    /**
+     * 64 bits hash of the id columns and the time bucket, the key in the {@link
+     * org.apache.skywalking.oap.server.core.analysis.data.MergeDataCollection}. Indicators equal to each other must
+     * have the same one. By default, it is spread from the {@link #hashCode()}.
+     */
+    public long longHashCode() {
+        return combineHash(hashCode(), timeBucket);
+    }
+
+    protected static long combineHash(long hash, long value) {
+        long result = (hash ^ value) * 0x9E3779B97F4A7C15L;
+        return result ^ (result >>> 29);
+    }
+
     public long toTimeBucketInHour() {
         if (isMinuteBucket()) {
             return timeBucket / 100;
@@ -18,11 +18,16 @@
 
 package org.apache.skywalking.oap.server.core.analysis.indicator;
 
-import java.util.ArrayList;
-import org.apache.skywalking.oap.server.core.Const;
+import java.io.IOException;
+import java.util.*;
+import org.apache.skywalking.oap.server.core.*;
+import org.apache.skywalking.oap.server.core.remote.data.*;
 import org.apache.skywalking.oap.server.core.storage.type.StorageDataType;
 
 /**
+ * The storage data is the base64 of the {@link StreamDataOutput} of the size, and each key as the delta from the
+ * previous key, with the value. The legacy key,value|key,value data is still readable.
+ *
  * @author peng-yongsheng
  */
 public class IntKeyLongValueArray extends ArrayList<IntKeyLongValue> implements StorageDataType {
@@ -41,18 +46,28 @@ public class IntKeyLongValueArray extends ArrayList<IntKeyLongValue> implements
     }
 
     @Override public String toStorageData() {
-        StringBuilder data = new StringBuilder();
-        for (int i = 0; i < this.size(); i++) {
-            if (i == 0) {
-                data.append(this.get(i).toStorageData());
-            } else {
-                data.append(Const.ARRAY_SPLIT).append(this.get(i).toStorageData());
-            }
-        }
-        return data.toString();
+        StreamDataOutput output = new StreamDataOutput(4 + size() * 4);
+        serialize(output);
+        return Base64.getEncoder().encodeToString(output.toByteString().toByteArray());
     }
 
     @Override public void toObject(String data) {
+        if (data == null || data.isEmpty()) {
+            return;
+        }
+        if (data.contains(Const.KEY_VALUE_SPLIT)) {
+            // The base64 has no comma, this is the legacy string data.
+            toObjectFromString(data);
+            return;
+        }
+        try {
+            deserialize(new StreamDataInput(Base64.getDecoder().decode(data)));
+        } catch (IOException e) {
+            throw new UnexpectedException("Malformed int key long value array, " + e.getMessage());
+        }
+    }
+
+    private void toObjectFromString(String data) {
         String[] keyValues = data.split(Const.ARRAY_PARSER_SPLIT);
         for (int i = 0; i < keyValues.length; i++) {
             IntKeyLongValue value = new IntKeyLongValue();
@@ -61,6 +76,26 @@ public class IntKeyLongValueArray extends ArrayList<IntKeyLongValue> implements
         }
     }
 
+    public void serialize(StreamDataOutput output) {
+        output.writeInt(size());
+        int previousKey = 0;
+        for (IntKeyLongValue element : this) {
+            output.writeInt(element.getKey() - previousKey);
+            output.writeLong(element.getValue());
+            previousKey = element.getKey();
+        }
+    }
+
+    public void deserialize(StreamDataInput input) throws IOException {
+        int size = input.readInt();
+        ensureCapacity(size() + size);
+        int key = 0;
+        for (int i = 0; i < size; i++) {
+            key += input.readInt();
+            add(new IntKeyLongValue(key, input.readLong()));
+        }
+    }
+
     @Override public void copyFrom(Object source) {
         IntKeyLongValueArray valueArray = (IntKeyLongValueArray)source;
         valueArray.forEach(value -> {
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.indicator;
+
+import lombok.*;
+import org.apache.skywalking.oap.server.core.UnexpectedException;
+import org.apache.skywalking.oap.server.core.analysis.indicator.annotation.*;
+import org.apache.skywalking.oap.server.core.query.sql.Function;
+import org.apache.skywalking.oap.server.core.storage.annotation.Column;
+
+/**
+ * PercentileIndicator keeps one {@link PercentileSketch} of the source, and writes the p50, p75, p90, p95 and p99 in
+ * the same row, instead of 5 {@link PxxIndicator}s with their own buckets.
+ *
+ * Each rank is queried by its own name, see {@link org.apache.skywalking.oap.server.core.storage.annotation.MultipleValueColumns}.
+ * e.g. service_percentile = from(Service.latency).percentile(); makes service_p50 to service_p99.
+ */
+@IndicatorFunction(functionName = "percentile")
+public abstract class PercentileIndicator extends Indicator implements MultiIntValuesHolder {
+    protected static final String P50 = "p50";
+    protected static final String P75 = "p75";
+    protected static final String P90 = "p90";
+    protected static final String P95 = "p95";
+    protected static final String P99 = "p99";
+    protected static final String SKETCH = "sketch";
+
+    private static final int[] RANKS = {50, 75, 90, 95, 99};
+
+    @Getter @Setter @Column(columnName = P50, isValue = true, function = Function.Avg) private int p50;
+    @Getter @Setter @Column(columnName = P75, isValue = true, function = Function.Avg) private int p75;
+    @Getter @Setter @Column(columnName = P90, isValue = true, function = Function.Avg) private int p90;
+    @Getter @Setter @Column(columnName = P95, isValue = true, function = Function.Avg) private int p95;
+    @Getter @Setter @Column(columnName = P99, isValue = true, function = Function.Avg) private int p99;
+    @Getter @Setter @Column(columnName = SKETCH) private PercentileSketch sketch;
+
+    public PercentileIndicator() {
+        sketch = new PercentileSketch();
+    }
+
+    @Entrance
+    public final void combine(@SourceFrom int value) {
+        sketch.add(value);
+    }
+
+    @Override public final void combine(Indicator indicator) {
+        sketch.merge(((PercentileIndicator)indicator).sketch);
+    }
+
+    @Override public final void calculate() {
+        long[] values = sketch.percentiles(RANKS);
+        p50 = (int)values[0];
+        p75 = (int)values[1];
+        p90 = (int)values[2];
+        p95 = (int)values[3];
+        p99 = (int)values[4];
+    }
+
+    @Override public int getValue(String valueCName) {
+        switch (valueCName) {
+            case P50:
+                return p50;
+            case P75:
+                return p75;
+            case P90:
+                return p90;
+            case P95:
+                return p95;
+            case P99:
+                return p99;
+            default:
+                throw new UnexpectedException("Unknown value column " + valueCName + " of percentile indicator.");
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.indicator;
+
+import com.google.protobuf.ByteString;
+import java.io.IOException;
+import java.util.Base64;
+import org.apache.skywalking.oap.server.core.UnexpectedException;
+import org.apache.skywalking.oap.server.core.remote.data.*;
+import org.apache.skywalking.oap.server.core.storage.type.StorageDataType;
+
+/**
+ * A mergeable quantile sketch of the non-negative values, with the bounded relative error, in the way of DDSketch.
+ *
+ * The positive value v is counted in the bucket i = ceil(log(v) / log(gamma)), gamma = (1 + a) / (1 - a), and the
+ * bucket is estimated as 2 * gamma ^ i / (gamma + 1), which is at most a, 1% here, away from any value in it. The
+ * counts of the continuous buckets are kept in a long array, from the lowest bucket, so two sketches are merged by
+ * adding the counts, without sorting. 1ms to 1 hour needs about 760 buckets.
+ *
+ * The binary format is the {@link StreamDataOutput} of the zero count, the lowest bucket, the number of buckets and
+ * the counts. It is stored as base64 in the storage.
+ */
+public class PercentileSketch implements StorageDataType {
+
+    public static final double RELATIVE_ACCURACY = 0.01;
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final long[] EMPTY_COUNTS = new long[0];
+
+    private long zeroCount;
+    private int offset;
+    /**
+     * counts[i] is the count of the bucket offset + i.
+     */
+    private long[] counts = EMPTY_COUNTS;
+    private long total;
+
+    public PercentileSketch() {
+    }
+
+    public PercentileSketch(String data) {
+        toObject(data);
+    }
+
+    public void add(long value) {
+        add(value, 1);
+    }
+
+    public void add(long value, long count) {
+        if (value <= 0) {
+            zeroCount += count;
+        } else {
+            int index = index(value);
+            ensureRange(index, index);
+            counts[index - offset] += count;
+        }
+        total += count;
+    }
+
+    public void merge(PercentileSketch sketch) {
+        zeroCount += sketch.zeroCount;
+        total += sketch.total;
+        if (sketch.counts.length == 0) {
+            return;
+        }
+
+        ensureRange(sketch.offset, sketch.offset + sketch.counts.length - 1);
+        int start = sketch.offset - offset;
+        for (int i = 0; i < sketch.counts.length; i++) {
+            counts[start + i] += sketch.counts[i];
+        }
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * @param rank in [0, 100]
+     * @return the value below which rank percent of the values fall, or 0 if empty.
+     */
+    public long percentile(int rank) {
+        long roof = Math.round(total * rank / 100.0);
+
+        long count = zeroCount;
+        if (count >= roof) {
+            return 0;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            count += counts[i];
+            if (count >= roof) {
+                return value(offset + i);
+            }
+        }
+        return counts.length == 0 ? 0 : value(offset + counts.length - 1);
+    }
+
+    /**
+     * The percentiles of the ranks, in one pass.
+     *
+     * @param ranks in ascending order
+     */
+    public long[] percentiles(int[] ranks) {
+        long[] values = new long[ranks.length];
+        long count = zeroCount;
+        int bucket = -1;
+        for (int r = 0; r < ranks.length; r++) {
+            long roof = Math.round(total * ranks[r] / 100.0);
+            while (count < roof && bucket + 1 < counts.length) {
+                count += counts[++bucket];
+            }
+            values[r] = bucket < 0 ? 0 : value(offset + bucket);
+        }
+        return values;
+    }
+
+    static int index(long value) {
+        return (int)Math.ceil(Math.log(value) / LOG_GAMMA);
+    }
+
+    static long value(int index) {
+        return Math.round(2 * Math.pow(GAMMA, index) / (GAMMA + 1));
+    }
+
+    private void ensureRange(int minIndex, int maxIndex) {
+        if (counts.length == 0) {
+            offset = minIndex;
+            counts = new long[maxIndex - minIndex + 1];
+            return;
+        }
+
+        int newMin = Math.min(minIndex, offset);
+        int newMax = Math.max(maxIndex, offset + counts.length - 1);
+        if (newMin == offset && newMax - newMin + 1 == counts.length) {
+            return;
+        }
+        long[] newCounts = new long[newMax - newMin + 1];
+        System.arraycopy(counts, 0, newCounts, offset - newMin, counts.length);
+        counts = newCounts;
+        offset = newMin;
+    }
+
+    public void serialize(StreamDataOutput output) {
+        output.writeLong(zeroCount);
+        output.writeInt(offset);
+        output.writeInt(counts.length);
+        for (long count : counts) {
+            output.writeLong(count);
+        }
+    }
+
+    public void deserialize(StreamDataInput input) throws IOException {
+        zeroCount = input.readLong();
+        offset = input.readInt();
+        int length = input.readInt();
+        counts = length == 0 ? EMPTY_COUNTS : new long[length];
+        total = zeroCount;
+        for (int i = 0; i < length; i++) {
+            counts[i] = input.readLong();
+            total += counts[i];
+        }
+    }
+
+    public ByteString toByteString() {
+        StreamDataOutput output = new StreamDataOutput(16 + counts.length * 2);
+        serialize(output);
+        return output.toByteString();
+    }
+
+    public void deserialize(ByteString bytes) {
+        try {
+            deserialize(new StreamDataInput(bytes.toByteArray()));
+        } catch (IOException e) {
+            throw new UnexpectedException("Malformed percentile sketch, " + e.getMessage());
+        }
+    }
+
+    @Override public String toStorageData() {
+        return Base64.getEncoder().encodeToString(toByteString().toByteArray());
+    }
+
+    @Override public void toObject(String data) {
+        if (data == null || data.isEmpty()) {
+            return;
+        }
+        deserialize(ByteString.copyFrom(Base64.getDecoder().decode(data)));
+    }
+
+    @Override public void copyFrom(Object source) {
+        PercentileSketch sketch = (PercentileSketch)source;
+        this.zeroCount = sketch.zeroCount;
+        this.offset = sketch.offset;
+        this.counts = sketch.counts.length == 0 ? EMPTY_COUNTS : sketch.counts.clone();
+        this.total = sketch.total;
+    }
+}
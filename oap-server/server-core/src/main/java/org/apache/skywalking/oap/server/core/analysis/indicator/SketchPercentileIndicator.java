@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.indicator;
+
+import lombok.*;
+import org.apache.skywalking.oap.server.core.analysis.indicator.annotation.*;
+import org.apache.skywalking.oap.server.core.query.sql.Function;
+import org.apache.skywalking.oap.server.core.storage.annotation.Column;
+
+/**
+ * The percentile indicator backed by the {@link PercentileSketch}, in place of the buckets of the {@link PxxIndicator}.
+ * The value is at most 1% away from the exact percentile, whatever the scale of the source is, and the sketches are
+ * merged by adding the counts, without sorting or index rebuilding.
+ *
+ * e.g. sketchPercentile(99) for the P99.
+ */
+@IndicatorFunction(functionName = "sketchPercentile")
+public abstract class SketchPercentileIndicator extends Indicator implements IntValueHolder {
+    protected static final String VALUE = "value";
+    protected static final String PERCENTILE_RANK = "percentile_rank";
+    protected static final String SKETCH = "sketch";
+
+    @Getter @Setter @Column(columnName = VALUE, isValue = true, function = Function.Avg) private int value;
+    @Getter @Setter @Column(columnName = PERCENTILE_RANK) private int percentileRank;
+    @Getter @Setter @Column(columnName = SKETCH) private PercentileSketch sketch;
+
+    public SketchPercentileIndicator() {
+        sketch = new PercentileSketch();
+    }
+
+    @Entrance
+    public final void combine(@SourceFrom int value, @Arg int percentileRank) {
+        this.percentileRank = percentileRank;
+        sketch.add(value);
+    }
+
+    @Override public final void combine(Indicator indicator) {
+        SketchPercentileIndicator sketchIndicator = (SketchPercentileIndicator)indicator;
+        this.percentileRank = sketchIndicator.percentileRank;
+        sketch.merge(sketchIndicator.sketch);
+    }
+
+    @Override public final void calculate() {
+        value = (int)sketch.percentile(percentileRank);
+    }
+}
@@ -18,8 +18,6 @@
 
 package org.apache.skywalking.oap.server.core.analysis.indicator;
 
-import java.util.HashMap;
-import java.util.Map;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.skywalking.oap.server.core.analysis.indicator.annotation.*;
@@ -43,9 +41,7 @@ public abstract class ThermodynamicIndicator extends Indicator {
 
     @Getter @Setter @Column(columnName = STEP) private int step = 0;
     @Getter @Setter @Column(columnName = NUM_OF_STEPS) private int numOfSteps = 0;
-    @Getter @Setter @Column(columnName = DETAIL_GROUP, isValue = true) private IntKeyLongValueArray detailGroup = new IntKeyLongValueArray(30);
-
-    private Map<Integer, IntKeyLongValue> detailIndex;
+    @Getter @Setter @Column(columnName = DETAIL_GROUP, isValue = true) private DenseHistogram detailGroup = new DenseHistogram();
 
     /**
      * Data will be grouped in
@@ -66,41 +62,19 @@ public abstract class ThermodynamicIndicator extends Indicator {
             this.numOfSteps = maxNumOfSteps;
         }
 
-        indexCheckAndInit();
-
         int index = value / step;
         if (index > maxNumOfSteps) {
             index = numOfSteps;
+        } else if (index < 0) {
+            // The negative latency, e.g. by clock skew, goes to the first step.
+            index = 0;
         }
-        IntKeyLongValue element = detailIndex.get(index);
-        if (element == null) {
-            element = new IntKeyLongValue();
-            element.setKey(index);
-            element.setValue(1);
-            addElement(element);
-        } else {
-            element.addValue(1);
-        }
+        detailGroup.add(index, 1);
     }
 
     @Override
     public void combine(Indicator indicator) {
-        ThermodynamicIndicator thermodynamicIndicator = (ThermodynamicIndicator)indicator;
-        this.indexCheckAndInit();
-        thermodynamicIndicator.indexCheckAndInit();
-        final ThermodynamicIndicator self = this;
-
-        thermodynamicIndicator.detailIndex.forEach((key, element) -> {
-            IntKeyLongValue existingElement = self.detailIndex.get(key);
-            if (existingElement == null) {
-                existingElement = new IntKeyLongValue();
-                existingElement.setKey(key);
-                existingElement.setValue(element.getValue());
-                self.addElement(element);
-            } else {
-                existingElement.addValue(element.getValue());
-            }
-        });
+        detailGroup.merge(((ThermodynamicIndicator)indicator).detailGroup);
     }
 
     /**
@@ -110,16 +84,4 @@ public abstract class ThermodynamicIndicator extends Indicator {
     public final void calculate() {
 
     }
-
-    private void addElement(IntKeyLongValue element) {
-        detailGroup.add(element);
-        detailIndex.put(element.getKey(), element);
-    }
-
-    private void indexCheckAndInit() {
-        if (detailIndex == null) {
-            detailIndex = new HashMap<>();
-            detailGroup.forEach(element -> detailIndex.put(element.getKey(), element));
-        }
-    }
 }
@@ -130,6 +130,15 @@ public class ServiceRelationClientSideIndicator extends Indicator {
         return result;
     }
 
+    @Override public long longHashCode() {
+        long result = 17;
+        result = combineHash(result, sourceServiceId);
+        result = combineHash(result, destServiceId);
+        result = combineHash(result, componentId);
+        result = combineHash(result, getTimeBucket());
+        return result;
+    }
+
     @Override public boolean equals(Object obj) {
         if (this == obj)
             return true;
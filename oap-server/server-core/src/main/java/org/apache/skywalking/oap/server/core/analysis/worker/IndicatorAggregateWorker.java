@@ -18,14 +18,13 @@
 
 package org.apache.skywalking.oap.server.core.analysis.worker;
 
-import java.util.Iterator;
-import java.util.List;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
-import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.*;
+import org.apache.skywalking.oap.server.core.UnexpectedException;
 import org.apache.skywalking.oap.server.core.analysis.data.EndOfBatchContext;
 import org.apache.skywalking.oap.server.core.analysis.data.MergeDataCache;
 import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
-import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
+import org.apache.skywalking.oap.server.core.worker.*;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
 import org.apache.skywalking.oap.server.telemetry.api.*;
@@ -41,6 +40,7 @@ public class IndicatorAggregateWorker extends AbstractWorker<Indicator> {
 
     private AbstractWorker<Indicator> nextWorker;
     private final DataCarrier<Indicator> dataCarrier;
+    private final DataCarrierMonitor carrierMonitor;
     private final MergeDataCache<Indicator> mergeDataCache;
     private int messageNum;
     private final String modelName;
@@ -51,8 +51,18 @@ public class IndicatorAggregateWorker extends AbstractWorker<Indicator> {
         this.modelName = modelName;
         this.nextWorker = nextWorker;
         this.mergeDataCache = new MergeDataCache<>();
-        this.dataCarrier = new DataCarrier<>("IndicatorAggregateWorker." + modelName, 1, 10000);
-        this.dataCarrier.consume(new AggregatorConsumer(this), 1);
+        String carrierName = "IndicatorAggregateWorker." + modelName;
+        this.dataCarrier = new DataCarrier<>(carrierName, 1, 10000);
+        this.carrierMonitor = new DataCarrierMonitor(moduleManager, carrierName);
+        this.carrierMonitor.monitor(dataCarrier);
+        String name = "INDICATOR_L1_AGGREGATION";
+        BulkConsumePool.Creator creator = new BulkConsumePool.Creator(name, BulkConsumePool.Creator.recommendMaxSize(), 20);
+        try {
+            ConsumerPoolFactory.INSTANCE.createIfAbsent(name, creator);
+        } catch (Exception e) {
+            throw new UnexpectedException(e.getMessage());
+        }
+        this.dataCarrier.consume(ConsumerPoolFactory.INSTANCE.get(name), new AggregatorConsumer(this));
 
         MetricCreator metricCreator = moduleManager.find(TelemetryModule.NAME).provider().getService(MetricCreator.class);
         aggregationCounter = metricCreator.createCounter("indicator_aggregation", "The number of rows in aggregation",
@@ -77,13 +87,6 @@ public class IndicatorAggregateWorker extends AbstractWorker<Indicator> {
 
     private void sendToNext() {
         mergeDataCache.switchPointer();
-        while (mergeDataCache.getLast().isWriting()) {
-            try {
-                Thread.sleep(10);
-            } catch (InterruptedException e) {
-                logger.error(e.getMessage(), e);
-            }
-        }
 
         mergeDataCache.getLast().collection().forEach(data -> {
             if (logger.isDebugEnabled()) {
@@ -97,8 +100,9 @@ public class IndicatorAggregateWorker extends AbstractWorker<Indicator> {
 
     private void aggregate(Indicator indicator) {
         mergeDataCache.writing();
-        if (mergeDataCache.containsKey(indicator)) {
-            mergeDataCache.get(indicator).combine(indicator);
+        Indicator cached = mergeDataCache.get(indicator);
+        if (cached != null) {
+            cached.combine(indicator);
         } else {
             mergeDataCache.put(indicator);
         }
@@ -106,7 +110,7 @@ public class IndicatorAggregateWorker extends AbstractWorker<Indicator> {
         mergeDataCache.finishWriting();
     }
 
-    private class AggregatorConsumer implements IConsumer<Indicator> {
+    private class AggregatorConsumer implements IBatchConsumer<Indicator> {
 
         private final IndicatorAggregateWorker aggregator;
 
@@ -118,21 +122,19 @@ public class IndicatorAggregateWorker extends AbstractWorker<Indicator> {
 
         }
 
-        @Override public void consume(List<Indicator> data) {
-            Iterator<Indicator> inputIterator = data.iterator();
-
-            int i = 0;
-            while (inputIterator.hasNext()) {
-                Indicator indicator = inputIterator.next();
-                i++;
-                if (i == data.size()) {
+        @Override public void consume(DataBatch<Indicator> batch) {
+            aggregator.carrierMonitor.onConsume(batch.size());
+            int last = batch.size() - 1;
+            for (int i = 0; i <= last; i++) {
+                Indicator indicator = batch.get(i);
+                if (i == last) {
                     indicator.getEndOfBatchContext().setEndOfBatch(true);
                 }
                 aggregator.onWork(indicator);
             }
         }
 
-        @Override public void onError(List<Indicator> data, Throwable t) {
+        @Override public void onError(DataBatch<Indicator> batch, Throwable t) {
             logger.error(t.getMessage(), t);
         }
 
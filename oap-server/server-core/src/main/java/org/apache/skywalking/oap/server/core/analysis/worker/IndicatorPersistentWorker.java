@@ -18,18 +18,31 @@
 
 package org.apache.skywalking.oap.server.core.analysis.worker;
 
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
-import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.*;
+import org.apache.skywalking.oap.server.core.UnexpectedException;
 import org.apache.skywalking.oap.server.core.analysis.data.EndOfBatchContext;
 import org.apache.skywalking.oap.server.core.analysis.data.MergeDataCache;
+import org.apache.skywalking.oap.server.core.analysis.data.PersistedIndicatorCache;
+import org.apache.skywalking.oap.server.core.analysis.data.SWCollection;
 import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
 import org.apache.skywalking.oap.server.core.storage.IIndicatorDAO;
-import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
+import org.apache.skywalking.oap.server.core.storage.PersistenceFailureNotifier;
+import org.apache.skywalking.oap.server.core.worker.*;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetric;
+import org.apache.skywalking.oap.server.telemetry.api.MetricCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricTag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,11 +55,27 @@ public class IndicatorPersistentWorker extends PersistenceWorker<Indicator, Merg
 
     private static final Logger logger = LoggerFactory.getLogger(IndicatorPersistentWorker.class);
 
+    private static final int READ_CHUNK_SIZE = 100;
+    private static final int PERSISTED_CACHE_SIZE = 10000;
+    private static final int PERSISTED_CACHE_BUCKETS = 2;
+    private static final long PERSISTED_CACHE_EXPIRE_MILLIS = 60000;
+    private static final int UNREAD_LIMIT = 10000;
+
     private final String modelName;
     private final MergeDataCache<Indicator> mergeDataCache;
     private final IIndicatorDAO indicatorDAO;
     private final AbstractWorker<Indicator> nextWorker;
     private final DataCarrier<Indicator> dataCarrier;
+    private final DataCarrierMonitor carrierMonitor;
+    private final PersistedIndicatorCache persistedCache;
+    private final ConcurrentLinkedQueue<String> failedIds;
+    /**
+     * Only accessed in {@link #prepareBatch(MergeDataCache)}, which one thread at a time runs while reading the last
+     * collection.
+     */
+    private List<Indicator> unread;
+    private final CounterMetric persistedCacheHitCounter;
+    private final CounterMetric persistedCacheMissCounter;
 
     IndicatorPersistentWorker(int workerId, String modelName, int batchSize, ModuleManager moduleManager,
         IIndicatorDAO indicatorDAO, AbstractWorker<Indicator> nextWorker) {
@@ -55,8 +84,29 @@ public class IndicatorPersistentWorker extends PersistenceWorker<Indicator, Merg
         this.mergeDataCache = new MergeDataCache<>();
         this.indicatorDAO = indicatorDAO;
         this.nextWorker = nextWorker;
-        this.dataCarrier = new DataCarrier<>("IndicatorPersistentWorker." + modelName, 1, 10000);
-        this.dataCarrier.consume(new IndicatorPersistentWorker.PersistentConsumer(this), 1);
+        this.persistedCache = new PersistedIndicatorCache(PERSISTED_CACHE_SIZE, PERSISTED_CACHE_BUCKETS, PERSISTED_CACHE_EXPIRE_MILLIS);
+        this.failedIds = new ConcurrentLinkedQueue<>();
+        this.unread = new ArrayList<>();
+        PersistenceFailureNotifier.INSTANCE.addListener(modelName, failedIds::add);
+        MetricCreator metricCreator = moduleManager.find(TelemetryModule.NAME).provider().getService(MetricCreator.class);
+        persistedCacheHitCounter = metricCreator.createCounter("indicator_persisted_cache_hit",
+            "The number of indicators combined with the cached persisted value, without reading storage",
+            new MetricTag.Keys("metricName"), new MetricTag.Values(modelName));
+        persistedCacheMissCounter = metricCreator.createCounter("indicator_persisted_cache_miss",
+            "The number of indicators read from storage before persistence",
+            new MetricTag.Keys("metricName"), new MetricTag.Values(modelName));
+        String carrierName = "IndicatorPersistentWorker." + modelName;
+        this.dataCarrier = new DataCarrier<>(carrierName, 1, 10000);
+        this.carrierMonitor = new DataCarrierMonitor(moduleManager, carrierName);
+        this.carrierMonitor.monitor(dataCarrier);
+        String name = "INDICATOR_L2_PERSISTENCE";
+        BulkConsumePool.Creator creator = new BulkConsumePool.Creator(name, BulkConsumePool.Creator.recommendMaxSize(), 20);
+        try {
+            ConsumerPoolFactory.INSTANCE.createIfAbsent(name, creator);
+        } catch (Exception e) {
+            throw new UnexpectedException(e.getMessage());
+        }
+        this.dataCarrier.consume(ConsumerPoolFactory.INSTANCE.get(name), new IndicatorPersistentWorker.PersistentConsumer(this));
     }
 
     @Override void onWork(Indicator indicator) {
@@ -72,52 +122,147 @@ public class IndicatorPersistentWorker extends PersistenceWorker<Indicator, Merg
         return mergeDataCache;
     }
 
-    public boolean flushAndSwitch() {
-        boolean isSwitch;
+    @Override public List<Object> prepareBatch(MergeDataCache<Indicator> cache) {
+        invalidateFailed();
+        mergeUnread(cache.getLast());
+
+        List<Object> batchCollection = new LinkedList<>();
+        List<Indicator> chunk = new ArrayList<>(READ_CHUNK_SIZE);
+        for (Indicator data : cache.getLast().collection()) {
+            Indicator persisted = persistedCache.get(data);
+            if (persisted != null) {
+                persistedCacheHitCounter.inc();
+                prepare(data, persisted, batchCollection);
+                continue;
+            }
+
+            persistedCacheMissCounter.inc();
+            chunk.add(data);
+            if (chunk.size() == READ_CHUNK_SIZE) {
+                prepareChunk(chunk, batchCollection);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            prepareChunk(chunk, batchCollection);
+        }
+
+        return batchCollection;
+    }
+
+    /**
+     * The indicators failed in the previous persistence may not be in the storage, forget their cached values, so they
+     * are read from the storage again.
+     */
+    private void invalidateFailed() {
+        if (failedIds.isEmpty()) {
+            return;
+        }
+        Set<String> ids = new HashSet<>();
+        String id;
+        while ((id = failedIds.poll()) != null) {
+            ids.add(id);
+        }
+        persistedCache.invalidate(ids);
+        logger.warn("{} indicators of {} failed in persistence, read them from the storage next time.", ids.size(), modelName);
+    }
+
+    /**
+     * The indicators whose stored values couldn't be read in the previous persistence are merged into this one, so
+     * they are read again rather than inserted over the stored values.
+     */
+    private void mergeUnread(SWCollection<Indicator> last) {
+        if (unread.isEmpty()) {
+            return;
+        }
+        for (Indicator data : unread) {
+            Indicator indicator = last.get(data);
+            if (indicator != null) {
+                indicator.combine(data);
+                indicator.calculate();
+            } else {
+                last.put(data);
+            }
+        }
+        unread = new ArrayList<>();
+    }
+
+    /**
+     * Read the stored indicators of the chunk in one request, then combine them with the cached ones. If the request
+     * fails, read them one by one, so a bad one doesn't fail the others.
+     */
+    private void prepareChunk(List<Indicator> chunk, List<Object> batchCollection) {
+        Map<String, Indicator> dbDataMap = new HashMap<>();
         try {
-            if (isSwitch = getCache().trySwitchPointer()) {
-                getCache().switchPointer();
+            List<Indicator> dbDataList = indicatorDAO.multiGet(modelName, chunk);
+            for (Indicator dbData : dbDataList) {
+                dbDataMap.put(dbData.id(), dbData);
+            }
+        } catch (Throwable t) {
+            logger.warn("Read {} indicators of {} failure, read them one by one, reason: {}", chunk.size(), modelName, t.getMessage());
+            for (Indicator data : chunk) {
+                prepareOne(data, batchCollection);
             }
-        } finally {
-            getCache().trySwitchPointerFinally();
+            return;
+        }
+
+        for (Indicator data : chunk) {
+            prepare(data, dbDataMap.get(data.id()), batchCollection);
         }
-        return isSwitch;
     }
 
-    @Override public List<Object> prepareBatch(MergeDataCache<Indicator> cache) {
-        List<Object> batchCollection = new LinkedList<>();
-        cache.getLast().collection().forEach(data -> {
-            Indicator dbData = null;
-            try {
-                dbData = indicatorDAO.get(modelName, data);
-            } catch (Throwable t) {
-                logger.error(t.getMessage(), t);
+    /**
+     * A failed read must not become an insert, which overwrites the stored value. The indicator is kept to the next
+     * persistence instead, neither persisted nor cached.
+     */
+    private void prepareOne(Indicator data, List<Object> batchCollection) {
+        Indicator dbData;
+        try {
+            dbData = indicatorDAO.get(modelName, data);
+        } catch (Throwable t) {
+            if (unread.size() < UNREAD_LIMIT) {
+                unread.add(data);
+                logger.error("Read indicator {} of {} failure, retry in the next persistence, reason: {}", data.id(), modelName, t.getMessage());
+            } else {
+                logger.error("Read indicator {} of {} failure, abandoned, reason: {}", data.id(), modelName, t.getMessage());
             }
-            try {
-                if (nonNull(dbData)) {
-                    data.combine(dbData);
-                    data.calculate();
-
-                    batchCollection.add(indicatorDAO.prepareBatchUpdate(modelName, data));
-                } else {
-                    batchCollection.add(indicatorDAO.prepareBatchInsert(modelName, data));
-                }
+            return;
+        }
+        prepare(data, dbData, batchCollection);
+    }
 
-                if (Objects.nonNull(nextWorker)) {
-                    nextWorker.in(data);
-                }
-            } catch (Throwable t) {
-                logger.error(t.getMessage(), t);
+    /**
+     * Combine the stored value, prepare the persistence, and cache the indicator as the last persisted value. It is
+     * invalidated by {@link PersistenceFailureNotifier} if the persistence fails later.
+     */
+    private void prepare(Indicator data, Indicator dbData, List<Object> batchCollection) {
+        try {
+            if (nonNull(dbData)) {
+                data.combine(dbData);
+                data.calculate();
+
+                batchCollection.add(indicatorDAO.prepareBatchUpdate(modelName, data));
+            } else {
+                batchCollection.add(indicatorDAO.prepareBatchInsert(modelName, data));
             }
-        });
+            persistedCache.put(data);
 
-        return batchCollection;
+            if (Objects.nonNull(nextWorker)) {
+                nextWorker.in(data);
+            }
+        } catch (Throwable t) {
+            logger.error(t.getMessage(), t);
+        }
+    }
+
+    @Override public String getModelName() {
+        return modelName;
     }
 
     @Override public void cacheData(Indicator input) {
         mergeDataCache.writing();
-        if (mergeDataCache.containsKey(input)) {
-            Indicator indicator = mergeDataCache.get(input);
+        Indicator indicator = mergeDataCache.get(input);
+        if (indicator != null) {
             indicator.combine(input);
             indicator.calculate();
         } else {
@@ -128,7 +273,7 @@ public class IndicatorPersistentWorker extends PersistenceWorker<Indicator, Merg
         mergeDataCache.finishWriting();
     }
 
-    private class PersistentConsumer implements IConsumer<Indicator> {
+    private class PersistentConsumer implements IBatchConsumer<Indicator> {
 
         private final IndicatorPersistentWorker persistent;
 
@@ -140,21 +285,19 @@ public class IndicatorPersistentWorker extends PersistenceWorker<Indicator, Merg
 
         }
 
-        @Override public void consume(List<Indicator> data) {
-            Iterator<Indicator> inputIterator = data.iterator();
-
-            int i = 0;
-            while (inputIterator.hasNext()) {
-                Indicator indicator = inputIterator.next();
-                i++;
-                if (i == data.size()) {
+        @Override public void consume(DataBatch<Indicator> batch) {
+            persistent.carrierMonitor.onConsume(batch.size());
+            int last = batch.size() - 1;
+            for (int i = 0; i <= last; i++) {
+                Indicator indicator = batch.get(i);
+                if (i == last) {
                     indicator.getEndOfBatchContext().setEndOfBatch(true);
                 }
                 persistent.onWork(indicator);
             }
         }
 
-        @Override public void onError(List<Indicator> data, Throwable t) {
+        @Override public void onError(DataBatch<Indicator> batch, Throwable t) {
             logger.error(t.getMessage(), t);
         }
 
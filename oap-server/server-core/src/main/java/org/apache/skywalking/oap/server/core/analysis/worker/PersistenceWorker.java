@@ -23,15 +23,12 @@ import org.apache.skywalking.oap.server.core.analysis.data.Window;
 import org.apache.skywalking.oap.server.core.storage.*;
 import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
-import org.slf4j.*;
 
 /**
  * @author peng-yongsheng
  */
 public abstract class PersistenceWorker<INPUT extends StorageData, CACHE extends Window<INPUT>> extends AbstractWorker<INPUT> {
 
-    private static final Logger logger = LoggerFactory.getLogger(PersistenceWorker.class);
-
     private final int batchSize;
     private final IBatchDAO batchDAO;
 
@@ -43,15 +40,9 @@ public abstract class PersistenceWorker<INPUT extends StorageData, CACHE extends
 
     void onWork(INPUT input) {
         if (getCache().currentCollectionSize() >= batchSize) {
-            try {
-                if (getCache().trySwitchPointer()) {
-                    getCache().switchPointer();
-
-                    List<?> collection = buildBatchCollection();
-                    batchDAO.batchPersistence(collection);
-                }
-            } finally {
-                getCache().trySwitchPointerFinally();
+            if (getCache().trySwitchPointer()) {
+                List<?> collection = buildBatchCollection();
+                batchDAO.batchPersistence(collection);
             }
         }
         cacheData(input);
@@ -59,18 +50,12 @@ public abstract class PersistenceWorker<INPUT extends StorageData, CACHE extends
 
     public abstract void cacheData(INPUT input);
 
+    public abstract String getModelName();
+
     public abstract CACHE getCache();
 
     public boolean flushAndSwitch() {
-        boolean isSwitch;
-        try {
-            if (isSwitch = getCache().trySwitchPointer()) {
-                getCache().switchPointer();
-            }
-        } finally {
-            getCache().trySwitchPointerFinally();
-        }
-        return isSwitch;
+        return getCache().trySwitchPointer();
     }
 
     public abstract List<Object> prepareBatch(CACHE cache);
@@ -78,14 +63,6 @@ public abstract class PersistenceWorker<INPUT extends StorageData, CACHE extends
     public final List<?> buildBatchCollection() {
         List<?> batchCollection = new LinkedList<>();
         try {
-            while (getCache().getLast().isWriting()) {
-                try {
-                    Thread.sleep(10);
-                } catch (InterruptedException e) {
-                    logger.warn("thread wake up");
-                }
-            }
-
             if (getCache().getLast().collection() != null) {
                 batchCollection = prepareBatch(getCache());
             }
@@ -20,10 +20,12 @@ package org.apache.skywalking.oap.server.core.analysis.worker;
 
 import java.util.*;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
-import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.*;
+import org.apache.skywalking.oap.server.core.UnexpectedException;
 import org.apache.skywalking.oap.server.core.analysis.data.NonMergeDataCache;
 import org.apache.skywalking.oap.server.core.analysis.record.Record;
 import org.apache.skywalking.oap.server.core.storage.IRecordDAO;
+import org.apache.skywalking.oap.server.core.worker.DataCarrierMonitor;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.slf4j.*;
 
@@ -38,6 +40,7 @@ public class RecordPersistentWorker extends PersistenceWorker<Record, NonMergeDa
     private final NonMergeDataCache<Record> nonMergeDataCache;
     private final IRecordDAO recordDAO;
     private final DataCarrier<Record> dataCarrier;
+    private final DataCarrierMonitor carrierMonitor;
 
     RecordPersistentWorker(int workerId, String modelName, int batchSize, ModuleManager moduleManager,
         IRecordDAO recordDAO) {
@@ -45,8 +48,18 @@ public class RecordPersistentWorker extends PersistenceWorker<Record, NonMergeDa
         this.modelName = modelName;
         this.nonMergeDataCache = new NonMergeDataCache<>();
         this.recordDAO = recordDAO;
-        this.dataCarrier = new DataCarrier<>(1, 10000);
-        this.dataCarrier.consume(new RecordPersistentWorker.PersistentConsumer(this), 1);
+        String carrierName = "RecordPersistentWorker." + modelName;
+        this.dataCarrier = new DataCarrier<>(carrierName, 1, 10000);
+        this.carrierMonitor = new DataCarrierMonitor(moduleManager, carrierName);
+        this.carrierMonitor.monitor(dataCarrier);
+        String name = "RECORD_PERSISTENCE";
+        BulkConsumePool.Creator creator = new BulkConsumePool.Creator(name, Math.max(1, BulkConsumePool.Creator.recommendMaxSize() / 2), 20);
+        try {
+            ConsumerPoolFactory.INSTANCE.createIfAbsent(name, creator);
+        } catch (Exception e) {
+            throw new UnexpectedException(e.getMessage());
+        }
+        this.dataCarrier.consume(ConsumerPoolFactory.INSTANCE.get(name), new RecordPersistentWorker.PersistentConsumer(this));
     }
 
     @Override public void in(Record record) {
@@ -69,13 +82,17 @@ public class RecordPersistentWorker extends PersistenceWorker<Record, NonMergeDa
         return batchCollection;
     }
 
+    @Override public String getModelName() {
+        return modelName;
+    }
+
     @Override public void cacheData(Record input) {
         nonMergeDataCache.writing();
         nonMergeDataCache.add(input);
         nonMergeDataCache.finishWriting();
     }
 
-    private class PersistentConsumer implements IConsumer<Record> {
+    private class PersistentConsumer implements IBatchConsumer<Record> {
 
         private final RecordPersistentWorker persistent;
 
@@ -87,13 +104,14 @@ public class RecordPersistentWorker extends PersistenceWorker<Record, NonMergeDa
 
         }
 
-        @Override public void consume(List<Record> data) {
-            for (Record record : data) {
-                persistent.onWork(record);
+        @Override public void consume(DataBatch<Record> batch) {
+            persistent.carrierMonitor.onConsume(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                persistent.onWork(batch.get(i));
             }
         }
 
-        @Override public void onError(List<Record> data, Throwable t) {
+        @Override public void onError(DataBatch<Record> batch, Throwable t) {
             logger.error(t.getMessage(), t);
         }
 
@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.oap.server.core.cache;
 
+import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.*;
 import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
@@ -25,7 +26,7 @@ import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.register.ServiceInventory;
 import org.apache.skywalking.oap.server.core.storage.StorageModule;
 import org.apache.skywalking.oap.server.core.storage.cache.IServiceInventoryCacheDAO;
-import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.library.module.*;
 import org.slf4j.*;
 
 /**
@@ -52,7 +53,29 @@ public enum CacheUpdateTimer {
         }
     }
 
+    /**
+     * Load the whole inventories into the caches in the resident mode, should be called before receiving data.
+     */
+    public void preload(ModuleManager moduleManager) throws IOException {
+        logger.info("Preload the resident inventory caches");
+        syncInventories(moduleManager);
+    }
+
+    private void syncInventories(ModuleManager moduleManager) throws IOException {
+        ModuleProviderHolder core = moduleManager.find(CoreModule.NAME);
+        core.provider().getService(ServiceInventoryCache.class).sync();
+        core.provider().getService(ServiceInstanceInventoryCache.class).sync();
+        core.provider().getService(EndpointInventoryCache.class).sync();
+        core.provider().getService(NetworkAddressInventoryCache.class).sync();
+    }
+
     private void update(ModuleManager moduleManager) {
+        try {
+            syncInventories(moduleManager);
+        } catch (IOException e) {
+            logger.error("Resident inventory cache sync failure.", e);
+        }
+
         IServiceInventoryCacheDAO serviceInventoryCacheDAO = moduleManager.find(StorageModule.NAME).provider().getService(IServiceInventoryCacheDAO.class);
         ServiceInventoryCache serviceInventoryCache = moduleManager.find(CoreModule.NAME).provider().getService(ServiceInventoryCache.class);
         List<ServiceInventory> serviceInventories = serviceInventoryCacheDAO.loadLastMappingUpdate();
@@ -19,9 +19,11 @@
 package org.apache.skywalking.oap.server.core.cache;
 
 import com.google.common.cache.*;
+import java.io.IOException;
 import java.util.Objects;
 import org.apache.skywalking.oap.server.core.Const;
 import org.apache.skywalking.oap.server.core.register.EndpointInventory;
+import org.apache.skywalking.oap.server.core.register.worker.InventoryRegisterNotifier;
 import org.apache.skywalking.oap.server.core.storage.StorageModule;
 import org.apache.skywalking.oap.server.core.storage.cache.IEndpointInventoryCacheDAO;
 import org.apache.skywalking.oap.server.library.module.*;
@@ -42,15 +44,26 @@ public class EndpointInventoryCache implements Service {
 
     private final Cache<Integer, EndpointInventory> endpointIdCache = CacheBuilder.newBuilder().initialCapacity(5000).maximumSize(100000).build();
 
+    /**
+     * The whole inventory, only in the resident mode, which never queries the storage by name.
+     */
+    private final InventoryIndex<EndpointInventory> index;
+
     private IEndpointInventoryCacheDAO cacheDAO;
 
     public EndpointInventoryCache(ModuleManager moduleManager) {
+        this(moduleManager, false);
+    }
+
+    public EndpointInventoryCache(ModuleManager moduleManager, boolean resident) {
         this.moduleManager = moduleManager;
 
         this.userEndpoint = new EndpointInventory();
         this.userEndpoint.setSequence(Const.USER_ENDPOINT_ID);
         this.userEndpoint.setName(Const.USER_CODE);
         this.userEndpoint.setServiceId(Const.USER_SERVICE_ID);
+
+        this.index = resident ? new InventoryIndex<>(moduleManager, EndpointInventory.MODEL_NAME, new EndpointInventory.Builder()) : null;
     }
 
     private IEndpointInventoryCacheDAO getCacheDAO() {
@@ -62,6 +75,9 @@ public class EndpointInventoryCache implements Service {
 
     public int getEndpointId(int serviceId, String endpointName, int detectPoint) {
         String id = EndpointInventory.buildId(serviceId, endpointName, detectPoint);
+        if (nonNull(index)) {
+            return index.getSequence(id);
+        }
 
         Integer endpointId = endpointNameCache.getIfPresent(id);
 
@@ -69,6 +85,7 @@ public class EndpointInventoryCache implements Service {
             endpointId = getCacheDAO().getEndpointId(serviceId, endpointName, detectPoint);
             if (endpointId != Const.NONE) {
                 endpointNameCache.put(id, endpointId);
+                InventoryRegisterNotifier.INSTANCE.registered(EndpointInventory.MODEL_NAME, id);
             }
         }
         return endpointId;
@@ -79,12 +96,16 @@ public class EndpointInventoryCache implements Service {
             return userEndpoint;
         }
 
-        EndpointInventory endpointInventory = endpointIdCache.getIfPresent(endpointId);
+        EndpointInventory endpointInventory = nonNull(index) ? index.get(endpointId) : endpointIdCache.getIfPresent(endpointId);
 
         if (isNull(endpointInventory)) {
             endpointInventory = getCacheDAO().get(endpointId);
             if (nonNull(endpointInventory)) {
-                endpointIdCache.put(endpointId, endpointInventory);
+                if (nonNull(index)) {
+                    index.put(endpointInventory);
+                } else {
+                    endpointIdCache.put(endpointId, endpointInventory);
+                }
             } else {
                 logger.warn("EndpointInventory id {} is not in cache and persistent storage.", endpointId);
             }
@@ -92,4 +113,13 @@ public class EndpointInventoryCache implements Service {
 
         return endpointInventory;
     }
+
+    /**
+     * Load the new registered endpoints into the resident cache, do nothing if not resident.
+     */
+    public void sync() throws IOException {
+        if (nonNull(index)) {
+            index.sync();
+        }
+    }
 }
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.cache;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.register.RegisterSource;
+import org.apache.skywalking.oap.server.core.register.worker.InventoryRegisterNotifier;
+import org.apache.skywalking.oap.server.core.storage.*;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Fully resident copy of one inventory, an array indexed by the sequence, and a hash index from the {@link
+ * RegisterSource#id()} to the sequence. The whole inventory is loaded at startup, then {@link #sync()} loads the
+ * inventories registered after the largest known sequence.
+ *
+ * The sequences are reserved in ranges by the OAP nodes, so a smaller sequence could be inserted after a larger one.
+ * The missing sequences below the largest one are loaded again in the next syncs, until they are found or
+ * expired, as the reserved sequence is lost if the insert failed.
+ *
+ * @param <T> the inventory type
+ */
+class InventoryIndex<T extends RegisterSource> {
+
+    private static final int LOAD_SIZE = 1000;
+    private static final long MISSING_SEQUENCE_TIMEOUT = 60 * 1000;
+
+    private final ModuleManager moduleManager;
+    private final String modelName;
+    private final StorageBuilder<T> storageBuilder;
+    private final Map<String, Integer> sequences = new ConcurrentHashMap<>(1024);
+    private volatile AtomicReferenceArray<T> inventories = new AtomicReferenceArray<>(1024);
+    /**
+     * Only accessed by the sync thread.
+     */
+    private final NavigableMap<Integer, Long> missingSequences = new TreeMap<>();
+    private int maxSequence = 0;
+    private IRegisterDAO registerDAO;
+
+    InventoryIndex(ModuleManager moduleManager, String modelName, StorageBuilder<T> storageBuilder) {
+        this.moduleManager = moduleManager;
+        this.modelName = modelName;
+        this.storageBuilder = storageBuilder;
+    }
+
+    @SuppressWarnings("unchecked")
+    private IRegisterDAO getRegisterDAO() {
+        if (isNull(registerDAO)) {
+            registerDAO = moduleManager.find(StorageModule.NAME).provider().getService(StorageDAO.class).newRegisterDao((StorageBuilder)storageBuilder);
+        }
+        return registerDAO;
+    }
+
+    /**
+     * @param id of the inventory, built by the inventory type
+     * @return the sequence, or {@link Const#NONE} if not loaded yet.
+     */
+    int getSequence(String id) {
+        Integer sequence = sequences.get(id);
+        return isNull(sequence) ? Const.NONE : sequence;
+    }
+
+    /**
+     * @return the inventory, or null if not loaded yet.
+     */
+    T get(int sequence) {
+        AtomicReferenceArray<T> inventories = this.inventories;
+        if (sequence < 0 || sequence >= inventories.length()) {
+            return null;
+        }
+        return inventories.get(sequence);
+    }
+
+    synchronized void put(T inventory) {
+        int sequence = inventory.getSequence();
+        if (sequence < 0) {
+            return;
+        }
+
+        AtomicReferenceArray<T> inventories = this.inventories;
+        if (sequence >= inventories.length()) {
+            int length = inventories.length();
+            while (length <= sequence) {
+                length <<= 1;
+            }
+            AtomicReferenceArray<T> grown = new AtomicReferenceArray<>(length);
+            for (int i = 0; i < inventories.length(); i++) {
+                grown.lazySet(i, inventories.get(i));
+            }
+            this.inventories = inventories = grown;
+        }
+        inventories.set(sequence, inventory);
+        sequences.put(inventory.id(), sequence);
+    }
+
+    int size() {
+        return sequences.size();
+    }
+
+    /**
+     * Load the inventories registered after the largest known sequence, and the missing ones below it. Called by one
+     * thread only.
+     */
+    @SuppressWarnings("unchecked")
+    void sync() throws IOException {
+        long now = System.currentTimeMillis();
+        missingSequences.values().removeIf(since -> now - since > MISSING_SEQUENCE_TIMEOUT);
+
+        int from = missingSequences.isEmpty() ? maxSequence : missingSequences.firstKey() - 1;
+        int loadedMax = maxSequence;
+        List<RegisterSource> loaded;
+        do {
+            loaded = getRegisterDAO().loadAfter(modelName, from, LOAD_SIZE);
+            for (RegisterSource source : loaded) {
+                T inventory = (T)source;
+                int sequence = inventory.getSequence();
+                if (sequence > maxSequence || missingSequences.remove(sequence) != null) {
+                    put(inventory);
+                    InventoryRegisterNotifier.INSTANCE.registered(modelName, inventory.id());
+                }
+                if (sequence > loadedMax) {
+                    for (int missing = loadedMax + 1; missing < sequence; missing++) {
+                        if (isNull(get(missing))) {
+                            missingSequences.put(missing, now);
+                        }
+                    }
+                    loadedMax = sequence;
+                }
+                from = sequence;
+            }
+        }
+        while (loaded.size() == LOAD_SIZE);
+
+        if (maxSequence == 0) {
+            // The initial load has all the registered inventories.
+            missingSequences.clear();
+        }
+        maxSequence = loadedMax;
+    }
+}
@@ -19,9 +19,11 @@
 package org.apache.skywalking.oap.server.core.cache;
 
 import com.google.common.cache.*;
+import java.io.IOException;
 import java.util.Objects;
 import org.apache.skywalking.oap.server.core.Const;
 import org.apache.skywalking.oap.server.core.register.NetworkAddressInventory;
+import org.apache.skywalking.oap.server.core.register.worker.InventoryRegisterNotifier;
 import org.apache.skywalking.oap.server.core.storage.StorageModule;
 import org.apache.skywalking.oap.server.core.storage.cache.INetworkAddressInventoryCacheDAO;
 import org.apache.skywalking.oap.server.library.module.*;
@@ -39,11 +41,22 @@ public class NetworkAddressInventoryCache implements Service {
     private final Cache<String, Integer> networkAddressCache = CacheBuilder.newBuilder().initialCapacity(1000).maximumSize(5000).build();
     private final Cache<Integer, NetworkAddressInventory> addressIdCache = CacheBuilder.newBuilder().initialCapacity(1000).maximumSize(5000).build();
 
+    /**
+     * The whole inventory, only in the resident mode, which never queries the storage by name.
+     */
+    private final InventoryIndex<NetworkAddressInventory> index;
+
     private final ModuleManager moduleManager;
     private INetworkAddressInventoryCacheDAO cacheDAO;
 
     public NetworkAddressInventoryCache(ModuleManager moduleManager) {
+        this(moduleManager, false);
+    }
+
+    public NetworkAddressInventoryCache(ModuleManager moduleManager, boolean resident) {
         this.moduleManager = moduleManager;
+
+        this.index = resident ? new InventoryIndex<>(moduleManager, NetworkAddressInventory.MODEL_NAME, new NetworkAddressInventory.Builder()) : null;
     }
 
     private INetworkAddressInventoryCacheDAO getCacheDAO() {
@@ -54,12 +67,18 @@ public class NetworkAddressInventoryCache implements Service {
     }
 
     public int getAddressId(String networkAddress) {
-        Integer addressId = networkAddressCache.getIfPresent(NetworkAddressInventory.buildId(networkAddress));
+        String id = NetworkAddressInventory.buildId(networkAddress);
+        if (nonNull(index)) {
+            return index.getSequence(id);
+        }
+
+        Integer addressId = networkAddressCache.getIfPresent(id);
 
         if (Objects.isNull(addressId) || addressId == Const.NONE) {
             addressId = getCacheDAO().getAddressId(networkAddress);
             if (addressId != Const.NONE) {
-                networkAddressCache.put(NetworkAddressInventory.buildId(networkAddress), addressId);
+                networkAddressCache.put(id, addressId);
+                InventoryRegisterNotifier.INSTANCE.registered(NetworkAddressInventory.MODEL_NAME, id);
             }
         }
 
@@ -67,14 +86,27 @@ public class NetworkAddressInventoryCache implements Service {
     }
 
     public NetworkAddressInventory get(int addressId) {
-        NetworkAddressInventory networkAddress = addressIdCache.getIfPresent(addressId);
+        NetworkAddressInventory networkAddress = nonNull(index) ? index.get(addressId) : addressIdCache.getIfPresent(addressId);
 
         if (isNull(networkAddress)) {
             networkAddress = getCacheDAO().get(addressId);
             if (nonNull(networkAddress)) {
-                addressIdCache.put(addressId, networkAddress);
+                if (nonNull(index)) {
+                    index.put(networkAddress);
+                } else {
+                    addressIdCache.put(addressId, networkAddress);
+                }
             }
         }
         return networkAddress;
     }
+
+    /**
+     * Load the new registered network addresses into the resident cache, do nothing if not resident.
+     */
+    public void sync() throws IOException {
+        if (nonNull(index)) {
+            index.sync();
+        }
+    }
 }
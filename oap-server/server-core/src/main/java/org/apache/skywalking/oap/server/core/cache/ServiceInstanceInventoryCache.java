@@ -19,9 +19,11 @@
 package org.apache.skywalking.oap.server.core.cache;
 
 import com.google.common.cache.*;
+import java.io.IOException;
 import java.util.Objects;
 import org.apache.skywalking.oap.server.core.Const;
 import org.apache.skywalking.oap.server.core.register.ServiceInstanceInventory;
+import org.apache.skywalking.oap.server.core.register.worker.InventoryRegisterNotifier;
 import org.apache.skywalking.oap.server.core.storage.StorageModule;
 import org.apache.skywalking.oap.server.core.storage.cache.IServiceInstanceInventoryCacheDAO;
 import org.apache.skywalking.oap.server.library.module.*;
@@ -44,10 +46,19 @@ public class ServiceInstanceInventoryCache implements Service {
 
     private final Cache<String, Integer> addressIdCache = CacheBuilder.newBuilder().initialCapacity(100).maximumSize(5000).build();
 
+    /**
+     * The whole inventory, only in the resident mode, which never queries the storage by name.
+     */
+    private final InventoryIndex<ServiceInstanceInventory> index;
+
     private final ModuleManager moduleManager;
     private IServiceInstanceInventoryCacheDAO cacheDAO;
 
     public ServiceInstanceInventoryCache(ModuleManager moduleManager) {
+        this(moduleManager, false);
+    }
+
+    public ServiceInstanceInventoryCache(ModuleManager moduleManager, boolean resident) {
         this.moduleManager = moduleManager;
 
         this.userServiceInstance = new ServiceInstanceInventory();
@@ -55,6 +66,8 @@ public class ServiceInstanceInventoryCache implements Service {
         this.userServiceInstance.setName(Const.USER_CODE);
         this.userServiceInstance.setServiceId(Const.USER_SERVICE_ID);
         this.userServiceInstance.setIsAddress(BooleanUtils.FALSE);
+
+        this.index = resident ? new InventoryIndex<>(moduleManager, ServiceInstanceInventory.MODEL_NAME, new ServiceInstanceInventory.Builder()) : null;
     }
 
     private IServiceInstanceInventoryCacheDAO getCacheDAO() {
@@ -69,18 +82,26 @@ public class ServiceInstanceInventoryCache implements Service {
             return userServiceInstance;
         }
 
-        ServiceInstanceInventory serviceInstanceInventory = serviceInstanceIdCache.getIfPresent(serviceInstanceId);
+        ServiceInstanceInventory serviceInstanceInventory = Objects.nonNull(index) ? index.get(serviceInstanceId) : serviceInstanceIdCache.getIfPresent(serviceInstanceId);
 
         if (Objects.isNull(serviceInstanceInventory)) {
             serviceInstanceInventory = getCacheDAO().get(serviceInstanceId);
             if (Objects.nonNull(serviceInstanceInventory)) {
-                serviceInstanceIdCache.put(serviceInstanceId, serviceInstanceInventory);
+                if (Objects.nonNull(index)) {
+                    index.put(serviceInstanceInventory);
+                } else {
+                    serviceInstanceIdCache.put(serviceInstanceId, serviceInstanceInventory);
+                }
             }
         }
         return serviceInstanceInventory;
     }
 
     public int getServiceInstanceId(int serviceId, String uuid) {
+        if (Objects.nonNull(index)) {
+            return index.getSequence(ServiceInstanceInventory.buildId(serviceId, uuid));
+        }
+
         Integer serviceInstanceId = serviceInstanceNameCache.getIfPresent(ServiceInstanceInventory.buildId(serviceId, uuid));
 
         if (Objects.isNull(serviceInstanceId) || serviceInstanceId == Const.NONE) {
@@ -93,14 +114,29 @@ public class ServiceInstanceInventoryCache implements Service {
     }
 
     public int getServiceInstanceId(int serviceId, int addressId) {
-        Integer serviceInstanceId = addressIdCache.getIfPresent(ServiceInstanceInventory.buildId(serviceId, addressId));
+        String id = ServiceInstanceInventory.buildId(serviceId, addressId);
+        if (Objects.nonNull(index)) {
+            return index.getSequence(id);
+        }
+
+        Integer serviceInstanceId = addressIdCache.getIfPresent(id);
 
         if (Objects.isNull(serviceInstanceId) || serviceInstanceId == Const.NONE) {
             serviceInstanceId = getCacheDAO().getServiceInstanceId(serviceId, addressId);
-            if (serviceId != Const.NONE) {
-                addressIdCache.put(ServiceInstanceInventory.buildId(serviceId, addressId), serviceInstanceId);
+            if (serviceInstanceId != Const.NONE) {
+                addressIdCache.put(id, serviceInstanceId);
+                InventoryRegisterNotifier.INSTANCE.registered(ServiceInstanceInventory.MODEL_NAME, id);
             }
         }
         return serviceInstanceId;
     }
+
+    /**
+     * Load the new registered service instances into the resident cache, do nothing if not resident.
+     */
+    public void sync() throws IOException {
+        if (Objects.nonNull(index)) {
+            index.sync();
+        }
+    }
 }
@@ -19,9 +19,11 @@
 package org.apache.skywalking.oap.server.core.cache;
 
 import com.google.common.cache.*;
+import java.io.IOException;
 import java.util.Objects;
 import org.apache.skywalking.oap.server.core.Const;
 import org.apache.skywalking.oap.server.core.register.ServiceInventory;
+import org.apache.skywalking.oap.server.core.register.worker.InventoryRegisterNotifier;
 import org.apache.skywalking.oap.server.core.storage.StorageModule;
 import org.apache.skywalking.oap.server.core.storage.cache.IServiceInventoryCacheDAO;
 import org.apache.skywalking.oap.server.library.module.*;
@@ -42,16 +44,27 @@ public class ServiceInventoryCache implements Service {
     private final Cache<String, Integer> addressIdCache = CacheBuilder.newBuilder().initialCapacity(100).maximumSize(1000).build();
     private final Cache<Integer, ServiceInventory> serviceIdCache = CacheBuilder.newBuilder().initialCapacity(100).maximumSize(1000).build();
 
+    /**
+     * The whole inventory, only in the resident mode, which never queries the storage by name.
+     */
+    private final InventoryIndex<ServiceInventory> index;
+
     private final ModuleManager moduleManager;
     private IServiceInventoryCacheDAO cacheDAO;
 
     public ServiceInventoryCache(ModuleManager moduleManager) {
+        this(moduleManager, false);
+    }
+
+    public ServiceInventoryCache(ModuleManager moduleManager, boolean resident) {
         this.moduleManager = moduleManager;
 
         this.userService = new ServiceInventory();
         this.userService.setSequence(Const.USER_SERVICE_ID);
         this.userService.setName(Const.USER_CODE);
         this.userService.setIsAddress(BooleanUtils.FALSE);
+
+        this.index = resident ? new InventoryIndex<>(moduleManager, ServiceInventory.MODEL_NAME, new ServiceInventory.Builder()) : null;
     }
 
     private IServiceInventoryCacheDAO getCacheDAO() {
@@ -62,6 +75,10 @@ public class ServiceInventoryCache implements Service {
     }
 
     public int getServiceId(String serviceName) {
+        if (nonNull(index)) {
+            return index.getSequence(ServiceInventory.buildId(serviceName));
+        }
+
         Integer serviceId = serviceNameCache.getIfPresent(ServiceInventory.buildId(serviceName));
 
         if (Objects.isNull(serviceId) || serviceId == Const.NONE) {
@@ -74,12 +91,18 @@ public class ServiceInventoryCache implements Service {
     }
 
     public int getServiceId(int addressId) {
-        Integer serviceId = addressIdCache.getIfPresent(ServiceInventory.buildId(addressId));
+        String id = ServiceInventory.buildId(addressId);
+        if (nonNull(index)) {
+            return index.getSequence(id);
+        }
+
+        Integer serviceId = addressIdCache.getIfPresent(id);
 
         if (Objects.isNull(serviceId) || serviceId == Const.NONE) {
             serviceId = getCacheDAO().getServiceId(addressId);
             if (serviceId != Const.NONE) {
-                addressIdCache.put(ServiceInventory.buildId(addressId), serviceId);
+                addressIdCache.put(id, serviceId);
+                InventoryRegisterNotifier.INSTANCE.registered(ServiceInventory.MODEL_NAME, id);
             }
         }
         return serviceId;
@@ -94,12 +117,16 @@ public class ServiceInventoryCache implements Service {
             return userService;
         }
 
-        ServiceInventory serviceInventory = serviceIdCache.getIfPresent(serviceId);
+        ServiceInventory serviceInventory = nonNull(index) ? index.get(serviceId) : serviceIdCache.getIfPresent(serviceId);
 
         if (isNull(serviceInventory)) {
             serviceInventory = getCacheDAO().get(serviceId);
             if (nonNull(serviceInventory)) {
-                serviceIdCache.put(serviceId, serviceInventory);
+                if (nonNull(index)) {
+                    index.put(serviceInventory);
+                } else {
+                    serviceIdCache.put(serviceId, serviceInventory);
+                }
             }
         }
 
@@ -111,4 +138,13 @@ public class ServiceInventoryCache implements Service {
 
         return serviceInventory;
     }
+
+    /**
+     * Load the new registered services into the resident cache, do nothing if not resident.
+     */
+    public void sync() throws IOException {
+        if (nonNull(index)) {
+            index.sync();
+        }
+    }
 }
@@ -67,7 +67,7 @@ public class MetricQueryService implements Service {
         where.getKeyValues().add(intKeyValues);
         ids.forEach(intKeyValues.getValues()::add);
 
-        return getMetricQueryDAO().getValues(indName, step, startTB, endTB, where, ValueColumnIds.INSTANCE.getValueCName(indName), ValueColumnIds.INSTANCE.getValueFunction(indName));
+        return getMetricQueryDAO().getValues(ValueColumnIds.INSTANCE.getModelName(indName), step, startTB, endTB, where, ValueColumnIds.INSTANCE.getValueCName(indName), ValueColumnIds.INSTANCE.getValueFunction(indName));
     }
 
     public IntValues getLinearIntValues(final String indName, final String id, final Step step, final long startTB,
@@ -80,7 +80,7 @@ public class MetricQueryService implements Service {
             durationPoints.forEach(durationPoint -> ids.add(durationPoint.getPoint() + Const.ID_SPLIT + id));
         }
 
-        return getMetricQueryDAO().getLinearIntValues(indName, step, ids, ValueColumnIds.INSTANCE.getValueCName(indName));
+        return getMetricQueryDAO().getLinearIntValues(ValueColumnIds.INSTANCE.getModelName(indName), step, ids, ValueColumnIds.INSTANCE.getValueCName(indName));
     }
 
     public Thermodynamic getThermodynamic(final String indName, final String id, final Step step, final long startTB,
@@ -95,6 +95,6 @@ public class MetricQueryService implements Service {
             }
         });
 
-        return getMetricQueryDAO().getThermodynamic(indName, step, ids, ValueColumnIds.INSTANCE.getValueCName(indName));
+        return getMetricQueryDAO().getThermodynamic(ValueColumnIds.INSTANCE.getModelName(indName), step, ids, ValueColumnIds.INSTANCE.getValueCName(indName));
     }
 }
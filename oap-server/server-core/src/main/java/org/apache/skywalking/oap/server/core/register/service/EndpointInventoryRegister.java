@@ -22,7 +22,7 @@ import java.util.Objects;
 import org.apache.skywalking.oap.server.core.*;
 import org.apache.skywalking.oap.server.core.cache.EndpointInventoryCache;
 import org.apache.skywalking.oap.server.core.register.EndpointInventory;
-import org.apache.skywalking.oap.server.core.register.worker.InventoryProcess;
+import org.apache.skywalking.oap.server.core.register.worker.*;
 import org.apache.skywalking.oap.server.core.source.DetectPoint;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.slf4j.*;
@@ -64,6 +64,7 @@ public class EndpointInventoryRegister implements IEndpointInventoryRegister {
             endpointInventory.setHeartbeatTime(now);
 
             InventoryProcess.INSTANCE.in(endpointInventory);
+            InventoryRegisterNotifier.INSTANCE.await(EndpointInventory.MODEL_NAME, endpointInventory.id());
         }
         return endpointId;
     }
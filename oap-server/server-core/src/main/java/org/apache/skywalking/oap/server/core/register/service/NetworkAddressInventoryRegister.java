@@ -23,7 +23,7 @@ import java.util.Objects;
 import org.apache.skywalking.oap.server.core.*;
 import org.apache.skywalking.oap.server.core.cache.*;
 import org.apache.skywalking.oap.server.core.register.*;
-import org.apache.skywalking.oap.server.core.register.worker.InventoryProcess;
+import org.apache.skywalking.oap.server.core.register.worker.*;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.slf4j.*;
 
@@ -96,6 +96,7 @@ public class NetworkAddressInventoryRegister implements INetworkAddressInventory
             newNetworkAddress.setHeartbeatTime(now);
 
             InventoryProcess.INSTANCE.in(newNetworkAddress);
+            InventoryRegisterNotifier.INSTANCE.await(NetworkAddressInventory.MODEL_NAME, newNetworkAddress.id());
         }
 
         return Const.NONE;
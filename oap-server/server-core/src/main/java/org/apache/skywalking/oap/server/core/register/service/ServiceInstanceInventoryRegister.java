@@ -23,7 +23,7 @@ import java.util.Objects;
 import org.apache.skywalking.oap.server.core.*;
 import org.apache.skywalking.oap.server.core.cache.ServiceInstanceInventoryCache;
 import org.apache.skywalking.oap.server.core.register.ServiceInstanceInventory;
-import org.apache.skywalking.oap.server.core.register.worker.InventoryProcess;
+import org.apache.skywalking.oap.server.core.register.worker.*;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.library.util.BooleanUtils;
 import org.slf4j.*;
@@ -95,6 +95,7 @@ public class ServiceInstanceInventoryRegister implements IServiceInstanceInvento
             serviceInstanceInventory.setHeartbeatTime(registerTime);
 
             InventoryProcess.INSTANCE.in(serviceInstanceInventory);
+            InventoryRegisterNotifier.INSTANCE.await(ServiceInstanceInventory.MODEL_NAME, serviceInstanceInventory.id());
         }
         return serviceInstanceId;
     }
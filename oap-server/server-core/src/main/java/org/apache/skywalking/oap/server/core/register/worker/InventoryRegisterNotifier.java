@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.register.worker;
+
+import com.google.common.cache.*;
+import java.util.*;
+import java.util.concurrent.*;
+import org.apache.skywalking.oap.server.core.Const;
+import org.slf4j.*;
+
+/**
+ * The inventories are registered asynchronously, the caller gets {@link Const#NONE} until the inventory is persistent
+ * and could be found by the cache. The data which can't be handled without the id, such as the segments in the buffer
+ * file, waits for the inventory by its key, and the listeners are notified as soon as that inventory is registered,
+ * rather than retrying blindly.
+ *
+ * The key is the model name and the {@link org.apache.skywalking.oap.server.core.register.RegisterSource#id()}.
+ * Only the awaited keys notify the listeners, and the awaited keys expire, because the inventory could be registered
+ * by another OAP node and never be found here.
+ *
+ * The caller finds which keys some data waits for by {@link #beginCollect()} and {@link #endCollect()} around the
+ * handling of it, so only that data is woken up by the registration of these keys.
+ */
+public enum InventoryRegisterNotifier {
+    INSTANCE;
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryRegisterNotifier.class);
+
+    private final Cache<String, Boolean> awaitedKeys = CacheBuilder.newBuilder().initialCapacity(1000).maximumSize(100000)
+        .expireAfterWrite(10, TimeUnit.MINUTES).build();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<List<String>> collectedKeys = new ThreadLocal<>();
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @param modelName of the inventory
+     * @param id of the inventory, which is not registered yet
+     */
+    public void await(String modelName, String id) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        String key = buildKey(modelName, id);
+        awaitedKeys.put(key, Boolean.TRUE);
+
+        List<String> keys = collectedKeys.get();
+        if (keys != null) {
+            keys.add(key);
+        }
+    }
+
+    /**
+     * Start collecting the keys awaited by the current thread.
+     */
+    public void beginCollect() {
+        collectedKeys.set(new ArrayList<>(2));
+    }
+
+    /**
+     * @return the keys awaited by the current thread since {@link #beginCollect()}, and stop collecting.
+     */
+    public List<String> endCollect() {
+        List<String> keys = collectedKeys.get();
+        collectedKeys.remove();
+        return keys == null ? Collections.emptyList() : keys;
+    }
+
+    /**
+     * Called when the inventory is persistent, or found in the storage at the first time.
+     *
+     * @param modelName of the inventory
+     * @param id of the inventory
+     */
+    public void registered(String modelName, String id) {
+        if (awaitedKeys.size() == 0) {
+            return;
+        }
+        if (awaitedKeys.asMap().remove(buildKey(modelName, id)) == null) {
+            return;
+        }
+        for (Listener listener : listeners) {
+            try {
+                listener.onRegistered(modelName, id);
+            } catch (Throwable t) {
+                logger.error(t.getMessage(), t);
+            }
+        }
+    }
+
+    public static String buildKey(String modelName, String id) {
+        return modelName + Const.ID_SPLIT + id;
+    }
+
+    public interface Listener {
+        /**
+         * Called in the register thread, should not block.
+         */
+        void onRegistered(String modelName, String id);
+    }
+}
@@ -18,15 +18,16 @@
 
 package org.apache.skywalking.oap.server.core.register.worker;
 
+import java.io.IOException;
 import java.util.*;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
-import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
-import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.*;
+import org.apache.skywalking.oap.server.core.*;
 import org.apache.skywalking.oap.server.core.analysis.data.EndOfBatchContext;
 import org.apache.skywalking.oap.server.core.register.RegisterSource;
 import org.apache.skywalking.oap.server.core.source.Scope;
 import org.apache.skywalking.oap.server.core.storage.*;
-import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
+import org.apache.skywalking.oap.server.core.worker.*;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.slf4j.*;
 
@@ -37,12 +38,15 @@ public class RegisterPersistentWorker extends AbstractWorker<RegisterSource> {
 
     private static final Logger logger = LoggerFactory.getLogger(RegisterPersistentWorker.class);
 
+    private static final int LOCK_RETRIES = 3;
+
     private final Scope scope;
     private final String modelName;
     private final Map<RegisterSource, RegisterSource> sources;
     private final IRegisterLockDAO registerLockDAO;
     private final IRegisterDAO registerDAO;
     private final DataCarrier<RegisterSource> dataCarrier;
+    private final DataCarrierMonitor carrierMonitor;
 
     RegisterPersistentWorker(int workerId, String modelName, ModuleManager moduleManager,
         IRegisterDAO registerDAO, Scope scope) {
@@ -52,8 +56,18 @@ public class RegisterPersistentWorker extends AbstractWorker<RegisterSource> {
         this.registerDAO = registerDAO;
         this.registerLockDAO = moduleManager.find(StorageModule.NAME).provider().getService(IRegisterLockDAO.class);
         this.scope = scope;
-        this.dataCarrier = new DataCarrier<>("IndicatorPersistentWorker." + modelName, 1, 10000);
-        this.dataCarrier.consume(new RegisterPersistentWorker.PersistentConsumer(this), 1, 200);
+        String carrierName = "RegisterPersistentWorker." + modelName;
+        this.dataCarrier = new DataCarrier<>(carrierName, 1, 10000);
+        this.carrierMonitor = new DataCarrierMonitor(moduleManager, carrierName);
+        this.carrierMonitor.monitor(dataCarrier);
+        String name = "REGISTER_L2";
+        BulkConsumePool.Creator creator = new BulkConsumePool.Creator(name, Math.max(1, BulkConsumePool.Creator.recommendMaxSize() / 2), 200);
+        try {
+            ConsumerPoolFactory.INSTANCE.createIfAbsent(name, creator);
+        } catch (Exception e) {
+            throw new UnexpectedException(e.getMessage());
+        }
+        this.dataCarrier.consume(ConsumerPoolFactory.INSTANCE.get(name), new RegisterPersistentWorker.PersistentConsumer(this));
     }
 
     @Override public final void in(RegisterSource registerSource) {
@@ -69,42 +83,114 @@ public class RegisterPersistentWorker extends AbstractWorker<RegisterSource> {
         }
 
         if (sources.size() > 1000 || registerSource.getEndOfBatchContext().isEndOfBatch()) {
-            sources.values().forEach(source -> {
-                try {
-                    RegisterSource dbSource = registerDAO.get(modelName, source.id());
-                    if (Objects.nonNull(dbSource)) {
-                        if (dbSource.combine(source)) {
-                            registerDAO.forceUpdate(modelName, dbSource);
-                        }
-                    } else {
-                        int sequence;
-                        if ((sequence = registerLockDAO.getId(scope, registerSource)) != Const.NONE) {
-                            try {
-                                dbSource = registerDAO.get(modelName, source.id());
-                                if (Objects.nonNull(dbSource)) {
-                                    if (dbSource.combine(source)) {
-                                        registerDAO.forceUpdate(modelName, dbSource);
-                                    }
-                                } else {
-                                    source.setSequence(sequence);
-                                    registerDAO.forceInsert(modelName, source);
-                                }
-                            } catch (Throwable t) {
-                                logger.error(t.getMessage(), t);
-                            }
-                        } else {
-                            logger.info("{} inventory register try lock and increment sequence failure.", scope.name());
-                        }
+            try {
+                persist();
+            } catch (Throwable t) {
+                logger.error(t.getMessage(), t);
+            }
+            sources.clear();
+        }
+    }
+
+    /**
+     * Combine the sources into the stored ones, and insert the new ones with the ids reserved in one lock round trip.
+     * The lock is optimistic, it is tried again at once when another OAP node takes the ids first.
+     *
+     * The ids are unique, not continuous. The reserved ids of the sources registered by other OAP nodes meanwhile, or
+     * dropped by the insert failure, are left unused.
+     */
+    private void persist() throws IOException {
+        List<RegisterSource> newSources = combineStored(new ArrayList<>(sources.values()));
+        if (newSources.isEmpty()) {
+            return;
+        }
+
+        int sequence = Const.NONE;
+        for (int i = 0; i < LOCK_RETRIES && sequence == Const.NONE; i++) {
+            sequence = registerLockDAO.getIds(scope, newSources.size());
+        }
+        if (sequence == Const.NONE) {
+            logger.warn("{} inventory register try lock and increment sequence failure, {} sources dropped, ids: {}",
+                scope.name(), newSources.size(), ids(newSources));
+            return;
+        }
+
+        // Other OAP nodes could register the same source before the lock.
+        newSources = combineStored(newSources);
+        for (RegisterSource source : newSources) {
+            source.setSequence(sequence++);
+        }
+        insert(newSources);
+    }
+
+    /**
+     * Insert the sources with their reserved ids. The failed batch is split into halves and inserted again, without
+     * the ones stored already, so one bad source or a transient failure doesn't drop the whole batch.
+     */
+    private void insert(List<RegisterSource> newSources) {
+        if (newSources.isEmpty()) {
+            return;
+        }
+
+        try {
+            registerDAO.forceBatchInsert(modelName, newSources);
+        } catch (Throwable t) {
+            if (newSources.size() == 1) {
+                logger.error("{} register failure, the source is dropped, id: {}", modelName, newSources.get(0).id(), t);
+                return;
+            }
+            logger.warn("{} batch register of {} sources failure, split and retry, reason: {}", modelName, newSources.size(), t.getMessage());
+
+            List<RegisterSource> remaining;
+            try {
+                remaining = combineStored(newSources);
+            } catch (Throwable e) {
+                logger.error("{} register failure, {} sources dropped, ids: {}", modelName, newSources.size(), ids(newSources), e);
+                return;
+            }
+            int half = remaining.size() / 2;
+            insert(remaining.subList(0, half));
+            insert(remaining.subList(half, remaining.size()));
+            return;
+        }
+
+        for (RegisterSource source : newSources) {
+            InventoryRegisterNotifier.INSTANCE.registered(modelName, source.id());
+        }
+    }
+
+    private List<String> ids(List<RegisterSource> sourceList) {
+        List<String> ids = new ArrayList<>(sourceList.size());
+        sourceList.forEach(source -> ids.add(source.id()));
+        return ids;
+    }
+
+    /**
+     * @return the sources not stored yet.
+     */
+    private List<RegisterSource> combineStored(List<RegisterSource> sourceList) throws IOException {
+        Map<String, RegisterSource> dbSources = new HashMap<>();
+        registerDAO.multiGet(modelName, ids(sourceList)).forEach(dbSource -> dbSources.put(dbSource.id(), dbSource));
+
+        List<RegisterSource> newSources = new ArrayList<>(sourceList.size() - dbSources.size());
+        for (RegisterSource source : sourceList) {
+            RegisterSource dbSource = dbSources.get(source.id());
+            if (Objects.nonNull(dbSource)) {
+                if (dbSource.combine(source)) {
+                    try {
+                        registerDAO.forceUpdate(modelName, dbSource);
+                    } catch (Throwable t) {
+                        logger.error(t.getMessage(), t);
                     }
-                } catch (Throwable t) {
-                    logger.error(t.getMessage(), t);
                 }
-            });
-            sources.clear();
+            } else {
+                newSources.add(source);
+            }
         }
+        return newSources;
     }
 
-    private class PersistentConsumer implements IConsumer<RegisterSource> {
+    private class PersistentConsumer implements IBatchConsumer<RegisterSource> {
 
         private final RegisterPersistentWorker persistent;
 
@@ -116,21 +202,19 @@ public class RegisterPersistentWorker extends AbstractWorker<RegisterSource> {
 
         }
 
-        @Override public void consume(List<RegisterSource> data) {
-            Iterator<RegisterSource> sourceIterator = data.iterator();
-
-            int i = 0;
-            while (sourceIterator.hasNext()) {
-                RegisterSource indicator = sourceIterator.next();
-                i++;
-                if (i == data.size()) {
-                    indicator.getEndOfBatchContext().setEndOfBatch(true);
+        @Override public void consume(DataBatch<RegisterSource> batch) {
+            persistent.carrierMonitor.onConsume(batch.size());
+            int last = batch.size() - 1;
+            for (int i = 0; i <= last; i++) {
+                RegisterSource source = batch.get(i);
+                if (i == last) {
+                    source.getEndOfBatchContext().setEndOfBatch(true);
                 }
-                persistent.onWork(indicator);
+                persistent.onWork(source);
             }
         }
 
-        @Override public void onError(List<RegisterSource> data, Throwable t) {
+        @Override public void onError(DataBatch<RegisterSource> batch, Throwable t) {
             logger.error(t.getMessage(), t);
         }
 
@@ -19,12 +19,15 @@
 package org.apache.skywalking.oap.server.core.remote;
 
 import io.grpc.stub.StreamObserver;
+import java.io.*;
 import java.util.Objects;
+import java.util.zip.GZIPInputStream;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.remote.annotation.StreamDataClassGetter;
-import org.apache.skywalking.oap.server.core.remote.data.StreamData;
+import org.apache.skywalking.oap.server.core.remote.data.*;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.*;
-import org.apache.skywalking.oap.server.core.worker.WorkerInstances;
+import org.apache.skywalking.oap.server.core.server.InboundFlowController;
+import org.apache.skywalking.oap.server.core.worker.*;
 import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
 import org.apache.skywalking.oap.server.library.server.grpc.GRPCHandler;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
@@ -62,7 +65,7 @@ public class RemoteServiceHandler extends RemoteServiceGrpc.RemoteServiceImplBas
                 MetricTag.EMPTY_KEY, MetricTag.EMPTY_VALUE);
     }
 
-    @Override public StreamObserver<RemoteMessage> call(StreamObserver<Empty> responseObserver) {
+    private void initStreamDataClassGetter() {
         if (Objects.isNull(streamDataClassGetter)) {
             synchronized (RemoteServiceHandler.class) {
                 if (Objects.isNull(streamDataClassGetter)) {
@@ -70,6 +73,10 @@ public class RemoteServiceHandler extends RemoteServiceGrpc.RemoteServiceImplBas
                 }
             }
         }
+    }
+
+    @Override public StreamObserver<RemoteMessage> call(StreamObserver<Empty> responseObserver) {
+        initStreamDataClassGetter();
 
         return new StreamObserver<RemoteMessage>() {
             @Override public void onNext(RemoteMessage message) {
@@ -104,4 +111,93 @@ public class RemoteServiceHandler extends RemoteServiceGrpc.RemoteServiceImplBas
             }
         };
     }
+
+    /**
+     * Receive the grouped stream data, the class and the worker are found once per group. The next batch is requested
+     * after the current one is processed, so the sender waits when the workers fall behind. The batches carry the data
+     * of all the models, so the stream isn't delayed by the backpressure of any single carrier, the workers block this
+     * stream only when their carriers are full.
+     */
+    @Override public StreamObserver<RemoteBatch> batchCall(StreamObserver<Empty> responseObserver) {
+        initStreamDataClassGetter();
+        InboundFlowController flowController = new InboundFlowController(responseObserver);
+
+        return new StreamObserver<RemoteBatch>() {
+            @Override public void onNext(RemoteBatch batch) {
+                HistogramMetric.Timer timer = remoteInHistogram.createTimer();
+                try {
+                    for (RemoteDataGroup group : groups(batch).getGroupsList()) {
+                        // A broken group, or an unknown class or worker, abandons this group only.
+                        try {
+                            onGroup(group);
+                        } catch (Throwable t) {
+                            remoteInErrorCounter.inc();
+                            logger.error("Remote data group of worker {}, stream data {} abandoned, reason: {}",
+                                group.getNextWorkerId(), group.getStreamDataId(), t.getMessage(), t);
+                        }
+                    }
+                } catch (Throwable t) {
+                    remoteInErrorCounter.inc();
+                    logger.error(t.getMessage(), t);
+                } finally {
+                    timer.finish();
+                    flowController.next();
+                }
+            }
+
+            @Override public void onError(Throwable throwable) {
+                logger.error(throwable.getMessage(), throwable);
+            }
+
+            @Override public void onCompleted() {
+                responseObserver.onNext(Empty.newBuilder().build());
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
+    /**
+     * The binary data after a broken one can't be read, the rest of the binary data of the group is abandoned. The
+     * legacy remote data are handled one by one.
+     */
+    private void onGroup(RemoteDataGroup group) throws Exception {
+        Class<StreamData> streamDataClass = streamDataClassGetter.findClassById(group.getStreamDataId());
+        AbstractWorker nextWorker = WorkerInstances.INSTANCES.get(group.getNextWorkerId());
+        if (Objects.isNull(streamDataClass) || Objects.isNull(nextWorker)) {
+            throw new IllegalStateException("Unknown stream data class or worker.");
+        }
+        if (!group.getBinaryData().isEmpty()) {
+            StreamDataInput input = new StreamDataInput(group.getBinaryData().toByteArray());
+            while (input.hasRemaining()) {
+                remoteInCounter.inc();
+                StreamData streamData = streamDataClass.newInstance();
+                streamData.deserialize(input);
+                nextWorker.in(streamData);
+            }
+        }
+        for (RemoteData remoteData : group.getRemoteDataList()) {
+            remoteInCounter.inc();
+            try {
+                StreamData streamData = streamDataClass.newInstance();
+                streamData.deserialize(remoteData);
+                nextWorker.in(streamData);
+            } catch (Throwable t) {
+                remoteInErrorCounter.inc();
+                logger.error(t.getMessage(), t);
+            }
+        }
+    }
+
+    private RemoteDataGroups groups(RemoteBatch batch) throws IOException {
+        switch (batch.getCompression()) {
+            case GZIP:
+                try (InputStream input = new GZIPInputStream(batch.getCompressedGroups().newInput())) {
+                    return RemoteDataGroups.parseFrom(input);
+                }
+            case NONE:
+                return batch.getGroups();
+            default:
+                throw new IOException("Unsupported compression: " + batch.getCompression());
+        }
+    }
 }
@@ -18,15 +18,19 @@
 
 package org.apache.skywalking.oap.server.core.remote.client;
 
-import io.grpc.ManagedChannel;
-import io.grpc.stub.StreamObserver;
+import com.google.protobuf.ByteString;
+import io.grpc.*;
+import io.grpc.stub.*;
+import java.io.*;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPOutputStream;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
-import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.*;
 import org.apache.skywalking.oap.server.core.remote.annotation.StreamDataClassGetter;
-import org.apache.skywalking.oap.server.core.remote.data.StreamData;
+import org.apache.skywalking.oap.server.core.remote.data.*;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.*;
 import org.apache.skywalking.oap.server.library.client.grpc.GRPCClient;
 import org.apache.skywalking.oap.server.library.module.*;
@@ -38,30 +42,51 @@ import org.slf4j.*;
  * This is a wrapper of the gRPC client for sending message to each other OAP server.
  * It contains a block queue to buffering the message and sending the message by batch.
  *
+ * The messages are grouped by the worker and the stream data class, serialized into one reusable {@link
+ * StreamDataOutput} by the consumer, and sent as {@link RemoteBatch} through one
+ * long-lived stream. The consumer waits while the stream is not ready, so the queue blocks the producers when the
+ * receiver falls behind.
+ *
+ * The OAP servers of the previous versions don't implement batchCall. The client falls back to the legacy call, one
+ * {@link RemoteMessage} per data, when the stream fails with {@link Status.Code#UNIMPLEMENTED}, and tries batchCall
+ * again after a while, so the cluster could be upgraded node by node. The batches sent through the unimplemented
+ * stream before the failure is known are lost.
+ *
  * @author peng-yongsheng
  */
 public class GRPCRemoteClient implements RemoteClient {
 
     private static final Logger logger = LoggerFactory.getLogger(GRPCRemoteClient.class);
 
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final long READY_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long READY_WARN_NANOS = TimeUnit.SECONDS.toNanos(60);
+    private static final long LEGACY_CALL_NANOS = TimeUnit.MINUTES.toNanos(5);
+
     private final int channelSize;
     private final int bufferSize;
     private final Address address;
     private final StreamDataClassGetter streamDataClassGetter;
-    private final AtomicInteger concurrentStreamObserverNumber = new AtomicInteger(0);
+    private final Compression compression;
     private GRPCClient client;
-    private DataCarrier<RemoteMessage> carrier;
+    private DataCarrier<StreamDataMessage> carrier;
     private boolean isConnect;
+    private volatile long legacyCallUntil = 0;
     private CounterMetric remoteOutCounter;
     private CounterMetric remoteOutErrorCounter;
 
-
     public GRPCRemoteClient(ModuleDefineHolder moduleDefineHolder, StreamDataClassGetter streamDataClassGetter, Address address, int channelSize,
         int bufferSize) {
+        this(moduleDefineHolder, streamDataClassGetter, address, channelSize, bufferSize, Compression.NONE);
+    }
+
+    public GRPCRemoteClient(ModuleDefineHolder moduleDefineHolder, StreamDataClassGetter streamDataClassGetter, Address address, int channelSize,
+        int bufferSize, Compression compression) {
         this.streamDataClassGetter = streamDataClassGetter;
         this.address = address;
         this.channelSize = channelSize;
         this.bufferSize = bufferSize;
+        this.compression = compression;
 
         remoteOutCounter = moduleDefineHolder.find(TelemetryModule.NAME).provider().getService(MetricCreator.class)
             .createCounter("remote_out_count", "The number(client side) of inside remote inside aggregate rpc.",
@@ -103,7 +128,7 @@ public class GRPCRemoteClient implements RemoteClient {
         return RemoteServiceGrpc.newStub(getChannel());
     }
 
-    DataCarrier<RemoteMessage> getDataCarrier() {
+    DataCarrier<StreamDataMessage> getDataCarrier() {
         if (Objects.isNull(this.carrier)) {
             synchronized (GRPCRemoteClient.class) {
                 if (Objects.isNull(this.carrier)) {
@@ -123,79 +148,190 @@ public class GRPCRemoteClient implements RemoteClient {
      */
     @Override public void push(int nextWorkerId, StreamData streamData) {
         int streamDataId = streamDataClassGetter.findIdByClass(streamData.getClass());
-        RemoteMessage.Builder builder = RemoteMessage.newBuilder();
-        builder.setNextWorkerId(nextWorkerId);
-        builder.setStreamDataId(streamDataId);
-        builder.setRemoteData(streamData.serialize());
+        this.getDataCarrier().produce(new StreamDataMessage(nextWorkerId, streamDataId, streamData));
+    }
 
-        this.getDataCarrier().produce(builder.build());
+    /**
+     * @return true if the remote server doesn't support batchCall, and the legacy call is used for now.
+     */
+    boolean isLegacyCall() {
+        return legacyCallUntil != 0 && System.nanoTime() - legacyCallUntil < 0;
     }
 
-    class RemoteMessageConsumer implements IConsumer<RemoteMessage> {
+    class RemoteMessageConsumer implements IBatchConsumer<StreamDataMessage> {
+        private final StreamDataOutput output = new StreamDataOutput();
+        private ReadyStream<RemoteBatch> stream;
+
         @Override public void init() {
         }
 
-        @Override public void consume(List<RemoteMessage> remoteMessages) {
+        @Override public void consume(DataBatch<StreamDataMessage> remoteMessages) {
+            if (isLegacyCall()) {
+                consumeByCall(remoteMessages);
+                return;
+            }
             try {
-                StreamObserver<RemoteMessage> streamObserver = createStreamObserver();
-                for (RemoteMessage remoteMessage : remoteMessages) {
+                for (int from = 0; from < remoteMessages.size(); from += MAX_BATCH_SIZE) {
+                    int to = Math.min(from + MAX_BATCH_SIZE, remoteMessages.size());
+
+                    if (Objects.isNull(stream) || (stream.closed && !stream.unimplemented)) {
+                        stream = new ReadyStream<>();
+                        getStub().batchCall(stream);
+                    }
+                    stream.awaitReady();
+                    if (stream.unimplemented) {
+                        stream = null;
+                        logger.warn("Remote server {} doesn't support batchCall, fall back to call.", address);
+                        legacyCallUntil = System.nanoTime() + LEGACY_CALL_NANOS;
+                        consumeByCall(remoteMessages, from);
+                        return;
+                    }
+                    if (stream.closed) {
+                        throw new IOException("Stream to " + address + " is closed, " + (to - from) + " messages abandoned.");
+                    }
+                    stream.requestStream.onNext(buildBatch(remoteMessages, from, to, output));
+                    remoteOutCounter.inc(to - from);
+                }
+            } catch (Throwable t) {
+                remoteOutErrorCounter.inc();
+                logger.error(t.getMessage(), t);
+                if (Objects.nonNull(stream)) {
+                    stream.cancel(t);
+                }
+            }
+        }
+
+        private void consumeByCall(DataBatch<StreamDataMessage> remoteMessages) {
+            consumeByCall(remoteMessages, 0);
+        }
+
+        /**
+         * Send the messages from the given index through the legacy call, in one stream.
+         */
+        private void consumeByCall(DataBatch<StreamDataMessage> remoteMessages, int from) {
+            ReadyStream<RemoteMessage> callStream = new ReadyStream<>();
+            try {
+                getStub().call(callStream);
+                for (int i = from; i < remoteMessages.size(); i++) {
+                    StreamDataMessage message = remoteMessages.get(i);
+                    callStream.awaitReady();
+                    if (callStream.closed) {
+                        throw new IOException("Stream to " + address + " is closed, " + (remoteMessages.size() - i) + " messages abandoned.");
+                    }
+                    callStream.requestStream.onNext(RemoteMessage.newBuilder()
+                        .setNextWorkerId(message.getNextWorkerId())
+                        .setStreamDataId(message.getStreamDataId())
+                        .setRemoteData(message.getStreamData().serialize()).build());
                     remoteOutCounter.inc();
-                    streamObserver.onNext(remoteMessage);
                 }
-                streamObserver.onCompleted();
+                callStream.requestStream.onCompleted();
             } catch (Throwable t) {
                 remoteOutErrorCounter.inc();
                 logger.error(t.getMessage(), t);
+                callStream.cancel(t);
             }
         }
 
-        @Override public void onError(List<RemoteMessage> remoteMessages, Throwable t) {
+        @Override public void onError(DataBatch<StreamDataMessage> remoteMessages, Throwable t) {
             logger.error(t.getMessage(), t);
         }
 
         @Override public void onExit() {
+            if (Objects.nonNull(stream) && !stream.closed) {
+                stream.requestStream.onCompleted();
+            }
         }
     }
 
     /**
-     * Create a gRPC stream observer to sending stream data, one stream observer
-     * could send multiple stream data by a single consume.
-     * The max number of concurrency allowed at the same time is 10.
-     *
-     * @return stream observer
+     * Group the messages in [from, to) by the next worker and the stream data class, and serialize each group into
+     * the binary data through the output.
      */
-    private StreamObserver<RemoteMessage> createStreamObserver() {
-        int sleepTotalMillis = 0;
-        int sleepMillis = 10;
-        while (concurrentStreamObserverNumber.incrementAndGet() > 10) {
-            concurrentStreamObserverNumber.addAndGet(-1);
+    RemoteBatch buildBatch(DataBatch<StreamDataMessage> remoteMessages, int from, int to,
+        StreamDataOutput output) throws IOException {
+        Map<Long, List<StreamDataMessage>> groups = new LinkedHashMap<>();
+        for (int i = from; i < to; i++) {
+            StreamDataMessage message = remoteMessages.get(i);
+            long key = ((long)message.getNextWorkerId() << 32) | (message.getStreamDataId() & 0xFFFFFFFFL);
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(message);
+        }
 
-            try {
-                Thread.sleep(sleepMillis);
-            } catch (InterruptedException e) {
-                logger.error(e.getMessage(), e);
+        RemoteDataGroups.Builder groupsBuilder = RemoteDataGroups.newBuilder();
+        for (List<StreamDataMessage> messages : groups.values()) {
+            output.clear();
+            messages.forEach(message -> message.getStreamData().serialize(output));
+            groupsBuilder.addGroupsBuilder()
+                .setNextWorkerId(messages.get(0).getNextWorkerId())
+                .setStreamDataId(messages.get(0).getStreamDataId())
+                .setBinaryData(output.toByteString());
+        }
+
+        RemoteBatch.Builder batchBuilder = RemoteBatch.newBuilder().setCompression(compression);
+        if (compression == Compression.GZIP) {
+            ByteString.Output compressed = ByteString.newOutput();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                groupsBuilder.build().writeTo(gzip);
             }
+            batchBuilder.setCompressedGroups(compressed.toByteString());
+        } else {
+            batchBuilder.setGroups(groupsBuilder);
+        }
+        return batchBuilder.build();
+    }
 
-            sleepTotalMillis += sleepMillis;
+    /**
+     * A client stream, used by the consumer thread only. The batchCall stream is long-lived, and replaced by a new one
+     * after it is closed by any error.
+     */
+    private class ReadyStream<T> implements ClientResponseObserver<T, Empty> {
+        private final Thread consumerThread = Thread.currentThread();
+        private ClientCallStreamObserver<T> requestStream;
+        private volatile boolean closed = false;
+        private volatile boolean unimplemented = false;
+
+        @Override public void beforeStart(ClientCallStreamObserver<T> requestStream) {
+            this.requestStream = requestStream;
+            requestStream.setOnReadyHandler(() -> LockSupport.unpark(consumerThread));
+        }
 
-            if (sleepTotalMillis > 60000) {
-                logger.warn("Remote client block times over 60 seconds.");
+        /**
+         * Wait until the flow-control window of the stream opens, instead of buffering in the gRPC transport.
+         */
+        private void awaitReady() {
+            long startNanos = System.nanoTime();
+            long warnNanos = READY_WARN_NANOS;
+            while (!requestStream.isReady() && !closed) {
+                LockSupport.parkNanos(this, READY_WAIT_NANOS);
+                if (System.nanoTime() - startNanos > warnNanos) {
+                    logger.warn("Remote client to {} blocks over {} seconds.", address, TimeUnit.NANOSECONDS.toSeconds(warnNanos));
+                    warnNanos += READY_WARN_NANOS;
+                }
             }
         }
 
-        return getStub().call(new StreamObserver<Empty>() {
-            @Override public void onNext(Empty empty) {
+        private void cancel(Throwable t) {
+            if (!closed && Objects.nonNull(requestStream)) {
+                closed = true;
+                requestStream.cancel(t.getMessage(), t);
             }
+        }
 
-            @Override public void onError(Throwable throwable) {
-                concurrentStreamObserverNumber.addAndGet(-1);
+        @Override public void onNext(Empty empty) {
+        }
+
+        @Override public void onError(Throwable throwable) {
+            unimplemented = Status.fromThrowable(throwable).getCode() == Status.Code.UNIMPLEMENTED;
+            closed = true;
+            LockSupport.unpark(consumerThread);
+            if (!unimplemented) {
                 logger.error(throwable.getMessage(), throwable);
             }
+        }
 
-            @Override public void onCompleted() {
-                concurrentStreamObserverNumber.addAndGet(-1);
-            }
-        });
+        @Override public void onCompleted() {
+            closed = true;
+            LockSupport.unpark(consumerThread);
+        }
     }
 
     @Override public void close() {
@@ -23,6 +23,7 @@ import java.util.concurrent.*;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.cluster.*;
 import org.apache.skywalking.oap.server.core.remote.annotation.StreamDataClassGetter;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.Compression;
 import org.apache.skywalking.oap.server.library.module.*;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
 import org.apache.skywalking.oap.server.telemetry.api.*;
@@ -45,9 +46,15 @@ public class RemoteClientManager implements Service {
     private final List<RemoteClient> clientsB;
     private volatile List<RemoteClient> usingClients;
     private GaugeMetric gauge;
+    private final Compression compression;
 
     public RemoteClientManager(ModuleDefineHolder moduleDefineHolder) {
+        this(moduleDefineHolder, Compression.NONE);
+    }
+
+    public RemoteClientManager(ModuleDefineHolder moduleDefineHolder, Compression compression) {
         this.moduleDefineHolder = moduleDefineHolder;
+        this.compression = compression;
         this.clientsA = new LinkedList<>();
         this.clientsB = new LinkedList<>();
         this.usingClients = clientsA;
@@ -199,7 +206,7 @@ public class RemoteClientManager implements Service {
                         RemoteClient client = new SelfRemoteClient(moduleDefineHolder, address);
                         getFreeClients().add(client);
                     } else {
-                        RemoteClient client = new GRPCRemoteClient(moduleDefineHolder, streamDataClassGetter, address, 1, 3000);
+                        RemoteClient client = new GRPCRemoteClient(moduleDefineHolder, streamDataClassGetter, address, 1, 3000, compression);
                         client.connect();
                         getFreeClients().add(client);
                     }
@@ -18,8 +18,10 @@
 
 package org.apache.skywalking.oap.server.core.remote.data;
 
+import java.io.IOException;
 import org.apache.skywalking.oap.server.core.analysis.data.*;
 import org.apache.skywalking.oap.server.core.remote.*;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
 
 /**
  * @author peng-yongsheng
@@ -37,4 +39,19 @@ public abstract class StreamData implements QueueData, Serializable, Deserializa
     }
 
     public abstract int remoteHashCode();
+
+    /**
+     * Write the fields into the reusable output. The generated indicators write their fields directly, the others
+     * write the {@link RemoteData} message by default.
+     */
+    public void serialize(StreamDataOutput output) {
+        output.writeBytes(serialize().build().toByteString());
+    }
+
+    /**
+     * Read the fields written by {@link #serialize(StreamDataOutput)}.
+     */
+    public void deserialize(StreamDataInput input) throws IOException {
+        deserialize(RemoteData.parseFrom(input.readBytes()));
+    }
 }
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.remote.data;
+
+import com.google.protobuf.ByteString;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Read the fields written by {@link StreamDataOutput}, in the same order.
+ */
+public class StreamDataInput {
+
+    private final byte[] buffer;
+    private int position;
+
+    public StreamDataInput(byte[] buffer) {
+        this.buffer = buffer;
+        this.position = 0;
+    }
+
+    public boolean hasRemaining() {
+        return position < buffer.length;
+    }
+
+    public int readInt() throws IOException {
+        long value = readVarLong();
+        return (int)(value >>> 1) ^ -(int)(value & 1);
+    }
+
+    public long readLong() throws IOException {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public double readDouble() throws IOException {
+        require(8);
+        long bits = 0;
+        for (int i = 0; i < 8; i++) {
+            bits |= (buffer[position++] & 0xFFL) << (i * 8);
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    public String readString() throws IOException {
+        int length = (int)readVarLong() - 1;
+        if (length < 0) {
+            return null;
+        }
+        require(length);
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    public ByteString readBytes() throws IOException {
+        int length = (int)readVarLong();
+        require(length);
+        ByteString value = ByteString.copyFrom(buffer, position, length);
+        position += length;
+        return value;
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            require(1);
+            byte b = buffer[position++];
+            value |= (long)(b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint at " + position);
+    }
+
+    private void require(int size) throws IOException {
+        if (size < 0 || position + size > buffer.length) {
+            throw new IOException("Require " + size + " bytes at " + position + ", but only " + (buffer.length - position) + " left");
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.remote.data;
+
+import com.google.protobuf.ByteString;
+
+/**
+ * A growable buffer, which the {@link StreamData} write their fields into, in the order of their own schema. The
+ * integers are zigzag varints, the doubles are fixed 8 bytes, and the strings are the UTF-8 bytes after their length.
+ *
+ * Not thread safe, reused by {@link #clear()}.
+ */
+public class StreamDataOutput {
+
+    private byte[] buffer;
+    private int position;
+
+    public StreamDataOutput() {
+        this(1024);
+    }
+
+    public StreamDataOutput(int initialCapacity) {
+        this.buffer = new byte[initialCapacity];
+        this.position = 0;
+    }
+
+    public void writeInt(int value) {
+        writeVarLong(((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+    }
+
+    public void writeLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    public void writeDouble(double value) {
+        ensureCapacity(8);
+        long bits = Double.doubleToRawLongBits(value);
+        for (int i = 0; i < 8; i++) {
+            buffer[position++] = (byte)(bits >>> (i * 8));
+        }
+    }
+
+    /**
+     * Write the length plus one, 0 means null, then the UTF-8 bytes, without creating the byte array of the string.
+     */
+    public void writeString(String value) {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+
+        int length = value.length();
+        int utf8Length = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                utf8Length++;
+            } else if (c < 0x800) {
+                utf8Length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                utf8Length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                utf8Length++;
+            } else {
+                utf8Length += 3;
+            }
+        }
+        writeVarLong(utf8Length + 1L);
+        ensureCapacity(utf8Length);
+
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer[position++] = (byte)c;
+            } else if (c < 0x800) {
+                buffer[position++] = (byte)(0xC0 | (c >>> 6));
+                buffer[position++] = (byte)(0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[position++] = (byte)(0xF0 | (codePoint >>> 18));
+                buffer[position++] = (byte)(0x80 | ((codePoint >>> 12) & 0x3F));
+                buffer[position++] = (byte)(0x80 | ((codePoint >>> 6) & 0x3F));
+                buffer[position++] = (byte)(0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // A lone surrogate is replaced, as the JDK encoder does.
+                buffer[position++] = '?';
+            } else {
+                buffer[position++] = (byte)(0xE0 | (c >>> 12));
+                buffer[position++] = (byte)(0x80 | ((c >>> 6) & 0x3F));
+                buffer[position++] = (byte)(0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    public void writeBytes(ByteString bytes) {
+        writeVarLong(bytes.size());
+        ensureCapacity(bytes.size());
+        bytes.copyTo(buffer, position);
+        position += bytes.size();
+    }
+
+    private void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte)((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte)value;
+    }
+
+    private void ensureCapacity(int size) {
+        if (position + size > buffer.length) {
+            byte[] newBuffer = new byte[Math.max(buffer.length * 2, position + size)];
+            System.arraycopy(buffer, 0, newBuffer, 0, position);
+            buffer = newBuffer;
+        }
+    }
+
+    public int size() {
+        return position;
+    }
+
+    public ByteString toByteString() {
+        return ByteString.copyFrom(buffer, 0, position);
+    }
+
+    public void clear() {
+        position = 0;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.remote.selector;
+
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import org.apache.skywalking.oap.server.core.remote.client.RemoteClient;
+import org.apache.skywalking.oap.server.core.remote.data.StreamData;
+
+/**
+ * Select the client on a consistent hash ring. Each client owns {@link #VIRTUAL_NODES} points of the ring, hashed from
+ * its address, so all OAP nodes build the same ring. The data goes to the first point after the hash of its {@link
+ * StreamData#remoteHashCode()}. When one of N clients joins or leaves, only about 1/N of the data changes its client,
+ * instead of almost all of them in {@link HashCodeSelector}.
+ *
+ * The ring is rebuilt when the clients change.
+ */
+public class ConsistentHashSelector implements RemoteClientSelector {
+
+    static final int VIRTUAL_NODES = 160;
+
+    private volatile Ring ring = new Ring(new RemoteClient[0]);
+
+    @Override public RemoteClient select(List<RemoteClient> clients, StreamData streamData) {
+        Ring ring = this.ring;
+        if (!ring.isBuiltFrom(clients)) {
+            ring = new Ring(clients.toArray(new RemoteClient[0]));
+            this.ring = ring;
+        }
+        return ring.select(streamData.remoteHashCode());
+    }
+
+    /**
+     * Spread the hash code into the whole long range, the finalizer of the murmur3 hash.
+     */
+    static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static class Ring {
+        private final RemoteClient[] clients;
+        private final long[] points;
+        private final RemoteClient[] owners;
+
+        private Ring(RemoteClient[] clients) {
+            this.clients = clients;
+
+            TreeMap<Long, RemoteClient> ring = new TreeMap<>();
+            for (RemoteClient client : clients) {
+                String address = client.getAddress().toString();
+                for (int i = 0; i < VIRTUAL_NODES; i++) {
+                    long point = Hashing.murmur3_128().hashString(address + "#" + i, StandardCharsets.UTF_8).asLong();
+                    // In case of collision, the smaller address wins on every node.
+                    ring.merge(point, client, (a, b) -> a.getAddress().compareTo(b.getAddress()) <= 0 ? a : b);
+                }
+            }
+
+            this.points = new long[ring.size()];
+            this.owners = new RemoteClient[ring.size()];
+            int index = 0;
+            for (Map.Entry<Long, RemoteClient> entry : ring.entrySet()) {
+                points[index] = entry.getKey();
+                owners[index] = entry.getValue();
+                index++;
+            }
+        }
+
+        private boolean isBuiltFrom(List<RemoteClient> clients) {
+            if (clients.size() != this.clients.length) {
+                return false;
+            }
+            for (int i = 0; i < this.clients.length; i++) {
+                if (clients.get(i) != this.clients[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private RemoteClient select(int hashCode) {
+            int index = Arrays.binarySearch(points, mix(hashCode));
+            if (index < 0) {
+                index = -index - 1;
+            }
+            return owners[index == owners.length ? 0 : index];
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.server;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.grpc.stub.*;
+import java.util.concurrent.*;
+import org.apache.skywalking.oap.server.core.worker.Backpressure;
+import org.slf4j.*;
+
+/**
+ * Manual inbound flow control of a gRPC client stream. The next message is requested after the current one is
+ * processed, and the request is delayed with growing time while the {@link Backpressure} of the carrier fed by this
+ * stream is raised. The flow-control window of the stream fills up then, and the agent slows down without blocking
+ * any gRPC thread.
+ *
+ * Streams of the tests or in-process calls, which are not {@link ServerCallStreamObserver}, keep the auto flow
+ * control.
+ */
+public class InboundFlowController {
+
+    private static final Logger logger = LoggerFactory.getLogger(InboundFlowController.class);
+
+    private static final long MIN_DELAY_MILLIS = 10;
+    private static final long MAX_DELAY_MILLIS = 1000;
+    private static final ScheduledExecutorService DELAYED_REQUESTS = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setNameFormat("InboundFlowController-%d").setDaemon(true).build());
+
+    private final ServerCallStreamObserver<?> serverObserver;
+    private final Backpressure backpressure;
+    private long delayMillis = 0;
+
+    /**
+     * Request the next message at once, without any backpressure.
+     */
+    public InboundFlowController(StreamObserver<?> responseObserver) {
+        this(responseObserver, null);
+    }
+
+    /**
+     * Must be created in the service method, before the request observer is returned.
+     *
+     * @param backpressure of the carrier this stream feeds, null means never delay.
+     */
+    public InboundFlowController(StreamObserver<?> responseObserver, Backpressure backpressure) {
+        this.backpressure = backpressure;
+        if (responseObserver instanceof ServerCallStreamObserver) {
+            serverObserver = (ServerCallStreamObserver<?>)responseObserver;
+            serverObserver.disableAutoInboundFlowControl();
+            serverObserver.request(1);
+        } else {
+            serverObserver = null;
+        }
+    }
+
+    /**
+     * Request the next message, called after the current message is processed.
+     */
+    public void next() {
+        if (serverObserver == null) {
+            return;
+        }
+
+        if (backpressure == null || !backpressure.isOverloaded()) {
+            delayMillis = 0;
+            serverObserver.request(1);
+            return;
+        }
+
+        delayMillis = delayMillis == 0 ? MIN_DELAY_MILLIS : Math.min(delayMillis * 2, MAX_DELAY_MILLIS);
+        if (logger.isDebugEnabled()) {
+            logger.debug("backpressure raised, request the next message after {} millis", delayMillis);
+        }
+        DELAYED_REQUESTS.schedule(() -> {
+            try {
+                serverObserver.request(1);
+            } catch (Throwable t) {
+                logger.error(t.getMessage(), t);
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+}
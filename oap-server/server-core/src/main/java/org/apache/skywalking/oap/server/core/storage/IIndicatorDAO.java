@@ -19,6 +19,7 @@
 package org.apache.skywalking.oap.server.core.storage;
 
 import java.io.IOException;
+import java.util.List;
 import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
 
 /**
@@ -28,6 +29,13 @@ public interface IIndicatorDAO<INSERT, UPDATE> extends DAO {
 
     Indicator get(String modelName, Indicator indicator) throws IOException;
 
+    /**
+     * Read the stored indicators of the given ones in one request.
+     *
+     * @return the stored indicators, which exist only. Match them to the given ones by {@link Indicator#id()}.
+     */
+    List<Indicator> multiGet(String modelName, List<Indicator> indicators) throws IOException;
+
     INSERT prepareBatchInsert(String modelName, Indicator indicator) throws IOException;
 
     UPDATE prepareBatchUpdate(String modelName, Indicator indicator) throws IOException;
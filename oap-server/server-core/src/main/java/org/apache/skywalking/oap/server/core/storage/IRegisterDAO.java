@@ -19,16 +19,37 @@
 package org.apache.skywalking.oap.server.core.storage;
 
 import java.io.IOException;
+import java.util.List;
 import org.apache.skywalking.oap.server.core.register.RegisterSource;
 
 /**
  * @author peng-yongsheng
  */
 public interface IRegisterDAO extends DAO {
-    
+
     RegisterSource get(String modelName, String id) throws IOException;
 
+    /**
+     * Read the stored sources of the given ids in one request.
+     *
+     * @return the stored sources, which exist only. Match them to the ids by {@link RegisterSource#id()}.
+     */
+    List<RegisterSource> multiGet(String modelName, List<String> ids) throws IOException;
+
+    /**
+     * Load the sources whose sequence is greater than the given one, ordered by the sequence.
+     *
+     * @param size max number of the sources to load
+     */
+    List<RegisterSource> loadAfter(String modelName, int sequence, int size) throws IOException;
+
     void forceInsert(String modelName, RegisterSource source) throws IOException;
 
+    /**
+     * Insert the new sources in one request, they are visible to the queries after return, same as {@link
+     * #forceInsert(String, RegisterSource)}.
+     */
+    void forceBatchInsert(String modelName, List<RegisterSource> sources) throws IOException;
+
     void forceUpdate(String modelName, RegisterSource source) throws IOException;
 }
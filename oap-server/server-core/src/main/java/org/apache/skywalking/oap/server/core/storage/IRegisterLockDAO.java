@@ -36,4 +36,15 @@ public interface IRegisterLockDAO extends DAO {
      * @return Unique ID.
      */
     int getId(Scope scope, RegisterSource registerSource);
+
+    /**
+     * Reserve a range of ids in one lock round trip, the same uniqueness as {@link #getId(Scope, RegisterSource)}. The
+     * ids not used by the caller are not released, so the ids could have gaps.
+     *
+     * @param scope for the ids.
+     * @param size of the range, at least 1.
+     * @return the first ID of the range, the range is [first, first + size), or {@link
+     * org.apache.skywalking.oap.server.core.Const#NONE} if the lock failed.
+     */
+    int getIds(Scope scope, int size);
 }
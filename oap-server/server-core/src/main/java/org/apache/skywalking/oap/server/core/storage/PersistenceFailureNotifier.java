@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.storage;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.*;
+
+/**
+ * The storage could fail the persistence after {@link IBatchDAO#batchPersistence(java.util.List)} returns, such as
+ * the asynchronous bulks of elasticsearch. The storage reports the ids of the data not written here, so the worker of
+ * that model could stop trusting what it cached as persisted.
+ */
+public enum PersistenceFailureNotifier {
+    INSTANCE;
+
+    private static final Logger logger = LoggerFactory.getLogger(PersistenceFailureNotifier.class);
+
+    private final Map<String, Listener> listeners = new ConcurrentHashMap<>();
+
+    public void addListener(String modelName, Listener listener) {
+        listeners.put(modelName, listener);
+    }
+
+    /**
+     * @param modelName of the data
+     * @param id of the data not written
+     */
+    public void failed(String modelName, String id) {
+        Listener listener = listeners.get(modelName);
+        if (listener == null) {
+            return;
+        }
+        try {
+            listener.onFailed(id);
+        } catch (Throwable t) {
+            logger.error(t.getMessage(), t);
+        }
+    }
+
+    public interface Listener {
+        /**
+         * Called in the storage client threads, should not block.
+         */
+        void onFailed(String id);
+    }
+}
@@ -18,9 +18,11 @@
 
 package org.apache.skywalking.oap.server.core.storage;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.util.*;
 import java.util.concurrent.*;
 import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
+import org.apache.skywalking.oap.server.core.CoreModuleConfig;
 import org.apache.skywalking.oap.server.core.analysis.worker.*;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
@@ -28,6 +30,10 @@ import org.apache.skywalking.oap.server.telemetry.api.*;
 import org.slf4j.*;
 
 /**
+ * Flush all persistence workers periodically. The workers are prepared in parallel, and each one is sent to the
+ * {@link IBatchDAO} as soon as it is prepared. A worker whose previous flush is still running is skipped in this
+ * period, rather than waited for, so a slow model doesn't delay the next flush of the others.
+ *
  * @author peng-yongsheng
  */
 public enum PersistenceTimer {
@@ -37,31 +43,38 @@ public enum PersistenceTimer {
 
     private Boolean isStarted = false;
     private final Boolean debug;
+    private MetricCreator metricCreator;
     private CounterMetric errorCounter;
-    private HistogramMetric prepareLatency;
-    private HistogramMetric executeLatency;
+    private HistogramMetric allLatency;
+    private final Map<String, HistogramMetric> prepareLatencies = new ConcurrentHashMap<>();
+    private final Map<String, HistogramMetric> executeLatencies = new ConcurrentHashMap<>();
+    private ExecutorService prepareExecutor;
+    private final Set<PersistenceWorker> flushingWorkers = ConcurrentHashMap.newKeySet();
 
     PersistenceTimer() {
         this.debug = System.getProperty("debug") != null;
     }
 
-    public void start(ModuleManager moduleManager) {
+    public void start(ModuleManager moduleManager, CoreModuleConfig moduleConfig) {
         logger.info("persistence timer start");
-        //TODO timer value config
-//        final long timeInterval = EsConfig.Es.Persistence.Timer.VALUE * 1000;
-        final long timeInterval = 3;
+        final long timeInterval = moduleConfig.getPersistentPeriod();
+        int prepareThreads = moduleConfig.getPersistentPrepareThreads();
+        if (prepareThreads <= 0) {
+            prepareThreads = Runtime.getRuntime().availableProcessors();
+        }
         IBatchDAO batchDAO = moduleManager.find(StorageModule.NAME).provider().getService(IBatchDAO.class);
 
-        MetricCreator metricCreator = moduleManager.find(TelemetryModule.NAME).provider().getService(MetricCreator.class);
+        metricCreator = moduleManager.find(TelemetryModule.NAME).provider().getService(MetricCreator.class);
         errorCounter = metricCreator.createCounter("persistence_timer_bulk_error_count", "Error execution of the prepare stage in persistence timer",
             MetricTag.EMPTY_KEY, MetricTag.EMPTY_VALUE);
-        prepareLatency = metricCreator.createHistogramMetric("persistence_timer_bulk_prepare_latency", "Latency of the prepare stage in persistence timer",
-            MetricTag.EMPTY_KEY, MetricTag.EMPTY_VALUE);
-        executeLatency = metricCreator.createHistogramMetric("persistence_timer_bulk_execute_latency", "Latency of the execute stage in persistence timer",
+        allLatency = metricCreator.createHistogramMetric("persistence_timer_bulk_all_latency", "Latency of flushing one persistence worker in persistence timer",
             MetricTag.EMPTY_KEY, MetricTag.EMPTY_VALUE);
 
         if (!isStarted) {
-            Executors.newSingleThreadScheduledExecutor().scheduleAtFixedRate(
+            prepareExecutor = Executors.newFixedThreadPool(prepareThreads,
+                new ThreadFactoryBuilder().setNameFormat("PersistenceTimer-prepare-%d").setDaemon(true).build());
+            Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("PersistenceTimer-%d").setDaemon(true).build()).scheduleAtFixedRate(
                 new RunnableWithExceptionProtection(() -> extractDataAndSave(batchDAO),
                     t -> logger.error("Extract data and save failure.", t)), 1, timeInterval, TimeUnit.SECONDS);
 
@@ -69,61 +82,89 @@ public enum PersistenceTimer {
         }
     }
 
-    @SuppressWarnings("unchecked")
     private void extractDataAndSave(IBatchDAO batchDAO) {
         if (logger.isDebugEnabled()) {
             logger.debug("Extract data and save");
         }
 
-        long startTime = System.currentTimeMillis();
-        try {
-            HistogramMetric.Timer timer = prepareLatency.createTimer();
+        List<PersistenceWorker> persistenceWorkers = new ArrayList<>();
+        persistenceWorkers.addAll(IndicatorProcess.INSTANCE.getPersistentWorkers());
+        persistenceWorkers.addAll(RecordProcess.INSTANCE.getPersistentWorkers());
+        flush(batchDAO, persistenceWorkers);
+    }
 
-            List batchAllCollection = new LinkedList();
+    /**
+     * Submit the flush of each worker, unless its previous flush is still running, without waiting for them.
+     */
+    void flush(IBatchDAO batchDAO, List<PersistenceWorker> persistenceWorkers) {
+        for (PersistenceWorker worker : persistenceWorkers) {
+            if (!flushingWorkers.add(worker)) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("The previous flush of {} worker is running, skip it", worker.getModelName());
+                }
+                continue;
+            }
             try {
-                List<PersistenceWorker> persistenceWorkers = new ArrayList<>();
-                persistenceWorkers.addAll(IndicatorProcess.INSTANCE.getPersistentWorkers());
-                persistenceWorkers.addAll(RecordProcess.INSTANCE.getPersistentWorkers());
-
-                persistenceWorkers.forEach(worker -> {
-                    if (logger.isDebugEnabled()) {
-                        logger.debug("extract {} worker data and save", worker.getClass().getName());
-                    }
-
-                    if (worker.flushAndSwitch()) {
-                        List<?> batchCollection = worker.buildBatchCollection();
-
-                        if (logger.isDebugEnabled()) {
-                            logger.debug("extract {} worker data size: {}", worker.getClass().getName(), batchCollection.size());
+                prepareExecutor.execute(() -> {
+                    long startTime = System.currentTimeMillis();
+                    HistogramMetric.Timer timer = allLatency.createTimer();
+                    try {
+                        extractDataAndSave(batchDAO, worker);
+                    } catch (Throwable t) {
+                        errorCounter.inc();
+                        logger.error(t.getMessage(), t);
+                    } finally {
+                        timer.finish();
+                        flushingWorkers.remove(worker);
+                        if (debug) {
+                            logger.info("batch persistence of {} duration: {} ms", worker.getModelName(), System.currentTimeMillis() - startTime);
                         }
-                        batchAllCollection.addAll(batchCollection);
                     }
                 });
-
-                if (debug) {
-                    logger.info("build batch persistence duration: {} ms", System.currentTimeMillis() - startTime);
-                }
-            } finally {
-                timer.finish();
+            } catch (RejectedExecutionException e) {
+                flushingWorkers.remove(worker);
+                throw e;
             }
+        }
+    }
 
-            HistogramMetric.Timer executeLatencyTimer = executeLatency.createTimer();
-            try {
-                batchDAO.batchPersistence(batchAllCollection);
-            } finally {
-                executeLatencyTimer.finish();
-            }
-        } catch (Throwable e) {
-            errorCounter.inc();
-            logger.error(e.getMessage(), e);
+    private void extractDataAndSave(IBatchDAO batchDAO, PersistenceWorker worker) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("extract {} worker data and save", worker.getModelName());
+        }
+
+        if (!worker.flushAndSwitch()) {
+            return;
+        }
+
+        List<?> batchCollection;
+        HistogramMetric.Timer prepareTimer = latency(prepareLatencies, "persistence_timer_bulk_prepare_latency",
+            "Latency of the prepare stage in persistence timer", worker.getModelName()).createTimer();
+        try {
+            batchCollection = worker.buildBatchCollection();
         } finally {
-            if (logger.isDebugEnabled()) {
-                logger.debug("persistence data save finish");
-            }
+            prepareTimer.finish();
         }
 
-        if (debug) {
-            logger.info("batch persistence duration: {} ms", System.currentTimeMillis() - startTime);
+        if (logger.isDebugEnabled()) {
+            logger.debug("extract {} worker data size: {}", worker.getModelName(), batchCollection.size());
+        }
+        if (batchCollection.isEmpty()) {
+            return;
+        }
+
+        HistogramMetric.Timer executeTimer = latency(executeLatencies, "persistence_timer_bulk_execute_latency",
+            "Latency of the execute stage in persistence timer", worker.getModelName()).createTimer();
+        try {
+            batchDAO.batchPersistence(batchCollection);
+        } finally {
+            executeTimer.finish();
         }
     }
+
+    private HistogramMetric latency(Map<String, HistogramMetric> latencies, String name, String tips,
+        String modelName) {
+        return latencies.computeIfAbsent(modelName, model -> metricCreator.createHistogramMetric(name, tips,
+            new MetricTag.Keys("metricName"), new MetricTag.Values(model)));
+    }
 }
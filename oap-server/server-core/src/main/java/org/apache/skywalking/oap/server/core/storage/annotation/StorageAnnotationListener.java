@@ -60,12 +60,13 @@ public class StorageAnnotationListener implements AnnotationListener, IModelGett
         Scope sourceScope = StorageEntityAnnotationUtils.getSourceScope(aClass);
         List<ModelColumn> modelColumns = new LinkedList<>();
         boolean isIndicator = IndicatorAnnotationUtils.isIndicator(aClass);
-        retrieval(aClass, modelName, modelColumns);
+        String valueNamePrefix = aClass.isAnnotationPresent(MultipleValueColumns.class) ? ((MultipleValueColumns)aClass.getAnnotation(MultipleValueColumns.class)).prefix() : null;
+        retrieval(aClass, modelName, valueNamePrefix, modelColumns);
 
         models.add(new Model(modelName, modelColumns, isIndicator, deleteHistory, sourceScope));
     }
 
-    private void retrieval(Class clazz, String modelName, List<ModelColumn> modelColumns) {
+    private void retrieval(Class clazz, String modelName, String valueNamePrefix, List<ModelColumn> modelColumns) {
         Field[] fields = clazz.getDeclaredFields();
 
         for (Field field : fields) {
@@ -76,13 +77,17 @@ public class StorageAnnotationListener implements AnnotationListener, IModelGett
                     logger.debug("The field named {} with the {} type", column.columnName(), field.getType());
                 }
                 if (column.isValue()) {
-                    ValueColumnIds.INSTANCE.putIfAbsent(modelName, column.columnName(), column.function());
+                    if (valueNamePrefix == null) {
+                        ValueColumnIds.INSTANCE.putIfAbsent(modelName, column.columnName(), column.function());
+                    } else {
+                        ValueColumnIds.INSTANCE.putIfAbsent(valueNamePrefix + column.columnName(), modelName, column.columnName(), column.function());
+                    }
                 }
             }
         }
 
         if (Objects.nonNull(clazz.getSuperclass())) {
-            retrieval(clazz.getSuperclass(), modelName, modelColumns);
+            retrieval(clazz.getSuperclass(), modelName, valueNamePrefix, modelColumns);
         }
     }
 
@@ -28,9 +28,30 @@ public enum ValueColumnIds {
     INSTANCE;
 
     private Map<String, ValueColumn> mapping = new HashMap<>();
+    private Map<String, List<String>> indNamesOfModel = new HashMap<>();
 
     public void putIfAbsent(String indName, String valueCName, Function function) {
-        mapping.putIfAbsent(indName, new ValueColumn(valueCName, function));
+        putIfAbsent(indName, indName, valueCName, function);
+    }
+
+    /**
+     * @param indName the name in query and alarm
+     * @param modelName the model which the value column belongs to, different from the indName when the model has
+     * {@link MultipleValueColumns}.
+     */
+    public void putIfAbsent(String indName, String modelName, String valueCName, Function function) {
+        if (mapping.putIfAbsent(indName, new ValueColumn(modelName, valueCName, function)) == null) {
+            indNamesOfModel.computeIfAbsent(modelName, key -> new LinkedList<>()).add(indName);
+        }
+    }
+
+    public String getModelName(String indName) {
+        ValueColumn valueColumn = mapping.get(indName);
+        return valueColumn == null ? indName : valueColumn.modelName;
+    }
+
+    public List<String> getIndNames(String modelName) {
+        return indNamesOfModel.getOrDefault(modelName, Collections.emptyList());
     }
 
     public String getValueCName(String indName) {
@@ -42,10 +63,12 @@ public enum ValueColumnIds {
     }
 
     class ValueColumn {
+        private final String modelName;
         private final String valueCName;
         private final Function function;
 
-        private ValueColumn(String valueCName, Function function) {
+        private ValueColumn(String modelName, String valueCName, Function function) {
+            this.modelName = modelName;
             this.valueCName = valueCName;
             this.function = function;
         }
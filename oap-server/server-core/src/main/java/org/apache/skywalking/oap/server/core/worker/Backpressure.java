@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.worker;
+
+/**
+ * The backpressure of one data carrier. It is raised when any producer of the carrier waits or gets rejected, and
+ * lasts for a while, so the receiver feeding this carrier could slow its senders down, without throttling the other
+ * streams.
+ */
+public class Backpressure {
+
+    private static final long DURATION_MILLIS = 1000;
+
+    private volatile long lastRaiseTime = 0;
+
+    public void raise() {
+        lastRaiseTime = System.currentTimeMillis();
+    }
+
+    public boolean isOverloaded() {
+        return System.currentTimeMillis() - lastRaiseTime < DURATION_MILLIS;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.worker;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.concurrent.*;
+import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.apache.skywalking.apm.commons.datacarrier.callback.QueueMonitor;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.*;
+
+/**
+ * Report the queue depth, consume batch size, enqueue waiting latency and rejected count of a worker's data carrier to
+ * telemetry, and raise the {@link Backpressure} of this carrier when producers can't enqueue at once.
+ *
+ * The queue depth is sampled every second by one shared thread, so the producers and consumers pay nothing for it.
+ */
+public class DataCarrierMonitor implements QueueMonitor {
+    private static final ScheduledExecutorService DEPTH_SAMPLER = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setNameFormat("DataCarrierMonitor-%d").setDaemon(true).build());
+
+    private final GaugeMetric queueDepth;
+    private final GaugeMetric consumeBatchSize;
+    private final HistogramMetric enqueueLatency;
+    private final CounterMetric rejectedCounter;
+    private final Backpressure backpressure;
+    private volatile ScheduledFuture<?> depthSampling;
+
+    public DataCarrierMonitor(ModuleManager moduleManager, String carrierName) {
+        this(moduleManager, carrierName, new Backpressure());
+    }
+
+    public DataCarrierMonitor(ModuleManager moduleManager, String carrierName, Backpressure backpressure) {
+        this.backpressure = backpressure;
+        MetricCreator metricCreator = moduleManager.find(TelemetryModule.NAME).provider().getService(MetricCreator.class);
+        MetricTag.Keys keys = new MetricTag.Keys("carrier");
+        MetricTag.Values values = new MetricTag.Values(carrierName);
+        queueDepth = metricCreator.createGauge("datacarrier_queue_depth", "The number of data in the carrier, not consumed yet",
+            keys, values);
+        consumeBatchSize = metricCreator.createGauge("datacarrier_consume_batch_size", "The number of data drained in one consume cycle",
+            keys, values);
+        enqueueLatency = metricCreator.createHistogramMetric("datacarrier_enqueue_wait_latency",
+            "The waiting time of the producers when the carrier is full", keys, values);
+        rejectedCounter = metricCreator.createCounter("datacarrier_rejected", "The number of data rejected by the carrier",
+            keys, values);
+    }
+
+    /**
+     * Monitor the producers of the carrier, and start sampling its queue depth.
+     */
+    public void monitor(DataCarrier<?> carrier) {
+        carrier.setMonitor(this);
+        depthSampling = DEPTH_SAMPLER.scheduleAtFixedRate(() -> queueDepth.setValue(carrier.getDepth()), 1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stop sampling the queue depth, when the carrier is shutdown.
+     */
+    public void close() {
+        ScheduledFuture<?> sampling = depthSampling;
+        if (sampling != null) {
+            sampling.cancel(false);
+        }
+    }
+
+    /**
+     * Called by the consumer in each consume cycle.
+     *
+     * @param size of the drained batch.
+     */
+    public void onConsume(int size) {
+        consumeBatchSize.setValue(size);
+    }
+
+    public Backpressure getBackpressure() {
+        return backpressure;
+    }
+
+    @Override public void onWait(long waitNanos) {
+        enqueueLatency.observe(waitNanos / 1.0E9D);
+        backpressure.raise();
+    }
+
+    @Override public void onReject() {
+        rejectedCounter.inc();
+        backpressure.raise();
+    }
+}
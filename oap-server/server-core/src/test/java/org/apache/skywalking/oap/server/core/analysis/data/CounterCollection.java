@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.data;
+
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Collection which only counts the put data, so many writers could put at the same time. The writers are counted as
+ * {@link MergeDataCollection} does, or flagged as the collections did before the epoch based {@link Window}.
+ */
+class CounterCollection implements SWCollection<Long> {
+
+    private final boolean flagWriting;
+    private final AtomicLong counter = new AtomicLong(0);
+    private final AtomicInteger writers = new AtomicInteger(0);
+    private volatile boolean writing = false;
+    private volatile boolean reading = false;
+
+    CounterCollection(boolean flagWriting) {
+        this.flagWriting = flagWriting;
+    }
+
+    @Override public void reading() {
+        reading = true;
+    }
+
+    @Override public boolean isReading() {
+        return reading;
+    }
+
+    @Override public void writing() {
+        if (flagWriting) {
+            writing = true;
+        } else {
+            writers.incrementAndGet();
+        }
+    }
+
+    @Override public boolean isWriting() {
+        return flagWriting ? writing : writers.get() > 0;
+    }
+
+    @Override public void clear() {
+        counter.set(0);
+    }
+
+    @Override public int size() {
+        return (int)counter.get();
+    }
+
+    @Override public void finishReading() {
+        reading = false;
+    }
+
+    @Override public void finishWriting() {
+        if (flagWriting) {
+            writing = false;
+        } else {
+            writers.decrementAndGet();
+        }
+    }
+
+    @Override public Collection<Long> collection() {
+        return Collections.singletonList(counter.get());
+    }
+
+    @Override public boolean containsKey(Long key) {
+        return false;
+    }
+
+    @Override public Long get(Long key) {
+        return null;
+    }
+
+    @Override public void put(Long value) {
+        counter.addAndGet(value);
+    }
+}
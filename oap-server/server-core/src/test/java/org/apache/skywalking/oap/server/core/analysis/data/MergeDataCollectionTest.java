@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.data;
+
+import java.util.*;
+import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.junit.*;
+
+public class MergeDataCollectionTest {
+
+    @Test
+    public void testPutAndGet() {
+        MergeDataCollection<MockIndicator> collection = new MergeDataCollection<>();
+        for (int i = 0; i < 1000; i++) {
+            collection.put(new MockIndicator("entity" + i, 201811211230L, i));
+        }
+        Assert.assertEquals(1000, collection.size());
+
+        for (int i = 0; i < 1000; i++) {
+            MockIndicator indicator = collection.get(new MockIndicator("entity" + i, 201811211230L, 0));
+            Assert.assertNotNull(indicator);
+            Assert.assertEquals(i, indicator.value);
+        }
+        Assert.assertNull(collection.get(new MockIndicator("entity0", 201811211231L, 0)));
+
+        Set<Integer> values = new HashSet<>();
+        collection.collection().forEach(indicator -> values.add(indicator.value));
+        Assert.assertEquals(1000, values.size());
+
+        collection.clear();
+        Assert.assertEquals(0, collection.size());
+        Assert.assertFalse(collection.collection().iterator().hasNext());
+        Assert.assertFalse(collection.containsKey(new MockIndicator("entity0", 201811211230L, 0)));
+    }
+
+    @Test
+    public void testSameLongHashCode() {
+        MergeDataCollection<MockIndicator> collection = new MergeDataCollection<>();
+        MockIndicator a = new MockIndicator("a", 201811211230L, 1);
+        MockIndicator b = new MockIndicator("b", 201811211230L, 2);
+        a.forcedHash = b.forcedHash = 1L;
+        collection.put(a);
+        collection.put(b);
+
+        Assert.assertEquals(2, collection.size());
+        Assert.assertSame(a, collection.get(a));
+        Assert.assertSame(b, collection.get(b));
+
+        MockIndicator newA = new MockIndicator("a", 201811211230L, 3);
+        newA.forcedHash = 1L;
+        collection.put(newA);
+        Assert.assertEquals(2, collection.size());
+        Assert.assertSame(newA, collection.get(a));
+    }
+
+    private static class MockIndicator extends Indicator {
+        private final String entityId;
+        private final int value;
+        private Long forcedHash;
+
+        private MockIndicator(String entityId, long timeBucket, int value) {
+            this.entityId = entityId;
+            this.value = value;
+            setTimeBucket(timeBucket);
+        }
+
+        @Override public long longHashCode() {
+            if (forcedHash != null) {
+                return forcedHash;
+            }
+            long result = 17;
+            result = combineHash(result, entityId.hashCode());
+            result = combineHash(result, getTimeBucket());
+            return result;
+        }
+
+        @Override public int hashCode() {
+            return 31 * entityId.hashCode() + (int)getTimeBucket();
+        }
+
+        @Override public boolean equals(Object obj) {
+            if (!(obj instanceof MockIndicator)) {
+                return false;
+            }
+            MockIndicator indicator = (MockIndicator)obj;
+            return entityId.equals(indicator.entityId) && getTimeBucket() == indicator.getTimeBucket();
+        }
+
+        @Override public String id() {
+            return getTimeBucket() + "_" + entityId;
+        }
+
+        @Override public void combine(Indicator indicator) {
+        }
+
+        @Override public void calculate() {
+        }
+
+        @Override public Indicator toHour() {
+            return null;
+        }
+
+        @Override public Indicator toDay() {
+            return null;
+        }
+
+        @Override public Indicator toMonth() {
+            return null;
+        }
+
+        @Override public int remoteHashCode() {
+            return entityId.hashCode();
+        }
+
+        @Override public void deserialize(RemoteData remoteData) {
+        }
+
+        @Override public RemoteData.Builder serialize() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.data;
+
+import java.util.*;
+import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.junit.*;
+
+public class PersistedIndicatorCacheTest {
+
+    @Test
+    public void testEvictOldBuckets() {
+        PersistedIndicatorCache cache = new PersistedIndicatorCache(100, 2, 60000);
+        cache.put(new MockIndicator("a", 201811211230L));
+        cache.put(new MockIndicator("a", 201811211231L));
+        Assert.assertNotNull(cache.get(new MockIndicator("a", 201811211230L)));
+        Assert.assertNotNull(cache.get(new MockIndicator("a", 201811211231L)));
+
+        cache.put(new MockIndicator("b", 201811211232L));
+        Assert.assertNull(cache.get(new MockIndicator("a", 201811211230L)));
+        Assert.assertNotNull(cache.get(new MockIndicator("a", 201811211231L)));
+        Assert.assertNotNull(cache.get(new MockIndicator("b", 201811211232L)));
+        Assert.assertEquals(2, cache.size());
+
+        // Closed bucket
+        cache.put(new MockIndicator("a", 201811211229L));
+        Assert.assertNull(cache.get(new MockIndicator("a", 201811211229L)));
+        Assert.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testMaxSize() {
+        PersistedIndicatorCache cache = new PersistedIndicatorCache(3, 2, 60000);
+        cache.put(new MockIndicator("a", 201811211230L));
+        cache.put(new MockIndicator("b", 201811211230L));
+        cache.put(new MockIndicator("a", 201811211231L));
+        Assert.assertEquals(3, cache.size());
+
+        // The older bucket gives way to the latest one.
+        cache.put(new MockIndicator("b", 201811211231L));
+        Assert.assertEquals(2, cache.size());
+        Assert.assertNull(cache.get(new MockIndicator("a", 201811211230L)));
+        Assert.assertNotNull(cache.get(new MockIndicator("b", 201811211231L)));
+
+        cache.put(new MockIndicator("c", 201811211231L));
+        cache.put(new MockIndicator("d", 201811211231L));
+        Assert.assertEquals(3, cache.size());
+        Assert.assertNull(cache.get(new MockIndicator("d", 201811211231L)));
+
+        MockIndicator latest = new MockIndicator("a", 201811211231L);
+        cache.put(latest);
+        Assert.assertSame(latest, cache.get(new MockIndicator("a", 201811211231L)));
+    }
+
+    @Test
+    public void testInvalidate() {
+        PersistedIndicatorCache cache = new PersistedIndicatorCache(100, 2, 60000);
+        cache.put(new MockIndicator("a", 201811211230L));
+        cache.put(new MockIndicator("b", 201811211230L));
+        cache.put(new MockIndicator("a", 201811211231L));
+
+        cache.invalidate(new HashSet<>(Arrays.asList("201811211230_a", "201811211231_a")));
+        Assert.assertEquals(1, cache.size());
+        Assert.assertNull(cache.get(new MockIndicator("a", 201811211230L)));
+        Assert.assertNull(cache.get(new MockIndicator("a", 201811211231L)));
+        Assert.assertNotNull(cache.get(new MockIndicator("b", 201811211230L)));
+    }
+
+    @Test
+    public void testExpire() {
+        PersistedIndicatorCache cache = new PersistedIndicatorCache(100, 2, 1000);
+        cache.put(new MockIndicator("a", 201811211230L), 10000);
+        Assert.assertNotNull(cache.get(new MockIndicator("a", 201811211230L), 10999));
+        Assert.assertNull(cache.get(new MockIndicator("a", 201811211230L), 11000));
+
+        // Cached again in the next persistence.
+        cache.put(new MockIndicator("a", 201811211230L), 11000);
+        Assert.assertNotNull(cache.get(new MockIndicator("a", 201811211230L), 11500));
+        Assert.assertEquals(1, cache.size());
+    }
+
+    private static class MockIndicator extends Indicator {
+        private final String entityId;
+
+        private MockIndicator(String entityId, long timeBucket) {
+            this.entityId = entityId;
+            setTimeBucket(timeBucket);
+        }
+
+        @Override public int hashCode() {
+            return 31 * entityId.hashCode() + (int)getTimeBucket();
+        }
+
+        @Override public boolean equals(Object obj) {
+            if (!(obj instanceof MockIndicator)) {
+                return false;
+            }
+            MockIndicator indicator = (MockIndicator)obj;
+            return entityId.equals(indicator.entityId) && getTimeBucket() == indicator.getTimeBucket();
+        }
+
+        @Override public String id() {
+            return getTimeBucket() + "_" + entityId;
+        }
+
+        @Override public void combine(Indicator indicator) {
+        }
+
+        @Override public void calculate() {
+        }
+
+        @Override public Indicator toHour() {
+            return null;
+        }
+
+        @Override public Indicator toDay() {
+            return null;
+        }
+
+        @Override public Indicator toMonth() {
+            return null;
+        }
+
+        @Override public int remoteHashCode() {
+            return entityId.hashCode();
+        }
+
+        @Override public void deserialize(RemoteData remoteData) {
+        }
+
+        @Override public RemoteData.Builder serialize() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.data;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+
+/**
+ * Compare the epoch based {@link Window} with the flag and sleep based one it replaced. Writers keep writing while a
+ * background thread switches and reads the last collection, as the persistence timer does.
+ *
+ * Run the main method, it benchmarks 1, 4 and 16 writer threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class WindowBenchmark {
+
+    private static final long SWITCH_INTERVAL_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    @State(Scope.Benchmark)
+    public static class EpochState {
+        private final Window<Long> window = new Window<Long>() {
+            @Override public SWCollection<Long> collectionInstance() {
+                return new CounterCollection(false);
+            }
+        };
+        private volatile boolean running;
+        private Thread switcher;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            running = true;
+            switcher = new Thread(() -> {
+                while (running) {
+                    if (window.trySwitchPointer()) {
+                        window.getLast().size();
+                        window.finishReadingLast();
+                    }
+                    LockSupport.parkNanos(SWITCH_INTERVAL_NANOS);
+                }
+            });
+            switcher.start();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws InterruptedException {
+            running = false;
+            switcher.join();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class LegacyState {
+        private final LegacyWindow window = new LegacyWindow();
+        private volatile boolean running;
+        private Thread switcher;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            running = true;
+            switcher = new Thread(() -> {
+                while (running) {
+                    boolean isSwitch;
+                    try {
+                        if (isSwitch = window.trySwitchPointer()) {
+                            window.switchPointer();
+                        }
+                    } finally {
+                        window.trySwitchPointerFinally();
+                    }
+                    if (isSwitch) {
+                        while (window.getLast().isWriting()) {
+                            try {
+                                Thread.sleep(10);
+                            } catch (InterruptedException e) {
+                                return;
+                            }
+                        }
+                        window.getLast().size();
+                        window.finishReadingLast();
+                    }
+                    LockSupport.parkNanos(SWITCH_INTERVAL_NANOS);
+                }
+            });
+            switcher.start();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws InterruptedException {
+            running = false;
+            switcher.join();
+        }
+    }
+
+    @Benchmark
+    public void epoch(EpochState state) {
+        SWCollection<Long> current = state.window.getCurrentAndWriting();
+        current.put(1L);
+        state.window.finishWriting(current);
+    }
+
+    @Benchmark
+    public void legacy(LegacyState state) {
+        SWCollection<Long> current = state.window.getCurrentAndWriting();
+        current.put(1L);
+        current.finishWriting();
+    }
+
+    /**
+     * The window before the epoch based one, kept here for comparison only.
+     */
+    private static class LegacyWindow {
+        private AtomicInteger windowSwitch = new AtomicInteger(0);
+        private SWCollection<Long> pointer;
+        private SWCollection<Long> windowDataA = new CounterCollection(true);
+        private SWCollection<Long> windowDataB = new CounterCollection(true);
+
+        LegacyWindow() {
+            this.pointer = windowDataA;
+        }
+
+        boolean trySwitchPointer() {
+            return windowSwitch.incrementAndGet() == 1 && !getLast().isReading();
+        }
+
+        void trySwitchPointerFinally() {
+            windowSwitch.addAndGet(-1);
+        }
+
+        void switchPointer() {
+            if (pointer == windowDataA) {
+                pointer = windowDataB;
+            } else {
+                pointer = windowDataA;
+            }
+            getLast().reading();
+        }
+
+        SWCollection<Long> getCurrentAndWriting() {
+            if (pointer == windowDataA) {
+                windowDataA.writing();
+                return windowDataA;
+            } else {
+                windowDataB.writing();
+                return windowDataB;
+            }
+        }
+
+        SWCollection<Long> getLast() {
+            if (pointer == windowDataA) {
+                return windowDataB;
+            } else {
+                return windowDataA;
+            }
+        }
+
+        void finishReadingLast() {
+            getLast().clear();
+            getLast().finishReading();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[] {1, 4, 16}) {
+            Options options = new OptionsBuilder()
+                .include(WindowBenchmark.class.getName())
+                .threads(threads)
+                .forks(1)
+                .warmupIterations(5)
+                .measurementIterations(5)
+                .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.data;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.*;
+
+public class WindowTest {
+
+    private static class CounterWindow extends Window<Long> {
+        @Override public SWCollection<Long> collectionInstance() {
+            return new CounterCollection(false);
+        }
+    }
+
+    @Test
+    public void testSwitch() {
+        CounterWindow window = new CounterWindow();
+        SWCollection<Long> current = window.getCurrentAndWriting();
+        current.put(3L);
+        window.finishWriting(current);
+        Assert.assertEquals(3, window.currentCollectionSize());
+
+        Assert.assertTrue(window.trySwitchPointer());
+        Assert.assertSame(current, window.getLast());
+        Assert.assertEquals(0, window.currentCollectionSize());
+
+        // The last one is not read yet.
+        Assert.assertFalse(window.trySwitchPointer());
+        window.finishReadingLast();
+        Assert.assertEquals(0, current.size());
+        Assert.assertTrue(window.trySwitchPointer());
+    }
+
+    @Test
+    public void testNoDataLostWithConcurrentWriters() throws Exception {
+        final CounterWindow window = new CounterWindow();
+        final int writerNum = 4;
+        final int perWriter = 200000;
+        final CountDownLatch writersFinished = new CountDownLatch(writerNum);
+        final AtomicBoolean running = new AtomicBoolean(true);
+
+        for (int i = 0; i < writerNum; i++) {
+            new Thread(() -> {
+                for (int j = 0; j < perWriter; j++) {
+                    SWCollection<Long> current = window.getCurrentAndWriting();
+                    current.put(1L);
+                    window.finishWriting(current);
+                }
+                writersFinished.countDown();
+            }).start();
+        }
+
+        FutureTask<Long> reader = new FutureTask<>(() -> {
+            long total = 0;
+            while (running.get()) {
+                if (window.trySwitchPointer()) {
+                    total += window.getLast().size();
+                    window.finishReadingLast();
+                }
+            }
+            return total;
+        });
+        new Thread(reader).start();
+
+        writersFinished.await();
+        running.set(false);
+        long total = reader.get();
+
+        Assert.assertTrue(window.trySwitchPointer());
+        total += window.getLast().size();
+        window.finishReadingLast();
+        Assert.assertEquals((long)writerNum * perWriter, total);
+    }
+}
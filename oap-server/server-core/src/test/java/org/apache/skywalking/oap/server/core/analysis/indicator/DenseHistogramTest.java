@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.indicator;
+
+import java.io.IOException;
+import org.apache.skywalking.oap.server.core.remote.data.*;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DenseHistogramTest {
+
+    @Test
+    public void testMerge() {
+        DenseHistogram histogram = new DenseHistogram();
+        histogram.add(1, 2);
+        DenseHistogram other = new DenseHistogram();
+        other.add(1, 3);
+        other.add(4, 1);
+
+        histogram.merge(other);
+        Assert.assertEquals(5, histogram.size());
+        Assert.assertEquals(5, histogram.get(1));
+        Assert.assertEquals(1, histogram.get(4));
+        Assert.assertEquals(0, histogram.get(10));
+    }
+
+    @Test
+    public void testNegativeBucket() {
+        DenseHistogram histogram = new DenseHistogram();
+        histogram.add(-3, 2);
+        histogram.add(0, 1);
+        Assert.assertEquals(1, histogram.size());
+        Assert.assertEquals(3, histogram.get(0));
+        Assert.assertEquals(0, histogram.get(-3));
+    }
+
+    @Test
+    public void testSerialize() throws IOException {
+        DenseHistogram histogram = new DenseHistogram();
+        histogram.add(0, 7);
+        histogram.add(20, 300);
+
+        assertSame(histogram, new DenseHistogram(histogram.toStorageData()));
+
+        DenseHistogram fromBytes = new DenseHistogram();
+        fromBytes.deserialize(histogram.toByteString());
+        assertSame(histogram, fromBytes);
+
+        StreamDataOutput output = new StreamDataOutput();
+        histogram.serialize(output);
+        DenseHistogram fromStream = new DenseHistogram();
+        fromStream.deserialize(new StreamDataInput(output.toByteString().toByteArray()));
+        assertSame(histogram, fromStream);
+
+        DenseHistogram copy = new DenseHistogram();
+        copy.copyFrom(histogram);
+        histogram.add(0, 1);
+        Assert.assertEquals(7, copy.get(0));
+    }
+
+    @Test
+    public void testLegacyData() {
+        DenseHistogram histogram = new DenseHistogram("10,8|2,1");
+        Assert.assertEquals(11, histogram.size());
+        Assert.assertEquals(8, histogram.get(10));
+        Assert.assertEquals(1, histogram.get(2));
+        Assert.assertEquals(0, new DenseHistogram("").size());
+    }
+
+    private void assertSame(DenseHistogram expected, DenseHistogram actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(expected.get(i), actual.get(i));
+        }
+    }
+}
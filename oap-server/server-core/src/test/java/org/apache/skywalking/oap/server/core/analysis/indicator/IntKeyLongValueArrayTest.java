@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.indicator;
+
+import java.io.IOException;
+import org.apache.skywalking.oap.server.core.remote.data.*;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IntKeyLongValueArrayTest {
+
+    @Test
+    public void testStorageData() {
+        IntKeyLongValueArray array = new IntKeyLongValueArray();
+        array.add(new IntKeyLongValue(10, 3));
+        array.add(new IntKeyLongValue(2, 1000000000000L));
+        array.add(new IntKeyLongValue(11, 0));
+
+        String data = array.toStorageData();
+        Assert.assertFalse(data.contains(","));
+        assertSame(array, new IntKeyLongValueArray(data));
+        Assert.assertEquals(0, new IntKeyLongValueArray("").size());
+    }
+
+    @Test
+    public void testLegacyStorageData() {
+        IntKeyLongValueArray array = new IntKeyLongValueArray("10,3|2,1000000000000");
+        Assert.assertEquals(2, array.size());
+        Assert.assertEquals(10, array.get(0).getKey());
+        Assert.assertEquals(1000000000000L, array.get(1).getValue());
+    }
+
+    @Test
+    public void testSerialize() throws IOException {
+        IntKeyLongValueArray array = new IntKeyLongValueArray();
+        array.add(new IntKeyLongValue(30, 1));
+        array.add(new IntKeyLongValue(5, 2));
+
+        StreamDataOutput output = new StreamDataOutput();
+        array.serialize(output);
+        IntKeyLongValueArray result = new IntKeyLongValueArray();
+        result.deserialize(new StreamDataInput(output.toByteString().toByteArray()));
+        assertSame(array, result);
+    }
+
+    private void assertSame(IntKeyLongValueArray expected, IntKeyLongValueArray actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(expected.get(i).getKey(), actual.get(i).getKey());
+            Assert.assertEquals(expected.get(i).getValue(), actual.get(i).getValue());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.indicator;
+
+import java.util.*;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.source.Scope;
+import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
+import org.apache.skywalking.oap.server.core.storage.annotation.*;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PercentileIndicatorTest {
+
+    @Test
+    public void testRanks() {
+        PercentileIndicatorMocker indicatorMocker = new PercentileIndicatorMocker();
+        PercentileIndicatorMocker other = new PercentileIndicatorMocker();
+        for (int i = 1; i <= 1000; i++) {
+            if (i % 2 == 0) {
+                indicatorMocker.combine(i);
+            } else {
+                other.combine(i);
+            }
+        }
+        indicatorMocker.combine(other);
+        indicatorMocker.calculate();
+
+        assertAccurate(500, indicatorMocker.getP50());
+        assertAccurate(750, indicatorMocker.getP75());
+        assertAccurate(900, indicatorMocker.getP90());
+        assertAccurate(950, indicatorMocker.getP95());
+        assertAccurate(990, indicatorMocker.getP99());
+        Assert.assertEquals(indicatorMocker.getP99(), indicatorMocker.getValue(PercentileIndicator.P99));
+    }
+
+    @Test
+    public void testValueNames() {
+        new StorageAnnotationListener().notify(PercentileIndicatorMocker.class);
+
+        Assert.assertEquals(Arrays.asList("mock_p50", "mock_p75", "mock_p90", "mock_p95", "mock_p99"), ValueColumnIds.INSTANCE.getIndNames("mock_percentile"));
+        Assert.assertEquals("mock_percentile", ValueColumnIds.INSTANCE.getModelName("mock_p99"));
+        Assert.assertEquals(PercentileIndicator.P99, ValueColumnIds.INSTANCE.getValueCName("mock_p99"));
+        Assert.assertEquals("mock_percentile", ValueColumnIds.INSTANCE.getModelName("mock_percentile"));
+    }
+
+    private void assertAccurate(long expected, long actual) {
+        Assert.assertEquals(expected, actual, expected * PercentileSketch.RELATIVE_ACCURACY + 1);
+    }
+
+    @StorageEntity(name = "mock_percentile", builder = PercentileIndicatorMocker.Builder.class, source = Scope.Service)
+    @MultipleValueColumns(prefix = "mock_")
+    public static class PercentileIndicatorMocker extends PercentileIndicator {
+
+        @Override public String id() {
+            return null;
+        }
+
+        @Override public Indicator toHour() {
+            return null;
+        }
+
+        @Override public Indicator toDay() {
+            return null;
+        }
+
+        @Override public Indicator toMonth() {
+            return null;
+        }
+
+        @Override public void deserialize(RemoteData remoteData) {
+
+        }
+
+        @Override public RemoteData.Builder serialize() {
+            return null;
+        }
+
+        @Override public int remoteHashCode() {
+            return 0;
+        }
+
+        public static class Builder implements StorageBuilder<PercentileIndicatorMocker> {
+            @Override public PercentileIndicatorMocker map2Data(Map<String, Object> dbMap) {
+                return null;
+            }
+
+            @Override public Map<String, Object> data2Map(PercentileIndicatorMocker storageData) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.indicator;
+
+import java.io.IOException;
+import java.util.*;
+import org.apache.skywalking.oap.server.core.remote.data.*;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PercentileSketchTest {
+
+    @Test
+    public void testPercentile() {
+        PercentileSketch sketch = new PercentileSketch();
+        for (int i = 1; i <= 10000; i++) {
+            sketch.add(i);
+        }
+
+        Assert.assertEquals(10000, sketch.getTotal());
+        assertAccurate(5000, sketch.percentile(50));
+        assertAccurate(9000, sketch.percentile(90));
+        assertAccurate(9900, sketch.percentile(99));
+        Assert.assertArrayEquals(new long[] {sketch.percentile(50), sketch.percentile(99)}, sketch.percentiles(new int[] {50, 99}));
+    }
+
+    @Test
+    public void testZeroAndEmpty() {
+        PercentileSketch sketch = new PercentileSketch();
+        Assert.assertEquals(0, sketch.percentile(99));
+
+        sketch.add(0);
+        sketch.add(0);
+        sketch.add(100);
+        Assert.assertEquals(0, sketch.percentile(50));
+        assertAccurate(100, sketch.percentile(99));
+    }
+
+    @Test
+    public void testMerge() {
+        Random random = new Random(1);
+        PercentileSketch all = new PercentileSketch();
+        PercentileSketch low = new PercentileSketch();
+        PercentileSketch high = new PercentileSketch();
+        for (int i = 0; i < 1000; i++) {
+            long value = random.nextInt(100) + 1;
+            all.add(value);
+            low.add(value);
+            value = random.nextInt(100000) + 1000;
+            all.add(value);
+            high.add(value);
+        }
+
+        PercentileSketch merged = new PercentileSketch();
+        merged.merge(high);
+        merged.merge(low);
+        Assert.assertEquals(all.getTotal(), merged.getTotal());
+        for (int rank : new int[] {1, 25, 50, 75, 99}) {
+            Assert.assertEquals(all.percentile(rank), merged.percentile(rank));
+        }
+    }
+
+    @Test
+    public void testSerialize() throws IOException {
+        PercentileSketch sketch = new PercentileSketch();
+        sketch.add(0);
+        sketch.add(3);
+        sketch.add(3000, 5);
+
+        PercentileSketch fromBytes = new PercentileSketch();
+        fromBytes.deserialize(sketch.toByteString());
+        assertSame(sketch, fromBytes);
+
+        StreamDataOutput output = new StreamDataOutput();
+        sketch.serialize(output);
+        PercentileSketch fromStream = new PercentileSketch();
+        fromStream.deserialize(new StreamDataInput(output.toByteString().toByteArray()));
+        assertSame(sketch, fromStream);
+
+        assertSame(sketch, new PercentileSketch(sketch.toStorageData()));
+        Assert.assertEquals(0, new PercentileSketch("").getTotal());
+
+        PercentileSketch copy = new PercentileSketch();
+        copy.copyFrom(sketch);
+        sketch.add(1);
+        Assert.assertEquals(7, copy.getTotal());
+    }
+
+    private void assertSame(PercentileSketch expected, PercentileSketch actual) {
+        Assert.assertEquals(expected.getTotal(), actual.getTotal());
+        for (int rank : new int[] {10, 50, 99}) {
+            Assert.assertEquals(expected.percentile(rank), actual.percentile(rank));
+        }
+    }
+
+    private void assertAccurate(long expected, long actual) {
+        Assert.assertEquals(expected, actual, expected * PercentileSketch.RELATIVE_ACCURACY + 1);
+    }
+}
@@ -18,11 +18,9 @@
 
 package org.apache.skywalking.oap.server.core.analysis.indicator;
 
-import java.util.Map;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
 import org.junit.Assert;
 import org.junit.Test;
-import org.powermock.reflect.Whitebox;
 
 /**
  * @author wusheng
@@ -49,13 +47,14 @@ public class ThermodynamicIndicatorTest {
         indicatorMocker.combine(100, step, maxNumOfSteps);
         indicatorMocker.combine(100, step, maxNumOfSteps);
 
-        Map<Integer, IntKeyLongValue> index = Whitebox.getInternalState(indicatorMocker, "detailIndex");
-        Assert.assertEquals(4, index.size());
+        DenseHistogram histogram = indicatorMocker.getDetailGroup();
+        Assert.assertEquals(11, histogram.size());
 
-        Assert.assertEquals(1, index.get(2).getValue());
-        Assert.assertEquals(3, index.get(5).getValue());
-        Assert.assertEquals(1, index.get(6).getValue());
-        Assert.assertEquals(8, index.get(10).getValue());
+        Assert.assertEquals(1, histogram.get(2));
+        Assert.assertEquals(3, histogram.get(5));
+        Assert.assertEquals(1, histogram.get(6));
+        Assert.assertEquals(8, histogram.get(10));
+        Assert.assertEquals(0, histogram.get(3));
     }
 
     @Test
@@ -81,13 +80,29 @@ public class ThermodynamicIndicatorTest {
 
         indicatorMocker.combine(indicatorMocker2);
 
-        Map<Integer, IntKeyLongValue> index = Whitebox.getInternalState(indicatorMocker, "detailIndex");
-        Assert.assertEquals(4, index.size());
+        DenseHistogram histogram = indicatorMocker.getDetailGroup();
+        Assert.assertEquals(11, histogram.size());
 
-        Assert.assertEquals(1, index.get(2).getValue());
-        Assert.assertEquals(3, index.get(5).getValue());
-        Assert.assertEquals(1, index.get(6).getValue());
-        Assert.assertEquals(8, index.get(10).getValue());
+        Assert.assertEquals(1, histogram.get(2));
+        Assert.assertEquals(3, histogram.get(5));
+        Assert.assertEquals(1, histogram.get(6));
+        Assert.assertEquals(8, histogram.get(10));
+        Assert.assertEquals(0, histogram.get(3));
+    }
+
+    @Test
+    public void testNegativeValue() {
+        ThermodynamicIndicatorTest.ThermodynamicIndicatorMocker indicatorMocker = new ThermodynamicIndicatorTest.ThermodynamicIndicatorMocker();
+
+        indicatorMocker.combine(-50, step, maxNumOfSteps);
+        indicatorMocker.combine(-1, step, maxNumOfSteps);
+        indicatorMocker.combine(5, step, maxNumOfSteps);
+        indicatorMocker.combine(28, step, maxNumOfSteps);
+
+        DenseHistogram histogram = indicatorMocker.getDetailGroup();
+        Assert.assertEquals(3, histogram.size());
+        Assert.assertEquals(3, histogram.get(0));
+        Assert.assertEquals(1, histogram.get(2));
     }
 
     public class ThermodynamicIndicatorMocker extends ThermodynamicIndicator {
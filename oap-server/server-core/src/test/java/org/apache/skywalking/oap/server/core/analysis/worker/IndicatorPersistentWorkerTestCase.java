@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.worker;
+
+import java.io.IOException;
+import java.util.*;
+import org.apache.skywalking.oap.server.core.analysis.data.MergeDataCache;
+import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.storage.*;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.*;
+import org.junit.*;
+
+import static org.mockito.Mockito.*;
+
+public class IndicatorPersistentWorkerTestCase {
+
+    @Test
+    public void testFailedReadNotInserted() throws IOException {
+        ModuleManager moduleManager = mock(ModuleManager.class, RETURNS_DEEP_STUBS);
+        when(moduleManager.find(StorageModule.NAME).provider().getService(IBatchDAO.class)).thenReturn(mock(IBatchDAO.class));
+        MetricCreator metricCreator = mock(MetricCreator.class);
+        when(metricCreator.createCounter(anyString(), anyString(), any(), any())).thenReturn(mock(CounterMetric.class));
+        when(metricCreator.createGauge(anyString(), anyString(), any(), any())).thenReturn(mock(GaugeMetric.class));
+        when(moduleManager.find(TelemetryModule.NAME).provider().getService(MetricCreator.class)).thenReturn(metricCreator);
+        IIndicatorDAO indicatorDAO = mock(IIndicatorDAO.class);
+        when(indicatorDAO.multiGet(anyString(), anyList())).thenThrow(new IOException("Bad item"));
+        when(indicatorDAO.get(anyString(), eq(new MockIndicator("a", 1)))).thenReturn(new MockIndicator("a", 5));
+        when(indicatorDAO.get(anyString(), eq(new MockIndicator("b", 1)))).thenReturn(null);
+        when(indicatorDAO.get(anyString(), eq(new MockIndicator("c", 1))))
+            .thenThrow(new IOException("Bad item"))
+            .thenReturn(new MockIndicator("c", 5));
+        when(indicatorDAO.prepareBatchInsert(anyString(), any())).thenAnswer(invocation -> "insert " + invocation.getArguments()[1]);
+        when(indicatorDAO.prepareBatchUpdate(anyString(), any())).thenAnswer(invocation -> "update " + invocation.getArguments()[1]);
+
+        IndicatorPersistentWorker worker = new IndicatorPersistentWorker(1, "mock", 100, moduleManager, indicatorDAO, null);
+
+        MergeDataCache<Indicator> cache = new MergeDataCache<>();
+        List<Object> batch = prepareBatch(worker, cache, new MockIndicator("a", 1), new MockIndicator("b", 1), new MockIndicator("c", 1));
+        // The failed read of c doesn't become an insert, nor fails a and b.
+        Assert.assertEquals(Arrays.asList("update a=6", "insert b=1"), batch);
+
+        batch = prepareBatch(worker, cache, new MockIndicator("c", 2));
+        // c is kept, read again rather than from the persisted cache, and combined with the stored value.
+        Assert.assertEquals(Collections.singletonList("update c=8"), batch);
+    }
+
+    private List<Object> prepareBatch(IndicatorPersistentWorker worker, MergeDataCache<Indicator> cache,
+        Indicator... indicators) {
+        cache.writing();
+        for (Indicator indicator : indicators) {
+            cache.put(indicator);
+        }
+        cache.finishWriting();
+        cache.switchPointer();
+        try {
+            return worker.prepareBatch(cache);
+        } finally {
+            cache.finishReadingLast();
+        }
+    }
+
+    private static class MockIndicator extends Indicator {
+        private final String entityId;
+        private long value;
+
+        private MockIndicator(String entityId, long value) {
+            this.entityId = entityId;
+            this.value = value;
+            setTimeBucket(201811211230L);
+        }
+
+        @Override public int hashCode() {
+            return entityId.hashCode();
+        }
+
+        @Override public boolean equals(Object obj) {
+            return obj instanceof MockIndicator && entityId.equals(((MockIndicator)obj).entityId);
+        }
+
+        @Override public String toString() {
+            return entityId + "=" + value;
+        }
+
+        @Override public String id() {
+            return getTimeBucket() + "_" + entityId;
+        }
+
+        @Override public void combine(Indicator indicator) {
+            value += ((MockIndicator)indicator).value;
+        }
+
+        @Override public void calculate() {
+        }
+
+        @Override public Indicator toHour() {
+            return null;
+        }
+
+        @Override public Indicator toDay() {
+            return null;
+        }
+
+        @Override public Indicator toMonth() {
+            return null;
+        }
+
+        @Override public int remoteHashCode() {
+            return entityId.hashCode();
+        }
+
+        @Override public void deserialize(RemoteData remoteData) {
+        }
+
+        @Override public RemoteData.Builder serialize() {
+            return null;
+        }
+    }
+}
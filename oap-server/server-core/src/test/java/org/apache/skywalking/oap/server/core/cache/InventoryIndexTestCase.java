@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.cache;
+
+import java.io.IOException;
+import java.util.*;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.register.*;
+import org.apache.skywalking.oap.server.core.storage.*;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.junit.*;
+import org.mockito.Mockito;
+
+public class InventoryIndexTestCase {
+
+    private IRegisterDAO registerDAO;
+    private InventoryIndex<EndpointInventory> index;
+
+    @Before
+    public void setUp() {
+        registerDAO = Mockito.mock(IRegisterDAO.class);
+        StorageDAO storageDAO = Mockito.mock(StorageDAO.class);
+        Mockito.when(storageDAO.newRegisterDao(Mockito.any())).thenReturn(registerDAO);
+
+        ModuleManager moduleManager = Mockito.mock(ModuleManager.class, Mockito.RETURNS_DEEP_STUBS);
+        Mockito.when(moduleManager.find(StorageModule.NAME).provider().getService(StorageDAO.class)).thenReturn(storageDAO);
+        index = new InventoryIndex<>(moduleManager, EndpointInventory.MODEL_NAME, new EndpointInventory.Builder());
+    }
+
+    @Test
+    public void testSyncNewAndMissingSequences() throws IOException {
+        Mockito.when(registerDAO.loadAfter(EndpointInventory.MODEL_NAME, 0, 1000)).thenReturn(endpoints(1, 2, 4));
+        index.sync();
+        Assert.assertEquals(3, index.size());
+        Assert.assertEquals(4, index.getSequence(EndpointInventory.buildId(1, "/endpoint-4", 0)));
+        Assert.assertEquals(Const.NONE, index.getSequence(EndpointInventory.buildId(1, "/endpoint-3", 0)));
+
+        // 5 is reserved by another node, but not inserted yet.
+        Mockito.when(registerDAO.loadAfter(EndpointInventory.MODEL_NAME, 4, 1000)).thenReturn(endpoints(6));
+        index.sync();
+        Assert.assertNotNull(index.get(6));
+        Assert.assertNull(index.get(5));
+
+        Mockito.when(registerDAO.loadAfter(EndpointInventory.MODEL_NAME, 4, 1000)).thenReturn(endpoints(5, 6));
+        index.sync();
+        Assert.assertEquals(5, index.getSequence(EndpointInventory.buildId(1, "/endpoint-5", 0)));
+        Assert.assertEquals(5, index.size());
+
+        Mockito.when(registerDAO.loadAfter(EndpointInventory.MODEL_NAME, 6, 1000)).thenReturn(Collections.emptyList());
+        index.sync();
+        Mockito.verify(registerDAO).loadAfter(EndpointInventory.MODEL_NAME, 6, 1000);
+    }
+
+    @Test
+    public void testGrow() {
+        EndpointInventory endpoint = endpoint(5000);
+        index.put(endpoint);
+        Assert.assertSame(endpoint, index.get(5000));
+        Assert.assertNull(index.get(5001));
+        Assert.assertNull(index.get(Integer.MAX_VALUE));
+    }
+
+    private List<RegisterSource> endpoints(int... sequences) {
+        List<RegisterSource> endpoints = new ArrayList<>();
+        for (int sequence : sequences) {
+            endpoints.add(endpoint(sequence));
+        }
+        return endpoints;
+    }
+
+    private EndpointInventory endpoint(int sequence) {
+        EndpointInventory endpoint = new EndpointInventory();
+        endpoint.setSequence(sequence);
+        endpoint.setServiceId(1);
+        endpoint.setName("/endpoint-" + sequence);
+        return endpoint;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.register.worker;
+
+import java.util.*;
+import org.apache.skywalking.oap.server.core.register.EndpointInventory;
+import org.junit.*;
+
+public class InventoryRegisterNotifierTestCase {
+
+    @Test
+    public void testNotifyAwaitedKeyOnce() {
+        List<String> registered = new ArrayList<>();
+        InventoryRegisterNotifier.INSTANCE.addListener((modelName, id) -> registered.add(modelName + "/" + id));
+
+        String awaited = EndpointInventory.buildId(1, "/awaited", 0);
+        String other = EndpointInventory.buildId(1, "/other", 0);
+        InventoryRegisterNotifier.INSTANCE.await(EndpointInventory.MODEL_NAME, awaited);
+
+        InventoryRegisterNotifier.INSTANCE.registered(EndpointInventory.MODEL_NAME, other);
+        Assert.assertTrue(registered.isEmpty());
+
+        InventoryRegisterNotifier.INSTANCE.registered(EndpointInventory.MODEL_NAME, awaited);
+        Assert.assertEquals(Collections.singletonList(EndpointInventory.MODEL_NAME + "/" + awaited), registered);
+
+        InventoryRegisterNotifier.INSTANCE.registered(EndpointInventory.MODEL_NAME, awaited);
+        Assert.assertEquals(1, registered.size());
+    }
+
+    @Test
+    public void testCollectAwaitedKeys() {
+        InventoryRegisterNotifier.INSTANCE.addListener((modelName, id) -> {
+        });
+        String awaited = EndpointInventory.buildId(2, "/awaited", 0);
+
+        InventoryRegisterNotifier.INSTANCE.await(EndpointInventory.MODEL_NAME, awaited);
+        Assert.assertTrue(InventoryRegisterNotifier.INSTANCE.endCollect().isEmpty());
+
+        InventoryRegisterNotifier.INSTANCE.beginCollect();
+        InventoryRegisterNotifier.INSTANCE.await(EndpointInventory.MODEL_NAME, awaited);
+        Assert.assertEquals(Collections.singletonList(InventoryRegisterNotifier.buildKey(EndpointInventory.MODEL_NAME, awaited)),
+            InventoryRegisterNotifier.INSTANCE.endCollect());
+        Assert.assertTrue(InventoryRegisterNotifier.INSTANCE.endCollect().isEmpty());
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.register.worker;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.register.*;
+import org.apache.skywalking.oap.server.core.source.Scope;
+import org.apache.skywalking.oap.server.core.storage.*;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.*;
+import org.junit.*;
+
+import static org.mockito.Mockito.*;
+
+public class RegisterPersistentWorkerTestCase {
+
+    @Test
+    public void testSplitFailedBatch() throws IOException, InterruptedException {
+        ModuleManager moduleManager = mock(ModuleManager.class, RETURNS_DEEP_STUBS);
+        IRegisterLockDAO registerLockDAO = mock(IRegisterLockDAO.class);
+        // The first lock conflicts with another OAP node.
+        when(registerLockDAO.getIds(eq(Scope.Service), anyInt())).thenReturn(Const.NONE, 100);
+        when(moduleManager.find(StorageModule.NAME).provider().getService(IRegisterLockDAO.class)).thenReturn(registerLockDAO);
+        MetricCreator metricCreator = mock(MetricCreator.class);
+        when(metricCreator.createGauge(anyString(), anyString(), any(), any())).thenReturn(mock(GaugeMetric.class));
+        when(metricCreator.createCounter(anyString(), anyString(), any(), any())).thenReturn(mock(CounterMetric.class));
+        when(metricCreator.createHistogramMetric(anyString(), anyString(), any(), any())).thenReturn(mock(HistogramMetric.class));
+        when(moduleManager.find(TelemetryModule.NAME).provider().getService(MetricCreator.class)).thenReturn(metricCreator);
+
+        Set<String> inserted = Collections.synchronizedSet(new HashSet<>());
+        IRegisterDAO registerDAO = mock(IRegisterDAO.class);
+        when(registerDAO.multiGet(anyString(), anyList())).thenReturn(Collections.emptyList());
+        doAnswer(invocation -> {
+            List<RegisterSource> sources = (List<RegisterSource>)invocation.getArguments()[1];
+            for (RegisterSource source : sources) {
+                if ("bad".equals(((ServiceInventory)source).getName())) {
+                    throw new IOException("Bad source");
+                }
+            }
+            sources.forEach(source -> inserted.add(((ServiceInventory)source).getName()));
+            return null;
+        }).when(registerDAO).forceBatchInsert(eq(ServiceInventory.MODEL_NAME), anyList());
+
+        RegisterPersistentWorker worker = new RegisterPersistentWorker(1, ServiceInventory.MODEL_NAME, moduleManager,
+            registerDAO, Scope.Service);
+        for (int i = 0; i < 9; i++) {
+            worker.in(service("service-" + i));
+        }
+        worker.in(service("bad"));
+
+        for (int i = 0; i < 100 && inserted.size() < 9; i++) {
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        // Only the bad one is dropped.
+        Assert.assertEquals(9, inserted.size());
+        Assert.assertFalse(inserted.contains("bad"));
+        verify(registerLockDAO, atLeast(2)).getIds(eq(Scope.Service), anyInt());
+    }
+
+    private ServiceInventory service(String name) {
+        ServiceInventory serviceInventory = new ServiceInventory();
+        serviceInventory.setName(name);
+        return serviceInventory;
+    }
+}
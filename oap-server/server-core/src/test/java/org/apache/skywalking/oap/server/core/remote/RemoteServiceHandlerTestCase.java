@@ -24,7 +24,7 @@ import io.grpc.testing.GrpcCleanupRule;
 import java.io.IOException;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.remote.annotation.StreamDataClassGetter;
-import org.apache.skywalking.oap.server.core.remote.data.StreamData;
+import org.apache.skywalking.oap.server.core.remote.data.*;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.*;
 import org.apache.skywalking.oap.server.core.worker.*;
 import org.apache.skywalking.oap.server.library.module.*;
@@ -118,6 +118,73 @@ public class RemoteServiceHandlerTestCase {
         streamObserver.onCompleted();
     }
 
+    @Test
+    public void batchCallTest() throws DuplicateProviderException, ProviderNotFoundException, IOException {
+        final int streamDataClassId = 1;
+        final int countingWorkerId = 2;
+
+        ModuleManagerTesting moduleManager = new ModuleManagerTesting();
+        ModuleDefineTesting moduleDefine = new ModuleDefineTesting();
+        moduleManager.put(CoreModule.NAME, moduleDefine);
+
+        StreamDataClassGetter classGetter = mock(StreamDataClassGetter.class);
+        Class<?> dataClass = TestRemoteData.class;
+        when(classGetter.findClassById(streamDataClassId)).thenReturn((Class<StreamData>)dataClass);
+        moduleDefine.provider().registerServiceImplementation(StreamDataClassGetter.class, classGetter);
+
+        CountingWorker countingWorker = new CountingWorker(countingWorkerId);
+        WorkerInstances.INSTANCES.put(countingWorkerId, countingWorker);
+
+        CounterMetric errorCounter = mock(CounterMetric.class);
+        MetricCreator metricCreator = mock(MetricCreator.class);
+        when(metricCreator.createCounter(any(), any(), any(), any())).thenReturn(mock(CounterMetric.class));
+        when(metricCreator.createCounter(eq("remote_in_error_count"), any(), any(), any())).thenReturn(errorCounter);
+        when(metricCreator.createHistogramMetric(any(), any(), any(), any())).thenReturn(mock(HistogramMetric.class));
+        ModuleDefineTesting telemetryModuleDefine = new ModuleDefineTesting();
+        moduleManager.put(TelemetryModule.NAME, telemetryModuleDefine);
+        telemetryModuleDefine.provider().registerServiceImplementation(MetricCreator.class, metricCreator);
+
+        String serverName = InProcessServerBuilder.generateName();
+        gRPCCleanup.register(InProcessServerBuilder
+            .forName(serverName).directExecutor().addService(new RemoteServiceHandler(moduleManager)).build().start());
+        RemoteServiceGrpc.RemoteServiceStub remoteServiceStub = RemoteServiceGrpc.newStub(
+            gRPCCleanup.register(InProcessChannelBuilder.forName(serverName).directExecutor().build()));
+
+        StreamObserver<RemoteBatch> streamObserver = remoteServiceStub.batchCall(new StreamObserver<Empty>() {
+            @Override public void onNext(Empty empty) {
+
+            }
+
+            @Override public void onError(Throwable throwable) {
+
+            }
+
+            @Override public void onCompleted() {
+
+            }
+        });
+
+        RemoteData.Builder remoteData = RemoteData.newBuilder();
+        remoteData.addDataStrings("test1");
+        remoteData.addDataStrings("test2");
+        remoteData.addDataLongs(10);
+        remoteData.addDataLongs(20);
+        StreamDataOutput output = new StreamDataOutput();
+        output.writeBytes(remoteData.build().toByteString());
+
+        RemoteDataGroups.Builder groups = RemoteDataGroups.newBuilder();
+        // Unknown worker, and unknown stream data class.
+        groups.addGroupsBuilder().setNextWorkerId(99).setStreamDataId(streamDataClassId).setBinaryData(output.toByteString());
+        groups.addGroupsBuilder().setNextWorkerId(countingWorkerId).setStreamDataId(99).setBinaryData(output.toByteString());
+        groups.addGroupsBuilder().setNextWorkerId(countingWorkerId).setStreamDataId(streamDataClassId).setBinaryData(output.toByteString());
+
+        streamObserver.onNext(RemoteBatch.newBuilder().setGroups(groups).build());
+        streamObserver.onCompleted();
+
+        Assert.assertEquals(1, countingWorker.received);
+        verify(errorCounter, times(2)).inc();
+    }
+
     static class TestRemoteData extends StreamData {
 
         private String str1;
@@ -146,6 +213,18 @@ public class RemoteServiceHandlerTestCase {
         }
     }
 
+    static class CountingWorker extends AbstractWorker {
+        private int received = 0;
+
+        CountingWorker(int workerId) {
+            super(workerId);
+        }
+
+        @Override public void in(Object o) {
+            received++;
+        }
+    }
+
     static class TestWorker extends AbstractWorker {
 
         public TestWorker() {
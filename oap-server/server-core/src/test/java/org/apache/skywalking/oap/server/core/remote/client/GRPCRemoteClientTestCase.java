@@ -18,13 +18,15 @@
 
 package org.apache.skywalking.oap.server.core.remote.client;
 
+import io.grpc.stub.StreamObserver;
 import io.grpc.testing.GrpcServerRule;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.remote.RemoteServiceHandler;
 import org.apache.skywalking.oap.server.core.remote.annotation.StreamDataClassGetter;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
-import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.*;
 import org.apache.skywalking.oap.server.core.worker.*;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
 import org.apache.skywalking.oap.server.telemetry.api.*;
@@ -41,6 +43,7 @@ public class GRPCRemoteClientTestCase {
     private final int nextWorkerId = 1;
     private ModuleManagerTesting moduleManager;
     private StreamDataClassGetter classGetter;
+    private TestWorker worker;
     @Rule public final GrpcServerRule grpcServerRule = new GrpcServerRule().directExecutor();
 
     @Before
@@ -52,12 +55,66 @@ public class GRPCRemoteClientTestCase {
         classGetter = mock(StreamDataClassGetter.class);
         moduleDefine.provider().registerServiceImplementation(StreamDataClassGetter.class, classGetter);
 
-        TestWorker worker = new TestWorker(nextWorkerId);
+        worker = new TestWorker(nextWorkerId);
         WorkerInstances.INSTANCES.put(nextWorkerId, worker);
     }
 
     @Test
     public void testPush() throws InterruptedException {
+        push(Compression.NONE);
+    }
+
+    @Test
+    public void testPushCompressed() throws InterruptedException {
+        push(Compression.GZIP);
+    }
+
+    @Test
+    public void testFallBackToCall() throws InterruptedException {
+        mockTelemetry();
+        RemoteServiceHandler handler = new RemoteServiceHandler(moduleManager);
+        // The server of the previous versions, without batchCall.
+        grpcServerRule.getServiceRegistry().addService(new RemoteServiceGrpc.RemoteServiceImplBase() {
+            @Override public StreamObserver<RemoteMessage> call(StreamObserver<Empty> responseObserver) {
+                return handler.call(responseObserver);
+            }
+        });
+        GRPCRemoteClient remoteClient = createClient(Compression.NONE);
+
+        remoteClient.push(nextWorkerId, new TestStreamData());
+        for (int i = 0; i < 50 && !remoteClient.isLegacyCall(); i++) {
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+        Assert.assertTrue(remoteClient.isLegacyCall());
+
+        int received = worker.received.get();
+        for (int i = 0; i < 12; i++) {
+            remoteClient.push(nextWorkerId, new TestStreamData());
+        }
+        for (int i = 0; i < 50 && worker.received.get() < received + 12; i++) {
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+        Assert.assertEquals(received + 12, worker.received.get());
+        remoteClient.close();
+    }
+
+    private void push(Compression compression) throws InterruptedException {
+        mockTelemetry();
+        grpcServerRule.getServiceRegistry().addService(new RemoteServiceHandler(moduleManager));
+        GRPCRemoteClient remoteClient = createClient(compression);
+
+        for (int i = 0; i < 12; i++) {
+            remoteClient.push(nextWorkerId, new TestStreamData());
+        }
+
+        for (int i = 0; i < 50 && worker.received.get() < 12; i++) {
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+        Assert.assertEquals(12, worker.received.get());
+        remoteClient.close();
+    }
+
+    private void mockTelemetry() {
         MetricCreator metricCreator = mock(MetricCreator.class);
         when(metricCreator.createCounter(any(), any(), any(), any())).thenReturn(new CounterMetric() {
             @Override public void inc() {
@@ -68,14 +125,21 @@ public class GRPCRemoteClientTestCase {
 
             }
         });
+        when(metricCreator.createHistogramMetric(any(), any(), any(), any())).thenReturn(
+            new HistogramMetric() {
+                @Override public void observe(double value) {
+
+                }
+            }
+        );
         ModuleDefineTesting telemetryModuleDefine = new ModuleDefineTesting();
         moduleManager.put(TelemetryModule.NAME, telemetryModuleDefine);
         telemetryModuleDefine.provider().registerServiceImplementation(MetricCreator.class, metricCreator);
+    }
 
-        grpcServerRule.getServiceRegistry().addService(new RemoteServiceHandler(moduleManager));
-
+    private GRPCRemoteClient createClient(Compression compression) {
         Address address = new Address("not-important", 11, false);
-        GRPCRemoteClient remoteClient = spy(new GRPCRemoteClient(moduleManager, classGetter, address, 1, 10));
+        GRPCRemoteClient remoteClient = spy(new GRPCRemoteClient(moduleManager, classGetter, address, 1, 10, compression));
         remoteClient.connect();
 
         doReturn(grpcServerRule.getChannel()).when(remoteClient).getChannel();
@@ -84,12 +148,7 @@ public class GRPCRemoteClientTestCase {
 
         Class<?> dataClass = TestStreamData.class;
         when(classGetter.findClassById(1)).thenReturn((Class<StreamData>)dataClass);
-
-        for (int i = 0; i < 12; i++) {
-            remoteClient.push(nextWorkerId, new TestStreamData());
-        }
-
-        TimeUnit.SECONDS.sleep(1);
+        return remoteClient;
     }
 
     public static class TestStreamData extends StreamData {
@@ -112,6 +171,7 @@ public class GRPCRemoteClientTestCase {
     }
 
     class TestWorker extends AbstractWorker {
+        private final AtomicInteger received = new AtomicInteger();
 
         public TestWorker(int workerId) {
             super(workerId);
@@ -120,6 +180,7 @@ public class GRPCRemoteClientTestCase {
         @Override public void in(Object o) {
             TestStreamData streamData = (TestStreamData)o;
             Assert.assertEquals(987, streamData.value);
+            received.incrementAndGet();
         }
     }
 }
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.remote.data;
+
+import com.google.protobuf.ByteString;
+import java.io.IOException;
+import org.junit.*;
+
+public class StreamDataOutputTest {
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        StreamDataOutput output = new StreamDataOutput(4);
+        long[] longs = {0, 1, -1, 201812011230L, Long.MAX_VALUE, Long.MIN_VALUE};
+        int[] ints = {0, 1, -1, 300, Integer.MAX_VALUE, Integer.MIN_VALUE};
+        String[] strings = {"", "1_2", "\u00e9t\u00e9-\u03b1", "\u4e2d", "emoji \ud83d\ude00", null};
+        for (long value : longs) {
+            output.writeLong(value);
+        }
+        for (int value : ints) {
+            output.writeInt(value);
+        }
+        for (String value : strings) {
+            output.writeString(value);
+        }
+        output.writeDouble(0.25);
+        output.writeDouble(Double.NaN);
+        output.writeBytes(ByteString.copyFromUtf8("bytes"));
+
+        StreamDataInput input = new StreamDataInput(output.toByteString().toByteArray());
+        for (long value : longs) {
+            Assert.assertEquals(value, input.readLong());
+        }
+        for (int value : ints) {
+            Assert.assertEquals(value, input.readInt());
+        }
+        for (String value : strings) {
+            Assert.assertEquals(value, input.readString());
+        }
+        Assert.assertEquals(0.25, input.readDouble(), 0);
+        Assert.assertTrue(Double.isNaN(input.readDouble()));
+        Assert.assertEquals("bytes", input.readBytes().toStringUtf8());
+        Assert.assertFalse(input.hasRemaining());
+    }
+
+    @Test
+    public void testReuse() throws IOException {
+        StreamDataOutput output = new StreamDataOutput();
+        output.writeString("first");
+        output.clear();
+        output.writeInt(-2);
+        Assert.assertEquals(1, output.size());
+
+        StreamDataInput input = new StreamDataInput(output.toByteString().toByteArray());
+        Assert.assertEquals(-2, input.readInt());
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncated() throws IOException {
+        StreamDataOutput output = new StreamDataOutput();
+        output.writeString("truncated");
+        byte[] bytes = output.toByteString().toByteArray();
+        byte[] truncated = new byte[bytes.length - 1];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        new StreamDataInput(truncated).readString();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.remote.selector;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.oap.server.core.remote.client.RemoteClient;
+import org.apache.skywalking.oap.server.core.remote.data.StreamData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+
+/**
+ * Compare the {@link ConsistentHashSelector} with the {@link HashCodeSelector}, on the select cost, the distribution
+ * of the keys over the clients, and the keys moved when one client joins.
+ *
+ * Run the main method, it prints the distribution first, then benchmarks the select.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class ConsistentHashSelectorBenchmark {
+
+    private final List<RemoteClient> clients = ConsistentHashSelectorTestCase.clients(8);
+    private final StreamData[] keys = ConsistentHashSelectorTestCase.keys();
+    private final HashCodeSelector hashCodeSelector = new HashCodeSelector();
+    private final ConsistentHashSelector consistentHashSelector = new ConsistentHashSelector();
+    private int index;
+
+    @Benchmark
+    public RemoteClient hashCodeSelect() {
+        return hashCodeSelector.select(clients, keys[index++ & 0xffff]);
+    }
+
+    @Benchmark
+    public RemoteClient consistentHashSelect() {
+        return consistentHashSelector.select(clients, keys[index++ & 0xffff]);
+    }
+
+    private static void printDistribution(String name, RemoteClientSelector selector) {
+        StreamData[] keys = ConsistentHashSelectorTestCase.keys();
+        for (int size = 2; size <= 10; size++) {
+            List<RemoteClient> clients = ConsistentHashSelectorTestCase.clients(size);
+            Map<RemoteClient, Integer> counts = ConsistentHashSelectorTestCase.route(selector, clients);
+            int min = Collections.min(counts.values());
+            int max = Collections.max(counts.values());
+
+            List<RemoteClient> scaledOut = new ArrayList<>(clients);
+            scaledOut.add(ConsistentHashSelectorTestCase.client(size));
+            int moved = 0;
+            for (StreamData key : keys) {
+                if (!selector.select(clients, key).getAddress().equals(selector.select(scaledOut, key).getAddress())) {
+                    moved++;
+                }
+            }
+            System.out.printf("%s, %d clients: keys per client min %d max %d, %.1f%% moved to %d clients, %.1f%% at least%n",
+                name, size, min, max, moved * 100.0 / keys.length, size + 1, 100.0 / (size + 1));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        printDistribution("HashCode", new HashCodeSelector());
+        printDistribution("ConsistentHash", new ConsistentHashSelector());
+
+        Options options = new OptionsBuilder()
+            .include(ConsistentHashSelectorBenchmark.class.getName())
+            .forks(1)
+            .warmupIterations(5)
+            .measurementIterations(5)
+            .build();
+        new Runner(options).run();
+    }
+}
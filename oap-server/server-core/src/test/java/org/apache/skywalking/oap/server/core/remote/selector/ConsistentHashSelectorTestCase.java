@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.remote.selector;
+
+import java.util.*;
+import org.apache.skywalking.oap.server.core.remote.client.*;
+import org.apache.skywalking.oap.server.core.remote.data.StreamData;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.junit.*;
+
+public class ConsistentHashSelectorTestCase {
+
+    private static final int KEYS = 100000;
+
+    @Test
+    public void testBalance() {
+        List<RemoteClient> clients = clients(4);
+        Map<RemoteClient, Integer> counts = route(new ConsistentHashSelector(), clients);
+
+        Assert.assertEquals(4, counts.size());
+        counts.values().forEach(count -> Assert.assertEquals(KEYS / 4, count, KEYS / 4 * 0.25));
+    }
+
+    @Test
+    public void testMinimalReshuffle() {
+        ConsistentHashSelector selector = new ConsistentHashSelector();
+        List<RemoteClient> clients = clients(5);
+        StreamData[] keys = keys();
+        RemoteClient[] before = new RemoteClient[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            before[i] = selector.select(clients, keys[i]);
+        }
+
+        // Scale out, only the data of the new client moves.
+        List<RemoteClient> scaledOut = new ArrayList<>(clients);
+        scaledOut.add(client(5));
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            RemoteClient after = selector.select(scaledOut, keys[i]);
+            if (after != before[i]) {
+                Assert.assertSame(scaledOut.get(5), after);
+                moved++;
+            }
+        }
+        Assert.assertEquals(KEYS / 6, moved, KEYS / 6 * 0.25);
+
+        // Scale in, only the data of the removed client moves.
+        List<RemoteClient> scaledIn = new ArrayList<>(clients);
+        RemoteClient removed = scaledIn.remove(2);
+        for (int i = 0; i < KEYS; i++) {
+            if (before[i] != removed) {
+                Assert.assertSame(before[i], selector.select(scaledIn, keys[i]));
+            }
+        }
+    }
+
+    @Test
+    public void testSameRingOnEveryNode() {
+        ConsistentHashSelector selector = new ConsistentHashSelector();
+        ConsistentHashSelector otherSelector = new ConsistentHashSelector();
+        List<RemoteClient> clients = clients(3);
+        List<RemoteClient> otherNode = clients(3);
+        Collections.reverse(otherNode);
+        for (StreamData key : keys()) {
+            Assert.assertEquals(selector.select(clients, key).getAddress(), otherSelector.select(otherNode, key).getAddress());
+        }
+    }
+
+    static Map<RemoteClient, Integer> route(RemoteClientSelector selector, List<RemoteClient> clients) {
+        Map<RemoteClient, Integer> counts = new HashMap<>();
+        for (StreamData key : keys()) {
+            counts.merge(selector.select(clients, key), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    static StreamData[] keys() {
+        StreamData[] keys = new StreamData[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = new MockStreamData(("service_" + i).hashCode());
+        }
+        return keys;
+    }
+
+    static List<RemoteClient> clients(int size) {
+        List<RemoteClient> clients = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            clients.add(client(i));
+        }
+        return clients;
+    }
+
+    static RemoteClient client(int index) {
+        return new MockRemoteClient(new Address("10.0.0." + index, 11800, false));
+    }
+
+    private static class MockStreamData extends StreamData {
+        private final int remoteHashCode;
+
+        private MockStreamData(int remoteHashCode) {
+            this.remoteHashCode = remoteHashCode;
+        }
+
+        @Override public int remoteHashCode() {
+            return remoteHashCode;
+        }
+
+        @Override public void deserialize(RemoteData remoteData) {
+        }
+
+        @Override public RemoteData.Builder serialize() {
+            return null;
+        }
+    }
+
+    private static class MockRemoteClient implements RemoteClient {
+        private final Address address;
+
+        private MockRemoteClient(Address address) {
+            this.address = address;
+        }
+
+        @Override public Address getAddress() {
+            return address;
+        }
+
+        @Override public void connect() {
+        }
+
+        @Override public void close() {
+        }
+
+        @Override public void push(int nextWorkerId, StreamData streamData) {
+        }
+
+        @Override public int compareTo(RemoteClient o) {
+            return address.compareTo(o.getAddress());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.storage;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.skywalking.oap.server.core.CoreModuleConfig;
+import org.apache.skywalking.oap.server.core.analysis.worker.PersistenceWorker;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.*;
+import org.junit.*;
+
+import static org.mockito.Mockito.*;
+
+public class PersistenceTimerTestCase {
+
+    @Test
+    public void testSkipSlowWorker() throws InterruptedException {
+        ModuleManager moduleManager = mock(ModuleManager.class, RETURNS_DEEP_STUBS);
+        IBatchDAO batchDAO = mock(IBatchDAO.class);
+        when(moduleManager.find(StorageModule.NAME).provider().getService(IBatchDAO.class)).thenReturn(batchDAO);
+        MetricCreator metricCreator = mock(MetricCreator.class, RETURNS_DEEP_STUBS);
+        when(moduleManager.find(TelemetryModule.NAME).provider().getService(MetricCreator.class)).thenReturn(metricCreator);
+        CoreModuleConfig moduleConfig = mock(CoreModuleConfig.class);
+        when(moduleConfig.getPersistentPeriod()).thenReturn(3600);
+        when(moduleConfig.getPersistentPrepareThreads()).thenReturn(2);
+        PersistenceTimer.INSTANCE.start(moduleManager, moduleConfig);
+
+        List<Object> slowBatch = Collections.singletonList("slow");
+        List<Object> fastBatch = Collections.singletonList("fast");
+        PersistenceWorker slowWorker = worker("slow", slowBatch);
+        PersistenceWorker fastWorker = worker("fast", fastBatch);
+        CountDownLatch slowStorage = new CountDownLatch(1);
+        AtomicInteger slowFlushed = new AtomicInteger();
+        doAnswer(invocation -> {
+            slowStorage.await();
+            slowFlushed.incrementAndGet();
+            return null;
+        }).when(batchDAO).batchPersistence(slowBatch);
+        List<PersistenceWorker> workers = Arrays.asList(slowWorker, fastWorker);
+
+        PersistenceTimer.INSTANCE.flush(batchDAO, workers);
+        verify(batchDAO, timeout(1000)).batchPersistence(slowBatch);
+        verify(batchDAO, timeout(1000)).batchPersistence(fastBatch);
+
+        // The slow worker is still flushing, the fast one goes on.
+        PersistenceTimer.INSTANCE.flush(batchDAO, workers);
+        verify(batchDAO, timeout(1000).times(2)).batchPersistence(fastBatch);
+        verify(slowWorker, times(1)).flushAndSwitch();
+
+        // Flushed again once the previous flush finished.
+        slowStorage.countDown();
+        for (int i = 0; i < 100 && slowFlushed.get() < 2; i++) {
+            TimeUnit.MILLISECONDS.sleep(10);
+            PersistenceTimer.INSTANCE.flush(batchDAO, workers);
+        }
+        Assert.assertTrue(slowFlushed.get() >= 2);
+    }
+
+    private PersistenceWorker worker(String modelName, List<Object> batch) {
+        PersistenceWorker worker = mock(PersistenceWorker.class, RETURNS_DEEP_STUBS);
+        when(worker.getModelName()).thenReturn(modelName);
+        when(worker.flushAndSwitch()).thenReturn(true);
+        when(worker.prepareBatch(any())).thenReturn(batch);
+        return worker;
+    }
+}
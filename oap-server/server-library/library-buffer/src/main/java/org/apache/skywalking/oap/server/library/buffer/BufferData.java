@@ -19,6 +19,7 @@
 package org.apache.skywalking.oap.server.library.buffer;
 
 import com.google.protobuf.GeneratedMessageV3;
+import java.util.*;
 import lombok.*;
 import org.apache.skywalking.apm.network.language.agent.TraceSegmentObject;
 import org.apache.skywalking.apm.network.language.agent.v2.SegmentObject;
@@ -31,6 +32,11 @@ public class BufferData<MESSAGE_TYPE extends GeneratedMessageV3> {
     private MESSAGE_TYPE messageType;
     @Setter private TraceSegmentObject v1Segment;
     @Setter private SegmentObject v2Segment;
+    /**
+     * The keys this data waits for when the callback fails, it is called back at once when any of them is woken up,
+     * see {@link BufferStream#wakeup(String)}.
+     */
+    @Setter private Collection<String> awaitedKeys = Collections.emptyList();
 
     public BufferData(MESSAGE_TYPE messageType) {
         this.messageType = messageType;
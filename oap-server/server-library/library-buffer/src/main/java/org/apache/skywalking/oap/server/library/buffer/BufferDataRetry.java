@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.library.buffer;
+
+import com.google.protobuf.GeneratedMessageV3;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.slf4j.*;
+
+/**
+ * The retry queue of the buffer data, which the callback hasn't consumed successfully. Each data is called back again
+ * after a delay, which starts from 500 milliseconds and doubles after each failure up to 30 seconds, and is abandoned
+ * after 10 failed retries. The reader keeps reading the following data meanwhile, until the queue is full.
+ *
+ * The data is also indexed by the keys it is waiting for, see {@link BufferData#getAwaitedKeys()}. When one of the keys
+ * is {@link #expedite(String)}, only the data waiting for it is called back at once. Such an expedited call back
+ * doesn't count as a retry, and the data keeps its delay if it fails again.
+ *
+ * All the methods are called by the reader thread, except {@link #expedite(String)}.
+ */
+class BufferDataRetry<MESSAGE_TYPE extends GeneratedMessageV3> {
+
+    private static final Logger logger = LoggerFactory.getLogger(BufferDataRetry.class);
+
+    static final int MAX_SIZE = 10000;
+    static final int MAX_RETRIES = 10;
+    static final long INITIAL_DELAY_MILLIS = 500;
+    static final long MAX_DELAY_MILLIS = 30 * 1000;
+
+    private final DataStreamReader.CallBack<MESSAGE_TYPE> callBack;
+    private final PriorityQueue<Entry<MESSAGE_TYPE>> queue;
+    private final Map<String, List<Entry<MESSAGE_TYPE>>> awaiting;
+    private final Queue<String> expeditedKeys;
+
+    BufferDataRetry(DataStreamReader.CallBack<MESSAGE_TYPE> callBack) {
+        this.callBack = callBack;
+        this.queue = new PriorityQueue<>((e1, e2) -> Long.compare(e1.retryTime, e2.retryTime));
+        this.awaiting = new HashMap<>();
+        this.expeditedKeys = new ConcurrentLinkedQueue<>();
+    }
+
+    void add(BufferData<MESSAGE_TYPE> bufferData, long now) {
+        Entry<MESSAGE_TYPE> entry = new Entry<>(bufferData, now + INITIAL_DELAY_MILLIS);
+        queue.add(entry);
+        index(entry);
+    }
+
+    boolean isFull() {
+        return queue.size() >= MAX_SIZE;
+    }
+
+    boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    int size() {
+        return queue.size();
+    }
+
+    /**
+     * Make the data waiting for the key due at the next {@link #retry(long)}, such as when the inventory of the key
+     * has been registered.
+     */
+    void expedite(String awaitedKey) {
+        expeditedKeys.add(awaitedKey);
+    }
+
+    /**
+     * Call back the due data again.
+     */
+    void retry(long now) {
+        String awaitedKey;
+        while ((awaitedKey = expeditedKeys.poll()) != null) {
+            List<Entry<MESSAGE_TYPE>> entries = awaiting.remove(awaitedKey);
+            if (entries == null) {
+                continue;
+            }
+            for (Entry<MESSAGE_TYPE> entry : entries) {
+                if (entry.retryTime > now && queue.remove(entry)) {
+                    entry.expedited = true;
+                    entry.delayedTime = entry.retryTime;
+                    entry.retryTime = now;
+                    queue.add(entry);
+                }
+            }
+        }
+
+        // The failed data are delayed again, after now, so each data is called back once at most.
+        while (!queue.isEmpty() && queue.peek().retryTime <= now) {
+            Entry<MESSAGE_TYPE> entry = queue.poll();
+            unindex(entry);
+
+            if (callBack.call(entry.bufferData)) {
+                continue;
+            }
+
+            if (entry.expedited) {
+                // Not the retry by the delay, keep the delay of it.
+                entry.expedited = false;
+                entry.retryTime = entry.delayedTime;
+            } else {
+                entry.retries++;
+                if (entry.retries >= MAX_RETRIES) {
+                    logger.warn("Abandon the buffer data after {} retries, awaited keys: {}", entry.retries, entry.bufferData.getAwaitedKeys());
+                    continue;
+                }
+                entry.retryTime = now + Math.min(INITIAL_DELAY_MILLIS << entry.retries, MAX_DELAY_MILLIS);
+            }
+            queue.add(entry);
+            index(entry);
+        }
+    }
+
+    /**
+     * @return the time to wait before the next retry, in milliseconds, no more than the given max.
+     */
+    long waitMillis(long now, long maxWaitMillis) {
+        if (!expeditedKeys.isEmpty()) {
+            return 0;
+        }
+        Entry<MESSAGE_TYPE> next = queue.peek();
+        if (next == null) {
+            return maxWaitMillis;
+        }
+        return Math.max(0, Math.min(next.retryTime - now, maxWaitMillis));
+    }
+
+    private void index(Entry<MESSAGE_TYPE> entry) {
+        for (String awaitedKey : entry.bufferData.getAwaitedKeys()) {
+            awaiting.computeIfAbsent(awaitedKey, key -> new ArrayList<>(1)).add(entry);
+        }
+    }
+
+    private void unindex(Entry<MESSAGE_TYPE> entry) {
+        for (String awaitedKey : entry.bufferData.getAwaitedKeys()) {
+            List<Entry<MESSAGE_TYPE>> entries = awaiting.get(awaitedKey);
+            if (entries != null) {
+                entries.remove(entry);
+                if (entries.isEmpty()) {
+                    awaiting.remove(awaitedKey);
+                }
+            }
+        }
+    }
+
+    private static class Entry<MESSAGE_TYPE extends GeneratedMessageV3> {
+        private final BufferData<MESSAGE_TYPE> bufferData;
+        private long retryTime;
+        private int retries;
+        private boolean expedited;
+        /**
+         * The retry time before expedited.
+         */
+        private long delayedTime;
+
+        private Entry(BufferData<MESSAGE_TYPE> bufferData, long retryTime) {
+            this.bufferData = bufferData;
+            this.retryTime = retryTime;
+        }
+    }
+}
@@ -34,6 +34,8 @@ class BufferFileUtils {
     static final String CHARSET = "UTF-8";
     static final String DATA_FILE_PREFIX = "data";
     static final String OFFSET_FILE_PREFIX = "offset";
+    static final String SEGMENT_FILE_PREFIX = "segment";
+    static final String SEGMENT_OFFSET_FILE_NAME = "segment_offset.sw";
     private static final String SEPARATOR = "-";
     private static final String SUFFIX = ".sw";
 
@@ -49,4 +51,16 @@ class BufferFileUtils {
     static String buildFileName(String prefix) {
         return prefix + SEPARATOR + System.currentTimeMillis() + SUFFIX;
     }
+
+    static String buildFileName(String prefix, long sequence) {
+        return prefix + SEPARATOR + sequence + SUFFIX;
+    }
+
+    static String filePrefix(String prefix) {
+        return prefix + SEPARATOR;
+    }
+
+    static long parseSequence(String fileName) {
+        return Long.parseLong(fileName.substring(0, fileName.length() - SUFFIX.length()).split(SEPARATOR)[1]);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.library.buffer;
+
+import com.google.protobuf.*;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * The storage of the {@link BufferStream}. {@link DataStream} is the length-delimited file streams, and {@link
+ * SegmentLog} is the memory-mapped segment files.
+ */
+interface BufferLog<MESSAGE_TYPE extends GeneratedMessageV3> {
+
+    void clean() throws IOException;
+
+    void initialize() throws IOException;
+
+    void write(AbstractMessageLite messageLite);
+
+    void write(List<? extends AbstractMessageLite> messages);
+
+    /**
+     * Wake up the reader, and call back the retries waiting for the key at once.
+     */
+    void wakeup(String awaitedKey);
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.library.buffer;
+
+import com.google.protobuf.GeneratedMessageV3;
+import org.slf4j.*;
+
+/**
+ * The thread reading a buffer log. It reads all the available data and calls back the due retries, then waits until
+ * it is woken up by the writer or by {@link #expedite(String)}, or the next retry is due. There is no polling while
+ * nothing happens, except a long idle check.
+ */
+class BufferReaderThread<MESSAGE_TYPE extends GeneratedMessageV3> extends Thread {
+
+    private static final Logger logger = LoggerFactory.getLogger(BufferReaderThread.class);
+
+    private static final long IDLE_WAIT_MILLIS = 10 * 1000;
+
+    private final Runnable reader;
+    private final BufferDataRetry<MESSAGE_TYPE> retry;
+    private final Object monitor = new Object();
+    private boolean signaled = false;
+
+    /**
+     * @param reader reads all the available data, until the retry queue is full.
+     */
+    BufferReaderThread(String name, Runnable reader, BufferDataRetry<MESSAGE_TYPE> retry) {
+        super(name);
+        this.reader = reader;
+        this.retry = retry;
+        setDaemon(true);
+    }
+
+    /**
+     * Call back the retries waiting for the key at once.
+     */
+    void expedite(String awaitedKey) {
+        retry.expedite(awaitedKey);
+        wakeup();
+    }
+
+    void wakeup() {
+        synchronized (monitor) {
+            signaled = true;
+            monitor.notify();
+        }
+    }
+
+    @Override public void run() {
+        while (!isInterrupted()) {
+            try {
+                reader.run();
+                retry.retry(System.currentTimeMillis());
+                if (!retry.isFull()) {
+                    reader.run();
+                }
+            } catch (Throwable t) {
+                logger.error("Buffer data read failure.", t);
+            }
+
+            try {
+                await(retry.waitMillis(System.currentTimeMillis(), IDLE_WAIT_MILLIS));
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void await(long waitMillis) throws InterruptedException {
+        synchronized (monitor) {
+            if (!signaled && waitMillis > 0) {
+                monitor.wait(waitMillis);
+            }
+            signaled = false;
+        }
+    }
+}
@@ -21,10 +21,15 @@ package org.apache.skywalking.oap.server.library.buffer;
 import com.google.protobuf.*;
 import java.io.*;
 import java.nio.channels.FileLock;
+import java.util.List;
 import org.apache.commons.io.FileUtils;
 import org.slf4j.*;
 
 /**
+ * The file buffer of the messages, which are consumed by the {@link DataStreamReader.CallBack} later. The messages are
+ * kept in the length-delimited data files by default, or in the memory-mapped segment files, see {@link
+ * Builder#mappedSegments(boolean)}.
+ *
  * @author peng-yongsheng
  */
 public class BufferStream<MESSAGE_TYPE extends GeneratedMessageV3> {
@@ -35,16 +40,18 @@ public class BufferStream<MESSAGE_TYPE extends GeneratedMessageV3> {
     private final boolean cleanWhenRestart;
     private final int dataFileMaxSize;
     private final int offsetFileMaxSize;
+    private final boolean mappedSegments;
     private final Parser<MESSAGE_TYPE> parser;
     private final DataStreamReader.CallBack<MESSAGE_TYPE> callBack;
-    private DataStream<MESSAGE_TYPE> dataStream;
+    private BufferLog<MESSAGE_TYPE> bufferLog;
 
     private BufferStream(String absolutePath, boolean cleanWhenRestart, int dataFileMaxSize, int offsetFileMaxSize,
-        Parser<MESSAGE_TYPE> parser, DataStreamReader.CallBack<MESSAGE_TYPE> callBack) {
+        boolean mappedSegments, Parser<MESSAGE_TYPE> parser, DataStreamReader.CallBack<MESSAGE_TYPE> callBack) {
         this.absolutePath = absolutePath;
         this.cleanWhenRestart = cleanWhenRestart;
         this.dataFileMaxSize = dataFileMaxSize;
         this.offsetFileMaxSize = offsetFileMaxSize;
+        this.mappedSegments = mappedSegments;
         this.parser = parser;
         this.callBack = callBack;
     }
@@ -54,17 +61,39 @@ public class BufferStream<MESSAGE_TYPE extends GeneratedMessageV3> {
         FileUtils.forceMkdir(directory);
         tryLock(directory);
 
-        dataStream = new DataStream<>(directory, dataFileMaxSize, offsetFileMaxSize, parser, callBack);
+        if (mappedSegments) {
+            int segmentSize = (int)Math.min(Integer.MAX_VALUE, FileUtils.ONE_MB * dataFileMaxSize);
+            bufferLog = new SegmentLog<>(directory, segmentSize, parser, callBack);
+        } else {
+            bufferLog = new DataStream<>(directory, dataFileMaxSize, offsetFileMaxSize, parser, callBack);
+        }
 
         if (cleanWhenRestart) {
-            dataStream.clean();
+            bufferLog.clean();
         }
 
-        dataStream.initialize();
+        bufferLog.initialize();
     }
 
     public synchronized void write(AbstractMessageLite messageLite) {
-        dataStream.getWriter().write(messageLite);
+        bufferLog.write(messageLite);
+    }
+
+    /**
+     * Write the messages in one batch, which are committed together by the segment files.
+     */
+    public synchronized void write(List<? extends AbstractMessageLite> messages) {
+        bufferLog.write(messages);
+    }
+
+    /**
+     * Call back the data waiting for the key at once, rather than after their delay. Such as when the inventory they
+     * are waiting for is registered.
+     *
+     * @param awaitedKey one of the {@link BufferData#getAwaitedKeys()}
+     */
+    public void wakeup(String awaitedKey) {
+        bufferLog.wakeup(awaitedKey);
     }
 
     private void tryLock(File directory) {
@@ -90,6 +119,7 @@ public class BufferStream<MESSAGE_TYPE extends GeneratedMessageV3> {
         private boolean cleanWhenRestart;
         private int dataFileMaxSize;
         private int offsetFileMaxSize;
+        private boolean mappedSegments;
         private Parser<MESSAGE_TYPE> parser;
         private DataStreamReader.CallBack<MESSAGE_TYPE> callBack;
 
@@ -98,7 +128,7 @@ public class BufferStream<MESSAGE_TYPE extends GeneratedMessageV3> {
         }
 
         public BufferStream<MESSAGE_TYPE> build() {
-            return new BufferStream<>(absolutePath, cleanWhenRestart, dataFileMaxSize, offsetFileMaxSize, parser, callBack);
+            return new BufferStream<>(absolutePath, cleanWhenRestart, dataFileMaxSize, offsetFileMaxSize, mappedSegments, parser, callBack);
         }
 
         public Builder<MESSAGE_TYPE> cleanWhenRestart(boolean cleanWhenRestart) {
@@ -116,6 +146,15 @@ public class BufferStream<MESSAGE_TYPE extends GeneratedMessageV3> {
             return this;
         }
 
+        /**
+         * Keep the messages in the memory-mapped segment files, each one is in the data file max size. The offset
+         * file max size isn't used then.
+         */
+        public Builder<MESSAGE_TYPE> mappedSegments(boolean mappedSegments) {
+            this.mappedSegments = mappedSegments;
+            return this;
+        }
+
         public Builder<MESSAGE_TYPE> parser(Parser<MESSAGE_TYPE> parser) {
             this.parser = parser;
             return this;
@@ -20,6 +20,7 @@ package org.apache.skywalking.oap.server.library.buffer;
 
 import com.google.protobuf.*;
 import java.io.*;
+import java.util.List;
 import lombok.Getter;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.filefilter.PrefixFileFilter;
@@ -28,7 +29,7 @@ import org.slf4j.*;
 /**
  * @author peng-yongsheng
  */
-class DataStream<MESSAGE_TYPE extends GeneratedMessageV3> {
+class DataStream<MESSAGE_TYPE extends GeneratedMessageV3> implements BufferLog<MESSAGE_TYPE> {
 
     private static final Logger logger = LoggerFactory.getLogger(DataStream.class);
 
@@ -46,7 +47,7 @@ class DataStream<MESSAGE_TYPE extends GeneratedMessageV3> {
         this.reader = new DataStreamReader<>(directory, offsetStream.getOffset().getReadOffset(), parser, callBack);
     }
 
-    void clean() throws IOException {
+    @Override public void clean() throws IOException {
         String[] fileNames = directory.list(new PrefixFileFilter(BufferFileUtils.DATA_FILE_PREFIX));
         if (fileNames != null) {
             for (String fileName : fileNames) {
@@ -61,7 +62,7 @@ class DataStream<MESSAGE_TYPE extends GeneratedMessageV3> {
         offsetStream.clean();
     }
 
-    synchronized void initialize() throws IOException {
+    @Override public synchronized void initialize() throws IOException {
         if (!initialized) {
             offsetStream.initialize();
             writer.initialize();
@@ -69,4 +70,20 @@ class DataStream<MESSAGE_TYPE extends GeneratedMessageV3> {
             initialized = true;
         }
     }
+
+    @Override public void write(AbstractMessageLite messageLite) {
+        writer.write(messageLite);
+        reader.wakeup();
+    }
+
+    @Override public void write(List<? extends AbstractMessageLite> messages) {
+        for (AbstractMessageLite messageLite : messages) {
+            writer.write(messageLite);
+        }
+        reader.wakeup();
+    }
+
+    @Override public void wakeup(String awaitedKey) {
+        reader.expedite(awaitedKey);
+    }
 }
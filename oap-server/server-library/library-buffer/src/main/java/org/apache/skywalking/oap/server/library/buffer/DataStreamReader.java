@@ -21,13 +21,15 @@ package org.apache.skywalking.oap.server.library.buffer;
 import com.google.protobuf.*;
 import java.io.*;
 import java.util.*;
-import java.util.concurrent.*;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.filefilter.PrefixFileFilter;
 import org.apache.skywalking.apm.util.*;
 import org.slf4j.*;
 
 /**
+ * Read the data files by the {@link BufferReaderThread}, which is woken up after each write. The data which isn't
+ * consumed successfully by the callback are retried later, without stopping the reading.
+ *
  * @author peng-yongsheng
  */
 public class DataStreamReader<MESSAGE_TYPE extends GeneratedMessageV3> {
@@ -38,8 +40,8 @@ public class DataStreamReader<MESSAGE_TYPE extends GeneratedMessageV3> {
     private final Offset.ReadOffset readOffset;
     private final Parser<MESSAGE_TYPE> parser;
     private final CallBack<MESSAGE_TYPE> callBack;
-    private final int collectionSize = 100;
-    private final BufferDataCollection<MESSAGE_TYPE> bufferDataCollection;
+    private final BufferDataRetry<MESSAGE_TYPE> retry;
+    private final BufferReaderThread<MESSAGE_TYPE> readerThread;
     private File readingFile;
     private InputStream inputStream;
 
@@ -49,15 +51,24 @@ public class DataStreamReader<MESSAGE_TYPE extends GeneratedMessageV3> {
         this.readOffset = readOffset;
         this.parser = parser;
         this.callBack = callBack;
-        this.bufferDataCollection = new BufferDataCollection<>(collectionSize);
+        this.retry = new BufferDataRetry<>(callBack);
+        this.readerThread = new BufferReaderThread<>("BufferReader-" + directory.getName(), this::read, retry);
     }
 
     void initialize() {
         preRead();
+        readerThread.start();
+    }
+
+    void wakeup() {
+        readerThread.wakeup();
+    }
 
-        Executors.newSingleThreadScheduledExecutor().scheduleWithFixedDelay(
-            new RunnableWithExceptionProtection(this::read,
-                t -> logger.error("Buffer data pre read failure.", t)), 3, 1, TimeUnit.SECONDS);
+    /**
+     * Call back the retries waiting for the key at once.
+     */
+    void expedite(String awaitedKey) {
+        readerThread.expedite(awaitedKey);
     }
 
     private void preRead() {
@@ -116,61 +127,25 @@ public class DataStreamReader<MESSAGE_TYPE extends GeneratedMessageV3> {
                 openInputStream(readEarliestDataFile());
             }
 
-            while (readOffset.getOffset() < readingFile.length()) {
+            while (readOffset.getOffset() < readingFile.length() && !retry.isFull()) {
                 BufferData<MESSAGE_TYPE> bufferData = new BufferData<>(parser.parseDelimitedFrom(inputStream));
 
-                if (bufferData.getMessageType() != null) {
-                    boolean isComplete = callBack.call(bufferData);
-                    final int serialized = bufferData.getMessageType().getSerializedSize();
-                    final int offset = CodedOutputStream.computeUInt32SizeNoTag(serialized) + serialized;
-                    readOffset.setOffset(readOffset.getOffset() + offset);
-
-                    if (!isComplete) {
-                        if (bufferDataCollection.size() == collectionSize) {
-                            reCall();
-                        }
-                        bufferDataCollection.add(bufferData);
-                    }
-
-                    if (logger.isDebugEnabled()) {
-                        logger.debug("collection size: {}, max size: {}", bufferDataCollection.size(), collectionSize);
-                    }
-                } else if (bufferDataCollection.size() > 0) {
-                    reCall();
-                } else {
-                    try {
-                        TimeUnit.SECONDS.sleep(5);
-                    } catch (InterruptedException e) {
-                        logger.error(e.getMessage(), e);
-                    }
+                if (bufferData.getMessageType() == null) {
+                    // The message isn't written completely, read it after the next write.
+                    break;
                 }
-            }
-        } catch (IOException e) {
-            logger.error(e.getMessage(), e);
-        }
-    }
 
-    private void reCall() {
-        int maxCycle = 10;
-        for (int i = 1; i <= maxCycle; i++) {
-            if (bufferDataCollection.size() > 0) {
-                List<BufferData<MESSAGE_TYPE>> bufferDataList = bufferDataCollection.export();
-                for (BufferData<MESSAGE_TYPE> data : bufferDataList) {
-                    if (!callBack.call(data)) {
-                        if (i != maxCycle) {
-                            bufferDataCollection.add(data);
-                        }
-                    }
-                }
+                boolean isComplete = callBack.call(bufferData);
+                final int serialized = bufferData.getMessageType().getSerializedSize();
+                final int offset = CodedOutputStream.computeUInt32SizeNoTag(serialized) + serialized;
+                readOffset.setOffset(readOffset.getOffset() + offset);
 
-                try {
-                    TimeUnit.MILLISECONDS.sleep(500);
-                } catch (InterruptedException e) {
-                    logger.error(e.getMessage(), e);
+                if (!isComplete) {
+                    retry.add(bufferData, System.currentTimeMillis());
                 }
-            } else {
-                break;
             }
+        } catch (IOException e) {
+            logger.error(e.getMessage(), e);
         }
     }
 
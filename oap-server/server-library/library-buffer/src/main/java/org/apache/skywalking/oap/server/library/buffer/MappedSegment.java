@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.library.buffer;
+
+import com.google.protobuf.*;
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+import lombok.Getter;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.*;
+
+/**
+ * One fixed-size segment file of the {@link SegmentLog}, mapped into the memory.
+ *
+ * Each record is a 4 bytes length and a 4 bytes CRC32 header, followed by the serialized message. The file is filled
+ * by zero when it is created, so the zero length is the end of the records. The zeros are written rather than making a
+ * sparse file, so a full disk fails the creation, instead of faulting a later write into the mapped memory.
+ *
+ * Only one thread writes the segment. The records are visible to the reader after {@link #commit()}, and the segment
+ * isn't written anymore after {@link #seal()}.
+ */
+class MappedSegment {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedSegment.class);
+
+    static final int HEADER_SIZE = 8;
+
+    @Getter private final long sequence;
+    private final File file;
+    private final MappedByteBuffer buffer;
+    private final CRC32 crc32 = new CRC32();
+    private int writePosition;
+    private int forcedPosition;
+    private volatile int committedPosition;
+    private volatile boolean sealed;
+
+    private MappedSegment(long sequence, File file, MappedByteBuffer buffer) {
+        this.sequence = sequence;
+        this.file = file;
+        this.buffer = buffer;
+    }
+
+    static MappedSegment create(File file, long sequence, int size) throws IOException {
+        logger.info("Create a new buffer segment file: {}", file.getAbsolutePath());
+        try {
+            preallocate(file, size);
+        } catch (IOException e) {
+            FileUtils.deleteQuietly(file);
+            throw e;
+        }
+        return new MappedSegment(sequence, file, map(file, size));
+    }
+
+    private static void preallocate(File file, int size) throws IOException {
+        ByteBuffer zeros = ByteBuffer.allocate((int)Math.min(size, FileUtils.ONE_MB));
+        try (FileOutputStream output = new FileOutputStream(file)) {
+            FileChannel channel = output.getChannel();
+            long position = 0;
+            while (position < size) {
+                zeros.clear();
+                zeros.limit((int)Math.min(zeros.capacity(), size - position));
+                position += channel.write(zeros, position);
+            }
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Map the existing segment, and find the end of the records. The records after the first broken one, which
+     * was not written completely before the last shutdown, are abandoned.
+     */
+    static MappedSegment open(File file, long sequence) throws IOException {
+        MappedSegment segment = new MappedSegment(sequence, file, map(file, (int)file.length()));
+        segment.recover();
+        return segment;
+    }
+
+    private static MappedByteBuffer map(File file, int size) throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.setLength(size);
+            return randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private void recover() {
+        int position = 0;
+        while (position + HEADER_SIZE <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + HEADER_SIZE + length > buffer.capacity()) {
+                break;
+            }
+            if (buffer.getInt(position + 4) != checksum(payload(position, length))) {
+                logger.warn("Broken record in buffer segment file {} at {}, the following records are abandoned.", file.getName(), position);
+                break;
+            }
+            position += HEADER_SIZE + length;
+        }
+        writePosition = position;
+        forcedPosition = position;
+        committedPosition = position;
+    }
+
+    boolean hasRoom(int size) {
+        return writePosition + HEADER_SIZE + size <= buffer.capacity();
+    }
+
+    /**
+     * Append the message, which isn't visible to the reader until {@link #commit()}.
+     */
+    void append(AbstractMessageLite messageLite, int size) throws IOException {
+        ByteBuffer payload = payload(writePosition, size);
+        CodedOutputStream output = CodedOutputStream.newInstance(payload);
+        messageLite.writeTo(output);
+        output.flush();
+        payload.flip();
+
+        buffer.putInt(writePosition + 4, checksum(payload));
+        buffer.putInt(writePosition, size);
+        writePosition += HEADER_SIZE + size;
+    }
+
+    void commit() {
+        committedPosition = writePosition;
+    }
+
+    /**
+     * Commit the appended records, and stop writing this segment.
+     */
+    void seal() {
+        commit();
+        sealed = true;
+    }
+
+    boolean isSealed() {
+        return sealed;
+    }
+
+    int getCommittedPosition() {
+        return committedPosition;
+    }
+
+    /**
+     * @param position of a committed record.
+     * @return the payload of the record, which shares the content of the mapped file.
+     */
+    ByteBuffer read(int position) {
+        return payload(position, buffer.getInt(position));
+    }
+
+    /**
+     * Write the committed records to the disk, when there is any record after the last force.
+     */
+    void force() {
+        int committed = committedPosition;
+        if (committed > forcedPosition) {
+            buffer.force();
+            forcedPosition = committed;
+        }
+    }
+
+    void delete() throws IOException {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Delete buffer segment file: {}", file.getAbsolutePath());
+        }
+        FileUtils.forceDelete(file);
+    }
+
+    private ByteBuffer payload(int position, int length) {
+        ByteBuffer duplicate = buffer.duplicate();
+        duplicate.limit(position + HEADER_SIZE + length);
+        duplicate.position(position + HEADER_SIZE);
+        return duplicate.slice();
+    }
+
+    private int checksum(ByteBuffer payload) {
+        synchronized (crc32) {
+            crc32.reset();
+            crc32.update(payload.duplicate());
+            return (int)crc32.getValue();
+        }
+    }
+}
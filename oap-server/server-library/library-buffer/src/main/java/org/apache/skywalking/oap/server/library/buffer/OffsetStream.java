@@ -64,14 +64,7 @@ class OffsetStream {
 
     synchronized void initialize() throws IOException {
         if (!initialized) {
-            String[] fileNames = directory.list(new PrefixFileFilter(BufferFileUtils.OFFSET_FILE_PREFIX));
-            if (fileNames != null && fileNames.length > 0) {
-                BufferFileUtils.sort(fileNames);
-                offsetFile = new File(directory, fileNames[0]);
-            } else {
-                offsetFile = newFile();
-            }
-            offset.deserialize(readLastLine());
+            load();
             initialized = true;
 
             Executors.newSingleThreadScheduledExecutor().scheduleAtFixedRate(
@@ -81,6 +74,20 @@ class OffsetStream {
         }
     }
 
+    /**
+     * Read the last offset record, without flushing it in background.
+     */
+    void load() throws IOException {
+        String[] fileNames = directory.list(new PrefixFileFilter(BufferFileUtils.OFFSET_FILE_PREFIX));
+        if (fileNames != null && fileNames.length > 0) {
+            BufferFileUtils.sort(fileNames);
+            offsetFile = new File(directory, fileNames[0]);
+        } else {
+            offsetFile = newFile();
+        }
+        offset.deserialize(readLastLine());
+    }
+
     void flush() {
         try {
             String offsetRecord = offset.serialize();
@@ -0,0 +1,319 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.library.buffer;
+
+import com.google.protobuf.*;
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.util.*;
+import java.util.concurrent.*;
+import org.apache.commons.io.*;
+import org.apache.commons.io.filefilter.PrefixFileFilter;
+import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
+import org.slf4j.*;
+
+/**
+ * The buffer log on the memory-mapped segment files in fixed size. The messages are appended in batch, and read from
+ * the mapped files without copy by the {@link BufferReaderThread}, which is woken up after each write. The segments
+ * are deleted after all their records are read.
+ *
+ * The read offset, which is the sequence of the reading segment and the position in it, is kept in a small mapped
+ * file. The offset and the new records of the segments are forced to the disk together, once a second, rather than
+ * after every message. The write offset isn't persisted, it is found by the checksums of the records when the log is
+ * opened again.
+ */
+class SegmentLog<MESSAGE_TYPE extends GeneratedMessageV3> implements BufferLog<MESSAGE_TYPE> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentLog.class);
+
+    private static final int OFFSET_FILE_SIZE = 8;
+    private static final int MIGRATE_BATCH_SIZE = 1000;
+
+    private final File directory;
+    private final int segmentSize;
+    private final Parser<MESSAGE_TYPE> parser;
+    private final DataStreamReader.CallBack<MESSAGE_TYPE> callBack;
+    private final BufferDataRetry<MESSAGE_TYPE> retry;
+    private final BufferReaderThread<MESSAGE_TYPE> readerThread;
+    private final ConcurrentSkipListMap<Long, MappedSegment> segments;
+    private MappedSegment writingSegment;
+    private MappedByteBuffer offsetBuffer;
+    /**
+     * The sequence of the reading segment in the high 32 bits, and the position in the low 32 bits. Only the reader
+     * changes it, and they are flushed together.
+     */
+    private volatile long readOffset;
+    private boolean initialized = false;
+
+    SegmentLog(File directory, int segmentSize, Parser<MESSAGE_TYPE> parser,
+        DataStreamReader.CallBack<MESSAGE_TYPE> callBack) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.parser = parser;
+        this.callBack = callBack;
+        this.retry = new BufferDataRetry<>(callBack);
+        this.readerThread = new BufferReaderThread<>("BufferReader-" + directory.getName(), this::read, retry);
+        this.segments = new ConcurrentSkipListMap<>();
+    }
+
+    @Override public void clean() throws IOException {
+        String[] fileNames = directory.list(new PrefixFileFilter(BufferFileUtils.SEGMENT_FILE_PREFIX));
+        if (fileNames != null) {
+            for (String fileName : fileNames) {
+                File file = new File(directory, fileName);
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Delete buffer segment file: {}", file.getAbsolutePath());
+                }
+                FileUtils.forceDelete(file);
+            }
+        }
+        deleteDataFiles();
+    }
+
+    @Override public synchronized void initialize() throws IOException {
+        if (!initialized) {
+            open();
+
+            readerThread.start();
+            Executors.newSingleThreadScheduledExecutor().scheduleAtFixedRate(
+                new RunnableWithExceptionProtection(this::flush,
+                    t -> logger.error("Flush buffer segments in background failure.", t)), 1, 1, TimeUnit.SECONDS);
+            initialized = true;
+        }
+    }
+
+    /**
+     * Map the existing segments and the read offset, without starting the reader and the flush.
+     */
+    synchronized void open() throws IOException {
+        String[] fileNames = directory.list(new PrefixFileFilter(BufferFileUtils.filePrefix(BufferFileUtils.SEGMENT_FILE_PREFIX)));
+        if (fileNames != null) {
+            for (String fileName : fileNames) {
+                long sequence = BufferFileUtils.parseSequence(fileName);
+                segments.put(sequence, MappedSegment.open(new File(directory, fileName), sequence));
+            }
+        }
+
+        if (segments.isEmpty()) {
+            writingSegment = createSegment(0, segmentSize);
+        } else {
+            writingSegment = segments.lastEntry().getValue();
+            for (MappedSegment segment : segments.headMap(writingSegment.getSequence()).values()) {
+                segment.seal();
+            }
+        }
+
+        try (RandomAccessFile offsetFile = new RandomAccessFile(new File(directory, BufferFileUtils.SEGMENT_OFFSET_FILE_NAME), "rw")) {
+            offsetFile.setLength(OFFSET_FILE_SIZE);
+            offsetBuffer = offsetFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, OFFSET_FILE_SIZE);
+        }
+
+        long offset = offsetBuffer.getLong(0);
+        MappedSegment readingSegment = segments.get(sequence(offset));
+        if (readingSegment == null) {
+            readOffset = offset(segments.firstKey(), 0);
+        } else {
+            readOffset = offset(readingSegment.getSequence(), Math.min(position(offset), readingSegment.getCommittedPosition()));
+        }
+
+        for (MappedSegment segment : segments.headMap(sequence(readOffset)).values()) {
+            segments.remove(segment.getSequence());
+            segment.delete();
+        }
+
+        migrateDataFiles();
+    }
+
+    /**
+     * Move the unread messages of the data files, which are left by the {@link DataStream}, into the segments, then
+     * delete the data and offset files of it. So the messages buffered before switching to the segment log are read
+     * after the existing segments.
+     */
+    private void migrateDataFiles() throws IOException {
+        String[] fileNames = directory.list(new PrefixFileFilter(BufferFileUtils.DATA_FILE_PREFIX));
+        if (fileNames == null || fileNames.length == 0) {
+            return;
+        }
+        BufferFileUtils.sort(fileNames);
+
+        OffsetStream offsetStream = new OffsetStream(directory, 0);
+        offsetStream.load();
+        Offset.ReadOffset legacyOffset = offsetStream.getOffset().getReadOffset();
+        // The data files before the reading one have been read, and should have been deleted.
+        boolean reading = !Arrays.asList(fileNames).contains(legacyOffset.getFileName());
+
+        int migrated = 0;
+        List<MESSAGE_TYPE> messages = new ArrayList<>(MIGRATE_BATCH_SIZE);
+        for (String fileName : fileNames) {
+            boolean readingFile = fileName.equals(legacyOffset.getFileName());
+            reading = reading || readingFile;
+            if (!reading) {
+                continue;
+            }
+
+            try (InputStream inputStream = new BufferedInputStream(new FileInputStream(new File(directory, fileName)))) {
+                if (readingFile) {
+                    IOUtils.skipFully(inputStream, legacyOffset.getOffset());
+                }
+                MESSAGE_TYPE message;
+                while ((message = parser.parseDelimitedFrom(inputStream)) != null) {
+                    messages.add(message);
+                    if (messages.size() >= MIGRATE_BATCH_SIZE) {
+                        write(messages);
+                        migrated += messages.size();
+                        messages.clear();
+                    }
+                }
+            } catch (InvalidProtocolBufferException e) {
+                logger.warn("Broken message in buffer data file {}, the following messages are abandoned.", fileName);
+            }
+        }
+        write(messages);
+        migrated += messages.size();
+        flush();
+
+        deleteDataFiles();
+        logger.info("{} messages of the buffer data files are moved into the segments in {}.", migrated, directory.getAbsolutePath());
+    }
+
+    private void deleteDataFiles() throws IOException {
+        String[] fileNames = directory.list(new PrefixFileFilter(BufferFileUtils.DATA_FILE_PREFIX));
+        if (fileNames != null) {
+            for (String fileName : fileNames) {
+                FileUtils.forceDelete(new File(directory, fileName));
+            }
+        }
+        new OffsetStream(directory, 0).clean();
+    }
+
+    @Override public void write(AbstractMessageLite messageLite) {
+        write(Collections.singletonList(messageLite));
+    }
+
+    /**
+     * Append the messages, and commit them together. When the segments can't be written, such as the disk is full, the
+     * messages from the failed one are dropped, and the ones appended before it are still committed.
+     */
+    @Override public synchronized void write(List<? extends AbstractMessageLite> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        int written = 0;
+        try {
+            for (AbstractMessageLite messageLite : messages) {
+                int size = messageLite.getSerializedSize();
+                if (!writingSegment.hasRoom(size)) {
+                    MappedSegment nextSegment = createSegment(writingSegment.getSequence() + 1, Math.max(segmentSize, MappedSegment.HEADER_SIZE + size));
+                    writingSegment.seal();
+                    writingSegment = nextSegment;
+                }
+                writingSegment.append(messageLite, size);
+                written++;
+            }
+        } catch (IOException | InternalError e) {
+            // InternalError is thrown when the access of the mapped memory faults.
+            logger.error("Write buffer segments failure, " + (messages.size() - written) + " messages are dropped.", e);
+        }
+        writingSegment.commit();
+        readerThread.wakeup();
+    }
+
+    @Override public void wakeup(String awaitedKey) {
+        readerThread.expedite(awaitedKey);
+    }
+
+    private MappedSegment createSegment(long sequence, int size) throws IOException {
+        File file = new File(directory, BufferFileUtils.buildFileName(BufferFileUtils.SEGMENT_FILE_PREFIX, sequence));
+        MappedSegment segment = MappedSegment.create(file, sequence, size);
+        segments.put(sequence, segment);
+        return segment;
+    }
+
+    /**
+     * Read all the committed records until the retry queue is full, and delete the segments which have been read
+     * completely.
+     */
+    void read() {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Read buffer segments");
+        }
+
+        while (!retry.isFull()) {
+            long sequence = sequence(readOffset);
+            int position = position(readOffset);
+            MappedSegment segment = segments.get(sequence);
+
+            // Sealed is read before the committed position, which is final after the segment is sealed.
+            boolean sealed = segment.isSealed();
+            if (position < segment.getCommittedPosition()) {
+                ByteBuffer payload = segment.read(position);
+                readOffset = offset(sequence, position + MappedSegment.HEADER_SIZE + payload.remaining());
+                onRecord(payload);
+            } else if (sealed) {
+                readOffset = offset(segments.higherKey(sequence), 0);
+                segments.remove(sequence);
+                try {
+                    segment.delete();
+                } catch (IOException e) {
+                    logger.error(e.getMessage(), e);
+                }
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void onRecord(ByteBuffer payload) {
+        BufferData<MESSAGE_TYPE> bufferData;
+        try {
+            bufferData = new BufferData<>(parser.parseFrom(payload));
+        } catch (InvalidProtocolBufferException e) {
+            logger.error(e.getMessage(), e);
+            return;
+        }
+
+        if (!callBack.call(bufferData)) {
+            retry.add(bufferData, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Group commit of the new records and the read offset.
+     */
+    void flush() {
+        for (MappedSegment segment : segments.values()) {
+            segment.force();
+        }
+        offsetBuffer.putLong(0, readOffset);
+        offsetBuffer.force();
+    }
+
+    private static long offset(long sequence, int position) {
+        return sequence << 32 | position;
+    }
+
+    private static long sequence(long offset) {
+        return offset >>> 32;
+    }
+
+    private static int position(long offset) {
+        return (int)offset;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.library.buffer;
+
+import java.util.*;
+import org.apache.skywalking.apm.network.language.agent.UniqueId;
+import org.junit.*;
+
+public class BufferDataRetryTestCase {
+
+    private final List<Long> called = new ArrayList<>();
+    private final Set<Long> registered = new HashSet<>();
+
+    private final BufferDataRetry<UniqueId> retry = new BufferDataRetry<>(bufferData -> {
+        long id = bufferData.getMessageType().getIdParts(0);
+        called.add(id);
+        bufferData.setAwaitedKeys(Collections.singletonList(key(id)));
+        return registered.contains(id);
+    });
+
+    @Test
+    public void testBackoff() {
+        retry.add(data(1), 0);
+
+        retry.retry(BufferDataRetry.INITIAL_DELAY_MILLIS - 1);
+        Assert.assertTrue(called.isEmpty());
+
+        long now = BufferDataRetry.INITIAL_DELAY_MILLIS;
+        retry.retry(now);
+        Assert.assertEquals(1, called.size());
+        Assert.assertEquals(BufferDataRetry.INITIAL_DELAY_MILLIS * 2, retry.waitMillis(now, Long.MAX_VALUE));
+
+        now += BufferDataRetry.INITIAL_DELAY_MILLIS * 2;
+        registered.add(1L);
+        retry.retry(now);
+        Assert.assertEquals(2, called.size());
+        Assert.assertTrue(retry.isEmpty());
+    }
+
+    @Test
+    public void testAbandon() {
+        retry.add(data(1), 0);
+
+        long now = 0;
+        for (int i = 0; i < BufferDataRetry.MAX_RETRIES; i++) {
+            now += BufferDataRetry.MAX_DELAY_MILLIS;
+            retry.retry(now);
+        }
+
+        Assert.assertEquals(BufferDataRetry.MAX_RETRIES, called.size());
+        Assert.assertTrue(retry.isEmpty());
+    }
+
+    @Test
+    public void testExpedite() {
+        retry.add(data(1), 0);
+        retry.add(data(2), 100);
+        Assert.assertEquals(100, retry.waitMillis(BufferDataRetry.INITIAL_DELAY_MILLIS - 100, 1000));
+
+        registered.add(2L);
+        retry.expedite(key(2));
+        Assert.assertEquals(0, retry.waitMillis(0, 1000));
+        retry.retry(1);
+
+        Assert.assertEquals(Collections.singletonList(2L), called);
+        Assert.assertEquals(1, retry.size());
+
+        retry.expedite(key(3));
+        retry.retry(2);
+        Assert.assertEquals(1, called.size());
+    }
+
+    @Test
+    public void testExpeditedNotCounted() {
+        retry.add(data(1), 0);
+
+        for (int i = 0; i < BufferDataRetry.MAX_RETRIES * 2; i++) {
+            retry.expedite(key(1));
+            retry.retry(i + 1);
+        }
+        Assert.assertEquals(BufferDataRetry.MAX_RETRIES * 2, called.size());
+        Assert.assertEquals(1, retry.size());
+        Assert.assertEquals(BufferDataRetry.INITIAL_DELAY_MILLIS - 100, retry.waitMillis(100, Long.MAX_VALUE));
+
+        registered.add(1L);
+        retry.retry(BufferDataRetry.INITIAL_DELAY_MILLIS);
+        Assert.assertTrue(retry.isEmpty());
+    }
+
+    private static BufferData<UniqueId> data(long id) {
+        BufferData<UniqueId> bufferData = new BufferData<>(UniqueId.newBuilder().addIdParts(id).build());
+        bufferData.setAwaitedKeys(Collections.singletonList(key(id)));
+        return bufferData;
+    }
+
+    private static String key(long id) {
+        return "key" + id;
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.library.buffer;
+
+import com.google.protobuf.CodedOutputStream;
+import java.io.*;
+import java.util.*;
+import org.apache.commons.io.filefilter.PrefixFileFilter;
+import org.apache.skywalking.apm.network.language.agent.UniqueId;
+import org.junit.*;
+import org.junit.rules.TemporaryFolder;
+
+public class SegmentLogTestCase {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<Long> received = new ArrayList<>();
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        SegmentLog<UniqueId> log = open(1024 * 1024);
+        log.write(ids(0, 100));
+        log.write(ids(100, 101).get(0));
+        log.read();
+
+        Assert.assertEquals(sequence(0, 101), received);
+
+        log.read();
+        Assert.assertEquals(101, received.size());
+    }
+
+    @Test
+    public void testRollSegments() throws IOException {
+        SegmentLog<UniqueId> log = open(256);
+        for (int i = 0; i < 100; i += 10) {
+            log.write(ids(i, i + 10));
+        }
+        Assert.assertTrue(segmentFiles().length > 1);
+
+        log.read();
+
+        Assert.assertEquals(sequence(0, 100), received);
+        Assert.assertEquals(1, segmentFiles().length);
+    }
+
+    @Test
+    public void testReopen() throws IOException {
+        SegmentLog<UniqueId> log = open(256);
+        log.write(ids(0, 50));
+        log.read();
+        log.flush();
+        log.write(ids(50, 80));
+        log.flush();
+
+        received.clear();
+        SegmentLog<UniqueId> reopened = open(256);
+        reopened.read();
+        Assert.assertEquals(sequence(50, 80), received);
+
+        reopened.write(ids(80, 90));
+        reopened.read();
+        Assert.assertEquals(sequence(50, 90), received);
+    }
+
+    @Test
+    public void testAbandonBrokenRecords() throws IOException {
+        SegmentLog<UniqueId> log = open(1024 * 1024);
+        log.write(ids(0, 10));
+        log.flush();
+
+        String[] fileNames = segmentFiles();
+        Assert.assertEquals(1, fileNames.length);
+        int recordSize = MappedSegment.HEADER_SIZE + ids(0, 1).get(0).getSerializedSize();
+        try (RandomAccessFile file = new RandomAccessFile(new File(folder.getRoot(), fileNames[0]), "rw")) {
+            file.seek(recordSize * 6 + MappedSegment.HEADER_SIZE);
+            file.write(0xFF);
+        }
+
+        SegmentLog<UniqueId> reopened = open(1024 * 1024);
+        reopened.read();
+        Assert.assertEquals(sequence(0, 6), received);
+
+        reopened.write(ids(10, 12));
+        reopened.read();
+        Assert.assertEquals(Arrays.asList(0L, 1L, 2L, 3L, 4L, 5L, 10L, 11L), received);
+    }
+
+    @Test
+    public void testMigrateDataFiles() throws IOException {
+        File root = folder.getRoot();
+        int readBytes = 0;
+        try (OutputStream output = new FileOutputStream(new File(root, "data-1.sw"))) {
+            for (UniqueId id : ids(0, 20)) {
+                id.writeDelimitedTo(output);
+                if (id.getIdParts(0) < 5) {
+                    readBytes += CodedOutputStream.computeUInt32SizeNoTag(id.getSerializedSize()) + id.getSerializedSize();
+                }
+            }
+        }
+        try (OutputStream output = new FileOutputStream(new File(root, "data-2.sw"))) {
+            for (UniqueId id : ids(20, 30)) {
+                id.writeDelimitedTo(output);
+            }
+        }
+        try (Writer writer = new FileWriter(new File(root, "offset-1.sw"))) {
+            writer.write("data-1.sw," + readBytes + ",data-2.sw,0" + System.lineSeparator());
+        }
+
+        SegmentLog<UniqueId> log = open(256);
+        log.read();
+        Assert.assertEquals(sequence(5, 30), received);
+        Assert.assertEquals(0, root.list(new PrefixFileFilter(BufferFileUtils.DATA_FILE_PREFIX)).length);
+        Assert.assertEquals(0, root.list(new PrefixFileFilter(BufferFileUtils.OFFSET_FILE_PREFIX)).length);
+
+        log.write(ids(30, 32));
+        log.read();
+        Assert.assertEquals(sequence(5, 32), received);
+    }
+
+    private SegmentLog<UniqueId> open(int segmentSize) throws IOException {
+        SegmentLog<UniqueId> log = new SegmentLog<>(folder.getRoot(), segmentSize, UniqueId.parser(), bufferData -> {
+            received.add(bufferData.getMessageType().getIdParts(0));
+            return true;
+        });
+        log.open();
+        return log;
+    }
+
+    private String[] segmentFiles() {
+        return folder.getRoot().list(new PrefixFileFilter(BufferFileUtils.filePrefix(BufferFileUtils.SEGMENT_FILE_PREFIX)));
+    }
+
+    private static List<UniqueId> ids(int from, int to) {
+        List<UniqueId> ids = new ArrayList<>();
+        for (long i = from; i < to; i++) {
+            ids.add(UniqueId.newBuilder().addIdParts(i).addIdParts(Long.MAX_VALUE - i).build());
+        }
+        return ids;
+    }
+
+    private static List<Long> sequence(int from, int to) {
+        List<Long> sequence = new ArrayList<>();
+        for (long i = from; i < to; i++) {
+            sequence.add(i);
+        }
+        return sequence;
+    }
+}
@@ -19,10 +19,11 @@
 package org.apache.skywalking.aop.server.receiver.mesh;
 
 import java.io.IOException;
-import java.util.List;
+import java.util.*;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
 import org.apache.skywalking.apm.network.servicemesh.ServiceMeshMetric;
+import org.apache.skywalking.oap.server.core.register.worker.InventoryRegisterNotifier;
 import org.apache.skywalking.oap.server.library.buffer.*;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
@@ -54,11 +55,13 @@ public class MeshDataBufferFileCache implements IConsumer<ServiceMeshMetricDataD
         builder.cleanWhenRestart(config.isBufferFileCleanWhenRestart());
         builder.dataFileMaxSize(config.getBufferDataMaxFileSize());
         builder.offsetFileMaxSize(config.getBufferOffsetMaxFileSize());
+        builder.mappedSegments(config.isBufferMappedSegments());
         builder.parser(ServiceMeshMetric.parser());
         builder.callBack(this);
 
         stream = builder.build();
         stream.initialize();
+        InventoryRegisterNotifier.INSTANCE.addListener((modelName, id) -> stream.wakeup(InventoryRegisterNotifier.buildKey(modelName, id)));
     }
 
     @Override public void init() {
@@ -75,14 +78,18 @@ public class MeshDataBufferFileCache implements IConsumer<ServiceMeshMetricDataD
      * @param data
      */
     @Override public void consume(List<ServiceMeshMetricDataDecorator> data) {
+        List<ServiceMeshMetric> unregistered = new ArrayList<>();
         for (ServiceMeshMetricDataDecorator decorator : data) {
             if (decorator.tryMetaDataRegister()) {
                 TelemetryDataDispatcher.doDispatch(decorator);
             } else {
                 meshBufferFileIn.inc();
-                stream.write(decorator.getMetric());
+                unregistered.add(decorator.getMetric());
             }
         }
+        if (!unregistered.isEmpty()) {
+            stream.write(unregistered);
+        }
     }
 
     @Override public void onError(List<ServiceMeshMetricDataDecorator> data, Throwable t) {
@@ -101,7 +108,14 @@ public class MeshDataBufferFileCache implements IConsumer<ServiceMeshMetricDataD
      */
     @Override public boolean call(BufferData<ServiceMeshMetric> bufferData) {
         ServiceMeshMetricDataDecorator decorator = new ServiceMeshMetricDataDecorator(bufferData.getMessageType());
-        if (decorator.tryMetaDataRegister()) {
+        boolean registered;
+        InventoryRegisterNotifier.INSTANCE.beginCollect();
+        try {
+            registered = decorator.tryMetaDataRegister();
+        } finally {
+            bufferData.setAwaitedKeys(InventoryRegisterNotifier.INSTANCE.endCollect());
+        }
+        if (registered) {
             meshBufferFileOut.inc();
             TelemetryDataDispatcher.doDispatch(decorator);
             return true;
@@ -30,4 +30,8 @@ public class MeshModuleConfig extends ModuleConfig {
     @Setter @Getter private int bufferOffsetMaxFileSize;
     @Setter @Getter private int bufferDataMaxFileSize;
     @Setter @Getter private boolean bufferFileCleanWhenRestart;
+    /**
+     * Keep the buffer in the memory-mapped segment files, or in the length-delimited data files when false.
+     */
+    @Setter @Getter private boolean bufferMappedSegments = true;
 }
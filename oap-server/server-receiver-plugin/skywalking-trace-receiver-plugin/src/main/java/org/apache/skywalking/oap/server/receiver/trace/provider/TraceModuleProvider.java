@@ -33,6 +33,7 @@ import org.apache.skywalking.oap.server.receiver.trace.provider.handler.v5.rest.
 import org.apache.skywalking.oap.server.receiver.trace.provider.handler.v6.grpc.TraceSegmentReportServiceHandler;
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.ISegmentParserService;
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.SegmentParse;
+import org.apache.skywalking.oap.server.receiver.trace.provider.parser.SegmentParsePipeline;
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.SegmentParseV2;
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.SegmentParserListenerManager;
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.SegmentParserServiceImpl;
@@ -50,6 +51,7 @@ public class TraceModuleProvider extends ModuleProvider {
     private final TraceServiceModuleConfig moduleConfig;
     private SegmentParse.Producer segmentProducer;
     private SegmentParseV2.Producer segmentProducerV2;
+    private SegmentParsePipeline segmentParsePipeline;
 
     public TraceModuleProvider() {
         this.moduleConfig = new TraceServiceModuleConfig();
@@ -81,8 +83,9 @@ public class TraceModuleProvider extends ModuleProvider {
         listenerManager.add(new SegmentSpanListener.Factory(moduleConfig.getSampleRate()));
 
         segmentProducerV2 = new SegmentParseV2.Producer(getManager(), listenerManager);
+        segmentParsePipeline = new SegmentParsePipeline(segmentProducerV2, moduleConfig.getParserThreads(), moduleConfig.getParserBufferSize());
 
-        this.registerServiceImplementation(ISegmentParserService.class, new SegmentParserServiceImpl(segmentProducerV2));
+        this.registerServiceImplementation(ISegmentParserService.class, new SegmentParserServiceImpl(segmentParsePipeline));
     }
 
     @Override public void start() throws ModuleStartException {
@@ -91,18 +94,20 @@ public class TraceModuleProvider extends ModuleProvider {
         try {
 
             grpcHandlerRegister.addHandler(new TraceSegmentServiceHandler(segmentProducer));
-            grpcHandlerRegister.addHandler(new TraceSegmentReportServiceHandler(segmentProducerV2, getManager()));
+            grpcHandlerRegister.addHandler(new TraceSegmentReportServiceHandler(segmentParsePipeline, getManager()));
             jettyHandlerRegister.addHandler(new TraceSegmentServletHandler(segmentProducer));
 
             SegmentStandardizationWorker standardizationWorker = new SegmentStandardizationWorker(getManager(), segmentProducer,
                 moduleConfig.getBufferPath() + "v5", moduleConfig.getBufferOffsetMaxFileSize(), moduleConfig.getBufferDataMaxFileSize(), moduleConfig.isBufferFileCleanWhenRestart(),
-                false);
+                moduleConfig.isBufferMappedSegments(), false);
             segmentProducer.setStandardizationWorker(standardizationWorker);
 
             SegmentStandardizationWorker standardizationWorker2 = new SegmentStandardizationWorker(getManager(), segmentProducer,
                 moduleConfig.getBufferPath(), moduleConfig.getBufferOffsetMaxFileSize(), moduleConfig.getBufferDataMaxFileSize(), moduleConfig.isBufferFileCleanWhenRestart(),
-                true);
+                moduleConfig.isBufferMappedSegments(), true);
             segmentProducerV2.setStandardizationWorker(standardizationWorker2);
+
+            segmentParsePipeline.start(getManager());
         } catch (IOException e) {
             throw new ModuleStartException(e.getMessage(), e);
         }
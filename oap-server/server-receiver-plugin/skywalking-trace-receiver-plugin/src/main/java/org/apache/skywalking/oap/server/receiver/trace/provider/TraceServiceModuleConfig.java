@@ -29,9 +29,22 @@ public class TraceServiceModuleConfig extends ModuleConfig {
     @Setter @Getter private int bufferOffsetMaxFileSize;
     @Setter @Getter private int bufferDataMaxFileSize;
     @Setter @Getter private boolean bufferFileCleanWhenRestart;
+    /**
+     * Keep the buffer in the memory-mapped segment files, or in the length-delimited data files when false.
+     */
+    @Setter @Getter private boolean bufferMappedSegments = true;
     /**
      * The sample rate precision is 1/10000.
      * 10000 means 100% sample in default.
      */
     @Setter @Getter private int sampleRate = 10000;
+    /**
+     * The number of the threads parsing the v6 segments, 0 means the number of the cores.
+     */
+    @Setter @Getter private int parserThreads = 0;
+    /**
+     * The max number of the segments waiting for each parser thread. The gRPC threads wait when it is full, it is
+     * the backpressure of the pipeline rather than dropping the segments.
+     */
+    @Setter @Getter private int parserBufferSize = 10000;
 }
@@ -22,10 +22,11 @@ import io.grpc.stub.StreamObserver;
 import org.apache.skywalking.apm.network.common.Commands;
 import org.apache.skywalking.apm.network.language.agent.UpstreamSegment;
 import org.apache.skywalking.apm.network.language.agent.v2.TraceSegmentReportServiceGrpc;
+import org.apache.skywalking.oap.server.core.server.InboundFlowController;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.library.server.grpc.GRPCHandler;
 import org.apache.skywalking.oap.server.receiver.trace.provider.handler.v5.grpc.TraceSegmentServiceHandler;
-import org.apache.skywalking.oap.server.receiver.trace.provider.parser.SegmentParseV2;
+import org.apache.skywalking.oap.server.receiver.trace.provider.parser.SegmentParsePipeline;
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.SegmentSource;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
 import org.apache.skywalking.oap.server.telemetry.api.*;
@@ -36,17 +37,24 @@ public class TraceSegmentReportServiceHandler extends TraceSegmentReportServiceG
 
     private static final Logger logger = LoggerFactory.getLogger(TraceSegmentServiceHandler.class);
 
-    private final SegmentParseV2.Producer segmentProducer;
+    private final SegmentParsePipeline segmentParsePipeline;
     private HistogramMetric histogram;
 
-    public TraceSegmentReportServiceHandler(SegmentParseV2.Producer segmentProducer, ModuleManager moduleManager) {
-        this.segmentProducer = segmentProducer;
+    public TraceSegmentReportServiceHandler(SegmentParsePipeline segmentParsePipeline, ModuleManager moduleManager) {
+        this.segmentParsePipeline = segmentParsePipeline;
         MetricCreator metricCreator = moduleManager.find(TelemetryModule.NAME).provider().getService(MetricCreator.class);
         histogram = metricCreator.createHistogramMetric("trace_grpc_v6_in_latency", "The process latency of service mesh telemetry",
             MetricTag.EMPTY_KEY, MetricTag.EMPTY_VALUE);
     }
 
+    /**
+     * The segment is parsed by the {@link SegmentParsePipeline}, not by the gRPC thread. The next segment is requested
+     * from the agent after the current one is accepted by the pipeline, and it is delayed when the pipeline is under
+     * backpressure. So the agent is slowed down by the flow-control window of the stream, rather than
+     * blocking the gRPC threads.
+     */
     @Override public StreamObserver<UpstreamSegment> collect(StreamObserver<Commands> responseObserver) {
+        InboundFlowController flowController = new InboundFlowController(responseObserver, segmentParsePipeline.getBackpressure());
         return new StreamObserver<UpstreamSegment>() {
             @Override public void onNext(UpstreamSegment segment) {
                 if (logger.isDebugEnabled()) {
@@ -55,9 +63,10 @@ public class TraceSegmentReportServiceHandler extends TraceSegmentReportServiceG
 
                 HistogramMetric.Timer timer = histogram.createTimer();
                 try {
-                    segmentProducer.send(segment, SegmentSource.Agent);
+                    segmentParsePipeline.send(segment, SegmentSource.Agent);
                 } finally {
                     timer.finish();
+                    flowController.next();
                 }
             }
 
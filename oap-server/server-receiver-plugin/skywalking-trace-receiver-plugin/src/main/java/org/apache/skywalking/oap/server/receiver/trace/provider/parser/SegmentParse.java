@@ -22,6 +22,7 @@ import com.google.protobuf.InvalidProtocolBufferException;
 import java.util.*;
 import lombok.Setter;
 import org.apache.skywalking.apm.network.language.agent.*;
+import org.apache.skywalking.oap.server.core.register.worker.InventoryRegisterNotifier;
 import org.apache.skywalking.oap.server.library.buffer.*;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.library.util.TimeBucketUtils;
@@ -266,7 +267,13 @@ public class SegmentParse {
         @Override public boolean call(BufferData<UpstreamSegment> bufferData) {
             SegmentParse segmentParse = new SegmentParse(moduleManager, listenerManager);
             segmentParse.setStandardizationWorker(standardizationWorker);
-            boolean parseResult = segmentParse.parse(bufferData, Source.Buffer);
+            boolean parseResult;
+            InventoryRegisterNotifier.INSTANCE.beginCollect();
+            try {
+                parseResult = segmentParse.parse(bufferData, Source.Buffer);
+            } finally {
+                bufferData.setAwaitedKeys(InventoryRegisterNotifier.INSTANCE.endCollect());
+            }
             if (parseResult) {
                 segmentParse.TRACE_BUFFER_FILE_OUT.inc();
             }
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.receiver.trace.provider.parser;
+
+import java.util.List;
+import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.*;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.*;
+import org.apache.skywalking.apm.commons.datacarrier.partition.IDataPartitioner;
+import org.apache.skywalking.apm.network.language.agent.*;
+import org.apache.skywalking.oap.server.core.worker.*;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.*;
+import org.slf4j.*;
+
+/**
+ * Move the segment analysis off the gRPC threads. The received segments are put into a bounded carrier, and parsed by
+ * the parser threads. The carrier has one channel per parser thread, and the segments are partitioned by the first
+ * global trace id, so the segments of one trace are parsed in the received order, by the same thread.
+ *
+ * The producers wait when the channel is full, and the {@link Backpressure} of the pipeline is raised then, which
+ * slows down the agents through the inbound flow control of the streams. The analysis workers block the parser threads
+ * when their carriers are full, so the pipeline fills up and raises the backpressure too.
+ *
+ * The channel is BLOCKING on purpose: a segment is never dropped by the pipeline, and the gRPC thread sending into a
+ * full channel waits until the parser thread frees a slot. The inbound flow control stops requesting more segments
+ * before that in most cases, so only the segments already received block the gRPC threads. Raise the parserBufferSize
+ * if the enqueue waiting latency of the carrier grows.
+ */
+public class SegmentParsePipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentParsePipeline.class);
+
+    private static final String CARRIER_NAME = "SegmentParsePipeline";
+
+    private final SegmentParseV2.Producer segmentProducer;
+    private final int parserThreads;
+    private final DataCarrier<SegmentParseTask> dataCarrier;
+    private final Backpressure backpressure;
+    private DataCarrierMonitor carrierMonitor;
+    private HistogramMetric queueLatency;
+    private HistogramMetric parseLatency;
+
+    /**
+     * @param parserThreads the number of parser threads, 0 means the number of the cores.
+     * @param bufferSize the max number of the segments waiting in each channel.
+     */
+    public SegmentParsePipeline(SegmentParseV2.Producer segmentProducer, int parserThreads, int bufferSize) {
+        this.segmentProducer = segmentProducer;
+        this.parserThreads = parserThreads > 0 ? parserThreads : Runtime.getRuntime().availableProcessors();
+        this.dataCarrier = new DataCarrier<>(CARRIER_NAME, this.parserThreads, bufferSize, BufferType.RING);
+        this.dataCarrier.setBufferStrategy(BufferStrategy.BLOCKING);
+        this.dataCarrier.setPartitioner(new TraceIdPartitioner());
+        this.backpressure = new Backpressure();
+    }
+
+    /**
+     * Start the parser threads, called in the start stage of the module, when the telemetry is ready.
+     */
+    public void start(ModuleManager moduleManager) {
+        carrierMonitor = new DataCarrierMonitor(moduleManager, CARRIER_NAME, backpressure);
+        carrierMonitor.monitor(dataCarrier);
+
+        MetricCreator metricCreator = moduleManager.find(TelemetryModule.NAME).provider().getService(MetricCreator.class);
+        MetricTag.Keys keys = new MetricTag.Keys("stage");
+        queueLatency = metricCreator.createHistogramMetric("trace_pipeline_stage_latency", "The latency of each stage in the segment parse pipeline",
+            keys, new MetricTag.Values("queue"));
+        parseLatency = metricCreator.createHistogramMetric("trace_pipeline_stage_latency", "The latency of each stage in the segment parse pipeline",
+            keys, new MetricTag.Values("parse"));
+
+        dataCarrier.consume(new ParserConsumer(), parserThreads);
+    }
+
+    /**
+     * Stop the parser threads, the segments already in the pipeline are parsed before they exit.
+     */
+    public void shutdown() {
+        dataCarrier.shutdownConsumers();
+        carrierMonitor.close();
+    }
+
+    /**
+     * Put the segment into the pipeline, wait when the channel of its trace is full.
+     */
+    public void send(UpstreamSegment segment, SegmentSource source) {
+        dataCarrier.produce(new SegmentParseTask(segment, source));
+    }
+
+    public Backpressure getBackpressure() {
+        return backpressure;
+    }
+
+    private static class SegmentParseTask {
+        private final UpstreamSegment segment;
+        private final SegmentSource source;
+        private final long createTime;
+
+        private SegmentParseTask(UpstreamSegment segment, SegmentSource source) {
+            this.segment = segment;
+            this.source = source;
+            this.createTime = System.nanoTime();
+        }
+    }
+
+    /**
+     * Hash the id parts of the first global trace id. The segments without trace id are rolled into the channels.
+     */
+    private static class TraceIdPartitioner implements IDataPartitioner<SegmentParseTask> {
+        private volatile int rolling = 0;
+
+        @Override public int partition(int total, SegmentParseTask task) {
+            List<UniqueId> traceIds = task.segment.getGlobalTraceIdsList();
+            if (traceIds.isEmpty()) {
+                return Math.abs(rolling++ % total);
+            }
+
+            long hash = 17;
+            for (Long idPart : traceIds.get(0).getIdPartsList()) {
+                hash = hash * 31 + idPart;
+            }
+            hash ^= hash >>> 32;
+            return Math.abs((int)hash % total);
+        }
+
+        @Override public int maxRetryCount() {
+            return 1;
+        }
+    }
+
+    private class ParserConsumer implements IBatchConsumer<SegmentParseTask> {
+
+        @Override public void init() {
+
+        }
+
+        @Override public void consume(DataBatch<SegmentParseTask> batch) {
+            carrierMonitor.onConsume(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                SegmentParseTask task = batch.get(i);
+                queueLatency.observe((System.nanoTime() - task.createTime) / 1.0E9D);
+
+                HistogramMetric.Timer timer = parseLatency.createTimer();
+                try {
+                    segmentProducer.send(task.segment, task.source);
+                } catch (Throwable t) {
+                    logger.error(t.getMessage(), t);
+                } finally {
+                    timer.finish();
+                }
+            }
+        }
+
+        @Override public void onError(DataBatch<SegmentParseTask> batch, Throwable t) {
+            logger.error(t.getMessage(), t);
+        }
+
+        @Override public void onExit() {
+        }
+    }
+}
@@ -23,6 +23,7 @@ import java.util.*;
 import lombok.Setter;
 import org.apache.skywalking.apm.network.language.agent.*;
 import org.apache.skywalking.apm.network.language.agent.v2.SegmentObject;
+import org.apache.skywalking.oap.server.core.register.worker.InventoryRegisterNotifier;
 import org.apache.skywalking.oap.server.library.buffer.*;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.library.util.TimeBucketUtils;
@@ -36,6 +37,9 @@ import org.slf4j.*;
 /**
  * SegmentParseV2 is a replication of SegmentParse, but be compatible with v2 trace protocol.
  *
+ * The parser and its span listeners are reused by one thread, see {@link Producer}. They are reset before each
+ * segment, so no service is looked up and few objects are created in the steady state.
+ *
  * @author wusheng
  */
 public class SegmentParseV2 {
@@ -54,11 +58,8 @@ public class SegmentParseV2 {
     private SegmentParseV2(ModuleManager moduleManager, SegmentParserListenerManager listenerManager) {
         this.moduleManager = moduleManager;
         this.listenerManager = listenerManager;
-        this.spanListeners = new LinkedList<>();
+        this.spanListeners = new ArrayList<>();
         this.segmentCoreInfo = new SegmentCoreInfo();
-        this.segmentCoreInfo.setStartTime(Long.MAX_VALUE);
-        this.segmentCoreInfo.setEndTime(Long.MIN_VALUE);
-        this.segmentCoreInfo.setV2(true);
 
         if (TRACE_BUFFER_FILE_RETRY == null) {
             MetricCreator metricCreator = moduleManager.find(TelemetryModule.NAME).provider().getService(MetricCreator.class);
@@ -72,19 +73,20 @@ public class SegmentParseV2 {
     }
 
     public boolean parse(BufferData<UpstreamSegment> bufferData, SegmentSource source) {
-        createSpanListeners();
+        reset();
 
         try {
             UpstreamSegment upstreamSegment = bufferData.getMessageType();
 
             List<UniqueId> traceIds = upstreamSegment.getGlobalTraceIdsList();
 
-            if (bufferData.getV2Segment() == null) {
-                bufferData.setV2Segment(parseBinarySegment(upstreamSegment));
+            SegmentObject segmentObject = bufferData.getV2Segment();
+            if (segmentObject == null) {
+                segmentObject = parseBinarySegment(upstreamSegment);
+                bufferData.setV2Segment(segmentObject);
             }
-            SegmentObject segmentObject = parseBinarySegment(upstreamSegment);
 
-            SegmentDecorator segmentDecorator = new SegmentDecorator(segmentObject);
+            SegmentDecorator segmentDecorator = new SegmentDecorator(segmentObject, upstreamSegment.getSegment());
 
             if (!preBuild(traceIds, segmentDecorator)) {
                 if (logger.isDebugEnabled()) {
@@ -200,80 +202,124 @@ public class SegmentParseV2 {
         standardizationWorker.in(standardization);
     }
 
+    private void reset() {
+        segmentCoreInfo.setSegmentId(null);
+        segmentCoreInfo.setServiceId(0);
+        segmentCoreInfo.setServiceInstanceId(0);
+        segmentCoreInfo.setStartTime(Long.MAX_VALUE);
+        segmentCoreInfo.setEndTime(Long.MIN_VALUE);
+        segmentCoreInfo.setError(false);
+        segmentCoreInfo.setMinuteTimeBucket(0);
+        segmentCoreInfo.setDataBinary(null);
+        segmentCoreInfo.setV2(true);
+
+        if (spanListeners.isEmpty()) {
+            createSpanListeners();
+        } else {
+            for (int i = 0; i < spanListeners.size(); i++) {
+                spanListeners.get(i).reset();
+            }
+        }
+    }
+
     private void notifyListenerToBuild() {
-        spanListeners.forEach(SpanListener::build);
+        for (int i = 0; i < spanListeners.size(); i++) {
+            spanListeners.get(i).build();
+        }
     }
 
     private void notifyExitListener(SpanDecorator spanDecorator) {
-        spanListeners.forEach(listener -> {
+        for (int i = 0; i < spanListeners.size(); i++) {
+            SpanListener listener = spanListeners.get(i);
             if (listener.containsPoint(SpanListener.Point.Exit)) {
                 ((ExitSpanListener)listener).parseExit(spanDecorator, segmentCoreInfo);
             }
-        });
+        }
     }
 
     private void notifyEntryListener(SpanDecorator spanDecorator) {
-        spanListeners.forEach(listener -> {
+        for (int i = 0; i < spanListeners.size(); i++) {
+            SpanListener listener = spanListeners.get(i);
             if (listener.containsPoint(SpanListener.Point.Entry)) {
                 ((EntrySpanListener)listener).parseEntry(spanDecorator, segmentCoreInfo);
             }
-        });
+        }
     }
 
     private void notifyLocalListener(SpanDecorator spanDecorator) {
-        spanListeners.forEach(listener -> {
+        for (int i = 0; i < spanListeners.size(); i++) {
+            SpanListener listener = spanListeners.get(i);
             if (listener.containsPoint(SpanListener.Point.Local)) {
                 ((LocalSpanListener)listener).parseLocal(spanDecorator, segmentCoreInfo);
             }
-        });
+        }
     }
 
     private void notifyFirstListener(SpanDecorator spanDecorator) {
-        spanListeners.forEach(listener -> {
+        for (int i = 0; i < spanListeners.size(); i++) {
+            SpanListener listener = spanListeners.get(i);
             if (listener.containsPoint(SpanListener.Point.First)) {
                 ((FirstSpanListener)listener).parseFirst(spanDecorator, segmentCoreInfo);
             }
-        });
+        }
     }
 
     private void notifyGlobalsListener(UniqueId uniqueId) {
-        spanListeners.forEach(listener -> {
+        for (int i = 0; i < spanListeners.size(); i++) {
+            SpanListener listener = spanListeners.get(i);
             if (listener.containsPoint(SpanListener.Point.TraceIds)) {
                 ((GlobalTraceIdsListener)listener).parseGlobalTraceId(uniqueId, segmentCoreInfo);
             }
-        });
+        }
     }
 
     private void createSpanListeners() {
         listenerManager.getSpanListenerFactories().forEach(spanListenerFactory -> spanListeners.add(spanListenerFactory.create(moduleManager)));
     }
 
+    /**
+     * Each thread parses the segments by its own parser, which is created at the first segment of the thread. The
+     * threads are the parser threads of the {@link SegmentParsePipeline} and the buffer file reader, so the number of
+     * the parsers is bounded.
+     */
     public static class Producer implements DataStreamReader.CallBack<UpstreamSegment> {
 
         @Setter private SegmentStandardizationWorker standardizationWorker;
         private final ModuleManager moduleManager;
         private final SegmentParserListenerManager listenerManager;
+        private final ThreadLocal<SegmentParseV2> parsers;
 
         public Producer(ModuleManager moduleManager, SegmentParserListenerManager listenerManager) {
             this.moduleManager = moduleManager;
             this.listenerManager = listenerManager;
+            this.parsers = ThreadLocal.withInitial(() -> new SegmentParseV2(this.moduleManager, this.listenerManager));
         }
 
         public void send(UpstreamSegment segment, SegmentSource source) {
-            SegmentParseV2 segmentParse = new SegmentParseV2(moduleManager, listenerManager);
-            segmentParse.setStandardizationWorker(standardizationWorker);
+            SegmentParseV2 segmentParse = parser();
             segmentParse.parse(new BufferData<>(segment), source);
         }
 
         @Override public boolean call(BufferData<UpstreamSegment> bufferData) {
-            SegmentParseV2 segmentParse = new SegmentParseV2(moduleManager, listenerManager);
-            segmentParse.setStandardizationWorker(standardizationWorker);
-            boolean parseResult = segmentParse.parse(bufferData, SegmentSource.Buffer);
+            SegmentParseV2 segmentParse = parser();
+            boolean parseResult;
+            InventoryRegisterNotifier.INSTANCE.beginCollect();
+            try {
+                parseResult = segmentParse.parse(bufferData, SegmentSource.Buffer);
+            } finally {
+                bufferData.setAwaitedKeys(InventoryRegisterNotifier.INSTANCE.endCollect());
+            }
             if (parseResult) {
                 segmentParse.TRACE_BUFFER_FILE_OUT.inc();
             }
 
             return parseResult;
         }
+
+        private SegmentParseV2 parser() {
+            SegmentParseV2 segmentParse = parsers.get();
+            segmentParse.setStandardizationWorker(standardizationWorker);
+            return segmentParse;
+        }
     }
 }
@@ -24,15 +24,14 @@ import org.apache.skywalking.apm.network.language.agent.UpstreamSegment;
  * @author wusheng
  */
 public class SegmentParserServiceImpl implements ISegmentParserService {
-    private final SegmentParseV2.Producer segmentProducer;
+    private final SegmentParsePipeline segmentParsePipeline;
 
-    public SegmentParserServiceImpl(
-        SegmentParseV2.Producer segmentProducer) {
-        this.segmentProducer = segmentProducer;
+    public SegmentParserServiceImpl(SegmentParsePipeline segmentParsePipeline) {
+        this.segmentParsePipeline = segmentParsePipeline;
     }
 
     @Override
     public void send(UpstreamSegment segment) {
-        segmentProducer.send(segment,SegmentSource.Agent);
+        segmentParsePipeline.send(segment, SegmentSource.Agent);
     }
 }
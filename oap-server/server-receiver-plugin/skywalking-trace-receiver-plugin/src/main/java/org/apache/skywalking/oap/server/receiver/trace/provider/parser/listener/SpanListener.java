@@ -24,6 +24,12 @@ package org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener
 public interface SpanListener {
     void build();
 
+    /**
+     * Clear the state of the last segment. The listener is reused by the parser of one thread, and reset before each
+     * segment.
+     */
+    void reset();
+
     boolean containsPoint(Point point);
 
     enum Point {
@@ -180,6 +180,13 @@ public class MultiScopesSpanListener implements EntrySpanListener, ExitSpanListe
         sourceBuilder.setDestEndpointName(endpointInventoryCache.get(sourceBuilder.getDestEndpointId()).getName());
     }
 
+    @Override public void reset() {
+        entrySourceBuilders.clear();
+        exitSourceBuilders.clear();
+        entrySpanDecorator = null;
+        minuteTimeBucket = 0;
+    }
+
     @Override public void build() {
         entrySourceBuilders.forEach(entrySourceBuilder -> {
             entrySourceBuilder.setTimeBucket(minuteTimeBucket);
@@ -45,7 +45,7 @@ public class SegmentSpanListener implements FirstSpanListener, EntrySpanListener
 
     private final SourceReceiver sourceReceiver;
     private final TraceSegmentSampler sampler;
-    private final Segment segment = new Segment();
+    private Segment segment = new Segment();
     private final EndpointInventoryCache serviceNameCacheService;
     private SAMPLE_STATUS sampleStatus = SAMPLE_STATUS.UNKNOWN;
     private int entryEndpointId = 0;
@@ -133,6 +133,13 @@ public class SegmentSpanListener implements FirstSpanListener, EntrySpanListener
         sourceReceiver.receive(segment);
     }
 
+    @Override public void reset() {
+        segment = new Segment();
+        sampleStatus = SAMPLE_STATUS.UNKNOWN;
+        entryEndpointId = 0;
+        firstEndpointId = 0;
+    }
+
     private enum SAMPLE_STATUS {
         UNKNOWN, SAMPLED, IGNORE
     }
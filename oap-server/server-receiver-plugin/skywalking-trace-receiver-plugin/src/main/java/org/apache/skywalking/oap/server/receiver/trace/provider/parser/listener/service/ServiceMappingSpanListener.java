@@ -79,6 +79,10 @@ public class ServiceMappingSpanListener implements EntrySpanListener {
         });
     }
 
+    @Override public void reset() {
+        serviceMappings.clear();
+    }
+
     public static class Factory implements SpanListenerFactory {
 
         @Override public SpanListener create(ModuleManager moduleManager) {
@@ -21,7 +21,9 @@ package org.apache.skywalking.oap.server.receiver.trace.provider.parser.standard
 import com.google.common.base.Strings;
 import org.apache.skywalking.oap.server.core.*;
 import org.apache.skywalking.oap.server.core.cache.ServiceInstanceInventoryCache;
+import org.apache.skywalking.oap.server.core.register.EndpointInventory;
 import org.apache.skywalking.oap.server.core.register.service.*;
+import org.apache.skywalking.oap.server.core.register.worker.InventoryRegisterNotifier;
 import org.apache.skywalking.oap.server.core.source.DetectPoint;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.decorator.ReferenceDecorator;
@@ -33,6 +35,7 @@ import org.slf4j.*;
 public class ReferenceIdExchanger implements IdExchanger<ReferenceDecorator> {
 
     private static final Logger logger = LoggerFactory.getLogger(ReferenceIdExchanger.class);
+    private static final DetectPoint[] AWAITED_DETECT_POINTS = {DetectPoint.SERVER, DetectPoint.CLIENT, DetectPoint.UNRECOGNIZED};
 
     private static ReferenceIdExchanger EXCHANGER;
     private final IEndpointInventoryRegister endpointInventoryRegister;
@@ -117,6 +120,8 @@ public class ReferenceIdExchanger implements IdExchanger<ReferenceDecorator> {
      *
      * If agent does the exchange, then always use endpoint id.
      *
+     * The endpoint is not created here, if it is not found, wait for it being registered by the other segments.
+     *
      * @param serviceId
      * @param endpointName
      * @return
@@ -127,6 +132,11 @@ public class ReferenceIdExchanger implements IdExchanger<ReferenceDecorator> {
             endpointId = endpointInventoryRegister.get(serviceId, endpointName, DetectPoint.CLIENT.ordinal());
             if (endpointId == Const.NONE) {
                 endpointId = endpointInventoryRegister.get(serviceId, endpointName, DetectPoint.UNRECOGNIZED.ordinal());
+                if (endpointId == Const.NONE) {
+                    for (DetectPoint detectPoint : AWAITED_DETECT_POINTS) {
+                        InventoryRegisterNotifier.INSTANCE.await(EndpointInventory.MODEL_NAME, EndpointInventory.buildId(serviceId, endpointName, detectPoint.ordinal()));
+                    }
+                }
             }
         }
         return endpointId;
@@ -19,10 +19,11 @@
 package org.apache.skywalking.oap.server.receiver.trace.provider.parser.standardization;
 
 import java.io.IOException;
-import java.util.List;
+import java.util.*;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
 import org.apache.skywalking.apm.network.language.agent.UpstreamSegment;
+import org.apache.skywalking.oap.server.core.register.worker.InventoryRegisterNotifier;
 import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
 import org.apache.skywalking.oap.server.library.buffer.BufferStream;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
@@ -43,18 +44,21 @@ public class SegmentStandardizationWorker extends AbstractWorker<SegmentStandard
 
     public SegmentStandardizationWorker(ModuleManager moduleManager, SegmentParse.Producer segmentParseCreator,
         String path,
-        int offsetFileMaxSize, int dataFileMaxSize, boolean cleanWhenRestart, boolean isV6) throws IOException {
+        int offsetFileMaxSize, int dataFileMaxSize, boolean cleanWhenRestart, boolean mappedSegments,
+        boolean isV6) throws IOException {
         super(Integer.MAX_VALUE);
 
         BufferStream.Builder<UpstreamSegment> builder = new BufferStream.Builder<>(path);
         builder.cleanWhenRestart(cleanWhenRestart);
         builder.dataFileMaxSize(dataFileMaxSize);
         builder.offsetFileMaxSize(offsetFileMaxSize);
+        builder.mappedSegments(mappedSegments);
         builder.parser(UpstreamSegment.parser());
         builder.callBack(segmentParseCreator);
 
         BufferStream<UpstreamSegment> stream = builder.build();
         stream.initialize();
+        InventoryRegisterNotifier.INSTANCE.addListener((modelName, id) -> stream.wakeup(InventoryRegisterNotifier.buildKey(modelName, id)));
 
         dataCarrier = new DataCarrier<>(1, 1024);
         dataCarrier.consume(new Consumer(stream), 1);
@@ -84,10 +88,12 @@ public class SegmentStandardizationWorker extends AbstractWorker<SegmentStandard
 
         @Override
         public void consume(List<SegmentStandardization> data) {
+            List<UpstreamSegment> segments = new ArrayList<>(data.size());
             for (SegmentStandardization aData : data) {
                 traceBufferFileIn.inc();
-                stream.write(aData.getUpstreamSegment());
+                segments.add(aData.getUpstreamSegment());
             }
+            stream.write(segments);
         }
 
         @Override
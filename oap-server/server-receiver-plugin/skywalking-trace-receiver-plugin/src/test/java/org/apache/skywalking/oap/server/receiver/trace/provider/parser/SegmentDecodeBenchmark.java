@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.receiver.trace.provider.parser;
+
+import com.google.protobuf.*;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.network.common.KeyStringValuePair;
+import org.apache.skywalking.apm.network.language.agent.*;
+import org.apache.skywalking.apm.network.language.agent.v2.*;
+import org.apache.skywalking.oap.server.library.buffer.BufferData;
+import org.apache.skywalking.oap.server.receiver.trace.provider.parser.decorator.SegmentDecorator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+
+/**
+ * Compare the decoding cost per segment in {@link SegmentParseV2}, before and after the segment is decoded once.
+ *
+ * Before, the segment was parsed twice from the upstream bytes, even when it was retried from the buffer file with
+ * the cached object, and the decorator was serialized again for the data binary. After, the cached object is reused,
+ * and the upstream bytes are kept as the data binary.
+ *
+ * The corpus is a set of segments in different sizes, from a single entry span to a deep call chain with tags, logs
+ * and references.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class SegmentDecodeBenchmark {
+
+    private static final int CORPUS_SIZE = 64;
+
+    private UpstreamSegment[] corpus;
+    private BufferData<UpstreamSegment>[] buffered;
+    private int index;
+
+    @Setup
+    public void setup() throws InvalidProtocolBufferException {
+        corpus = new UpstreamSegment[CORPUS_SIZE];
+        buffered = new BufferData[CORPUS_SIZE];
+        for (int i = 0; i < CORPUS_SIZE; i++) {
+            corpus[i] = createSegment(i, 1 + i % 40);
+            buffered[i] = new BufferData<>(corpus[i]);
+            buffered[i].setV2Segment(SegmentObject.parseFrom(corpus[i].getSegment()));
+        }
+    }
+
+    @Benchmark
+    public byte[] agentBefore() throws InvalidProtocolBufferException {
+        return decodeBefore(new BufferData<>(next()));
+    }
+
+    @Benchmark
+    public byte[] agentAfter() throws InvalidProtocolBufferException {
+        return decodeAfter(new BufferData<>(next()));
+    }
+
+    @Benchmark
+    public byte[] bufferBefore() throws InvalidProtocolBufferException {
+        return decodeBefore(buffered[nextIndex()]);
+    }
+
+    @Benchmark
+    public byte[] bufferAfter() throws InvalidProtocolBufferException {
+        return decodeAfter(buffered[nextIndex()]);
+    }
+
+    private static byte[] decodeBefore(BufferData<UpstreamSegment> bufferData) throws InvalidProtocolBufferException {
+        UpstreamSegment upstreamSegment = bufferData.getMessageType();
+        if (bufferData.getV2Segment() == null) {
+            bufferData.setV2Segment(SegmentObject.parseFrom(upstreamSegment.getSegment()));
+        }
+        SegmentObject segmentObject = SegmentObject.parseFrom(upstreamSegment.getSegment());
+        return new SegmentDecorator(segmentObject).toByteArray();
+    }
+
+    private static byte[] decodeAfter(BufferData<UpstreamSegment> bufferData) throws InvalidProtocolBufferException {
+        UpstreamSegment upstreamSegment = bufferData.getMessageType();
+        SegmentObject segmentObject = bufferData.getV2Segment();
+        if (segmentObject == null) {
+            segmentObject = SegmentObject.parseFrom(upstreamSegment.getSegment());
+            bufferData.setV2Segment(segmentObject);
+        }
+        return new SegmentDecorator(segmentObject, upstreamSegment.getSegment()).toByteArray();
+    }
+
+    private UpstreamSegment next() {
+        return corpus[nextIndex()];
+    }
+
+    private int nextIndex() {
+        index = (index + 1) % CORPUS_SIZE;
+        return index;
+    }
+
+    private static UpstreamSegment createSegment(int seed, int spanCount) {
+        UniqueId.Builder traceId = UniqueId.newBuilder().addIdParts(seed).addIdParts(seed * 31L).addIdParts(System.currentTimeMillis());
+        UniqueId.Builder segmentId = UniqueId.newBuilder().addIdParts(seed).addIdParts(seed * 17L).addIdParts(System.currentTimeMillis());
+
+        SegmentObject.Builder segment = SegmentObject.newBuilder();
+        segment.setTraceSegmentId(segmentId);
+        segment.setServiceId(seed % 10 + 2);
+        segment.setServiceInstanceId(seed % 30 + 2);
+
+        long startTime = System.currentTimeMillis();
+        for (int i = 0; i < spanCount; i++) {
+            SpanObjectV2.Builder span = SpanObjectV2.newBuilder();
+            span.setSpanId(i);
+            span.setParentSpanId(i - 1);
+            span.setStartTime(startTime + i);
+            span.setEndTime(startTime + spanCount * 2 - i);
+            span.setComponentId(1 + i % 20);
+            span.setIsError(i % 13 == 0);
+            if (i == 0) {
+                span.setSpanType(SpanType.Entry);
+                span.setSpanLayer(SpanLayer.Http);
+                span.setOperationName("/dubbox-case/case/dubbox-rest/" + seed);
+                span.addRefs(SegmentReference.newBuilder()
+                    .setRefType(RefType.CrossProcess)
+                    .setParentTraceSegmentId(UniqueId.newBuilder().addIdParts(seed + 1).addIdParts(seed * 7L).addIdParts(startTime))
+                    .setParentSpanId(2)
+                    .setParentServiceInstanceId(3)
+                    .setNetworkAddress("10.0.0." + seed + ":8080")
+                    .setEntryServiceInstanceId(3)
+                    .setEntryEndpoint("/dubbox-case/case/dubbox-rest")
+                    .setParentEndpoint("org.skywaking.apm.testcase.dubbo.services.GreetService.doBusiness()"));
+            } else if (i == spanCount - 1) {
+                span.setSpanType(SpanType.Exit);
+                span.setSpanLayer(SpanLayer.Database);
+                span.setOperationName("Mysql/JDBI/PreparedStatement/executeQuery");
+                span.setPeer("mysql-host:3306");
+                span.addTags(KeyStringValuePair.newBuilder().setKey("db.type").setValue("sql"));
+                span.addTags(KeyStringValuePair.newBuilder().setKey("db.statement").setValue("SELECT id, name, status FROM orders WHERE customer_id = ? AND created > ?"));
+            } else {
+                span.setSpanType(SpanType.Local);
+                span.setOperationName("org.apache.skywalking.Local.do" + i);
+            }
+            if (span.getIsError()) {
+                span.addLogs(Log.newBuilder().setTime(startTime + i)
+                    .addData(KeyStringValuePair.newBuilder().setKey("event").setValue("error"))
+                    .addData(KeyStringValuePair.newBuilder().setKey("error.kind").setValue("java.lang.IllegalStateException"))
+                    .addData(KeyStringValuePair.newBuilder().setKey("stack").setValue("java.lang.IllegalStateException: mock\n\tat org.apache.skywalking.Local.do(Local.java:" + i + ")")));
+            }
+            segment.addSpans(span);
+        }
+
+        return UpstreamSegment.newBuilder().addGlobalTraceIds(traceId).setSegment(segment.build().toByteString()).build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(SegmentDecodeBenchmark.class.getName())
+            .forks(1)
+            .warmupIterations(5)
+            .measurementIterations(5)
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.receiver.trace.provider.parser;
+
+import com.google.protobuf.ByteString;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.skywalking.apm.network.language.agent.*;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.*;
+import org.junit.*;
+
+import static org.mockito.Mockito.*;
+
+public class SegmentParsePipelineTestCase {
+
+    private static final int TRACES = 8;
+    private static final int SEGMENTS_PER_TRACE = 50;
+
+    private ModuleManager moduleManager;
+    private List<CountingHistogram> histograms;
+    private Map<String, List<Integer>> parsedOrder;
+    private Map<String, Set<String>> parsedThreads;
+    private AtomicInteger parsed;
+    private SegmentParseV2.Producer producer;
+
+    @Before
+    public void init() {
+        histograms = new CopyOnWriteArrayList<>();
+        MetricCreator metricCreator = mock(MetricCreator.class);
+        when(metricCreator.createGauge(anyString(), anyString(), any(), any())).thenReturn(mock(GaugeMetric.class));
+        when(metricCreator.createCounter(anyString(), anyString(), any(), any())).thenReturn(mock(CounterMetric.class));
+        when(metricCreator.createHistogramMetric(anyString(), anyString(), any(), any())).thenAnswer(invocation -> {
+            CountingHistogram histogram = new CountingHistogram((String)invocation.getArguments()[0]);
+            histograms.add(histogram);
+            return histogram;
+        });
+        moduleManager = mock(ModuleManager.class, RETURNS_DEEP_STUBS);
+        when(moduleManager.find(TelemetryModule.NAME).provider().getService(MetricCreator.class)).thenReturn(metricCreator);
+
+        parsedOrder = new ConcurrentHashMap<>();
+        parsedThreads = new ConcurrentHashMap<>();
+        parsed = new AtomicInteger();
+        producer = mock(SegmentParseV2.Producer.class);
+        doAnswer(invocation -> {
+            UpstreamSegment segment = (UpstreamSegment)invocation.getArguments()[0];
+            String[] traceAndSeq = segment.getSegment().toStringUtf8().split("-");
+            parsedOrder.computeIfAbsent(traceAndSeq[0], trace -> new CopyOnWriteArrayList<>()).add(Integer.parseInt(traceAndSeq[1]));
+            parsedThreads.computeIfAbsent(traceAndSeq[0], trace -> new CopyOnWriteArraySet<>()).add(Thread.currentThread().getName());
+            parsed.incrementAndGet();
+            return null;
+        }).when(producer).send(any(UpstreamSegment.class), any(SegmentSource.class));
+    }
+
+    @Test
+    public void testPartitionByTraceId() throws InterruptedException {
+        SegmentParsePipeline pipeline = new SegmentParsePipeline(producer, 4, 16);
+        pipeline.start(moduleManager);
+
+        for (int seq = 0; seq < SEGMENTS_PER_TRACE; seq++) {
+            for (int trace = 0; trace < TRACES; trace++) {
+                pipeline.send(segment(trace, seq), SegmentSource.Agent);
+            }
+        }
+        waitParsed(TRACES * SEGMENTS_PER_TRACE);
+        pipeline.shutdown();
+
+        Assert.assertEquals(TRACES, parsedOrder.size());
+        Set<String> allThreads = new HashSet<>();
+        for (int trace = 0; trace < TRACES; trace++) {
+            String traceId = String.valueOf(trace);
+            // The segments of one trace are parsed by the same thread, in the received order.
+            Assert.assertEquals(1, parsedThreads.get(traceId).size());
+            allThreads.addAll(parsedThreads.get(traceId));
+            List<Integer> order = parsedOrder.get(traceId);
+            Assert.assertEquals(SEGMENTS_PER_TRACE, order.size());
+            for (int seq = 0; seq < SEGMENTS_PER_TRACE; seq++) {
+                Assert.assertEquals(seq, order.get(seq).intValue());
+            }
+        }
+        Assert.assertTrue(allThreads.size() > 1);
+    }
+
+    @Test
+    public void testStageLatency() throws InterruptedException {
+        SegmentParsePipeline pipeline = new SegmentParsePipeline(producer, 2, 16);
+        pipeline.start(moduleManager);
+
+        for (int seq = 0; seq < 10; seq++) {
+            pipeline.send(segment(0, seq), SegmentSource.Agent);
+        }
+        waitParsed(10);
+        pipeline.shutdown();
+
+        int stageHistograms = 0;
+        for (CountingHistogram histogram : histograms) {
+            if ("trace_pipeline_stage_latency".equals(histogram.name)) {
+                stageHistograms++;
+                // The queue stage is observed before the parse, the parse stage right after it.
+                for (int i = 0; i < 50 && histogram.count.get() < 10; i++) {
+                    TimeUnit.MILLISECONDS.sleep(10);
+                }
+                Assert.assertEquals(10, histogram.count.get());
+            }
+        }
+        Assert.assertEquals(2, stageHistograms);
+    }
+
+    @Test
+    public void testShutdown() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            blocked.countDown();
+            release.await();
+            parsed.incrementAndGet();
+            return null;
+        }).when(producer).send(any(UpstreamSegment.class), any(SegmentSource.class));
+
+        SegmentParsePipeline pipeline = new SegmentParsePipeline(producer, 1, 16);
+        pipeline.start(moduleManager);
+        pipeline.send(segment(0, 0), SegmentSource.Agent);
+        Assert.assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        for (int seq = 1; seq < 10; seq++) {
+            pipeline.send(segment(0, seq), SegmentSource.Agent);
+        }
+
+        // The segments already in the pipeline are parsed before the parser thread exits.
+        pipeline.shutdown();
+        release.countDown();
+        waitParsed(10);
+        Assert.assertEquals(10, parsed.get());
+    }
+
+    private void waitParsed(int expected) throws InterruptedException {
+        for (int i = 0; i < 500 && parsed.get() < expected; i++) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        Assert.assertEquals(expected, parsed.get());
+    }
+
+    private UpstreamSegment segment(int trace, int seq) {
+        return UpstreamSegment.newBuilder()
+            .addGlobalTraceIds(UniqueId.newBuilder().addIdParts(trace * 7919L).addIdParts(trace).addIdParts(trace * 31L))
+            .setSegment(ByteString.copyFromUtf8(trace + "-" + seq))
+            .build();
+    }
+
+    private static class CountingHistogram extends HistogramMetric {
+        private final String name;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private CountingHistogram(String name) {
+            this.name = name;
+        }
+
+        @Override public void observe(double value) {
+            count.incrementAndGet();
+        }
+    }
+}
@@ -40,6 +40,8 @@ public class StorageModuleElasticsearchConfig extends ModuleConfig {
     private int bulkSize = 20;
     private int flushInterval = 10;
     private int concurrentRequests = 2;
+    private int bulkRetryTimeout = 300;
+    private int bulkRetryBackoff = 100;
 
     int getIndexShardsNumber() {
         return indexShardsNumber;
@@ -136,4 +138,20 @@ public class StorageModuleElasticsearchConfig extends ModuleConfig {
     public void setConcurrentRequests(int concurrentRequests) {
         this.concurrentRequests = concurrentRequests == 0 ? 2 : concurrentRequests;
     }
+
+    public int getBulkRetryTimeout() {
+        return bulkRetryTimeout;
+    }
+
+    public void setBulkRetryTimeout(int bulkRetryTimeout) {
+        this.bulkRetryTimeout = bulkRetryTimeout;
+    }
+
+    public int getBulkRetryBackoff() {
+        return bulkRetryBackoff;
+    }
+
+    public void setBulkRetryBackoff(int bulkRetryBackoff) {
+        this.bulkRetryBackoff = bulkRetryBackoff == 0 ? 100 : bulkRetryBackoff;
+    }
 }
@@ -19,12 +19,10 @@
 package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
 
 import java.util.List;
-import org.apache.skywalking.oap.server.core.storage.IBatchDAO;
+import org.apache.skywalking.oap.server.core.storage.*;
 import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
 import org.apache.skywalking.oap.server.library.util.CollectionUtils;
-import org.elasticsearch.action.bulk.BulkProcessor;
-import org.elasticsearch.action.index.IndexRequest;
-import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.action.DocWriteRequest;
 import org.slf4j.*;
 
 /**
@@ -34,41 +32,39 @@ public class BatchProcessEsDAO extends EsDAO implements IBatchDAO {
 
     private static final Logger logger = LoggerFactory.getLogger(BatchProcessEsDAO.class);
 
-    private BulkProcessor bulkProcessor;
-    private final int bulkActions;
-    private final int bulkSize;
-    private final int flushInterval;
-    private final int concurrentRequests;
+    private final BulkWriter bulkWriter;
+    private final String indexPrefix;
 
-    public BatchProcessEsDAO(ElasticSearchClient client, int bulkActions, int bulkSize, int flushInterval,
-        int concurrentRequests) {
+    public BatchProcessEsDAO(ElasticSearchClient client, BulkWriter bulkWriter) {
         super(client);
-        this.bulkActions = bulkActions;
-        this.bulkSize = bulkSize;
-        this.flushInterval = flushInterval;
-        this.concurrentRequests = concurrentRequests;
+        this.bulkWriter = bulkWriter;
+        this.indexPrefix = client.formatIndexName("");
+        this.bulkWriter.setFailureListener(this::onFailure);
     }
 
     @Override public void batchPersistence(List<?> batchCollection) {
-        if (bulkProcessor == null) {
-            this.bulkProcessor = getClient().createBulkProcessor(bulkActions, bulkSize, flushInterval, concurrentRequests);
-        }
-
         if (logger.isDebugEnabled()) {
             logger.debug("bulk data size: {}", batchCollection.size());
         }
 
         if (CollectionUtils.isNotEmpty(batchCollection)) {
             batchCollection.forEach(builder -> {
-                if (builder instanceof IndexRequest) {
-                    this.bulkProcessor.add((IndexRequest)builder);
-                }
-                if (builder instanceof UpdateRequest) {
-                    this.bulkProcessor.add((UpdateRequest)builder);
+                if (builder instanceof DocWriteRequest) {
+                    this.bulkWriter.add((DocWriteRequest)builder);
                 }
             });
         }
 
-        this.bulkProcessor.flush();
+        this.bulkWriter.flush();
+    }
+
+    /**
+     * Report the dropped requests by the model name, which is the index name without the namespace.
+     */
+    private void onFailure(List<DocWriteRequest> requests) {
+        for (DocWriteRequest request : requests) {
+            String modelName = request.index().startsWith(indexPrefix) ? request.index().substring(indexPrefix.length()) : request.index();
+            PersistenceFailureNotifier.INSTANCE.failed(modelName, request.id());
+        }
     }
 }
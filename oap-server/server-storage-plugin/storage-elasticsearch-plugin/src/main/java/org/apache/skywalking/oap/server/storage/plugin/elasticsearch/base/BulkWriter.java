@@ -0,0 +1,372 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.*;
+import java.util.concurrent.*;
+import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
+import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
+import org.apache.skywalking.oap.server.telemetry.api.*;
+import org.elasticsearch.action.*;
+import org.elasticsearch.action.bulk.*;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.rest.RestStatus;
+import org.slf4j.*;
+
+/**
+ * Write the index and update requests into elasticsearch in bulks, asynchronously.
+ *
+ * The requests are collected into a bulk, which is sent when it reaches the bulk actions or the bulk size, in MB, or
+ * by {@link #flush()}. At most concurrentRequests bulks are in flight. {@link #add(DocWriteRequest)} and {@link
+ * #flush()} wait for a free one, so a slow storage pushes back on the persistence timer, rather than piling up the
+ * requests in memory.
+ *
+ * The items rejected by elasticsearch(429, the write queue is full), and the whole bulk failed by the connection, are
+ * sent again after an exponential backoff, capped at {@link #MAX_RETRY_BACKOFF_MILLIS}, until the retry timeout since
+ * the first sending is over, so an outage of the storage shorter than that loses nothing. A bulk waiting for a retry
+ * doesn't hold its in flight one, so the new bulks go on, and at most {@link #MAX_RETRY_BULKS} bulk actions of items
+ * wait. A waiting item is dropped without report once a newer request of the same index and id is added, as the newer
+ * one carries the latest value, and the stale one must not land after it. The other failed items, the ones over the
+ * waiting limit, and the ones still failed after the retry timeout, are dropped, counted, and reported to the {@link
+ * FailureListener}.
+ */
+public class BulkWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkWriter.class);
+
+    private static final long MAX_RETRY_BACKOFF_MILLIS = 10000;
+    private static final int MAX_RETRY_BULKS = 10;
+
+    private final ElasticSearchClient client;
+    private final int bulkActions;
+    private final long bulkBytes;
+    private final int flushInterval;
+    private final long retryTimeout;
+    private final long retryBackoff;
+    private final Semaphore inFlight;
+    private final ScheduledExecutorService retryExecutor;
+    private final int maxRetryActions;
+    private final ConcurrentHashMap<String, DocWriteRequest> retrying;
+    private BulkRequest bulkRequest;
+    private volatile FailureListener failureListener;
+
+    private CounterMetric writtenCounter;
+    private CounterMetric rejectedCounter;
+    private CounterMetric retriedCounter;
+    private CounterMetric failedCounter;
+    private HistogramMetric bulkLatency;
+
+    /**
+     * @param bulkSize in MB
+     * @param flushInterval in seconds
+     * @param retryTimeout in milliseconds, since the first sending of the bulk
+     * @param retryBackoff in milliseconds, doubled in each retry
+     */
+    public BulkWriter(ElasticSearchClient client, int bulkActions, int bulkSize, int flushInterval,
+        int concurrentRequests, long retryTimeout, int retryBackoff) {
+        this.client = client;
+        this.bulkActions = bulkActions;
+        this.bulkBytes = bulkSize * 1024L * 1024L;
+        this.flushInterval = flushInterval;
+        this.retryTimeout = retryTimeout;
+        this.retryBackoff = retryBackoff;
+        this.inFlight = new Semaphore(concurrentRequests);
+        this.retryExecutor = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("BulkWriter-retry-%d").setDaemon(true).build());
+        this.maxRetryActions = bulkActions * MAX_RETRY_BULKS;
+        this.retrying = new ConcurrentHashMap<>();
+        this.bulkRequest = new BulkRequest();
+    }
+
+    /**
+     * Create the metrics and start the flush timer, must be called before any request added.
+     */
+    public void start(MetricCreator metricCreator) {
+        writtenCounter = metricCreator.createCounter("elasticsearch_bulk_written_count", "The number of items written by the bulks",
+            MetricTag.EMPTY_KEY, MetricTag.EMPTY_VALUE);
+        rejectedCounter = metricCreator.createCounter("elasticsearch_bulk_rejected_count", "The number of items rejected by elasticsearch",
+            MetricTag.EMPTY_KEY, MetricTag.EMPTY_VALUE);
+        retriedCounter = metricCreator.createCounter("elasticsearch_bulk_retried_count", "The number of items sent again after a backoff",
+            MetricTag.EMPTY_KEY, MetricTag.EMPTY_VALUE);
+        failedCounter = metricCreator.createCounter("elasticsearch_bulk_failed_count", "The number of items dropped after failure",
+            MetricTag.EMPTY_KEY, MetricTag.EMPTY_VALUE);
+        bulkLatency = metricCreator.createHistogramMetric("elasticsearch_bulk_latency", "Latency of the bulk requests",
+            MetricTag.EMPTY_KEY, MetricTag.EMPTY_VALUE);
+
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("BulkWriter-flush-%d").setDaemon(true).build()).scheduleAtFixedRate(
+            new RunnableWithExceptionProtection(this::flush,
+                t -> logger.error("Flush the bulk failure.", t)), flushInterval, flushInterval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Set the listener notified of the dropped requests.
+     */
+    public void setFailureListener(FailureListener failureListener) {
+        this.failureListener = failureListener;
+    }
+
+    public void add(DocWriteRequest request) {
+        if (!retrying.isEmpty()) {
+            // Supersede the waiting retry of the same document. The update of a document whose insert is superseded
+            // has all the fields, it inserts the document if it doesn't exist.
+            DocWriteRequest superseded = retrying.remove(key(request));
+            if (superseded instanceof IndexRequest && request instanceof UpdateRequest) {
+                ((UpdateRequest)request).docAsUpsert(true);
+            }
+        }
+        BulkRequest fullRequest = null;
+        synchronized (this) {
+            bulkRequest.add(request);
+            if (bulkRequest.numberOfActions() >= bulkActions || bulkRequest.estimatedSizeInBytes() >= bulkBytes) {
+                fullRequest = bulkRequest;
+                bulkRequest = new BulkRequest();
+            }
+        }
+        if (fullRequest != null) {
+            send(fullRequest);
+        }
+    }
+
+    /**
+     * Send the collected requests, without waiting for the response.
+     */
+    public void flush() {
+        BulkRequest request;
+        synchronized (this) {
+            if (bulkRequest.numberOfActions() == 0) {
+                return;
+            }
+            request = bulkRequest;
+            bulkRequest = new BulkRequest();
+        }
+        send(request);
+    }
+
+    private void send(BulkRequest request) {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Interrupted when waiting for the in flight bulks, {} items dropped.", request.numberOfActions());
+            drop(request.requests());
+            return;
+        }
+        execute(request, 0, System.currentTimeMillis() + retryTimeout);
+    }
+
+    private void execute(BulkRequest request, int retries, long deadline) {
+        BulkListener listener = new BulkListener(request, retries, deadline);
+        try {
+            client.bulkAsync(request, listener);
+        } catch (Exception e) {
+            listener.onFailure(e);
+        }
+    }
+
+    /**
+     * Wait for the backoff, then send the requests again. The requests of the first retry start waiting, up to the
+     * limit, the ones of a later retry go on waiting unless superseded.
+     */
+    private void retry(List<DocWriteRequest> requests, int retries, long deadline) {
+        List<DocWriteRequest> waiting = new ArrayList<>(requests.size());
+        List<DocWriteRequest> overflow = null;
+        for (DocWriteRequest request : requests) {
+            if (retries > 0) {
+                if (isWaiting(request)) {
+                    waiting.add(request);
+                }
+            } else if (retrying.size() < maxRetryActions) {
+                retrying.put(key(request), request);
+                waiting.add(request);
+            } else {
+                if (overflow == null) {
+                    overflow = new ArrayList<>();
+                }
+                overflow.add(request);
+            }
+        }
+        if (overflow != null) {
+            logger.error("{} items waiting for retry, over the limit, {} items dropped.", retrying.size(), overflow.size());
+            drop(overflow);
+        }
+        if (waiting.isEmpty()) {
+            return;
+        }
+        retriedCounter.inc(waiting.size());
+        schedule(waiting, retries, deadline);
+    }
+
+    private void schedule(List<DocWriteRequest> requests, int retries, long deadline) {
+        long backoff = Math.min(retryBackoff << Math.min(retries, 20), MAX_RETRY_BACKOFF_MILLIS);
+        backoff = Math.max(0, Math.min(backoff, deadline - System.currentTimeMillis()));
+        retryExecutor.schedule(() -> resend(requests, retries + 1, deadline), backoff, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Send the waiting requests not superseded, if a bulk can be in flight now, or wait for another backoff.
+     */
+    private void resend(List<DocWriteRequest> requests, int retries, long deadline) {
+        List<DocWriteRequest> waiting = new ArrayList<>(requests.size());
+        for (DocWriteRequest request : requests) {
+            if (isWaiting(request)) {
+                waiting.add(request);
+            }
+        }
+        if (waiting.isEmpty()) {
+            return;
+        }
+        if (!inFlight.tryAcquire()) {
+            if (System.currentTimeMillis() < deadline) {
+                schedule(waiting, retries, deadline);
+            } else {
+                logger.error("{} items waiting for a free bulk after retrying for {} ms, dropped.", waiting.size(), retryTimeout);
+                drop(forget(waiting));
+            }
+            return;
+        }
+        BulkRequest request = new BulkRequest();
+        waiting.forEach(request::add);
+        execute(request, retries, deadline);
+    }
+
+    private boolean isWaiting(DocWriteRequest request) {
+        return retrying.get(key(request)) == request;
+    }
+
+    /**
+     * @return the requests which were waiting, the superseded ones excluded.
+     */
+    private List<DocWriteRequest> forget(List<DocWriteRequest> requests) {
+        List<DocWriteRequest> forgotten = new ArrayList<>(requests.size());
+        for (DocWriteRequest request : requests) {
+            if (retrying.remove(key(request), request)) {
+                forgotten.add(request);
+            }
+        }
+        return forgotten;
+    }
+
+    private static String key(DocWriteRequest request) {
+        return request.index() + "/" + request.id();
+    }
+
+    private void drop(List<DocWriteRequest> requests) {
+        if (requests.isEmpty()) {
+            return;
+        }
+        failedCounter.inc(requests.size());
+        FailureListener listener = failureListener;
+        if (listener != null) {
+            try {
+                listener.onFailure(requests);
+            } catch (Throwable t) {
+                logger.error(t.getMessage(), t);
+            }
+        }
+    }
+
+    public interface FailureListener {
+        /**
+         * Called in the IO threads of the client, should not block.
+         *
+         * @param requests dropped after failure, their index and id tell the data not written.
+         */
+        void onFailure(List<DocWriteRequest> requests);
+    }
+
+    private class BulkListener implements ActionListener<BulkResponse> {
+        private final BulkRequest request;
+        private final int retries;
+        private final long deadline;
+        private final long startNanos;
+
+        private BulkListener(BulkRequest request, int retries, long deadline) {
+            this.request = request;
+            this.retries = retries;
+            this.deadline = deadline;
+            this.startNanos = System.nanoTime();
+        }
+
+        private boolean canRetry() {
+            return System.currentTimeMillis() < deadline;
+        }
+
+        @Override public void onResponse(BulkResponse response) {
+            bulkLatency.observe((System.nanoTime() - startNanos) / 1.0E9D);
+
+            int written = 0;
+            int rejected = 0;
+            List<DocWriteRequest> failed = null;
+            List<DocWriteRequest> retryRequests = null;
+            for (BulkItemResponse item : response.getItems()) {
+                DocWriteRequest itemRequest = request.requests().get(item.getItemId());
+                if (!item.isFailed()) {
+                    written++;
+                    if (retries > 0) {
+                        retrying.remove(key(itemRequest), itemRequest);
+                    }
+                    continue;
+                }
+                if (RestStatus.TOO_MANY_REQUESTS.equals(item.status())) {
+                    rejected++;
+                    if (canRetry()) {
+                        if (retryRequests == null) {
+                            retryRequests = new ArrayList<>();
+                        }
+                        retryRequests.add(itemRequest);
+                        continue;
+                    }
+                }
+                if (failed == null) {
+                    logger.error("Bulk item failed, reason: {}", item.getFailureMessage());
+                    failed = new ArrayList<>();
+                }
+                failed.add(itemRequest);
+            }
+
+            writtenCounter.inc(written);
+            if (rejected > 0) {
+                rejectedCounter.inc(rejected);
+            }
+            if (failed != null) {
+                logger.error("{} of {} items failed in the bulk.", failed.size(), request.numberOfActions());
+                drop(retries > 0 ? forget(failed) : failed);
+            }
+
+            inFlight.release();
+            if (retryRequests != null) {
+                retry(retryRequests, retries, deadline);
+            }
+        }
+
+        @Override public void onFailure(Exception e) {
+            inFlight.release();
+            if (canRetry()) {
+                logger.warn("{} items bulk failed, retry it later, reason: {}", request.numberOfActions(), e.getMessage());
+                retry(request.requests(), retries, deadline);
+            } else {
+                logger.error("{} items bulk failed after retrying for {} ms, reason: {}", request.numberOfActions(), retryTimeout, e);
+                drop(retries > 0 ? forget(request.requests()) : request.requests());
+            }
+        }
+    }
+}
@@ -19,12 +19,17 @@
 package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
 
 import java.io.IOException;
-import java.util.Map;
+import java.util.*;
 import org.apache.skywalking.oap.server.core.register.RegisterSource;
 import org.apache.skywalking.oap.server.core.storage.*;
 import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
-import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.get.*;
+import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.common.xcontent.*;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.sort.SortOrder;
 import org.slf4j.*;
 
 /**
@@ -50,11 +55,52 @@ public class RegisterEsDAO extends EsDAO implements IRegisterDAO {
         }
     }
 
+    @Override public List<RegisterSource> multiGet(String modelName, List<String> ids) throws IOException {
+        List<RegisterSource> result = new ArrayList<>(ids.size());
+        if (ids.isEmpty()) {
+            return result;
+        }
+
+        MultiGetResponse response = getClient().multiGet(modelName, ids);
+        for (MultiGetItemResponse itemResponse : response.getResponses()) {
+            if (itemResponse.isFailed()) {
+                throw new IOException(itemResponse.getFailure().getMessage(), itemResponse.getFailure().getFailure());
+            }
+            if (itemResponse.getResponse().isExists()) {
+                result.add(storageBuilder.map2Data(itemResponse.getResponse().getSource()));
+            }
+        }
+        return result;
+    }
+
+    @Override public List<RegisterSource> loadAfter(String modelName, int sequence, int size) throws IOException {
+        SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
+        searchSourceBuilder.query(QueryBuilders.rangeQuery(RegisterSource.SEQUENCE).gt(sequence));
+        searchSourceBuilder.sort(RegisterSource.SEQUENCE, SortOrder.ASC);
+        searchSourceBuilder.size(size);
+
+        SearchResponse response = getClient().search(modelName, searchSourceBuilder);
+
+        List<RegisterSource> result = new ArrayList<>(response.getHits().getHits().length);
+        for (SearchHit searchHit : response.getHits().getHits()) {
+            result.add(storageBuilder.map2Data(searchHit.getSourceAsMap()));
+        }
+        return result;
+    }
+
     @Override public void forceInsert(String modelName, RegisterSource source) throws IOException {
         XContentBuilder builder = build(source);
         getClient().forceInsert(modelName, source.id(), builder);
     }
 
+    @Override public void forceBatchInsert(String modelName, List<RegisterSource> sources) throws IOException {
+        Map<String, XContentBuilder> builders = new LinkedHashMap<>();
+        for (RegisterSource source : sources) {
+            builders.put(source.id(), build(source));
+        }
+        getClient().forceInsert(modelName, builders);
+    }
+
     @Override public void forceUpdate(String modelName, RegisterSource source) throws IOException {
         XContentBuilder builder = build(source);
         getClient().forceUpdate(modelName, source.id(), builder);
@@ -42,6 +42,10 @@ public class RegisterLockDAOImpl extends EsDAO implements IRegisterLockDAO {
     }
 
     @Override public int getId(Scope scope, RegisterSource registerSource) {
+        return getIds(scope, 1);
+    }
+
+    @Override public int getIds(Scope scope, int size) {
         String id = String.valueOf(scope.ordinal());
 
         int sequence = Const.NONE;
@@ -50,12 +54,11 @@ public class RegisterLockDAOImpl extends EsDAO implements IRegisterLockDAO {
             if (response.isExists()) {
                 Map<String, Object> source = response.getSource();
 
-                sequence = ((Number)source.get(RegisterLockIndex.COLUMN_SEQUENCE)).intValue();
+                int last = ((Number)source.get(RegisterLockIndex.COLUMN_SEQUENCE)).intValue();
                 long version = response.getVersion();
 
-                sequence++;
-
-                lock(id, sequence, version);
+                lock(id, last + size, version);
+                sequence = last + 1;
             }
         } catch (Throwable t) {
             logger.warn("Try to lock the row with the id {} failure, error message: {}", id, t.getMessage());
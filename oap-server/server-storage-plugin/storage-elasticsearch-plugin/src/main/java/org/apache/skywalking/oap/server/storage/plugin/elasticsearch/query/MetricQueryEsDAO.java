@@ -140,17 +140,11 @@ public class MetricQueryEsDAO extends EsDAO implements IMetricQueryDAO {
                 thermodynamic.setAxisYStep(axisYStep);
                 numOfSteps = ((Number)source.get(ThermodynamicIndicator.NUM_OF_STEPS)).intValue() + 1;
 
-                String value = (String)source.get(ThermodynamicIndicator.DETAIL_GROUP);
-                IntKeyLongValueArray intKeyLongValues = new IntKeyLongValueArray(5);
-                intKeyLongValues.toObject(value);
+                DenseHistogram histogram = new DenseHistogram((String)source.get(ThermodynamicIndicator.DETAIL_GROUP));
 
-                List<Long> axisYValues = new ArrayList<>();
+                List<Long> axisYValues = new ArrayList<>(numOfSteps);
                 for (int i = 0; i < numOfSteps; i++) {
-                    axisYValues.add(0L);
-                }
-
-                for (IntKeyLongValue intKeyLongValue : intKeyLongValues) {
-                    axisYValues.set(intKeyLongValue.getKey(), intKeyLongValue.getValue());
+                    axisYValues.add(histogram.get(i));
                 }
 
                 thermodynamicValueMatrix.add(axisYValues);
@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
+import org.apache.skywalking.oap.server.telemetry.api.*;
+import org.elasticsearch.action.*;
+import org.elasticsearch.action.bulk.*;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.rest.RestStatus;
+import org.junit.*;
+
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public class BulkWriterTestCase {
+
+    private ElasticSearchClient client;
+    private CounterMetric writtenCounter;
+    private CounterMetric rejectedCounter;
+    private CounterMetric retriedCounter;
+    private CounterMetric failedCounter;
+    private MetricCreator metricCreator;
+
+    @Before
+    public void init() {
+        client = mock(ElasticSearchClient.class);
+        writtenCounter = mock(CounterMetric.class);
+        rejectedCounter = mock(CounterMetric.class);
+        retriedCounter = mock(CounterMetric.class);
+        failedCounter = mock(CounterMetric.class);
+        metricCreator = mock(MetricCreator.class);
+        when(metricCreator.createCounter(eq("elasticsearch_bulk_written_count"), anyString(), any(), any())).thenReturn(writtenCounter);
+        when(metricCreator.createCounter(eq("elasticsearch_bulk_rejected_count"), anyString(), any(), any())).thenReturn(rejectedCounter);
+        when(metricCreator.createCounter(eq("elasticsearch_bulk_retried_count"), anyString(), any(), any())).thenReturn(retriedCounter);
+        when(metricCreator.createCounter(eq("elasticsearch_bulk_failed_count"), anyString(), any(), any())).thenReturn(failedCounter);
+        when(metricCreator.createHistogramMetric(anyString(), anyString(), any(), any())).thenReturn(mock(HistogramMetric.class));
+    }
+
+    @Test
+    public void testRetryRejectedItems() {
+        List<BulkRequest> requests = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+            BulkRequest request = (BulkRequest)invocation.getArguments()[0];
+            ActionListener<BulkResponse> listener = (ActionListener<BulkResponse>)invocation.getArguments()[1];
+            requests.add(request);
+            BulkItemResponse[] items = new BulkItemResponse[request.numberOfActions()];
+            for (int i = 0; i < items.length; i++) {
+                items[i] = requests.size() == 1 && i == 1 ? rejected(i) : written(i);
+            }
+            listener.onResponse(new BulkResponse(items, 1));
+            return null;
+        }).when(client).bulkAsync(any(BulkRequest.class), any());
+
+        BulkWriter writer = new BulkWriter(client, 2000, 20, 3600, 1, 10000, 1);
+        writer.start(metricCreator);
+        IndexRequest first = new IndexRequest("index", "type", "1");
+        IndexRequest second = new IndexRequest("index", "type", "2");
+        writer.add(first);
+        writer.add(second);
+        writer.flush();
+
+        verify(client, timeout(1000).times(2)).bulkAsync(any(BulkRequest.class), any());
+        Assert.assertEquals(1, requests.get(1).numberOfActions());
+        Assert.assertSame(second, requests.get(1).requests().get(0));
+
+        verify(writtenCounter, timeout(1000).times(2)).inc(1);
+        verify(rejectedCounter).inc(1);
+        verify(retriedCounter).inc(1);
+        verify(failedCounter, never()).inc(anyDouble());
+    }
+
+    @Test
+    public void testRideOutOutage() {
+        AtomicInteger attempts = new AtomicInteger();
+        doAnswer(invocation -> {
+            BulkRequest request = (BulkRequest)invocation.getArguments()[0];
+            ActionListener<BulkResponse> listener = (ActionListener<BulkResponse>)invocation.getArguments()[1];
+            if (attempts.incrementAndGet() <= 6) {
+                listener.onFailure(new RuntimeException("connection refused"));
+            } else {
+                listener.onResponse(new BulkResponse(new BulkItemResponse[] {written(0)}, 1));
+            }
+            return null;
+        }).when(client).bulkAsync(any(BulkRequest.class), any());
+
+        BulkWriter writer = new BulkWriter(client, 1, 20, 3600, 1, 10000, 1);
+        writer.start(metricCreator);
+        writer.add(new IndexRequest("index", "type", "1"));
+
+        verify(writtenCounter, timeout(2000)).inc(1);
+        verify(client, times(7)).bulkAsync(any(BulkRequest.class), any());
+        verify(retriedCounter, times(6)).inc(1);
+        verify(failedCounter, never()).inc(anyDouble());
+    }
+
+    @Test
+    public void testDropAfterRetryTimeout() {
+        doAnswer(invocation -> {
+            ActionListener<BulkResponse> listener = (ActionListener<BulkResponse>)invocation.getArguments()[1];
+            listener.onFailure(new RuntimeException("connection refused"));
+            return null;
+        }).when(client).bulkAsync(any(BulkRequest.class), any());
+
+        List<DocWriteRequest> dropped = Collections.synchronizedList(new ArrayList<>());
+        BulkWriter writer = new BulkWriter(client, 1, 20, 3600, 1, 100, 1);
+        writer.start(metricCreator);
+        writer.setFailureListener(dropped::addAll);
+        IndexRequest first = new IndexRequest("index", "type", "1");
+        writer.add(first);
+
+        verify(failedCounter, timeout(2000)).inc(1);
+        Assert.assertEquals(1, dropped.size());
+        Assert.assertSame(first, dropped.get(0));
+
+        // The only in flight bulk is released after the failure.
+        writer.add(new IndexRequest("index", "type", "2"));
+        verify(failedCounter, timeout(2000).times(2)).inc(1);
+        Assert.assertEquals("2", dropped.get(1).id());
+    }
+
+    @Test
+    public void testNotBlockedByWaitingRetry() {
+        List<BulkRequest> requests = failFirstBulk();
+
+        BulkWriter writer = new BulkWriter(client, 1, 20, 3600, 1, 10000, 500);
+        writer.start(metricCreator);
+        writer.add(new IndexRequest("index", "type", "1"));
+        verify(retriedCounter, timeout(1000)).inc(1);
+
+        // The only in flight bulk is free while the failed one waits for the backoff.
+        writer.add(new IndexRequest("index", "type", "2"));
+        verify(writtenCounter, timeout(400)).inc(1);
+        Assert.assertEquals("2", requests.get(1).requests().get(0).id());
+
+        verify(writtenCounter, timeout(2000).times(2)).inc(1);
+        Assert.assertEquals("1", requests.get(2).requests().get(0).id());
+        verify(failedCounter, never()).inc(anyDouble());
+    }
+
+    @Test
+    public void testSupersedeWaitingRetry() throws InterruptedException {
+        List<BulkRequest> requests = failFirstBulk();
+
+        BulkWriter writer = new BulkWriter(client, 1, 20, 3600, 1, 10000, 200);
+        writer.start(metricCreator);
+        writer.add(new IndexRequest("index", "type", "1"));
+        verify(retriedCounter, timeout(1000)).inc(1);
+
+        UpdateRequest newer = new UpdateRequest("index", "type", "1");
+        writer.add(newer);
+        verify(writtenCounter, timeout(1000)).inc(1);
+
+        // The stale insert is not sent after the newer update, which inserts the document instead.
+        Thread.sleep(600);
+        Assert.assertEquals(2, requests.size());
+        Assert.assertSame(newer, requests.get(1).requests().get(0));
+        Assert.assertTrue(newer.docAsUpsert());
+        verify(failedCounter, never()).inc(anyDouble());
+    }
+
+    private List<BulkRequest> failFirstBulk() {
+        List<BulkRequest> requests = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+            BulkRequest request = (BulkRequest)invocation.getArguments()[0];
+            ActionListener<BulkResponse> listener = (ActionListener<BulkResponse>)invocation.getArguments()[1];
+            requests.add(request);
+            if (requests.size() == 1) {
+                listener.onFailure(new RuntimeException("connection refused"));
+            } else {
+                listener.onResponse(new BulkResponse(new BulkItemResponse[] {written(0)}, 1));
+            }
+            return null;
+        }).when(client).bulkAsync(any(BulkRequest.class), any());
+        return requests;
+    }
+
+    private BulkItemResponse written(int itemId) {
+        BulkItemResponse item = mock(BulkItemResponse.class);
+        when(item.getItemId()).thenReturn(itemId);
+        when(item.isFailed()).thenReturn(false);
+        return item;
+    }
+
+    private BulkItemResponse rejected(int itemId) {
+        BulkItemResponse.Failure failure = new BulkItemResponse.Failure("index", "type", String.valueOf(itemId),
+            new RuntimeException("rejected execution"), RestStatus.TOO_MANY_REQUESTS);
+        return new BulkItemResponse(itemId, DocWriteRequest.OpType.INDEX, failure);
+    }
+}
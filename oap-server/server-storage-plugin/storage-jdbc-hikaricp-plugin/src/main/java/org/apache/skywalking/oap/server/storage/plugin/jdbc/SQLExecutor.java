@@ -35,13 +35,36 @@ public class SQLExecutor {
 
     private String sql;
     private List<Object> param;
+    private String modelName;
+    private String id;
 
     public SQLExecutor(String sql, List<Object> param) {
         this.sql = sql;
         this.param = param;
     }
 
-    public void invoke(Connection connection) throws SQLException {
+    /**
+     * @param modelName of the data written by this executor
+     * @param id of the data written by this executor
+     */
+    public SQLExecutor(String sql, List<Object> param, String modelName, String id) {
+        this(sql, param);
+        this.modelName = modelName;
+        this.id = id;
+    }
+
+    public String getModelName() {
+        return modelName;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return the number of the rows updated
+     */
+    public int invoke(Connection connection) throws SQLException {
         PreparedStatement preparedStatement = connection.prepareStatement(sql);
 
         for (int i = 0; i < param.size(); i++) {
@@ -50,5 +73,6 @@ public class SQLExecutor {
 
         logger.debug("execute aql in batch: {}", sql);
         preparedStatement.execute();
+        return preparedStatement.getUpdateCount();
     }
 }
@@ -21,7 +21,7 @@ package org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
-import org.apache.skywalking.oap.server.core.storage.IBatchDAO;
+import org.apache.skywalking.oap.server.core.storage.*;
 import org.apache.skywalking.oap.server.library.client.jdbc.JDBCClientException;
 import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLExecutor;
@@ -49,15 +49,44 @@ public class H2BatchDAO implements IBatchDAO {
             logger.debug("batch sql statements execute, data size: {}", batchCollection.size());
         }
 
+        // The executors before it have been executed, with their failures reported.
+        int executed = 0;
         try (Connection connection = h2Client.getConnection()) {
             for (Object exe : batchCollection) {
                 SQLExecutor sqlExecutor = (SQLExecutor)exe;
-                sqlExecutor.invoke(connection);
+                try {
+                    if (sqlExecutor.invoke(connection) == 0) {
+                        logger.warn("No row updated, id: {}, model: {}", sqlExecutor.getId(), sqlExecutor.getModelName());
+                        failed(sqlExecutor);
+                    }
+                } catch (SQLException e) {
+                    logger.error(e.getMessage(), e);
+                    failed(sqlExecutor);
+                }
+                executed++;
             }
         } catch (SQLException e) {
             logger.error(e.getMessage(), e);
+            failed(batchCollection, executed);
         } catch (JDBCClientException e) {
             logger.error(e.getMessage(), e);
+            failed(batchCollection, executed);
+        }
+    }
+
+    /**
+     * Report the executors not executed, from the given index.
+     */
+    private void failed(List<?> batchCollection, int from) {
+        batchCollection.subList(from, batchCollection.size()).forEach(exe -> failed((SQLExecutor)exe));
+    }
+
+    /**
+     * Report the data not written, so the cached persisted value of it is not trusted anymore.
+     */
+    private void failed(SQLExecutor sqlExecutor) {
+        if (sqlExecutor.getModelName() != null) {
+            PersistenceFailureNotifier.INSTANCE.failed(sqlExecutor.getModelName(), sqlExecutor.getId());
         }
     }
 }
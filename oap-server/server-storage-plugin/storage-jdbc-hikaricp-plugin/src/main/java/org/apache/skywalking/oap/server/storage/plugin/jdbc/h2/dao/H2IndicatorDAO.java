@@ -19,9 +19,11 @@
 package org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao;
 
 import java.io.IOException;
+import java.util.*;
 import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
 import org.apache.skywalking.oap.server.core.storage.IIndicatorDAO;
 import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
+import org.apache.skywalking.oap.server.core.storage.StorageData;
 import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLExecutor;
 
@@ -41,6 +43,19 @@ public class H2IndicatorDAO extends H2SQLExecutor implements IIndicatorDAO<SQLEx
         return (Indicator)getByID(h2Client, modelName, indicator.id(), storageBuilder);
     }
 
+    @Override public List<Indicator> multiGet(String modelName, List<Indicator> indicators) throws IOException {
+        String[] ids = new String[indicators.size()];
+        for (int i = 0; i < indicators.size(); i++) {
+            ids[i] = indicators.get(i).id();
+        }
+
+        List<Indicator> result = new ArrayList<>(ids.length);
+        for (StorageData storageData : getByIDs(h2Client, modelName, ids, storageBuilder)) {
+            result.add((Indicator)storageData);
+        }
+        return result;
+    }
+
     @Override public SQLExecutor prepareBatchInsert(String modelName, Indicator indicator) throws IOException {
         return getInsertExecutor(modelName, indicator, storageBuilder);
     }
@@ -26,9 +26,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import org.apache.skywalking.oap.server.core.analysis.indicator.DenseHistogram;
 import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
-import org.apache.skywalking.oap.server.core.analysis.indicator.IntKeyLongValue;
-import org.apache.skywalking.oap.server.core.analysis.indicator.IntKeyLongValueArray;
 import org.apache.skywalking.oap.server.core.analysis.indicator.ThermodynamicIndicator;
 import org.apache.skywalking.oap.server.core.query.entity.IntValues;
 import org.apache.skywalking.oap.server.core.query.entity.KVInt;
@@ -190,17 +189,11 @@ public class H2MetricQueryDAO extends H2SQLExecutor implements IMetricQueryDAO {
                     axisYStep = resultSet.getInt("step");
                     String id = resultSet.getString("id");
                     numOfSteps = resultSet.getInt("num_of_steps") + 1;
-                    String value = resultSet.getString("detail_group");
-                    IntKeyLongValueArray intKeyLongValues = new IntKeyLongValueArray(5);
-                    intKeyLongValues.toObject(value);
+                    DenseHistogram histogram = new DenseHistogram(resultSet.getString("detail_group"));
 
-                    List<Long> axisYValues = new ArrayList<>();
+                    List<Long> axisYValues = new ArrayList<>(numOfSteps);
                     for (int i = 0; i < numOfSteps; i++) {
-                        axisYValues.add(0L);
-                    }
-
-                    for (IntKeyLongValue intKeyLongValue : intKeyLongValues) {
-                        axisYValues.set(intKeyLongValue.getKey(), intKeyLongValue.getValue());
+                        axisYValues.add(histogram.get(i));
                     }
 
                     thermodynamicValueMatrix.put(id, axisYValues);
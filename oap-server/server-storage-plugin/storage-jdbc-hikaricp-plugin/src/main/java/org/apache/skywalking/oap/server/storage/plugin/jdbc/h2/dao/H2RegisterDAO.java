@@ -20,6 +20,7 @@ package org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao;
 
 import java.io.IOException;
 import java.sql.*;
+import java.util.*;
 import org.apache.skywalking.oap.server.core.register.RegisterSource;
 import org.apache.skywalking.oap.server.core.storage.*;
 import org.apache.skywalking.oap.server.library.client.jdbc.JDBCClientException;
@@ -45,6 +46,30 @@ public class H2RegisterDAO extends H2SQLExecutor implements IRegisterDAO {
         return (RegisterSource)getByID(h2Client, modelName, id, storageBuilder);
     }
 
+    @Override public List<RegisterSource> multiGet(String modelName, List<String> ids) throws IOException {
+        List<RegisterSource> result = new ArrayList<>(ids.size());
+        for (StorageData storageData : getByIDs(h2Client, modelName, ids.toArray(new String[0]), storageBuilder)) {
+            result.add((RegisterSource)storageData);
+        }
+        return result;
+    }
+
+    @Override public List<RegisterSource> loadAfter(String modelName, int sequence, int size) throws IOException {
+        List<RegisterSource> result = new ArrayList<>();
+        String sql = "SELECT * FROM " + modelName + " WHERE " + RegisterSource.SEQUENCE + " > ? ORDER BY " + RegisterSource.SEQUENCE + " LIMIT " + size;
+        try (Connection connection = h2Client.getConnection()) {
+            try (ResultSet rs = h2Client.executeQuery(connection, sql, sequence)) {
+                StorageData storageData;
+                while ((storageData = toStorageData(rs, modelName, storageBuilder)) != null) {
+                    result.add((RegisterSource)storageData);
+                }
+            }
+        } catch (SQLException | JDBCClientException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        return result;
+    }
+
     @Override public void forceInsert(String modelName, RegisterSource source) throws IOException {
         try (Connection connection = h2Client.getConnection()) {
             getInsertExecutor(modelName, source, storageBuilder).invoke(connection);
@@ -53,6 +78,22 @@ public class H2RegisterDAO extends H2SQLExecutor implements IRegisterDAO {
         }
     }
 
+    @Override public void forceBatchInsert(String modelName, List<RegisterSource> sources) throws IOException {
+        try (Connection connection = h2Client.getTransactionConnection()) {
+            try {
+                for (RegisterSource source : sources) {
+                    getInsertExecutor(modelName, source, storageBuilder).invoke(connection);
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException | JDBCClientException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
     @Override public void forceUpdate(String modelName, RegisterSource source) throws IOException {
         try (Connection connection = h2Client.getConnection()) {
             getUpdateExecutor(modelName, source, storageBuilder).invoke(connection);
@@ -43,14 +43,17 @@ public class H2RegisterLockDAO implements IRegisterLockDAO {
     }
 
     @Override public int getId(Scope scope, RegisterSource registerSource) {
+        return getIds(scope, 1);
+    }
+
+    @Override public int getIds(Scope scope, int size) {
         try (Connection connection = h2Client.getTransactionConnection()) {
             ResultSet resultSet = h2Client.executeQuery(connection, "select sequence from " + H2RegisterLockInstaller.LOCK_TABLE_NAME + " where id = " + scope.ordinal() + " for update");
             while (resultSet.next()) {
-                int sequence = resultSet.getInt("sequence");
-                sequence++;
-                h2Client.execute(connection, "update " + H2RegisterLockInstaller.LOCK_TABLE_NAME + " set sequence = " + sequence + " where id = " + scope.ordinal());
+                int last = resultSet.getInt("sequence");
+                h2Client.execute(connection, "update " + H2RegisterLockInstaller.LOCK_TABLE_NAME + " set sequence = " + (last + size) + " where id = " + scope.ordinal());
                 connection.commit();
-                return sequence;
+                return last + 1;
             }
         } catch (JDBCClientException | SQLException e) {
             logger.error("try inventory register lock for scope id={} name={} failure.", scope.ordinal(), scope.name());
@@ -59,6 +59,34 @@ public class H2SQLExecutor {
         }
     }
 
+    protected List<StorageData> getByIDs(JDBCHikariCPClient h2Client, String modelName, String[] ids,
+        StorageBuilder storageBuilder) throws IOException {
+        List<StorageData> storageDataList = new ArrayList<>();
+        if (ids.length == 0) {
+            return storageDataList;
+        }
+
+        SQLBuilder sql = new SQLBuilder("SELECT * FROM " + modelName + " WHERE id in (");
+        for (int i = 0; i < ids.length; i++) {
+            sql.append(i == 0 ? "?" : ",?");
+        }
+        sql.append(")");
+
+        try (Connection connection = h2Client.getConnection()) {
+            try (ResultSet rs = h2Client.executeQuery(connection, sql.toString(), (Object[])ids)) {
+                StorageData storageData;
+                while ((storageData = toStorageData(rs, modelName, storageBuilder)) != null) {
+                    storageDataList.add(storageData);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        } catch (JDBCClientException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        return storageDataList;
+    }
+
     protected StorageData getByColumn(JDBCHikariCPClient h2Client, String modelName, String columnName, Object value,
         StorageBuilder storageBuilder) throws IOException {
         try (Connection connection = h2Client.getConnection()) {
@@ -125,7 +153,7 @@ public class H2SQLExecutor {
         }
         sqlBuilder.append(")");
 
-        return new SQLExecutor(sqlBuilder.toString(), param);
+        return new SQLExecutor(sqlBuilder.toString(), param, modelName, indicator.id());
     }
 
     protected SQLExecutor getUpdateExecutor(String modelName, StorageData indicator,
@@ -152,6 +180,6 @@ public class H2SQLExecutor {
         sqlBuilder.append(" WHERE id = ?");
         param.add(indicator.id());
 
-        return new SQLExecutor(sqlBuilder.toString(), param);
+        return new SQLExecutor(sqlBuilder.toString(), param, modelName, indicator.id());
     }
 }
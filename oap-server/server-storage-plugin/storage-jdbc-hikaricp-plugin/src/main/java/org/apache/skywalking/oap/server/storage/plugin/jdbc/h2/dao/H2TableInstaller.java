@@ -21,7 +21,9 @@ package org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import org.apache.skywalking.oap.server.core.analysis.indicator.DenseHistogram;
 import org.apache.skywalking.oap.server.core.analysis.indicator.IntKeyLongValueArray;
+import org.apache.skywalking.oap.server.core.analysis.indicator.PercentileSketch;
 import org.apache.skywalking.oap.server.core.storage.StorageException;
 import org.apache.skywalking.oap.server.core.storage.model.ColumnName;
 import org.apache.skywalking.oap.server.core.storage.model.Model;
@@ -104,6 +106,8 @@ public class H2TableInstaller extends ModelInstaller {
             return "VARCHAR(2000)";
         } else if (IntKeyLongValueArray.class.equals(type)) {
             return "VARCHAR(20000)";
+        } else if (PercentileSketch.class.equals(type) || DenseHistogram.class.equals(type)) {
+            return "VARCHAR(20000)";
         } else if (byte[].class.equals(type)) {
             return "VARCHAR(20000)";
         } else {
@@ -20,7 +20,9 @@ package org.apache.skywalking.oap.server.storage.plugin.jdbc.mysql;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import org.apache.skywalking.oap.server.core.analysis.indicator.DenseHistogram;
 import org.apache.skywalking.oap.server.core.analysis.indicator.IntKeyLongValueArray;
+import org.apache.skywalking.oap.server.core.analysis.indicator.PercentileSketch;
 import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
 import org.apache.skywalking.oap.server.core.register.RegisterSource;
 import org.apache.skywalking.oap.server.core.source.Scope;
@@ -84,6 +86,8 @@ public class MySQLTableInstaller extends H2TableInstaller {
             return "VARCHAR(2000)";
         } else if (IntKeyLongValueArray.class.equals(type)) {
             return "MEDIUMTEXT";
+        } else if (PercentileSketch.class.equals(type) || DenseHistogram.class.equals(type)) {
+            return "MEDIUMTEXT";
         } else if (byte[].class.equals(type)) {
             return "MEDIUMTEXT";
         } else {
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao;
+
+import java.sql.*;
+import java.util.*;
+import org.apache.skywalking.oap.server.core.storage.PersistenceFailureNotifier;
+import org.apache.skywalking.oap.server.library.client.jdbc.JDBCClientException;
+import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLExecutor;
+import org.junit.*;
+
+import static org.mockito.Mockito.*;
+
+public class H2BatchDAOTestCase {
+
+    @Test
+    public void testReportNotExecutedOnly() throws SQLException, JDBCClientException {
+        List<String> failedIds = new ArrayList<>();
+        PersistenceFailureNotifier.INSTANCE.addListener("h2_batch_test", failedIds::add);
+
+        Connection connection = mock(Connection.class);
+        JDBCHikariCPClient h2Client = mock(JDBCHikariCPClient.class);
+        when(h2Client.getConnection()).thenReturn(connection);
+        SQLExecutor written = executor("written");
+        when(written.invoke(connection)).thenReturn(1);
+        SQLExecutor notUpdated = executor("not-updated");
+        when(notUpdated.invoke(connection)).thenReturn(0);
+        SQLExecutor broken = executor("broken");
+        when(broken.invoke(connection)).thenThrow(new SQLException("Connection is broken"));
+        SQLExecutor notExecuted = executor("not-executed");
+        H2BatchDAO batchDAO = new H2BatchDAO(h2Client);
+
+        batchDAO.batchPersistence(new LinkedList<>(Arrays.asList(written, notUpdated, broken)));
+        Assert.assertEquals(Arrays.asList("not-updated", "broken"), failedIds);
+
+        failedIds.clear();
+        doThrow(new SQLException("Close failure")).when(connection).close();
+        batchDAO.batchPersistence(new LinkedList<>(Arrays.asList(written, notUpdated)));
+        // Executed before the close failure.
+        Assert.assertEquals(Collections.singletonList("not-updated"), failedIds);
+
+        failedIds.clear();
+        when(h2Client.getConnection()).thenThrow(new JDBCClientException("No connection"));
+        batchDAO.batchPersistence(new LinkedList<>(Arrays.asList(written, notExecuted)));
+        Assert.assertEquals(Arrays.asList("written", "not-executed"), failedIds);
+    }
+
+    private SQLExecutor executor(String id) {
+        SQLExecutor executor = mock(SQLExecutor.class);
+        when(executor.getModelName()).thenReturn("h2_batch_test");
+        when(executor.getId()).thenReturn(id);
+        return executor;
+    }
+}